@@ -5,54 +5,86 @@
  */
 package io.debezium.connector.db2as400;
 
+import java.util.List;
+import java.util.Optional;
+
+import io.debezium.connector.base.ChangeEventQueueMetrics;
+import io.debezium.connector.db2as400.metrics.As400StreamingChangeEventSourceMetrics;
 import io.debezium.jdbc.MainConnectionProvidingConnectionFactory;
 import io.debezium.pipeline.ErrorHandler;
-import io.debezium.pipeline.EventDispatcher;
 import io.debezium.pipeline.notification.NotificationService;
+import io.debezium.pipeline.source.snapshot.incremental.IncrementalSnapshotChangeEventSource;
+import io.debezium.pipeline.source.snapshot.incremental.SignalBasedIncrementalSnapshotChangeEventSource;
 import io.debezium.pipeline.source.spi.ChangeEventSourceFactory;
+import io.debezium.pipeline.source.spi.DataChangeEventListener;
 import io.debezium.pipeline.source.spi.SnapshotChangeEventSource;
 import io.debezium.pipeline.source.spi.SnapshotProgressListener;
 import io.debezium.pipeline.source.spi.StreamingChangeEventSource;
-import io.debezium.relational.TableId;
+import io.debezium.spi.schema.DataCollectionId;
 import io.debezium.util.Clock;
+import io.debezium.util.Strings;
 
 public class As400ChangeEventSourceFactory implements ChangeEventSourceFactory<As400Partition, As400OffsetContext> {
 
     private final As400ConnectorConfig configuration;
     private final As400ConnectorConfig snapshotConfig;
-    private final As400RpcConnection rpcConnection;
+    private final List<As400RpcConnection> rpcConnections;
     private final MainConnectionProvidingConnectionFactory<As400JdbcConnection> jdbcConnectionFactory;
     private final ErrorHandler errorHandler;
-    private final EventDispatcher<As400Partition, TableId> dispatcher;
+    private final As400EventDispatcher dispatcher;
     private final Clock clock;
     private final As400DatabaseSchema schema;
+    private final As400StreamingChangeEventSourceMetrics streamingMetrics;
+    private final ChangeEventQueueMetrics queue;
 
     public As400ChangeEventSourceFactory(As400ConnectorConfig configuration, As400ConnectorConfig snapshotConfig,
-            As400RpcConnection rpcConnection,
+            List<As400RpcConnection> rpcConnections,
             MainConnectionProvidingConnectionFactory<As400JdbcConnection> jdbcConnectionFactory,
-            ErrorHandler errorHandler, EventDispatcher<As400Partition, TableId> dispatcher, Clock clock,
-            As400DatabaseSchema schema) {
+            ErrorHandler errorHandler, As400EventDispatcher dispatcher, Clock clock,
+            As400DatabaseSchema schema, As400StreamingChangeEventSourceMetrics streamingMetrics,
+            ChangeEventQueueMetrics queue) {
         this.configuration = configuration;
-        this.rpcConnection = rpcConnection;
+        this.rpcConnections = rpcConnections;
         this.jdbcConnectionFactory = jdbcConnectionFactory;
         this.errorHandler = errorHandler;
         this.dispatcher = dispatcher;
         this.clock = clock;
         this.schema = schema;
         this.snapshotConfig = snapshotConfig;
+        this.streamingMetrics = streamingMetrics;
+        this.queue = queue;
     }
 
     @Override
     public SnapshotChangeEventSource<As400Partition, As400OffsetContext> getSnapshotChangeEventSource(
             SnapshotProgressListener<As400Partition> snapshotProgressListener,
             NotificationService<As400Partition, As400OffsetContext> notificationService) {
-        return new As400SnapshotChangeEventSource(snapshotConfig, rpcConnection, jdbcConnectionFactory, schema,
+        return new As400SnapshotChangeEventSource(snapshotConfig, rpcConnections, jdbcConnectionFactory, schema,
                 dispatcher, clock, snapshotProgressListener, notificationService);
     }
 
     @Override
     public StreamingChangeEventSource<As400Partition, As400OffsetContext> getStreamingChangeEventSource() {
-        return new As400StreamingChangeEventSource(configuration, rpcConnection, jdbcConnectionFactory.mainConnection(),
-                dispatcher, errorHandler, clock, schema);
+        return new As400StreamingChangeEventSource(configuration, rpcConnections, jdbcConnectionFactory.mainConnection(),
+                dispatcher, errorHandler, clock, schema, streamingMetrics, queue);
+    }
+
+    /**
+     * incremental snapshots read the tables in primary key chunks between
+     * watermarks written to the signal table, so the signal table has to be
+     * journaled with the captured tables
+     */
+    @Override
+    public Optional<IncrementalSnapshotChangeEventSource<As400Partition, ? extends DataCollectionId>> getIncrementalSnapshotChangeEventSource(
+            As400OffsetContext offsetContext, SnapshotProgressListener<As400Partition> snapshotProgressListener,
+            DataChangeEventListener<As400Partition> dataChangeEventListener,
+            NotificationService<As400Partition, As400OffsetContext> notificationService) {
+        // the watermarks need a signal table
+        if (Strings.isNullOrEmpty(configuration.getSignalingDataCollectionId())) {
+            return Optional.empty();
+        }
+        return Optional.of(new SignalBasedIncrementalSnapshotChangeEventSource<>(configuration,
+                jdbcConnectionFactory.mainConnection(), dispatcher, schema, clock, snapshotProgressListener,
+                dataChangeEventListener, notificationService));
     }
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.DebeziumException;
+import io.debezium.connector.SnapshotRecord;
+import io.debezium.connector.db2as400.As400SnapshotChunks.Chunk;
+import io.debezium.data.Envelope.Operation;
+import io.debezium.pipeline.EventDispatcher.SnapshotReceiver;
+import io.debezium.pipeline.source.spi.ChangeEventSource.ChangeEventSourceContext;
+import io.debezium.relational.Column;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.spi.schema.DataCollectionId;
+import io.debezium.util.Clock;
+import io.debezium.util.ColumnUtils;
+import io.debezium.util.ColumnUtils.ColumnArray;
+
+/**
+ * reads the large tables of the initial snapshot in relative record number
+ * chunks, several chunks at a time each on its own connection. Rows are
+ * dispatched one at a time and a chunk is marked as read in the offsets once
+ * all its rows have been dispatched, so after a restart only the unfinished
+ * chunks are read again.
+ *
+ * runs after the streaming position has been taken and before streaming
+ * starts, so like the single query snapshot any change made while the chunks
+ * are read is streamed afterwards. The chunks are read once the other tables
+ * have been and before the snapshot completes, so the record marked as the
+ * last of the snapshot follows every chunk row.
+ *
+ * a table given a select statement override is not chunked, one chunked by an
+ * earlier run is read again in one query with the override.
+ */
+public class As400ChunkedSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(As400ChunkedSnapshot.class);
+
+    private final As400ConnectorConfig config;
+    private final As400DatabaseSchema schema;
+    private final As400EventDispatcher dispatcher;
+    private final Clock clock;
+    private final Object dispatchLock = new Object();
+
+    public As400ChunkedSnapshot(As400ConnectorConfig config, As400DatabaseSchema schema,
+                                As400EventDispatcher dispatcher, Clock clock) {
+        this.config = config;
+        this.schema = schema;
+        this.dispatcher = dispatcher;
+        this.clock = clock;
+    }
+
+    /**
+     * reads the chunks through the receiver of the snapshot that is completing,
+     * it marks whichever row comes last as the last record of the snapshot
+     */
+    public void readBeforeCompletion(ChangeEventSourceContext context, As400Partition partition,
+                                     As400OffsetContext offset)
+            throws InterruptedException {
+        if (!read(context, partition, offset, dispatcher.currentSnapshotReceiver())) {
+            throw new InterruptedException("Interrupted while reading snapshot chunks");
+        }
+    }
+
+    /**
+     * reads the chunks left unfinished by a snapshot that has completed
+     */
+    public void resume(ChangeEventSourceContext context, As400Partition partition, As400OffsetContext offset)
+            throws InterruptedException {
+        final SnapshotReceiver<As400Partition> receiver = dispatcher.getSnapshotChangeEventReceiver();
+        if (!read(context, partition, offset, receiver)) {
+            return;
+        }
+        receiver.completeSnapshot();
+        offset.markSnapshotRecord(SnapshotRecord.FALSE);
+        // records the last chunks as read
+        dispatcher.alwaysDispatchHeartbeatEvent(partition, offset);
+    }
+
+    /**
+     * @return false when interrupted before every chunk was read
+     */
+    private boolean read(ChangeEventSourceContext context, As400Partition partition, As400OffsetContext offset,
+                         SnapshotReceiver<As400Partition> receiver)
+            throws InterruptedException {
+        final As400SnapshotChunks chunks = offset.getSnapshotChunks();
+        if (chunks == null) {
+            return true;
+        }
+        final Map<TableId, String> overrides = new LinkedHashMap<>();
+        for (final Chunk chunk : chunks.pending()) {
+            selectOverride(config, chunk.table()).ifPresent(select -> overrides.put(chunk.table(), select));
+        }
+        final Queue<Chunk> pending = chunks.pending().stream().filter(c -> !overrides.containsKey(c.table()))
+                .collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+        if (pending.isEmpty() && overrides.isEmpty()) {
+            return true;
+        }
+        offset.markSnapshotRecord(SnapshotRecord.TRUE);
+        if (!overrides.isEmpty()) {
+            try (As400JdbcConnection connection = new As400JdbcConnection(config.getJdbcConfiguration())) {
+                for (final Map.Entry<TableId, String> e : overrides.entrySet()) {
+                    if (!readOverride(context, connection, e.getKey(), e.getValue(), partition, offset, chunks,
+                            receiver)) {
+                        return false;
+                    }
+                }
+            }
+            catch (final SQLException e) {
+                throw new DebeziumException("Failed reading snapshot select override", e);
+            }
+        }
+        if (pending.isEmpty()) {
+            return true;
+        }
+        final int threads = Math.max(1, Math.min(config.getSnapshotChunkThreads(), pending.size()));
+        final long start = System.currentTimeMillis();
+        log.info("snapshotting {} chunks with {} threads {}", pending.size(), threads, chunks);
+
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                readers.add(executor.submit(() -> {
+                    try (As400JdbcConnection connection = new As400JdbcConnection(config.getJdbcConfiguration())) {
+                        Chunk chunk;
+                        while (context.isRunning() && !failed.get() && (chunk = pending.poll()) != null) {
+                            read(context, connection, chunk, partition, offset, chunks, receiver);
+                        }
+                    }
+                    catch (final Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> f : readers) {
+                f.get();
+            }
+        }
+        catch (final ExecutionException e) {
+            throw new DebeziumException("Failed reading snapshot chunks", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        if (!context.isRunning()) {
+            log.info("snapshot chunks interrupted, {} left", chunks.pending().size());
+            return false;
+        }
+        log.info("snapshot chunks read in {} ms", System.currentTimeMillis() - start);
+        return true;
+    }
+
+    /**
+     * @return the select statement override of the table, looked up without the
+     *         catalog too as the override may not name it
+     */
+    static Optional<String> selectOverride(As400ConnectorConfig config, TableId table) {
+        final Map<DataCollectionId, String> overrides = config.getSnapshotSelectOverridesByTable();
+        final String select = overrides.get(table);
+        return Optional.ofNullable(
+                (select != null) ? select : overrides.get(new TableId(null, table.schema(), table.table())));
+    }
+
+    /**
+     * reads a table chunked by an earlier run with its select override instead
+     *
+     * @return false when interrupted, the chunks are left unfinished
+     */
+    private boolean readOverride(ChangeEventSourceContext context, As400JdbcConnection connection, TableId tableId,
+                                 String select, As400Partition partition, As400OffsetContext offset,
+                                 As400SnapshotChunks chunks, SnapshotReceiver<As400Partition> receiver)
+            throws InterruptedException {
+        final Table table = schema.tableFor(tableId);
+        if (table != null) {
+            log.info("snapshotting {} with select override '{}' rather than in chunks", tableId, select);
+            try (Statement statement = connection.connection().createStatement();
+                    ResultSet rs = statement.executeQuery(select)) {
+                if (dispatch(context, connection, table, rs, partition, offset, receiver) < 0) {
+                    return false;
+                }
+            }
+            catch (final SQLException e) {
+                throw new DebeziumException("Failed reading " + tableId + " with '" + select + "'", e);
+            }
+        }
+        chunks.finished(tableId);
+        return true;
+    }
+
+    private void read(ChangeEventSourceContext context, As400JdbcConnection connection, Chunk chunk,
+                      As400Partition partition, As400OffsetContext offset, As400SnapshotChunks chunks,
+                      SnapshotReceiver<As400Partition> receiver)
+            throws Exception {
+        final Table table = schema.tableFor(chunk.table());
+        if (table == null) {
+            log.warn("table {} is no longer captured skipping chunk {}", chunk.table(), chunk.index());
+            chunks.finished(chunk);
+            return;
+        }
+        final List<Column> columns = table.columns();
+        final String select = String.format("SELECT %s FROM %s.%s T WHERE RRN(T) BETWEEN ? AND ?",
+                columns.stream().map(c -> "\"" + c.name() + "\"").collect(Collectors.joining(", ")),
+                chunk.table().schema(), chunk.table().table());
+
+        final long rows;
+        try (PreparedStatement ps = connection.connection().prepareStatement(select)) {
+            ps.setLong(1, chunk.from());
+            ps.setLong(2, chunk.to());
+            try (ResultSet rs = ps.executeQuery()) {
+                rows = dispatch(context, connection, table, rs, partition, offset, receiver);
+            }
+        }
+        if (rows < 0) {
+            // left unfinished so it is read again
+            return;
+        }
+        chunks.finished(chunk);
+        log.debug("read chunk {} of {} rows {}", chunk.index(), chunk.table(), rows);
+    }
+
+    /**
+     * @return the number of rows dispatched, -1 when interrupted
+     */
+    private long dispatch(ChangeEventSourceContext context, As400JdbcConnection connection, Table table,
+                          ResultSet rs, As400Partition partition, As400OffsetContext offset,
+                          SnapshotReceiver<As400Partition> receiver)
+            throws SQLException, InterruptedException {
+        final ColumnArray columnArray = ColumnUtils.toArray(rs, table);
+        long rows = 0;
+        while (rs.next()) {
+            if (!context.isRunning()) {
+                return -1;
+            }
+            final Object[] row = connection.rowToArray(table, rs, columnArray);
+            synchronized (dispatchLock) {
+                dispatcher.dispatchSnapshotEvent(partition, table.id(), new As400ChangeRecordEmitter(partition,
+                        offset, Operation.READ, null, row, clock, config), receiver);
+            }
+            rows++;
+        }
+        return rows;
+    }
+}
@@ -5,7 +5,10 @@
  */
 package io.debezium.connector.db2as400;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigDef.Importance;
@@ -65,6 +68,18 @@ public class As400ConnectorConfig extends RelationalDatabaseConnectorConfig {
     public static final Field BUFFER_SIZE = Field.create("buffer_size", "journal buffer size",
             "size of buffer for fetching journal entries default 131072 (should not be smaller)", "131072");
 
+    /**
+     * Lower bound for the journal buffer when it is allowed to adapt, 0 uses buffer_size
+     */
+    public static final Field BUFFER_SIZE_MIN = Field.create("buffer_size_min", "minimum journal buffer size",
+            "smallest the journal buffer is allowed to shrink to, when max is larger than min the buffer adapts to the journal backlog, 0 uses buffer_size", 0);
+
+    /**
+     * Upper bound for the journal buffer when it is allowed to adapt, 0 uses buffer_size
+     */
+    public static final Field BUFFER_SIZE_MAX = Field.create("buffer_size_max", "maximum journal buffer size",
+            "largest the journal buffer is allowed to grow to, when max is larger than min the buffer adapts to the journal backlog, 0 uses buffer_size", 0);
+
     /**
      * keep alive flag, should the driver send keep alive packets default true
      */
@@ -104,6 +119,87 @@ public class As400ConnectorConfig extends RelationalDatabaseConnectorConfig {
      */
     public static final Field MAX_SERVER_SIDE_ENTRIES = Field.create("max_entries", "max server side entries", "Maximum number of journal entries to process server side when filtering", RetrieveConfig.DEFAULT_MAX_SERVER_SIDE_ENTRIES);
 
+    /**
+     * Lower bound for max_entries when it is allowed to adapt, 0 uses max_entries
+     */
+    public static final Field MAX_SERVER_SIDE_ENTRIES_MIN = Field.create("max_entries_min", "minimum server side entries",
+            "smallest range of journal entries a fetch covers, when max is larger than min the range adapts so each fetch takes about target_fetch_ms, 0 uses max_entries", 0);
+
+    /**
+     * Upper bound for max_entries when it is allowed to adapt, 0 uses max_entries
+     */
+    public static final Field MAX_SERVER_SIDE_ENTRIES_MAX = Field.create("max_entries_max", "maximum server side entries",
+            "largest range of journal entries a fetch covers, when max is larger than min the range adapts so each fetch takes about target_fetch_ms, 0 uses max_entries", 0);
+
+    public static final Field TARGET_FETCH_MS = Field.create("target_fetch_ms", "target fetch time",
+            "time in ms each fetch should take when max_entries adapts, keep it well below max_journal_timeout", RetrieveConfig.DEFAULT_TARGET_FETCH_MS);
+
+    /**
+     * Number of journal blocks to fetch in the background while the current block is processed
+     */
+    public static final Field PREFETCH_BLOCKS = Field.create("prefetch_blocks", "journal blocks to prefetch",
+            "Number of journal blocks to fetch ahead in the background while the current block is processed, 0 disables prefetching",
+            RetrieveConfig.DEFAULT_PREFETCH_BLOCKS);
+
+    /**
+     * Load the metadata of all the captured tables before streaming rather than on first sight
+     */
+    public static final Field SCHEMA_PRELOAD = Field.create("schema_preload", "preload table metadata",
+            "Load the metadata for all the included tables with a few queries per schema when streaming starts rather than querying each table on first sight. "
+                    + "Finding the schemas the include list matches reads every table in qsys2.systables, so this is off by default",
+            false);
+
+    public static final Field SCHEMA_PRELOAD_THREADS = Field.create("schema_preload_threads", "schema preload threads",
+            "Number of schemas to preload in parallel, each on its own connection", 1);
+
+    public static final Field SCHEMA_CACHE_FOLDER = Field.create("schema_cache_folder",
+            "folder to keep preloaded table metadata in",
+            "when set the preloaded table metadata is written here and reused on restart while the catalog shows no tables have been altered");
+
+    public static final Field SERVER_FILTER = Field.create("server_filter").withDisplayName("Server side journal filter")
+            .withEnum(ServerFilterMode.class, ServerFilterMode.FILES).withWidth(Width.SHORT).withImportance(Importance.LOW)
+            .withDescription("Which journal entries the server filters out before sending them. Options include: "
+                    + "'files' (the default) only the entries for the included tables when there is an include list; "
+                    + "'entry_types' only the journal codes and entry types the connector processes; "
+                    + "'files_and_entry_types' both; "
+                    + "'none' every entry is sent and filtered by the connector.");
+
+    public static final Field MULTI_JOURNAL = Field.create("multi_journal", "capture from several journals",
+            "Allow the included tables to be journaled to more than one journal and to be in any schema, each journal is read concurrently and keeps its own offset",
+            false);
+
+    public static final Field SNAPSHOT_CHUNK_ROWS = Field.create("snapshot_chunk_rows", "snapshot chunk rows",
+            "Tables with more rows than this are snapshotted in chunks of this many relative record numbers, read in parallel and resumed after a restart, 0 reads every table with a single query",
+            0L);
+
+    public static final Field SNAPSHOT_CHUNK_THREADS = Field.create("snapshot_chunk_threads", "snapshot chunk threads",
+            "Number of chunks read in parallel, each on its own connection", 4);
+
+    public static final Field MAX_POLL_INTERVAL = Field.create("max_poll_interval_ms", "max poll interval",
+            "Longest wait in ms between fetches of an idle journal, when larger than poll.interval.ms the wait starts there and doubles while there is nothing new, 0 uses poll.interval.ms for a fixed wait",
+            0L);
+
+    public static final Field RECEIVER_CACHE_FOLDER = Field.create("receiver_cache_folder",
+            "folder to keep journal receiver details in",
+            "when set the details of detached journal receivers are written here so a restart only asks for the attached receiver and any detached since");
+
+    public static final Field DECODE_THREADS = Field.create("decode_threads", "decode threads",
+            "Number of threads decoding journal row images ahead of dispatch, events are still dispatched in journal order, 0 decodes on the streaming thread",
+            0);
+
+    public static final Field INCREMENTAL_NEW_TABLES = Field.create("incremental_new_tables",
+            "incremental snapshot of new tables",
+            "Tables added to the include list are read with an incremental snapshot while streaming carries on instead of a blocking snapshot, needs signal.data.collection to be set to a journaled signal table given as database.schema.table",
+            false);
+
+    /**
+     * set by the connector on each task when the include list is split over
+     * several tasks, not configured directly
+     */
+    public static final Field TASK_GROUP = Field.create("task_group", "task table group",
+            "Which group of the included tables this task captures, set by the connector when splitting the tables over several tasks",
+            0);
+
     public static final Field DATE_FORMAT= Field.create("date format", "date format", "default date format is 2 digit date 1940->2039 set this to 'iso' or make sure you only have dates in this range, performance is ambysmal if you don't not to mention lots of missing data", "iso");
 
     public static final Field DB_ERRORS = Field.create("errors", "full error reporting", "jdbc level of detail to include options are: 'basic', or 'full'", "full");
@@ -163,6 +259,14 @@ public class As400ConnectorConfig extends RelationalDatabaseConnectorConfig {
         return config.getInteger(BUFFER_SIZE);
     }
 
+    public Integer getJournalBufferSizeMin() {
+        return config.getInteger(BUFFER_SIZE_MIN);
+    }
+
+    public Integer getJournalBufferSizeMax() {
+        return config.getInteger(BUFFER_SIZE_MAX);
+    }
+
     public Integer getSocketTimeout() {
         final Integer i = config.getInteger(SOCKET_TIMEOUT);
         return i;
@@ -176,6 +280,87 @@ public class As400ConnectorConfig extends RelationalDatabaseConnectorConfig {
         return config.getInteger(MAX_SERVER_SIDE_ENTRIES);
     }
 
+    public Integer getMaxServerSideEntriesMin() {
+        return config.getInteger(MAX_SERVER_SIDE_ENTRIES_MIN);
+    }
+
+    public Integer getMaxServerSideEntriesMax() {
+        return config.getInteger(MAX_SERVER_SIDE_ENTRIES_MAX);
+    }
+
+    public Integer getTargetFetchMs() {
+        return config.getInteger(TARGET_FETCH_MS);
+    }
+
+    public Integer getPrefetchBlocks() {
+        return config.getInteger(PREFETCH_BLOCKS);
+    }
+
+    public boolean isSchemaPreload() {
+        return config.getBoolean(SCHEMA_PRELOAD);
+    }
+
+    public Integer getSchemaPreloadThreads() {
+        return config.getInteger(SCHEMA_PRELOAD_THREADS);
+    }
+
+    public String getSchemaCacheFolder() {
+        return config.getString(SCHEMA_CACHE_FOLDER);
+    }
+
+    public ServerFilterMode getServerFilterMode() {
+        return ServerFilterMode.parse(config.getString(SERVER_FILTER), SERVER_FILTER.defaultValueAsString());
+    }
+
+    public boolean isMultiJournal() {
+        return config.getBoolean(MULTI_JOURNAL);
+    }
+
+    public long getSnapshotChunkRows() {
+        return config.getLong(SNAPSHOT_CHUNK_ROWS);
+    }
+
+    public int getSnapshotChunkThreads() {
+        return config.getInteger(SNAPSHOT_CHUNK_THREADS);
+    }
+
+    /**
+     * @return the poll interval when not set so idle backoff is opt in
+     */
+    public Duration getMaxPollInterval() {
+        final long max = config.getLong(MAX_POLL_INTERVAL);
+        return (max <= 0) ? getPollInterval() : Duration.ofMillis(max);
+    }
+
+    public String getReceiverCacheFolder() {
+        return config.getString(RECEIVER_CACHE_FOLDER);
+    }
+
+    public int getDecodeThreads() {
+        return config.getInteger(DECODE_THREADS);
+    }
+
+    public boolean isIncrementalNewTables() {
+        return config.getBoolean(INCREMENTAL_NEW_TABLES);
+    }
+
+    public int getTaskGroup() {
+        return config.getInteger(TASK_GROUP);
+    }
+
+    /**
+     * the custom metric tags, tagged with the task group when there are several
+     * tasks so each task registers its own metrics
+     */
+    public Map<String, String> getMetricTags() {
+        if (getTaskGroup() == 0) {
+            return getCustomMetricTags();
+        }
+        final Map<String, String> tags = new LinkedHashMap<>(getCustomMetricTags());
+        tags.put("task", Integer.toString(getTaskGroup()));
+        return tags;
+    }
+
     public Integer getMaxRetrievalTimeout() {
         return config.getInteger(MAX_RETRIEVAL_TIMEOUT);
     }
@@ -232,7 +417,10 @@ public class As400ConnectorConfig extends RelationalDatabaseConnectorConfig {
     public static Field.Set ALL_FIELDS = Field.setOf(JdbcConfiguration.HOSTNAME, USER, PASSWORD, SCHEMA, BUFFER_SIZE,
             RelationalDatabaseConnectorConfig.SNAPSHOT_SELECT_STATEMENT_OVERRIDES_BY_TABLE, KEEP_ALIVE, THREAD_USED, SOCKET_TIMEOUT,
             MAX_SERVER_SIDE_ENTRIES, TOPIC_NAMING_STRATEGY, FROM_CCSID, TO_CCSID, DB_ERRORS, DATE_FORMAT, SECURE,
-            DIAGNOSTICS_FOLDER);
+            DIAGNOSTICS_FOLDER, PREFETCH_BLOCKS, BUFFER_SIZE_MIN, BUFFER_SIZE_MAX, SCHEMA_PRELOAD, SCHEMA_PRELOAD_THREADS,
+            SCHEMA_CACHE_FOLDER, SERVER_FILTER, MULTI_JOURNAL, TASK_GROUP,
+            SNAPSHOT_CHUNK_ROWS, SNAPSHOT_CHUNK_THREADS, DECODE_THREADS, INCREMENTAL_NEW_TABLES, RECEIVER_CACHE_FOLDER,
+            MAX_POLL_INTERVAL, MAX_SERVER_SIDE_ENTRIES_MIN, MAX_SERVER_SIDE_ENTRIES_MAX, TARGET_FETCH_MS);
 
     public static ConfigDef configDef() {
         final ConfigDef c = RelationalDatabaseConnectorConfig.CONFIG_DEFINITION.edit()
@@ -240,7 +428,10 @@ public class As400ConnectorConfig extends RelationalDatabaseConnectorConfig {
                 .type(
                         JdbcConfiguration.HOSTNAME, USER, PASSWORD, SCHEMA, BUFFER_SIZE,
                         KEEP_ALIVE, THREAD_USED, SOCKET_TIMEOUT, FROM_CCSID, TO_CCSID, DB_ERRORS, DATE_FORMAT, SECURE,
-                        DIAGNOSTICS_FOLDER)
+                        DIAGNOSTICS_FOLDER, PREFETCH_BLOCKS, BUFFER_SIZE_MIN, BUFFER_SIZE_MAX, SCHEMA_PRELOAD,
+                        SCHEMA_PRELOAD_THREADS, SCHEMA_CACHE_FOLDER, SERVER_FILTER, MULTI_JOURNAL, TASK_GROUP,
+                        SNAPSHOT_CHUNK_ROWS, SNAPSHOT_CHUNK_THREADS, DECODE_THREADS, INCREMENTAL_NEW_TABLES, RECEIVER_CACHE_FOLDER,
+                        MAX_POLL_INTERVAL, MAX_SERVER_SIDE_ENTRIES_MIN, MAX_SERVER_SIDE_ENTRIES_MAX, TARGET_FETCH_MS)
                 .connector()
                 .events(
                         As400OffsetContext.EVENT_SEQUENCE_FIELD,
@@ -344,6 +535,76 @@ public class As400ConnectorConfig extends RelationalDatabaseConnectorConfig {
         }
     }
 
+    /**
+     * The journal entries filtered out server side.
+     */
+    public static enum ServerFilterMode implements EnumeratedValue {
+
+        /**
+         * Only entries for the included tables, when there is an include list.
+         */
+        FILES("files", true, false),
+
+        /**
+         * Only the journal codes and entry types the connector processes.
+         */
+        ENTRY_TYPES("entry_types", false, true),
+
+        /**
+         * Entries of the processed types for the included tables.
+         */
+        FILES_AND_ENTRY_TYPES("files_and_entry_types", true, true),
+
+        /**
+         * Every entry is sent.
+         */
+        NONE("none", false, false);
+
+        private final String value;
+        private final boolean files;
+        private final boolean entryTypes;
+
+        private ServerFilterMode(String value, boolean files, boolean entryTypes) {
+            this.value = value;
+            this.files = files;
+            this.entryTypes = entryTypes;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        public boolean filterFiles() {
+            return files;
+        }
+
+        public boolean filterEntryTypes() {
+            return entryTypes;
+        }
+
+        /**
+         * Determine if the supplied value is one of the predefined options.
+         *
+         * @param value        the configuration property value; may be null
+         * @param defaultValue the default value; may be null
+         * @return the matching option, or null if no match is found and the non-null
+         *         default is invalid
+         */
+        public static ServerFilterMode parse(String value, String defaultValue) {
+            for (final String v : new String[]{ value, defaultValue }) {
+                if (v != null) {
+                    for (final ServerFilterMode option : ServerFilterMode.values()) {
+                        if (option.getValue().equalsIgnoreCase(v.trim())) {
+                            return option;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
     @Override
     // used by the snapshot to limit the additional tables for a change in configuration
     public RelationalTableFilters getTableFilters() {
@@ -5,11 +5,16 @@
  */
 package io.debezium.connector.db2as400;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -19,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import com.fnz.db2.journal.retrieve.FileFilter;
 
+import io.debezium.DebeziumException;
 import io.debezium.config.Configuration;
 import io.debezium.config.Field;
 import io.debezium.connector.base.ChangeEventQueue;
@@ -26,22 +32,26 @@ import io.debezium.connector.common.BaseSourceTask;
 import io.debezium.connector.common.CdcSourceTaskContext;
 import io.debezium.connector.db2as400.metrics.As400ChangeEventSourceMetricsFactory;
 import io.debezium.connector.db2as400.metrics.As400StreamingChangeEventSourceMetrics;
+import io.debezium.document.Array;
+import io.debezium.document.Document;
 import io.debezium.document.DocumentReader;
+import io.debezium.document.DocumentWriter;
 import io.debezium.jdbc.DefaultMainConnectionProvidingConnectionFactory;
 import io.debezium.jdbc.JdbcConfiguration;
 import io.debezium.jdbc.MainConnectionProvidingConnectionFactory;
 import io.debezium.pipeline.ChangeEventSourceCoordinator;
 import io.debezium.pipeline.DataChangeEvent;
 import io.debezium.pipeline.ErrorHandler;
-import io.debezium.pipeline.EventDispatcher;
 import io.debezium.pipeline.notification.NotificationService;
 import io.debezium.pipeline.signal.SignalProcessor;
 import io.debezium.pipeline.spi.Offsets;
 import io.debezium.relational.TableId;
+import io.debezium.relational.Tables.TableFilter;
 import io.debezium.schema.SchemaFactory;
 import io.debezium.schema.SchemaNameAdjuster;
 import io.debezium.spi.topic.TopicNamingStrategy;
 import io.debezium.util.Clock;
+import io.debezium.util.Strings;
 
 public class As400ConnectorTask extends BaseSourceTask<As400Partition, As400OffsetContext> {
 	private static final Logger log = LoggerFactory.getLogger(As400ConnectorTask.class);
@@ -74,7 +84,7 @@ public class As400ConnectorTask extends BaseSourceTask<As400Partition, As400Offs
 		this.schema = new As400DatabaseSchema(connectorConfig, jdbcConnection, topicNamingStrategy, schemaNameAdjuster);
 
 		final CdcSourceTaskContext ctx = new CdcSourceTaskContext(connectorConfig.getContextName(),
-				connectorConfig.getLogicalName(), connectorConfig.getCustomMetricTags(), schema::tableIds);
+				connectorConfig.getLogicalName(), connectorConfig.getMetricTags(), schema::tableIds);
 
 		// Set up the task record queue ...
 		this.queue = new ChangeEventQueue.Builder<DataChangeEvent>().pollInterval(connectorConfig.getPollInterval())
@@ -94,21 +104,30 @@ public class As400ConnectorTask extends BaseSourceTask<As400Partition, As400Offs
 		final As400EventMetadataProvider metadataProvider = new As400EventMetadataProvider();
 
 		final As400TaskContext taskContext = new As400TaskContext(connectorConfig, schema,
-				connectorConfig.getCustomMetricTags());
+				connectorConfig.getMetricTags());
 		final As400ConnectorConfig newConfig = taskContext.getConfig();
 
 		final As400StreamingChangeEventSourceMetrics streamingMetrics = new As400StreamingChangeEventSourceMetrics(
 				taskContext, queue, metadataProvider);
 
 		final List<FileFilter> shortIncludes = jdbcConnection.shortIncludes(schema.getSchemaName(),
-				newConfig.tableIncludeList());
+				withSignalTable(newConfig));
 
-		final As400RpcConnection rpcConnection = new As400RpcConnection(connectorConfig, streamingMetrics,
+		final List<As400RpcConnection> rpcConnections = rpcConnections(connectorConfig, streamingMetrics,
 				shortIncludes);
 
 		As400ConnectorConfig snapshotConnectorConfig = connectorConfig;
 		final Set<String> additionalTables = additionalTablesInConfigTables(connectorConfig, previousOffset, newConfig);
-		if (!additionalTables.isEmpty()) {
+		if (!additionalTables.isEmpty() && connectorConfig.isIncrementalNewTables()
+				&& !Strings.isNullOrEmpty(connectorConfig.getSignalingDataCollectionId())) {
+			log.info("found new tables to stream {} requesting an incremental snapshot", additionalTables);
+			// the same id until an offset with the new tables is committed so a restart doesn't request it twice
+			final String signalId = UUID.nameUUIDFromBytes(String.join("|", previousOffset.getIncludeTables(),
+					newConfig.tableIncludeList(), String.valueOf(previousOffset.getPosition()))
+					.getBytes(StandardCharsets.UTF_8)).toString();
+			requestIncrementalSnapshot(jdbcConnection, connectorConfig, additionalTables, signalId);
+			previousOffset.setIncludeTables(newConfig.tableIncludeList());
+		} else if (!additionalTables.isEmpty()) {
 			final String newIncludes = String.join(",", additionalTables);
 			log.info("found new tables to stream {}", newIncludes);
 
@@ -118,7 +137,7 @@ public class As400ConnectorTask extends BaseSourceTask<As400Partition, As400Offs
 			log.info("no new tables to stream");
 		}
 
-		final EventDispatcher<As400Partition, TableId> dispatcher = new EventDispatcher<>(connectorConfig, // CommonConnectorConfig
+		final As400EventDispatcher dispatcher = new As400EventDispatcher(connectorConfig, // CommonConnectorConfig
 				topicNamingStrategy, // TopicSelector
 				schema, // DatabaseSchema
 				queue, // ChangeEventQueue
@@ -128,8 +147,8 @@ public class As400ConnectorTask extends BaseSourceTask<As400Partition, As400Offs
 
 		final Clock clock = Clock.system();
 
-		final As400ChangeEventSourceFactory changeFactory = new As400ChangeEventSourceFactory(newConfig, snapshotConnectorConfig, rpcConnection,
-				jdbcConnectionFactory, errorHandler, dispatcher, clock, schema);
+		final As400ChangeEventSourceFactory changeFactory = new As400ChangeEventSourceFactory(newConfig, snapshotConnectorConfig, rpcConnections,
+				jdbcConnectionFactory, errorHandler, dispatcher, clock, schema, streamingMetrics, queue);
 
 		final SignalProcessor<As400Partition, As400OffsetContext> signalProcessor = new SignalProcessor<>(
 				As400RpcConnector.class, connectorConfig, Map.of(),
@@ -150,6 +169,87 @@ public class As400ConnectorTask extends BaseSourceTask<As400Partition, As400Offs
 		return coordinator;
 	}
 
+	private List<As400RpcConnection> rpcConnections(As400ConnectorConfig connectorConfig,
+			As400StreamingChangeEventSourceMetrics streamingMetrics, List<FileFilter> shortIncludes) {
+		if (!connectorConfig.isMultiJournal()) {
+			return List.of(new As400RpcConnection(connectorConfig, streamingMetrics, shortIncludes));
+		}
+		try {
+			return As400RpcConnection.forJournals(connectorConfig, streamingMetrics, shortIncludes);
+		} catch (final IOException e) {
+			throw new DebeziumException("Failed to find the journals for the included tables", e);
+		}
+	}
+
+	/**
+	 * the signal table has to be read from the journal as well when it isn't
+	 * one of the included tables
+	 */
+	private String withSignalTable(As400ConnectorConfig config) {
+		final String includes = config.tableIncludeList();
+		final String signalTable = config.getSignalingDataCollectionId();
+		if (Strings.isNullOrEmpty(includes) || Strings.isNullOrEmpty(signalTable)) {
+			return includes;
+		}
+		return includes + "," + signalTable;
+	}
+
+	/**
+	 * writes an execute-snapshot signal for the tables, the journal delivers it
+	 * once streaming reaches it and the tables are read in chunks while
+	 * streaming carries on. Nothing is written when the signal table already
+	 * has a signal with this id.
+	 */
+	private void requestIncrementalSnapshot(As400JdbcConnection jdbcConnection, As400ConnectorConfig config,
+			Set<String> tables, String signalId) {
+		final TableId signalTable = TableId.parse(config.getSignalingDataCollectionId());
+		final String signalTableName = String.format("%s.%s", signalTable.schema(), signalTable.table());
+		try {
+			final List<TableId> tableIds = signalTables(config.getConfig(), tables, jdbcConnection.getAllTables());
+			if (tableIds.isEmpty()) {
+				log.warn("none of the new tables {} were found, no incremental snapshot requested", tables);
+				return;
+			}
+			final String data = snapshotSignal(tableIds);
+			final boolean requested = jdbcConnection.prepareQueryAndMap(
+					String.format("SELECT COUNT(*) FROM %s WHERE id = ?", signalTableName),
+					ps -> ps.setString(1, signalId), rs -> rs.next() && rs.getLong(1) > 0);
+			if (requested) {
+				log.info("incremental snapshot of {} already requested by signal {}", tables, signalId);
+				return;
+			}
+			jdbcConnection.prepareUpdate(String.format("INSERT INTO %s VALUES (?, ?, ?)", signalTableName),
+					ps -> {
+						ps.setString(1, signalId);
+						ps.setString(2, "execute-snapshot");
+						ps.setString(3, data);
+					});
+		} catch (final SQLException | IOException e) {
+			throw new DebeziumException("Failed to request an incremental snapshot of " + tables, e);
+		}
+	}
+
+	/**
+	 * @param tables include list entries, regular expressions matching schema and
+	 *               table
+	 * @return the tables the entries match
+	 */
+	static List<TableId> signalTables(Configuration config, Set<String> tables, Collection<TableId> allTables) {
+		final TableFilter filter = new As400ConnectorConfig(config, String.join(",", tables)).getTableFilters()
+				.dataCollectionFilter();
+		return allTables.stream().filter(filter::isIncluded).sorted().collect(Collectors.toList());
+	}
+
+	/**
+	 * the data collections of the signal are matched against the fully qualified
+	 * table names
+	 */
+	static String snapshotSignal(List<TableId> tables) throws IOException {
+		return DocumentWriter.defaultWriter().write(Document.create("data-collections",
+				Array.create(tables.stream().map(TableId::identifier).collect(Collectors.toList())), "type",
+				"incremental"));
+	}
+
 	private Configuration addDefaultHeartbeatToConfig(Configuration config) {
 		final int heartbeat = config.getInteger("heartbeat.interval.ms", 0);
 		if (heartbeat == 0) {
@@ -5,6 +5,7 @@
  */
 package io.debezium.connector.db2as400;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -14,6 +15,8 @@ import org.slf4j.LoggerFactory;
 
 import com.fnz.db2.journal.retrieve.JdbcFileDecoder;
 import com.fnz.db2.journal.retrieve.SchemaCacheIF;
+import com.fnz.db2.journal.retrieve.SchemaMetadata;
+import com.fnz.db2.journal.retrieve.SchemaMetadataStore;
 
 import io.debezium.connector.db2as400.conversion.As400DefaultValueConverter;
 import io.debezium.connector.db2as400.conversion.SchemaInfoConversion;
@@ -32,6 +35,7 @@ public class As400DatabaseSchema extends RelationalDatabaseSchema implements Sch
     private final As400JdbcConnection jdbcConnection;
     private final SchemaInfoConversion schemaInfoConversion;
     private final JdbcFileDecoder fileDecoder;
+    private final Optional<SchemaMetadataStore> metadataStore;
 
     public As400DatabaseSchema(As400ConnectorConfig config, As400JdbcConnection jdbcConnection,
             TopicNamingStrategy<TableId> topicSelector, SchemaNameAdjuster schemaNameAdjuster) {
@@ -45,9 +49,21 @@ public class As400DatabaseSchema extends RelationalDatabaseSchema implements Sch
         this.jdbcConnection = jdbcConnection;
         fileDecoder = new JdbcFileDecoder(jdbcConnection, jdbcConnection.getRealDatabaseName(), this,
                 config.getFromCcsid(),
-                config.getToCcsid());
+                config.getToCcsid(),
+                config.getColumnFilter()::matches);
 
         schemaInfoConversion = new SchemaInfoConversion(fileDecoder);
+
+        final String cacheFolder = config.getSchemaCacheFolder();
+        metadataStore = (cacheFolder == null || cacheFolder.isBlank()) ? Optional.empty()
+                : Optional.of(new SchemaMetadataStore(new File(cacheFolder)));
+    }
+
+    /**
+     * @return where preloaded metadata is kept between restarts, if configured
+     */
+    public Optional<SchemaMetadataStore> getMetadataStore() {
+        return metadataStore;
     }
 
     public JdbcFileDecoder getFileDecoder() {
@@ -56,6 +72,7 @@ public class As400DatabaseSchema extends RelationalDatabaseSchema implements Sch
 
     public void clearCache(String systemTableName, String schema) {
         fileDecoder.clearCache(systemTableName, schema);
+        metadataStore.ifPresent(store -> store.invalidate(jdbcConnection.getRealDatabaseName(), schema));
     }
 
     public Optional<TableInfo> getRecordFormat(String systemTableName, String schema) {
@@ -66,6 +83,19 @@ public class As400DatabaseSchema extends RelationalDatabaseSchema implements Sch
         return oti;
     }
 
+    /**
+     * caches the record formats fetched by a schema preload the same as
+     * {@link #getRecordFormat(String, String)} would on first sight
+     *
+     * @return number of tables loaded
+     */
+    public int load(SchemaMetadata metadata) {
+        final Map<String, TableInfo> loaded = fileDecoder.load(metadata);
+        loaded.forEach((systemTableName, ti) -> store(jdbcConnection.getRealDatabaseName(), metadata.getSchema(),
+                systemTableName, ti));
+        return loaded.size();
+    }
+
     // assume always long name - only called from snapshotting
     public void addSchema(Table table) {
         final TableId id = table.id();
@@ -0,0 +1,137 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import com.fnz.db2.journal.retrieve.EntrySlice;
+import com.fnz.db2.journal.retrieve.JournalEntryDeocder;
+import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
+import com.fnz.db2.journal.retrieve.RetrieveJournal;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+
+import io.debezium.connector.db2as400.As400RpcConnection.BlockingReceiverConsumer;
+import io.debezium.connector.db2as400.As400RpcConnection.EntryData;
+
+/**
+ * decodes the row images of a block on a pool of threads ahead of dispatch.
+ *
+ * the streaming thread walks the block handing each row image to the pool and
+ * accepts the entries in journal order as they become ready, the position is
+ * only moved past an entry once it and every entry before it have been
+ * accepted. A row decoded with a decoder the consumer no longer uses, e.g.
+ * after the table changed, is decoded again when it is accepted.
+ */
+public class As400DecodeStage implements AutoCloseable {
+    // entries in flight per thread, enough to keep the threads busy
+    private static final int ENTRIES_PER_THREAD = 32;
+
+    private final ExecutorService executor;
+    private final int window;
+    private final ArrayDeque<Pending> pending;
+
+    private final LongConsumer decodeNanos;
+
+    /**
+     * @param decodeNanos told how long each row took to decode
+     */
+    public As400DecodeStage(int threads, LongConsumer decodeNanos) {
+        this.decodeNanos = decodeNanos;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.window = threads * ENTRIES_PER_THREAD;
+        this.pending = new ArrayDeque<>(window);
+    }
+
+    /**
+     * accepts every entry of the fetched block
+     *
+     * @param accepted called with the position after each accepted entry
+     */
+    public void process(BooleanSupplier running, RetrieveJournal r, BlockingReceiverConsumer consumer,
+                        WatchDog watchDog, Consumer<JournalProcessedPosition> accepted)
+            throws Exception {
+        try {
+            while (r.nextEntry() && running.getAsBoolean()) {
+                watchDog.alive();
+                final EntrySlice slice = r.slice();
+                final JournalEntryDeocder<Object[]> decoder = consumer.decoderFor(slice.header()).orElse(null);
+                final Future<Object[]> row = (decoder == null) ? null : executor.submit(() -> decode(slice, decoder));
+                pending.add(new Pending(slice, decoder, row, new JournalProcessedPosition(r.getPosition())));
+                acceptReady(consumer, accepted, window);
+            }
+            acceptReady(consumer, accepted, 0);
+        }
+        finally {
+            // anything left after a failure is fetched again from the last accepted position
+            pending.forEach(Pending::cancel);
+            pending.clear();
+        }
+    }
+
+    private Object[] decode(EntrySlice slice, JournalEntryDeocder<Object[]> decoder) throws Exception {
+        final long start = System.nanoTime();
+        final Object[] row = slice.decode(decoder);
+        decodeNanos.accept(System.nanoTime() - start);
+        return row;
+    }
+
+    /**
+     * accepts entries in order while they are ready or there are more than
+     * keep in flight
+     */
+    private void acceptReady(BlockingReceiverConsumer consumer, Consumer<JournalProcessedPosition> accepted, int keep)
+            throws Exception {
+        Pending p;
+        while ((p = pending.peek()) != null && (pending.size() > keep || p.isReady())) {
+            pending.poll();
+            final EntryHeader eheader = p.slice().header();
+            consumer.accept(eheader.getSequenceNumber(), p, eheader);
+            accepted.accept(p.position());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private record Pending(EntrySlice slice, JournalEntryDeocder<Object[]> decoder, Future<Object[]> row,
+            JournalProcessedPosition position) implements EntryData {
+
+        boolean isReady() {
+            return row == null || row.isDone();
+        }
+
+        void cancel() {
+            if (row != null) {
+                row.cancel(false);
+            }
+        }
+
+        @Override
+        public Object[] decode(JournalEntryDeocder<Object[]> d) throws Exception {
+            if (row == null || d != decoder) {
+                return slice.decode(d);
+            }
+            try {
+                return row.get();
+            }
+            catch (final ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import io.debezium.config.CommonConnectorConfig;
+import io.debezium.connector.base.ChangeEventQueue;
+import io.debezium.pipeline.DataChangeEvent;
+import io.debezium.pipeline.EventDispatcher;
+import io.debezium.pipeline.source.spi.EventMetadataProvider;
+import io.debezium.pipeline.spi.ChangeEventCreator;
+import io.debezium.relational.TableId;
+import io.debezium.schema.DataCollectionFilters.DataCollectionFilter;
+import io.debezium.schema.DatabaseSchema;
+import io.debezium.schema.SchemaNameAdjuster;
+import io.debezium.spi.topic.TopicNamingStrategy;
+
+/**
+ * remembers the receiver of the snapshot in progress so the chunked snapshot
+ * dispatches its rows through the same receiver, the record the receiver marks
+ * as the last of the snapshot then comes after the chunk rows
+ */
+public class As400EventDispatcher extends EventDispatcher<As400Partition, TableId> {
+    private volatile SnapshotReceiver<As400Partition> snapshotReceiver;
+
+    public As400EventDispatcher(CommonConnectorConfig connectorConfig, TopicNamingStrategy<TableId> topicNamingStrategy,
+                                DatabaseSchema<TableId> schema, ChangeEventQueue<DataChangeEvent> queue,
+                                DataCollectionFilter<TableId> filter, ChangeEventCreator changeEventCreator,
+                                EventMetadataProvider metadataProvider, SchemaNameAdjuster schemaNameAdjuster) {
+        super(connectorConfig, topicNamingStrategy, schema, queue, filter, changeEventCreator, metadataProvider,
+                schemaNameAdjuster);
+    }
+
+    @Override
+    public SnapshotReceiver<As400Partition> getSnapshotChangeEventReceiver() {
+        final SnapshotReceiver<As400Partition> receiver = super.getSnapshotChangeEventReceiver();
+        snapshotReceiver = receiver;
+        return receiver;
+    }
+
+    /**
+     * @return the receiver last handed out for a snapshot, null if there hasn't
+     *         been one
+     */
+    public SnapshotReceiver<As400Partition> currentSnapshotReceiver() {
+        return snapshotReceiver;
+    }
+}
@@ -49,6 +49,7 @@ public class As400JdbcConnection extends JdbcConnection implements Connect<Conne
     private static final String GET_SYSTEM_TABLE_NAME = "select trim(system_table_name) from qsys2.systables where system_table_schema=? AND table_name=?";
     private static final String GET_ALL_SYSTEM_TABLE_NAME = "select trim(system_table_name), trim(table_name) from qsys2.systables where system_table_schema=?";
 
+    private static final String GET_ALL_TABLES = "select trim(table_schema), trim(table_name) from qsys2.systables where table_type in ('T', 'P')";
     private static final String GET_TABLE_NAME = "select trim(table_name) from qsys2.systables where system_table_schema=? AND system_table_name=?";
     private static final String GET_INDEXES = """
             SELECT c.column_name FROM qsys.QADBKATR k
@@ -56,6 +57,9 @@ public class As400JdbcConnection extends JdbcConnection implements Connect<Conne
                   WHERE k.dbklib=? AND k.dbkfil=? ORDER BY k.DBKPOS ASC
                  """;
 
+    // every row slot including deleted rows, so an upper bound for the relative record number
+    private static final String GET_ROW_SLOTS = "select number_rows + number_deleted_rows from qsys2.systablestat where table_schema=? AND table_name=?";
+
     private static final String GET_LONG_COLUMN_NAMES = "select trim(system_column_name), trim(column_name) from qsys2.syscolumns where system_table_schema=? AND system_table_name=?";
     private final Map<String, String> systemToLongTableName = new HashMap<>();
     private final Map<String, Optional<String>> longToSystemTableName = new HashMap<>();
@@ -82,7 +86,10 @@ public class As400JdbcConnection extends JdbcConnection implements Connect<Conne
             AS400JDBCDriverForcedCcsid.class.getName(), As400JdbcConnection.class.getClassLoader(), JdbcFields);
 
     public As400JdbcConnection(JdbcConfiguration config) {
-        super(withDefaults(config), FACTORY, "'", "'");
+        // db2 delimits identifiers with double quotes, single quotes made them string
+        // literals. Only the incremental snapshot chunk and watermark statements
+        // debezium builds quote identifiers, the connector's own statements don't
+        super(withDefaults(config), FACTORY, "\"", "\"");
         this.fromCcsid = config.getInteger(As400ConnectorConfig.FROM_CCSID);
         this.toCcsid = config.getInteger(As400ConnectorConfig.TO_CCSID);
         this.config = config;
@@ -211,6 +218,33 @@ public class As400JdbcConnection extends JdbcConnection implements Connect<Conne
         return columnsByTable;
     }
 
+    /**
+     * @return the highest relative record number the table can have, the rows
+     *         plus the deleted rows whose slots may be reused
+     */
+    public long getRowSlots(TableId id) throws SQLException {
+        final Long slots = prepareQueryAndMap(GET_ROW_SLOTS,
+                call -> {
+                    call.setString(1, id.schema());
+                    call.setString(2, id.table());
+                },
+                rs -> rs.next() ? rs.getLong(1) : 0L);
+        return slots;
+    }
+
+    /**
+     * @return every table and physical file in the catalog
+     */
+    public List<TableId> getAllTables() throws SQLException {
+        return queryAndMap(GET_ALL_TABLES, rs -> {
+            final List<TableId> tables = new ArrayList<>();
+            while (rs.next()) {
+                tables.add(new TableId(realDatabaseName, rs.getString(1), rs.getString(2)));
+            }
+            return tables;
+        });
+    }
+
     public void getAllSystemNames(String schemaName) throws SQLException, InterruptedException {
         prepareQueryWithBlockingConsumer(GET_ALL_SYSTEM_TABLE_NAME, call -> {
             call.setString(1, schemaName);
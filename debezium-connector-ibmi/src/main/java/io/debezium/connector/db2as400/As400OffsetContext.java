@@ -5,30 +5,35 @@
  */
 package io.debezium.connector.db2as400;
 
-import java.math.BigInteger;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fnz.db2.journal.retrieve.JournalInfo;
 import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
 import com.fnz.db2.journal.retrieve.JournalReceiver;
+import com.fnz.db2.journal.retrieve.SequenceNumber;
 
 import io.debezium.config.Field;
 import io.debezium.connector.SnapshotRecord;
+import io.debezium.pipeline.source.snapshot.incremental.IncrementalSnapshotContext;
+import io.debezium.pipeline.source.snapshot.incremental.SignalBasedIncrementalSnapshotContext;
 import io.debezium.pipeline.spi.OffsetContext;
 import io.debezium.pipeline.txmetadata.TransactionContext;
 import io.debezium.relational.RelationalDatabaseConnectorConfig;
+import io.debezium.relational.TableId;
 import io.debezium.spi.schema.DataCollectionId;
 
 public class As400OffsetContext implements OffsetContext {
 	private static Logger log = LoggerFactory.getLogger(As400OffsetContext.class);
-	// TODO note believe there is a per journal offset
 	private static final String SERVER_PARTITION_KEY = "server";
 	public static final String EVENT_SEQUENCE = "offset.event_sequence";
 	public static final String EVENT_TIME = "offset.time";
@@ -36,6 +41,17 @@ public class As400OffsetContext implements OffsetContext {
 	public static final String PROCESSED = "offset.processed";
 	public static final String RECEIVER = "offset.receiver";
 	private static final String SNAPSHOT_COMPLETED_KEY = "snapshot_completed";
+	// large tables the initial snapshot is still reading in chunks
+	private static final String SNAPSHOT_CHUNKS_KEY = "snapshot_chunks";
+	// journal of the position above, only written when capturing from several journals
+	public static final String JOURNAL = "offset.journal";
+	// positions of the other journals are kept under journal.<library>/<journal>.<field>
+	private static final String JOURNAL_PREFIX = "journal.";
+	private static final String JOURNAL_SEQUENCE = "event_sequence";
+	private static final String JOURNAL_TIME = "time";
+	private static final String JOURNAL_RECEIVER = "receiver";
+	private static final String JOURNAL_RECEIVER_LIBRARY = "receiver_library";
+	private static final String JOURNAL_PROCESSED = "processed";
 
 	public static final Field EVENT_SEQUENCE_FIELD = Field.create(EVENT_SEQUENCE);
 	public static final Field RECEIVER_LIBRARY_FIELD = Field.create(RECEIVER_LIBRARY);
@@ -48,9 +64,14 @@ public class As400OffsetContext implements OffsetContext {
 	private final As400ConnectorConfig connectorConfig;
 	private final SourceInfo sourceInfo;
 	private final JournalProcessedPosition position;
-	private final String inclueTables;
+	private String inclueTables;
 	private boolean hasNewTables = false;
 	private volatile boolean snapshotComplete = false;
+	// null until a journal first asks for the position
+	private JournalInfo journal;
+	private final Map<JournalInfo, JournalProcessedPosition> otherJournals = new HashMap<>();
+	private volatile As400SnapshotChunks snapshotChunks;
+	private IncrementalSnapshotContext<TableId> incrementalSnapshotContext = new SignalBasedIncrementalSnapshotContext<>(true);
 
 	public As400OffsetContext(As400ConnectorConfig connectorConfig) {
 		super();
@@ -81,19 +102,73 @@ public class As400OffsetContext implements OffsetContext {
 		this.snapshotComplete = snapshotComplete;
 	}
 
-	public void setPosition(JournalProcessedPosition newPosition) {
+	public synchronized void setPosition(JournalProcessedPosition newPosition) {
 		this.position.setPosition(newPosition);
 	}
 
+	/**
+	 * the first journal to ask takes the position that isn't keyed by journal, so
+	 * offsets from a single journal carry on when more journals are added
+	 *
+	 * @param journalInfo null for the first journal
+	 * @return a copy of the position of the journal, starting from the beginning
+	 *         for a journal not seen before
+	 */
+	public synchronized JournalProcessedPosition getPosition(JournalInfo journalInfo) {
+		return new JournalProcessedPosition(positionOf(journalInfo));
+	}
+
+	/**
+	 * @return the position itself, only changed while holding the lock
+	 */
+	private JournalProcessedPosition positionOf(JournalInfo journalInfo) {
+		if (journalInfo == null || journalInfo.equals(journal)) {
+			return position;
+		}
+		if (journal == null && !otherJournals.containsKey(journalInfo)) {
+			journal = journalInfo;
+			return position;
+		}
+		return otherJournals.computeIfAbsent(journalInfo, j -> new JournalProcessedPosition());
+	}
+
+	/**
+	 * position updates are synchronized with {@link #getOffset()} as several
+	 * journals may be read at once
+	 */
+	public synchronized void setPosition(JournalInfo journalInfo, JournalProcessedPosition newPosition) {
+		positionOf(journalInfo).setPosition(newPosition);
+	}
+
+	public synchronized Set<JournalInfo> getOtherJournals() {
+		return new HashSet<>(otherJournals.keySet());
+	}
+
+	/**
+	 * @return the chunks of the initial snapshot or null when there are none
+	 *         left to read
+	 */
+	public As400SnapshotChunks getSnapshotChunks() {
+		final As400SnapshotChunks chunks = snapshotChunks;
+		return (chunks == null || chunks.isFinished()) ? null : chunks;
+	}
+
+	public void setSnapshotChunks(As400SnapshotChunks snapshotChunks) {
+		this.snapshotChunks = snapshotChunks;
+	}
+
 	public boolean isSnapshotCompplete() {
 		return this.snapshotComplete;
 	}
 
-	public JournalProcessedPosition getPosition() {
-		return position;
+	/**
+	 * @return a copy of the position that isn't keyed by journal
+	 */
+	public synchronized JournalProcessedPosition getPosition() {
+		return new JournalProcessedPosition(position);
 	}
 	
-	public boolean isPosisionSet() {
+	public synchronized boolean isPosisionSet() {
 		return position != null && position.isOffsetSet();
 	}
 
@@ -106,26 +181,70 @@ public class As400OffsetContext implements OffsetContext {
 	}
 
 	@Override
-	public Map<String, ?> getOffset() {
+	public synchronized Map<String, ?> getOffset() {
 		if (sourceInfo.isSnapshot()) {
 			log.debug("new snapshot offset {}", position);
 		} else {
 			log.debug("new offset {}", position);
 
 		}
-		final BigInteger offset = position.getOffset();
-		String offsetStr = "null";
-		if (null != offset) {
-			offsetStr = offset.toString();
-		}
+		final String offsetStr = offsetString(position);
 		String time = Long.toString(position.getTimeOfLastProcessed().getEpochSecond());
-		return new HashMap<>(Map.of(As400OffsetContext.EVENT_SEQUENCE, offsetStr,
+		final JournalReceiver receiver = (position.getReceiver() == null) ? new JournalReceiver("", "")
+				: position.getReceiver();
+		final Map<String, Object> offset = new HashMap<>(Map.of(As400OffsetContext.EVENT_SEQUENCE, offsetStr,
 				As400OffsetContext.EVENT_TIME, time,
-				As400OffsetContext.RECEIVER, position.getReceiver().name(), 
+				As400OffsetContext.RECEIVER, receiver.name(),
 				As400OffsetContext.PROCESSED, Boolean.toString(position.processed()),
-				As400OffsetContext.RECEIVER_LIBRARY, position.getReceiver().library(),
+				As400OffsetContext.RECEIVER_LIBRARY, receiver.library(),
 				RelationalDatabaseConnectorConfig.TABLE_INCLUDE_LIST.name(), inclueTables,
 				As400OffsetContext.SNAPSHOT_COMPLETED_KEY, Boolean.toString(snapshotComplete)));
+		final As400SnapshotChunks chunks = getSnapshotChunks();
+		if (chunks != null) {
+			offset.put(SNAPSHOT_CHUNKS_KEY, chunks.encode());
+		}
+		if (journal != null && !otherJournals.isEmpty()) {
+			offset.put(JOURNAL, journalKey(journal));
+			for (final Map.Entry<JournalInfo, JournalProcessedPosition> e : otherJournals.entrySet()) {
+				final JournalProcessedPosition p = e.getValue();
+				final String prefix = JOURNAL_PREFIX + journalKey(e.getKey()) + ".";
+				offset.put(prefix + JOURNAL_SEQUENCE, offsetString(p));
+				if (!p.isOffsetSet()) {
+					// nothing read yet, starts from the beginning again
+					continue;
+				}
+				offset.put(prefix + JOURNAL_TIME, Long.toString(p.getTimeOfLastProcessed().getEpochSecond()));
+				offset.put(prefix + JOURNAL_RECEIVER, p.getReceiver().name());
+				offset.put(prefix + JOURNAL_PROCESSED, Boolean.toString(p.processed()));
+				offset.put(prefix + JOURNAL_RECEIVER_LIBRARY, p.getReceiver().library());
+			}
+		}
+		return incrementalSnapshotContext.store(offset);
+	}
+
+	static String journalKey(JournalInfo journalInfo) {
+		return journalInfo.journalLibrary() + "/" + journalInfo.journalName();
+	}
+
+	static JournalInfo journalInfo(String key) {
+		final int slash = key.indexOf('/');
+		return new JournalInfo(key.substring(slash + 1), key.substring(0, slash));
+	}
+
+	/**
+	 * unsigned decimal, same format as when this was a BigInteger, "null" when
+	 * nothing has been read
+	 */
+	static String offsetString(JournalProcessedPosition p) {
+		return p.isOffsetSet() ? p.getOffsetString() : "null";
+	}
+
+	/**
+	 * "0" is read as unset too, sequence numbers start at 1 and a stored 0 can only
+	 * be a position that was never set
+	 */
+	static boolean isUnset(String offsetStr) {
+		return "null".equals(offsetStr) || "0".equals(offsetStr);
 	}
 
 	@Override
@@ -179,6 +298,19 @@ public class As400OffsetContext implements OffsetContext {
 		return inclueTables;
 	}
 
+	/**
+	 * the tables added to the include list are being captured by an
+	 * incremental snapshot rather than the initial snapshot
+	 */
+	public void setIncludeTables(String includeTables) {
+		this.inclueTables = includeTables;
+	}
+
+	@Override
+	public IncrementalSnapshotContext<?> getIncrementalSnapshotContext() {
+		return incrementalSnapshotContext;
+	}
+
 	public static class Loader implements OffsetContext.Loader<As400OffsetContext> {
 
 		private final As400ConnectorConfig connectorConfig;
@@ -201,14 +333,47 @@ public class As400OffsetContext implements OffsetContext {
 			final String receiverLibrary = (String) map.get(As400OffsetContext.RECEIVER_LIBRARY);
 			final String inclueTables = (String) map.get(RelationalDatabaseConnectorConfig.TABLE_INCLUDE_LIST.name());
 			JournalProcessedPosition position = new JournalProcessedPosition();
-			if ("null".equals(offsetStr)) {
+			if (isUnset(offsetStr)) {
 				log.warn("setting offsets to zero");
 			} else {
-				final BigInteger offset = new BigInteger(offsetStr);
-				Instant time = (TimeStr == null) ? Instant.ofEpochSecond(0) : Instant.ofEpochSecond(Long.parseLong(TimeStr));
-				position = new JournalProcessedPosition(offset, new JournalReceiver(receiver, receiverLibrary), time, processed);
+				position = position(offsetStr, TimeStr, receiver, receiverLibrary, processed);
+			}
+			final As400OffsetContext context = new As400OffsetContext(connectorConfig, position, inclueTables, snapshotComplete);
+
+			context.incrementalSnapshotContext = SignalBasedIncrementalSnapshotContext.load(map, true);
+
+			final String chunks = (String) map.get(SNAPSHOT_CHUNKS_KEY);
+			if (chunks != null) {
+				context.snapshotChunks = As400SnapshotChunks.decode(chunks);
+			}
+
+			final String journal = (String) map.get(As400OffsetContext.JOURNAL);
+			if (journal != null) {
+				context.journal = journalInfo(journal);
+			}
+			for (final String key : map.keySet()) {
+				if (key.startsWith(JOURNAL_PREFIX) && key.endsWith("." + JOURNAL_SEQUENCE)) {
+					final String prefix = key.substring(0, key.length() - JOURNAL_SEQUENCE.length());
+					final JournalInfo journalInfo = journalInfo(prefix.substring(JOURNAL_PREFIX.length(), prefix.length() - 1));
+					final String journalOffset = (String) map.get(key);
+					if (isUnset(journalOffset)) {
+						context.otherJournals.put(journalInfo, new JournalProcessedPosition());
+						continue;
+					}
+					context.otherJournals.put(journalInfo, position(journalOffset,
+							(String) map.get(prefix + JOURNAL_TIME), (String) map.get(prefix + JOURNAL_RECEIVER),
+							(String) map.get(prefix + JOURNAL_RECEIVER_LIBRARY),
+							Boolean.valueOf((String) map.get(prefix + JOURNAL_PROCESSED))));
+				}
 			}
-			return new As400OffsetContext(connectorConfig, position, inclueTables, snapshotComplete);
+			return context;
+		}
+
+		private static JournalProcessedPosition position(String offsetStr, String timeStr, String receiver,
+				String receiverLibrary, boolean processed) {
+			final long offset = SequenceNumber.parse(offsetStr);
+			Instant time = (timeStr == null) ? Instant.ofEpochSecond(0) : Instant.ofEpochSecond(Long.parseLong(timeStr));
+			return new JournalProcessedPosition(offset, new JournalReceiver(receiver, receiverLibrary), time, processed);
 		}
 	}
 
@@ -222,11 +387,19 @@ public class As400OffsetContext implements OffsetContext {
 
 	@Override
 	public String toString() {
-		return "As400OffsetContext [position=" + position + "]";
+		return "As400OffsetContext [position=" + position + ", journal=" + journal + ", otherJournals=" + otherJournals + "]";
 	}
 
+	/**
+	 * the chunk rows are read after the other tables, so while there are chunks
+	 * left the last row of the other tables is only the last of its table
+	 */
 	@Override
 	public void markSnapshotRecord(SnapshotRecord record) {
+		if (record == SnapshotRecord.LAST && getSnapshotChunks() != null) {
+			sourceInfo.setSnapshot(SnapshotRecord.LAST_IN_DATA_COLLECTION);
+			return;
+		}
 		sourceInfo.setSnapshot(record);
 	}
 }
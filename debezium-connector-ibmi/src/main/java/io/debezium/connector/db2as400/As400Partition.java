@@ -15,20 +15,34 @@ import io.debezium.util.Collect;
 
 public class As400Partition implements Partition {
 	private static final String SERVER_PARTITION_KEY = "server";
+	private static final String TASK_PARTITION_KEY = "task";
 
 	private final String serverName;
+	private final int taskGroup;
 
 	public As400Partition(String serverName) {
+		this(serverName, 0);
+	}
+
+	/**
+	 * @param taskGroup group of tables captured by the task, the first group
+	 *                  keeps the partition of a single task connector
+	 */
+	public As400Partition(String serverName, int taskGroup) {
 		this.serverName = serverName;
+		this.taskGroup = taskGroup;
 	}
 
 	public As400Partition(As400Partition orig) {
-		this(orig.serverName);
+		this(orig.serverName, orig.taskGroup);
 	}
 
 	@Override
 	public Map<String, String> getSourcePartition() {
-		return Collect.hashMapOf(SERVER_PARTITION_KEY, serverName);
+		if (taskGroup == 0) {
+			return Collect.hashMapOf(SERVER_PARTITION_KEY, serverName);
+		}
+		return Collect.hashMapOf(SERVER_PARTITION_KEY, serverName, TASK_PARTITION_KEY, Integer.toString(taskGroup));
 	}
 
 	@Override
@@ -40,12 +54,12 @@ public class As400Partition implements Partition {
 			return false;
 		}
 		final As400Partition other = (As400Partition) obj;
-		return Objects.equals(serverName, other.serverName);
+		return Objects.equals(serverName, other.serverName) && taskGroup == other.taskGroup;
 	}
 
 	@Override
 	public int hashCode() {
-		return serverName.hashCode();
+		return Objects.hash(serverName, taskGroup);
 	}
 
 	static class Provider implements Partition.Provider<As400Partition> {
@@ -57,7 +71,8 @@ public class As400Partition implements Partition {
 
 		@Override
 		public Set<As400Partition> getPartitions() {
-			return Collections.singleton(new As400Partition(connectorConfig.getLogicalName()));
+			return Collections.singleton(
+					new As400Partition(connectorConfig.getLogicalName(), connectorConfig.getTaskGroup()));
 		}
 	}
 }
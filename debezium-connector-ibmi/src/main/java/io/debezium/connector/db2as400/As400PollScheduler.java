@@ -0,0 +1,113 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.connector.base.ChangeEventQueueMetrics;
+
+/**
+ * decides how long the streaming thread waits between fetches.
+ *
+ * there is no wait while the journal has more entries. Once it is idle the
+ * wait starts at the poll interval and doubles up to the maximum so a quiet
+ * journal costs fewer calls, failures back off the same way. Before each fetch
+ * the thread waits while the change event queue is nearly full rather than
+ * holding a fetched block while dispatch blocks on the queue.
+ */
+public class As400PollScheduler {
+    private static final Logger log = LoggerFactory.getLogger(As400PollScheduler.class);
+    // fetch once a quarter of the queue is free
+    private static final int FREE_QUEUE_FRACTION = 4;
+    private static final long QUEUE_WAIT_MS = 20;
+    // the watch dog is told the thread is alive at least this often while waiting
+    private static final long SLICE_MS = 1000;
+
+    private final long minimumMs;
+    private final long maximumMs;
+    private final ChangeEventQueueMetrics queue;
+    private final Runnable alive;
+    private final Sleeper sleeper;
+    private long backoffMs = 0;
+
+    public interface Sleeper {
+        void sleep(long ms) throws InterruptedException;
+    }
+
+    /**
+     * @param alive called while waiting so the watch dog doesn't interrupt a
+     *            long wait
+     */
+    public As400PollScheduler(Duration pollInterval, Duration maxPollInterval, ChangeEventQueueMetrics queue,
+                              Runnable alive) {
+        this(pollInterval, maxPollInterval, queue, alive, Thread::sleep);
+    }
+
+    As400PollScheduler(Duration pollInterval, Duration maxPollInterval, ChangeEventQueueMetrics queue, Runnable alive,
+                       Sleeper sleeper) {
+        this.minimumMs = Math.max(1, pollInterval.toMillis());
+        this.maximumMs = Math.max(minimumMs, maxPollInterval.toMillis());
+        this.queue = queue;
+        this.alive = alive;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * @param moreAvailable the journal has entries after the fetched block
+     */
+    public void fetched(boolean moreAvailable) throws InterruptedException {
+        if (moreAvailable) {
+            backoffMs = 0;
+            return;
+        }
+        backOff();
+    }
+
+    public void failed() throws InterruptedException {
+        backOff();
+    }
+
+    /**
+     * waits while the change event queue is nearly full
+     */
+    public void awaitQueueSpace(BooleanSupplier running) throws InterruptedException {
+        if (!queueNearlyFull()) {
+            return;
+        }
+        log.debug("waiting for space in the change event queue of {}", queue.totalCapacity());
+        while (running.getAsBoolean() && queueNearlyFull()) {
+            alive.run();
+            sleeper.sleep(QUEUE_WAIT_MS);
+        }
+    }
+
+    long getBackoffMs() {
+        return backoffMs;
+    }
+
+    private boolean queueNearlyFull() {
+        if (queue.remainingCapacity() < queue.totalCapacity() / FREE_QUEUE_FRACTION) {
+            return true;
+        }
+        final long maxBytes = queue.maxQueueSizeInBytes();
+        return maxBytes > 0 && maxBytes - queue.currentQueueSizeInBytes() < maxBytes / FREE_QUEUE_FRACTION;
+    }
+
+    private void backOff() throws InterruptedException {
+        backoffMs = (backoffMs == 0) ? minimumMs : Math.min(maximumMs, backoffMs * 2);
+        long remaining = backoffMs;
+        while (remaining > 0) {
+            alive.run();
+            final long slice = Math.min(remaining, SLICE_MS);
+            sleeper.sleep(slice);
+            remaining -= slice;
+        }
+    }
+}
@@ -5,18 +5,22 @@
  */
 package io.debezium.connector.db2as400;
 
+import java.io.File;
 import java.io.IOException;
-import java.math.BigInteger;
 import java.sql.SQLNonTransientConnectionException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.fnz.db2.journal.retrieve.Connect;
 import com.fnz.db2.journal.retrieve.FileFilter;
+import com.fnz.db2.journal.retrieve.JournalEntryDeocder;
 import com.fnz.db2.journal.retrieve.JournalInfo;
 import com.fnz.db2.journal.retrieve.JournalInfoRetrieval;
 import com.fnz.db2.journal.retrieve.JournalPosition;
@@ -25,12 +29,14 @@ import com.fnz.db2.journal.retrieve.RetrieveConfig;
 import com.fnz.db2.journal.retrieve.RetrieveConfigBuilder;
 import com.fnz.db2.journal.retrieve.RetrieveJournal;
 import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
 import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
 import com.fnz.logging.structured.StructuredMessage;
 import com.ibm.as400.access.AS400;
 import com.ibm.as400.access.SecureAS400;
 import com.ibm.as400.access.SocketProperties;
 
+import io.debezium.connector.db2as400.As400ConnectorConfig.ServerFilterMode;
 import io.debezium.connector.db2as400.metrics.As400StreamingChangeEventSourceMetrics;
 import io.debezium.pipeline.source.spi.ChangeEventSource.ChangeEventSourceContext;
 
@@ -45,29 +51,49 @@ public class As400RpcConnection implements AutoCloseable, Connect<AS400, IOExcep
     private AS400 as400;
     private static SocketProperties socketProperties = new SocketProperties();
     private final LogLimmiting periodic = new LogLimmiting(5 * 60 * 1000l);
-    private final JournalInfoRetrieval journalInfoRetrieval = new JournalInfoRetrieval();
-
-    private final boolean isSecure;
+    private final JournalInfoRetrieval journalInfoRetrieval;
+    private final EntryData currentEntry = this::decodeCurrentEntry;
 
 
     public As400RpcConnection(As400ConnectorConfig config, As400StreamingChangeEventSourceMetrics streamingMetrics, List<FileFilter> includes) {
+        this(config, streamingMetrics, null, includes);
+    }
+
+    /**
+     * @param journalInfo journal to read, looked up from the includes when null
+     */
+    public As400RpcConnection(As400ConnectorConfig config, As400StreamingChangeEventSourceMetrics streamingMetrics, JournalInfo journalInfo,
+                              List<FileFilter> includes) {
         super();
         this.config = config;
-        this.isSecure = config.isSecure();
         this.streamingMetrics = streamingMetrics;
+        final String receiverCache = config.getReceiverCacheFolder();
+        this.journalInfoRetrieval = new JournalInfoRetrieval((receiverCache == null || receiverCache.isBlank())
+                ? Optional.empty()
+                : Optional.of(new File(receiverCache)));
         try {
             System.setProperty("com.ibm.as400.access.AS400.guiAvailable", "False");
-            if (includes.isEmpty()) {
+            if (journalInfo != null) {
+                this.journalInfo = journalInfo;
+            }
+            else if (includes.isEmpty()) {
                 // TODO add in parameters so this is configurable
-                journalInfo = JournalInfoRetrieval.getJournal(connection(), config.getSchema());
-            } else {
-                journalInfo = JournalInfoRetrieval.getJournal(connection(), config.getSchema(), includes);
+                this.journalInfo = JournalInfoRetrieval.getJournal(connection(), config.getSchema());
+            }
+            else {
+                this.journalInfo = JournalInfoRetrieval.getJournal(connection(), config.getSchema(), includes);
             }
+            final ServerFilterMode filter = config.getServerFilterMode();
             final RetrieveConfig rconfig = new RetrieveConfigBuilder().withAs400(this)
                     .withJournalBufferSize(config.getJournalBufferSize())
-                    .withJournalInfo(journalInfo)
+                    .withJournalBufferSizeRange(config.getJournalBufferSizeMin(), config.getJournalBufferSizeMax())
+                    .withJournalInfo(this.journalInfo)
                     .withMaxServerSideEntries(config.getMaxServerSideEntries())
-                    .withServerFiltering(true)
+                    .withMaxServerSideEntriesRange(config.getMaxServerSideEntriesMin(), config.getMaxServerSideEntriesMax(),
+                            config.getTargetFetchMs())
+                    .withPrefetchBlocks(config.getPrefetchBlocks())
+                    .withServerFiltering(filter.filterFiles())
+                    .withEntryTypeFilter(filter.filterEntryTypes() ? As400StreamingChangeEventSource.PROCESSED_ENTRY_TYPES : null)
                     .withIncludeFiles(includes).withDumpFolder(config.diagnosticsFolder()).build();
             retrieveJournal = new RetrieveJournal(rconfig, journalInfoRetrieval);
         }
@@ -76,8 +102,51 @@ public class As400RpcConnection implements AutoCloseable, Connect<AS400, IOExcep
         }
     }
 
+    private Object[] decodeCurrentEntry(JournalEntryDeocder<Object[]> decoder) throws Exception {
+        final long start = System.nanoTime();
+        final Object[] row = retrieveJournal.decode(decoder);
+        streamingMetrics.recordDecode(System.nanoTime() - start);
+        return row;
+    }
+
+    /**
+     * one connection for each journal the included tables are journaled to, the
+     * included tables may be in any schema
+     */
+    public static List<As400RpcConnection> forJournals(As400ConnectorConfig config,
+                                                       As400StreamingChangeEventSourceMetrics streamingMetrics, List<FileFilter> includes)
+            throws IOException {
+        if (includes.isEmpty()) {
+            return List.of(new As400RpcConnection(config, streamingMetrics, includes));
+        }
+        final Map<JournalInfo, List<FileFilter>> journals;
+        AS400 lookup = null;
+        try {
+            lookup = newAs400(config);
+            journals = JournalInfoRetrieval.getJournals(lookup, includes);
+        }
+        catch (final Exception e) {
+            throw new IOException("Failed to find journals", e);
+        }
+        finally {
+            if (lookup != null) {
+                lookup.disconnectAllServices();
+            }
+        }
+        log.info("capturing from journals {}", journals.keySet());
+        final List<As400RpcConnection> connections = new ArrayList<>();
+        for (final Map.Entry<JournalInfo, List<FileFilter>> e : journals.entrySet()) {
+            connections.add(new As400RpcConnection(config, streamingMetrics, e.getKey(), e.getValue()));
+        }
+        return connections;
+    }
+
+    public JournalInfo getJournalInfo() {
+        return journalInfo;
+    }
+
     @Override
-    public void close() {
+    public synchronized void close() {
         try {
             if (as400 != null) {
                 log.info("Disconnecting");
@@ -91,27 +160,31 @@ public class As400RpcConnection implements AutoCloseable, Connect<AS400, IOExcep
         this.as400 = null;
     }
 
-    public boolean isValid() {
+    /**
+     * stops fetching ahead and waits for the prefetch thread to exit
+     */
+    public void stopPrefetch() {
+        if (retrieveJournal != null) {
+            retrieveJournal.close();
+        }
+    }
+
+    public synchronized boolean isValid() {
         return (as400 != null && as400.isConnectionAlive(AS400.COMMAND));
 
     }
 
+    /**
+     * synchronized as the prefetch thread fetches through the same connection
+     */
     @Override
-    public AS400 connection() throws IOException {
+    public synchronized AS400 connection() throws IOException {
         if (as400 == null || !as400.isConnectionAlive(AS400.COMMAND)) {
             log.info("create new as400 connection");
             try {
                 // need to both create a new object and connect
                 close();
-                if (isSecure) {
-                    this.as400 = new SecureAS400(config.getHostName(), config.getUser(),
-                            config.getPassword().toCharArray());
-                } else {
-                    this.as400 = new AS400(config.getHostName(), config.getUser(), config.getPassword().toCharArray());
-                }
-                socketProperties.setSoTimeout(config.getSocketTimeout());
-                as400.setSocketProperties(socketProperties);
-                as400.connectService(AS400.COMMAND);
+                this.as400 = newAs400(config);
             }
             catch (final Exception e) {
                 log.error("Failed to reconnect", e);
@@ -121,6 +194,20 @@ public class As400RpcConnection implements AutoCloseable, Connect<AS400, IOExcep
         return as400;
     }
 
+    private static AS400 newAs400(As400ConnectorConfig config) throws Exception {
+        final AS400 as400;
+        if (config.isSecure()) {
+            as400 = new SecureAS400(config.getHostName(), config.getUser(),
+                    config.getPassword().toCharArray());
+        } else {
+            as400 = new AS400(config.getHostName(), config.getUser(), config.getPassword().toCharArray());
+        }
+        socketProperties.setSoTimeout(config.getSocketTimeout());
+        as400.setSocketProperties(socketProperties);
+        as400.connectService(AS400.COMMAND);
+        return as400;
+    }
+
     public JournalPosition getCurrentPosition() throws RpcException {
         try {
             final JournalPosition position = journalInfoRetrieval.getCurrentPosition(connection(), journalInfo);
@@ -132,10 +219,15 @@ public class As400RpcConnection implements AutoCloseable, Connect<AS400, IOExcep
         }
     }
 
-    public boolean getJournalEntries(ChangeEventSourceContext context, As400OffsetContext offsetCtx, BlockingReceiverConsumer consumer, WatchDog watchDog)
+    /**
+     * @param decodeStage decodes the row images ahead of dispatch, null to decode
+     *                    each entry as it is accepted
+     */
+    public boolean getJournalEntries(ChangeEventSourceContext context, As400OffsetContext offsetCtx, BlockingReceiverConsumer consumer,
+                                     As400DecodeStage decodeStage, WatchDog watchDog)
             throws Exception {
         boolean success = false;
-        final JournalProcessedPosition position = offsetCtx.getPosition();
+        final JournalProcessedPosition position = offsetCtx.getPosition(journalInfo);
         success = retrieveJournal.retrieveJournal(position);
 
         logOffsets(position, success);
@@ -143,18 +235,28 @@ public class As400RpcConnection implements AutoCloseable, Connect<AS400, IOExcep
         watchDog.alive();
 
         if (success) {
-            while (retrieveJournal.nextEntry() && context.isRunning()) {
-                watchDog.alive();
-                final EntryHeader eheader = retrieveJournal.getEntryHeader();
-                final BigInteger processingOffset = eheader.getSequenceNumber();
-
-                consumer.accept(processingOffset, retrieveJournal, eheader);
-                // while processing journal entries getPosistion is the current position
-                position.setPosition(retrieveJournal.getPosition());
+            if (retrieveJournal.getLastFetchNanos() > 0) {
+                final FirstHeader header = retrieveJournal.getFirstHeader();
+                streamingMetrics.recordRetrieve(retrieveJournal.getLastFetchNanos(), header.totalBytes(), header.size());
+            }
+            if (decodeStage != null) {
+                decodeStage.process(context::isRunning, retrieveJournal, consumer, watchDog, p -> offsetCtx.setPosition(journalInfo, p));
+            }
+            else {
+                while (retrieveJournal.nextEntry() && context.isRunning()) {
+                    watchDog.alive();
+                    final EntryHeader eheader = retrieveJournal.getEntryHeader();
+                    final long processingOffset = eheader.getSequenceNumber();
+
+                    consumer.accept(processingOffset, currentEntry, eheader);
+                    // while processing journal entries getPosistion is the current position
+                    offsetCtx.setPosition(journalInfo, retrieveJournal.getPosition());
+                }
             }
 
             // note that getPosition returns the current position or the next continuation offset after the current block
-            offsetCtx.setPosition(retrieveJournal.getPosition());
+            offsetCtx.setPosition(journalInfo, retrieveJournal.getPosition());
+            updateLag(offsetCtx.getPosition(journalInfo));
 
         }
         else {
@@ -163,31 +265,78 @@ public class As400RpcConnection implements AutoCloseable, Connect<AS400, IOExcep
             log.error(new StructuredMessage("Failed to fetch journal entries, resetting journal to blank",
                     Map.of("position", position,
                             "receivers", receivers)));
-            offsetCtx.setPosition(new JournalProcessedPosition());
+            offsetCtx.setPosition(journalInfo, new JournalProcessedPosition());
         }
 
-        return success && retrieveJournal.futureDataAvailable();
+        // a range that stopped short of the end of the journal is followed straight away
+        return success && (retrieveJournal.futureDataAvailable()
+                || retrieveJournal.entriesBehind(offsetCtx.getPosition(journalInfo)) > 0);
+    }
+
+    /**
+     * lag from the end of the journal the fetch already looked up, so it is
+     * current after every block without any extra calls
+     */
+    private void updateLag(JournalProcessedPosition position) {
+        final long behind = retrieveJournal.entriesBehind(position);
+        final Optional<JournalPosition> end = retrieveJournal.journalEnd();
+        if (behind < 0 || end.isEmpty()) {
+            return;
+        }
+        final String journal = As400OffsetContext.journalKey(journalInfo);
+        final Instant lastProcessed = position.getTimeOfLastProcessed();
+        if (lastProcessed != null && lastProcessed.isAfter(Instant.EPOCH)) {
+            streamingMetrics.setJournalLag(journal, end.get().getOffset(), behind, lastProcessed.toEpochMilli(),
+                    (behind == 0) ? 0 : Math.max(0, System.currentTimeMillis() - lastProcessed.toEpochMilli()));
+        }
+        else {
+            streamingMetrics.setJournalLag(journal, end.get().getOffset(), behind);
+        }
     }
 
     private void logOffsets(JournalProcessedPosition position, boolean success) throws IOException, Exception {
         if (periodic.shouldLogRateLimted("offsets")) {
-            final JournalPosition currentReceiver = getCurrentPosition();
-            final BigInteger behind = currentReceiver.getOffset().subtract(position.getOffset());
-            streamingMetrics.setJournalOffset(currentReceiver.getOffset());
-            streamingMetrics.setJournalBehind(behind);
-            streamingMetrics.setLastProcessedMs(position.getTimeOfLastProcessed().toEpochMilli());
+            long behind = retrieveJournal.entriesBehind(position);
+            final JournalPosition currentReceiver;
+            if (behind < 0) {
+                // the receiver isn't one the fetch has seen, only now ask the server
+                currentReceiver = getCurrentPosition();
+                behind = currentReceiver.getOffset() - position.getOffset();
+                streamingMetrics.setJournalLag(As400OffsetContext.journalKey(journalInfo), currentReceiver.getOffset(), behind);
+            }
+            else {
+                currentReceiver = retrieveJournal.journalEnd().orElse(null);
+            }
             log.info(new StructuredMessage("current position diagnostics",
                     Map.of("header", retrieveJournal.getFirstHeader(),
                             "behind", behind,
                             "position", position,
-                            "currentReceiver", currentReceiver,
+                            "currentReceiver", String.valueOf(currentReceiver),
+                            "entryRange", retrieveJournal.getEntryRange(),
                             "success", success)));
 
         }
     }
 
     public static interface BlockingReceiverConsumer {
-        void accept(BigInteger offset, RetrieveJournal r, EntryHeader eheader) throws RpcException, InterruptedException, IOException, SQLNonTransientConnectionException;
+        void accept(long offset, EntryData r, EntryHeader eheader) throws RpcException, InterruptedException, IOException, SQLNonTransientConnectionException;
+
+        /**
+         * called in journal order before the entry is accepted so its row image
+         * can be decoded on another thread
+         *
+         * @return the decoder accept will use, empty to decode when accepted
+         */
+        default Optional<JournalEntryDeocder<Object[]>> decoderFor(EntryHeader eheader) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * the row image of the entry being accepted
+     */
+    public static interface EntryData {
+        Object[] decode(JournalEntryDeocder<Object[]> decoder) throws Exception;
     }
 
     public static interface BlockingNoDataConsumer {
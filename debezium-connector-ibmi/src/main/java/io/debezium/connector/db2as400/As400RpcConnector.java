@@ -6,8 +6,11 @@
 package io.debezium.connector.db2as400;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.connector.Task;
@@ -16,9 +19,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.debezium.config.Configuration;
+import io.debezium.relational.RelationalDatabaseConnectorConfig;
 
 public class As400RpcConnector extends SourceConnector {
     private static final Logger log = LoggerFactory.getLogger(As400RpcConnector.class);
+    // the dot may be escaped as the include list entries are regular expressions
+    private static final Pattern PLAIN_TABLE = Pattern.compile("[A-Za-z0-9_#@]+\\\\?\\.[A-Za-z0-9_#@]+");
 
     private Map<String, String> props;
 
@@ -44,14 +50,64 @@ public class As400RpcConnector extends SourceConnector {
         return As400ConnectorTask.class;
     }
 
+    /**
+     * with more than one task the include list is split into groups of tables,
+     * each task captures its group with the journal filtered server side to
+     * just those tables and keeps its own partition and offsets. Transactions
+     * spanning tables in different groups are split between tasks.
+     *
+     * the offsets belong to the group, so changing tasks.max moves tables to
+     * other groups and a moved table is snapshotted again by its new task.
+     * Include lists with regular expressions are not split, a single task
+     * captures all of them.
+     */
     @Override
     public List<Map<String, String>> taskConfigs(int maxTasks) {
-        // TODO Auto-generated method stub
-        List<Map<String, String>> l = new ArrayList<>();
-        l.add(props);
+        final Map<Integer, String> groups = tableGroups(props.get(RelationalDatabaseConnectorConfig.TABLE_INCLUDE_LIST.name()), maxTasks);
+        final List<Map<String, String>> l = new ArrayList<>();
+        if (groups.size() <= 1) {
+            l.add(props);
+            return l;
+        }
+        for (final Map.Entry<Integer, String> group : groups.entrySet()) {
+            final Map<String, String> taskProps = new HashMap<>(props);
+            taskProps.put(RelationalDatabaseConnectorConfig.TABLE_INCLUDE_LIST.name(), group.getValue());
+            taskProps.put(As400ConnectorConfig.TASK_GROUP.name(), Integer.toString(group.getKey()));
+            l.add(taskProps);
+        }
+        log.info("split tables over {} tasks {}", l.size(), groups);
         return l;
     }
 
+    /**
+     * a table's group only depends on its name and the number of tasks so
+     * adding a table doesn't move the others to another task. Groups with no
+     * tables are left out.
+     *
+     * @return include list for each group number, empty when any entry is not a
+     *         plain schema.table name as a regular expression may match tables
+     *         that hash to other groups
+     */
+    static Map<Integer, String> tableGroups(String includes, int maxTasks) {
+        final Map<Integer, String> groups = new TreeMap<>();
+        if (includes == null || includes.isBlank() || maxTasks <= 1) {
+            return groups;
+        }
+        for (final String include : includes.split(",")) {
+            final String table = include.trim();
+            if (table.isEmpty()) {
+                continue;
+            }
+            if (!PLAIN_TABLE.matcher(table).matches()) {
+                log.warn("include list entry {} is not a plain schema.table name, not splitting tables over tasks", table);
+                return new TreeMap<>();
+            }
+            final String name = table.replace("\\.", ".").toUpperCase();
+            groups.merge(Math.floorMod(name.hashCode(), maxTasks), table, (a, b) -> a + "," + b);
+        }
+        return groups;
+    }
+
     @Override
     public void stop() {
         // TODO Auto-generated method stub
@@ -0,0 +1,170 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fnz.db2.journal.retrieve.Connect;
+import com.fnz.db2.journal.retrieve.JdbcFileDecoder;
+import com.fnz.db2.journal.retrieve.SchemaMetadata;
+import com.fnz.db2.journal.retrieve.SchemaMetadataStore;
+
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables.TableFilter;
+
+/**
+ * loads the metadata of every included table before streaming starts so the
+ * first entry for each table doesn't wait on several catalog queries.
+ *
+ * each schema is fetched with a handful of set based queries, with more than
+ * one thread the schemas are fetched in parallel on their own connections. The
+ * results are always cached on the calling thread. Any failure just leaves the
+ * tables to be fetched on first sight.
+ *
+ * when a schema cache folder is configured the fetched metadata is kept there
+ * and reused after a restart, checked with a single catalog query per schema.
+ */
+public class As400SchemaPreload {
+    private static final Logger log = LoggerFactory.getLogger(As400SchemaPreload.class);
+
+    private final As400ConnectorConfig config;
+    private final As400JdbcConnection jdbcConnection;
+    private final As400DatabaseSchema schema;
+
+    public As400SchemaPreload(As400ConnectorConfig config, As400JdbcConnection jdbcConnection,
+                              As400DatabaseSchema schema) {
+        this.config = config;
+        this.jdbcConnection = jdbcConnection;
+        this.schema = schema;
+    }
+
+    public void preload() throws InterruptedException {
+        final Set<String> schemas = schemas();
+        final int threads = Math.max(1, Math.min(config.getSchemaPreloadThreads(), schemas.size()));
+        final long start = System.currentTimeMillis();
+        log.info("preloading table metadata for schemas {} threads {}", schemas, threads);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Map<String, Future<SchemaMetadata>> fetches = new LinkedHashMap<>();
+            for (final String s : schemas) {
+                fetches.put(s, executor.submit(() -> fetch(s, threads > 1)));
+            }
+
+            int tables = 0;
+            for (final Map.Entry<String, Future<SchemaMetadata>> e : fetches.entrySet()) {
+                try {
+                    final SchemaMetadata metadata = e.getValue().get();
+                    jdbcConnection.getAllSystemNames(e.getKey());
+                    tables += schema.load(metadata);
+                }
+                catch (final ExecutionException | SQLException ex) {
+                    log.warn("failed to preload schema {} tables will be loaded on first use", e.getKey(), ex);
+                }
+            }
+            log.info("preloaded {} tables in {} ms", tables, System.currentTimeMillis() - start);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Set<String> schemas() {
+        try {
+            return schemas(config, jdbcConnection);
+        }
+        catch (final SQLException e) {
+            log.warn("failed to find the included schemas tables will be loaded on first use", e);
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * schemas holding included tables found in the catalog as the include list
+     * entries are regular expressions, the default schema without an include
+     * list
+     */
+    static Set<String> schemas(As400ConnectorConfig config, As400JdbcConnection jdbcConnection) throws SQLException {
+        final String includes = config.tableIncludeList();
+        if (includes == null || includes.isBlank()) {
+            return schemas(config.getSchema(), List.of(), t -> false);
+        }
+        return schemas(config.getSchema(), jdbcConnection.getAllTables(), config.getTableFilters().dataCollectionFilter());
+    }
+
+    private SchemaMetadata fetch(String schemaName, boolean ownConnection) throws Exception {
+        if (!ownConnection) {
+            return fetch(jdbcConnection, schemaName);
+        }
+        try (As400JdbcConnection connection = new As400JdbcConnection(config.getJdbcConfiguration())) {
+            return fetch(connection, schemaName);
+        }
+    }
+
+    /**
+     * uses the metadata kept on disk when the catalog shows the same tables and
+     * none have been altered since, otherwise fetches and keeps it
+     */
+    private SchemaMetadata fetch(Connect<Connection, SQLException> connection, String schemaName) throws SQLException {
+        final JdbcFileDecoder decoder = schema.getFileDecoder();
+        final String database = jdbcConnection.getRealDatabaseName();
+        final Optional<SchemaMetadataStore> store = schema.getMetadataStore();
+
+        final Optional<SchemaMetadata> stored = store.flatMap(s -> s.read(database, schemaName));
+        if (stored.isPresent()) {
+            final Map<String, Long> altered = decoder.lastAltered(connection, schemaName,
+                    table -> isIncluded(database, schemaName, table));
+            if (stored.get().isCurrent(altered)) {
+                log.info("using stored metadata for schema {}", schemaName);
+                return stored.get();
+            }
+            log.info("stored metadata for schema {} is out of date", schemaName);
+        }
+
+        final SchemaMetadata metadata = decoder.fetchSchemaMetadata(connection, schemaName,
+                table -> isIncluded(database, schemaName, table));
+        store.ifPresent(s -> s.write(database, metadata));
+        return metadata;
+    }
+
+    private boolean isIncluded(String database, String schemaName, String table) {
+        return config.getTableFilters().dataCollectionFilter().isIncluded(new TableId(database, schemaName, table));
+    }
+
+    /**
+     * @param tables candidate tables from the catalog
+     * @return the schemas of the included tables or the default schema when
+     *         none are included
+     */
+    static Set<String> schemas(String defaultSchema, Collection<TableId> tables, TableFilter filter) {
+        final Set<String> schemas = new LinkedHashSet<>();
+        for (final TableId table : tables) {
+            if (!schemas.contains(table.schema()) && filter.isIncluded(table)) {
+                schemas.add(table.schema());
+            }
+        }
+        if (schemas.isEmpty() && defaultSchema != null && !defaultSchema.isBlank()) {
+            schemas.add(defaultSchema);
+        }
+        return schemas;
+    }
+}
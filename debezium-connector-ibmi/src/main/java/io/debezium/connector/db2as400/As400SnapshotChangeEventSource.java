@@ -5,6 +5,7 @@
  */
 package io.debezium.connector.db2as400;
 
+import java.sql.SQLException;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -23,7 +24,6 @@ import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
 
 import io.debezium.connector.db2as400.As400OffsetContext.Loader;
 import io.debezium.jdbc.MainConnectionProvidingConnectionFactory;
-import io.debezium.pipeline.EventDispatcher;
 import io.debezium.pipeline.notification.NotificationService;
 import io.debezium.pipeline.source.SnapshottingTask;
 import io.debezium.pipeline.source.spi.SnapshotProgressListener;
@@ -41,12 +41,15 @@ extends RelationalSnapshotChangeEventSource<As400Partition, As400OffsetContext>
 
 	private final As400ConnectorConfig connectorConfig;
 	private final As400JdbcConnection jdbcConnection;
-	private final As400RpcConnection rpcConnection;
+	private final List<As400RpcConnection> rpcConnections;
 	private final As400DatabaseSchema schema;
+	private final As400ChunkedSnapshot chunkedSnapshot;
+	private ChangeEventSourceContext context;
+	private boolean snapshotData;
 
-	public As400SnapshotChangeEventSource(As400ConnectorConfig connectorConfig, As400RpcConnection rpcConnection,
+	public As400SnapshotChangeEventSource(As400ConnectorConfig connectorConfig, List<As400RpcConnection> rpcConnections,
 			MainConnectionProvidingConnectionFactory<As400JdbcConnection> jdbcConnectionFactory,
-			As400DatabaseSchema schema, EventDispatcher<As400Partition, TableId> dispatcher, Clock clock,
+			As400DatabaseSchema schema, As400EventDispatcher dispatcher, Clock clock,
 			SnapshotProgressListener<As400Partition> snapshotProgressListener,
 			NotificationService<As400Partition, As400OffsetContext> notificationService) {
 
@@ -54,14 +57,17 @@ extends RelationalSnapshotChangeEventSource<As400Partition, As400OffsetContext>
 				notificationService);
 
 		this.connectorConfig = connectorConfig;
-		this.rpcConnection = rpcConnection;
+		this.rpcConnections = rpcConnections;
 		this.jdbcConnection = jdbcConnectionFactory.mainConnection();
 		this.schema = schema;
+		this.chunkedSnapshot = new As400ChunkedSnapshot(connectorConfig, schema, dispatcher, clock);
 	}
 
 	@Override
 	public SnapshotResult<As400OffsetContext> execute(ChangeEventSourceContext context, As400Partition partition,
 			As400OffsetContext previousOffset, SnapshottingTask snapshottingTask) throws InterruptedException {
+		this.context = context;
+		this.snapshotData = snapshottingTask.snapshotData();
 		if (snapshottingTask.shouldSkipSnapshot()) {
 			log.info("snapshotting skipped but fetching structure");
 			final RelationalSnapshotContext<As400Partition, As400OffsetContext> ctx;
@@ -74,7 +80,25 @@ extends RelationalSnapshotChangeEventSource<As400Partition, As400OffsetContext>
 			}
 			log.info("finished fetching structure");
 		}
-		return super.execute(context, partition, previousOffset, snapshottingTask);
+		final SnapshotResult<As400OffsetContext> result = super.execute(context, partition, previousOffset,
+				snapshottingTask);
+		// chunks left by a snapshot that completed, otherwise read before the snapshot completes
+		if (snapshottingTask.shouldSkipSnapshot() && result.isCompletedOrSkipped() && previousOffset != null) {
+			chunkedSnapshot.resume(context, partition, previousOffset);
+		}
+		return result;
+	}
+
+	/**
+	 * the large tables are read in chunks once the other tables have been, this
+	 * is the last step before the snapshot completes
+	 */
+	@Override
+	protected void releaseDataSnapshotLocks(
+			RelationalSnapshotContext<As400Partition, As400OffsetContext> snapshotContext) throws Exception {
+		if (snapshotData) {
+			chunkedSnapshot.readBeforeCompletion(context, snapshotContext.partition, snapshotContext.offset);
+		}
 	}
 
 	void determineTables(RelationalSnapshotContext<As400Partition, As400OffsetContext> ctx,
@@ -110,8 +134,16 @@ extends RelationalSnapshotChangeEventSource<As400Partition, As400OffsetContext>
 	@Override
 	protected Set<TableId> getAllTableIds(RelationalSnapshotContext<As400Partition, As400OffsetContext> snapshotContext)
 			throws Exception {
-		final Set<TableId> tables = jdbcConnection.readTableNames(jdbcConnection.getRealDatabaseName(),
-				connectorConfig.getSchema(), null, new String[] { "TABLE" });
+		if (!connectorConfig.isMultiJournal()) {
+			return jdbcConnection.readTableNames(jdbcConnection.getRealDatabaseName(), connectorConfig.getSchema(),
+					null, new String[] { "TABLE" });
+		}
+		// the included tables may be in any schema
+		final Set<TableId> tables = new HashSet<>();
+		for (final String s : As400SchemaPreload.schemas(connectorConfig, jdbcConnection)) {
+			tables.addAll(jdbcConnection.readTableNames(jdbcConnection.getRealDatabaseName(), s, null,
+					new String[] { "TABLE" }));
+		}
 		return tables;
 	}
 
@@ -125,15 +157,50 @@ extends RelationalSnapshotChangeEventSource<As400Partition, As400OffsetContext>
 	protected void determineSnapshotOffset(
 			RelationalSnapshotContext<As400Partition, As400OffsetContext> snapshotContext,
 			As400OffsetContext previousOffset) throws Exception {
-		if (previousOffset != null && previousOffset.isPosisionSet()) {
-			snapshotContext.offset = previousOffset;
+		final Instant now = Instant.now();
+		final Optional<As400OffsetContext> resumed = resumeOffset(connectorConfig, previousOffset);
+		if (resumed.isPresent()) {
+			log.info("resuming the snapshot from {} with chunks {}", previousOffset.getPosition(),
+					resumed.get().getSnapshotChunks());
+			snapshotContext.offset = resumed.get();
+			// a journal added since carries on from now
+			for (final As400RpcConnection c : rpcConnections) {
+				if (!snapshotContext.offset.getPosition(c.getJournalInfo()).isOffsetSet()) {
+					snapshotContext.offset.setPosition(c.getJournalInfo(),
+							new JournalProcessedPosition(c.getCurrentPosition(), now, true));
+				}
+			}
+			return;
 		}
 
-		final Instant now = Instant.now();
-		final JournalPosition position = rpcConnection.getCurrentPosition();
+		final JournalPosition position = rpcConnections.get(0).getCurrentPosition();
 		// set last entry to processed, so we don't process it again
 		final JournalProcessedPosition processedPos = new JournalProcessedPosition(position, now, true);
 		snapshotContext.offset = new As400OffsetContext(connectorConfig, processedPos);
+		// the first journal claims the position above, the rest get their own
+		for (final As400RpcConnection c : rpcConnections) {
+			final JournalPosition current = (c == rpcConnections.get(0)) ? position : c.getCurrentPosition();
+			snapshotContext.offset.setPosition(c.getJournalInfo(), new JournalProcessedPosition(current, now, true));
+		}
+	}
+
+	/**
+	 * a snapshot stopped part way through its chunks carries on from the position
+	 * it took, the rows of the chunks it read are then followed by every change
+	 * made since. Otherwise a new position is taken and the chunks are not kept,
+	 * as rows read before it would miss the changes in between
+	 *
+	 * @return the offset to carry on from, empty to take a new position
+	 */
+	static Optional<As400OffsetContext> resumeOffset(As400ConnectorConfig config, As400OffsetContext previousOffset) {
+		if (previousOffset == null || previousOffset.isSnapshotCompplete() || !previousOffset.isPosisionSet()
+				|| previousOffset.getSnapshotChunks() == null) {
+			return Optional.empty();
+		}
+		final As400OffsetContext offset = new Loader(config).load(previousOffset.getOffset());
+		// read again with their select override
+		offset.getSnapshotChunks().removeIf(t -> As400ChunkedSnapshot.selectOverride(config, t).isPresent());
+		return Optional.of(offset);
 	}
 
 	@Override
@@ -193,9 +260,43 @@ extends RelationalSnapshotChangeEventSource<As400Partition, As400OffsetContext>
 	protected Optional<String> getSnapshotSelect(
 			RelationalSnapshotContext<As400Partition, As400OffsetContext> snapshotContext, TableId tableId,
 			List<String> columns) {
+		if (isChunked(snapshotContext.offset, tableId)) {
+			// read later by the chunked snapshot
+			return Optional.empty();
+		}
 		return Optional.of(String.format("SELECT * FROM %s.%s", tableId.schema(), tableId.table()));
 	}
 
+	/**
+	 * adds the table to the chunks in the offset when it is large enough, the
+	 * chunks are kept in the offset from then on so a restart reads them even
+	 * if the rest of the snapshot has completed. Not called for a table with a
+	 * select override, it is read with the override
+	 */
+	private boolean isChunked(As400OffsetContext offset, TableId tableId) {
+		final long chunkRows = connectorConfig.getSnapshotChunkRows();
+		if (chunkRows <= 0) {
+			return false;
+		}
+		try {
+			final long slots = jdbcConnection.getRowSlots(tableId);
+			if (slots <= chunkRows) {
+				return false;
+			}
+			As400SnapshotChunks chunks = offset.getSnapshotChunks();
+			if (chunks == null) {
+				chunks = new As400SnapshotChunks();
+				offset.setSnapshotChunks(chunks);
+			}
+			chunks.add(tableId, slots, chunkRows);
+			log.info("snapshotting {} with {} row slots in chunks", tableId, slots);
+			return true;
+		} catch (final SQLException e) {
+			log.warn("unable to find the size of {} reading it in one query", tableId, e);
+			return false;
+		}
+	}
+
 	@Override
 	public SnapshottingTask getSnapshottingTask(As400Partition partition, As400OffsetContext previousOffset) {
 		final List<String> dataCollectionsToBeSnapshotted = connectorConfig.getDataCollectionsToBeSnapshotted();
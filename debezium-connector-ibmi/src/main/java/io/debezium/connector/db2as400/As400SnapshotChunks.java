@@ -0,0 +1,146 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import io.debezium.relational.TableId;
+
+/**
+ * the relative record number ranges of the large tables read by the initial
+ * snapshot and which of them have been read. Kept in the offsets so an
+ * interrupted snapshot only reads the chunks that hadn't finished.
+ *
+ * encoded as table|slots|chunk rows|finished chunks for each table separated by
+ * ';', the finished chunks as ranges such as 0-4,7
+ */
+public class As400SnapshotChunks {
+    private final Map<TableId, TableChunks> tables = new LinkedHashMap<>();
+
+    /**
+     * keeps the chunks of a table already added so the chunks read before a
+     * restart aren't read again
+     */
+    public synchronized void add(TableId table, long slots, long chunkRows) {
+        tables.putIfAbsent(table, new TableChunks(slots, chunkRows, new BitSet()));
+    }
+
+    public synchronized boolean isEmpty() {
+        return tables.isEmpty();
+    }
+
+    /**
+     * @return the chunks not yet read in table order
+     */
+    public synchronized List<Chunk> pending() {
+        final List<Chunk> pending = new ArrayList<>();
+        for (final Map.Entry<TableId, TableChunks> e : tables.entrySet()) {
+            final TableChunks t = e.getValue();
+            for (int i = t.finished.nextClearBit(0); i < t.count(); i = t.finished.nextClearBit(i + 1)) {
+                final long from = i * t.chunkRows + 1;
+                final long to = (i == t.count() - 1) ? Long.MAX_VALUE : from + t.chunkRows - 1;
+                pending.add(new Chunk(e.getKey(), i, from, to));
+            }
+        }
+        return pending;
+    }
+
+    public synchronized void finished(Chunk chunk) {
+        tables.get(chunk.table()).finished.set(chunk.index());
+    }
+
+    /**
+     * marks every chunk of the table as read
+     */
+    public synchronized void finished(TableId table) {
+        final TableChunks t = tables.get(table);
+        t.finished.set(0, t.count());
+    }
+
+    /**
+     * forgets the chunks of the tables, they are read some other way
+     */
+    public synchronized void removeIf(Predicate<TableId> remove) {
+        tables.keySet().removeIf(remove);
+    }
+
+    public synchronized boolean isFinished() {
+        return tables.values().stream().allMatch(t -> t.finished.nextClearBit(0) >= t.count());
+    }
+
+    public synchronized String encode() {
+        final StringBuilder sb = new StringBuilder();
+        for (final Map.Entry<TableId, TableChunks> e : tables.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            final TableChunks t = e.getValue();
+            sb.append(e.getKey().identifier()).append('|').append(t.slots).append('|').append(t.chunkRows).append('|');
+            boolean first = true;
+            for (int i = t.finished.nextSetBit(0); i >= 0; i = t.finished.nextSetBit(i + 1)) {
+                final int end = t.finished.nextClearBit(i) - 1;
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(i);
+                if (end > i) {
+                    sb.append('-').append(end);
+                }
+                first = false;
+                i = end;
+            }
+        }
+        return sb.toString();
+    }
+
+    public static As400SnapshotChunks decode(String encoded) {
+        final As400SnapshotChunks chunks = new As400SnapshotChunks();
+        if (encoded == null || encoded.isBlank()) {
+            return chunks;
+        }
+        for (final String table : encoded.split(";")) {
+            final String[] parts = table.split("\\|", -1);
+            final BitSet finished = new BitSet();
+            if (!parts[3].isEmpty()) {
+                for (final String range : parts[3].split(",")) {
+                    final int dash = range.indexOf('-');
+                    if (dash < 0) {
+                        finished.set(Integer.parseInt(range));
+                    }
+                    else {
+                        finished.set(Integer.parseInt(range.substring(0, dash)), Integer.parseInt(range.substring(dash + 1)) + 1);
+                    }
+                }
+            }
+            chunks.tables.put(TableId.parse(parts[0]),
+                    new TableChunks(Long.parseLong(parts[1]), Long.parseLong(parts[2]), finished));
+        }
+        return chunks;
+    }
+
+    @Override
+    public String toString() {
+        return "As400SnapshotChunks [" + encode() + "]";
+    }
+
+    /**
+     * relative record numbers from and to inclusive, the last chunk of a table
+     * is open ended
+     */
+    public record Chunk(TableId table, int index, long from, long to) {
+    }
+
+    private record TableChunks(long slots, long chunkRows, BitSet finished) {
+        int count() {
+            return (int) Math.max(1, (slots + chunkRows - 1) / chunkRows);
+        }
+    }
+}
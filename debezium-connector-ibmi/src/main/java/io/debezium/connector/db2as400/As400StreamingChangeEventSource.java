@@ -8,24 +8,44 @@ package io.debezium.connector.db2as400;
 import java.io.IOException;
 import java.sql.SQLNonTransientConnectionException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fnz.db2.journal.retrieve.JdbcFileDecoder;
+import com.fnz.db2.journal.retrieve.JournalEntryDeocder;
 import com.fnz.db2.journal.retrieve.JournalEntryType;
+import com.fnz.db2.journal.retrieve.JournalInfo;
 import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
+import com.fnz.db2.journal.retrieve.SequenceNumber;
 import com.fnz.db2.journal.retrieve.exception.FatalException;
 import com.fnz.db2.journal.retrieve.exception.InvalidPositionException;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
 
 import io.debezium.DebeziumException;
+import io.debezium.connector.base.ChangeEventQueueMetrics;
 import io.debezium.connector.db2as400.As400RpcConnection.BlockingReceiverConsumer;
+import io.debezium.connector.db2as400.As400RpcConnection.EntryData;
+import io.debezium.connector.db2as400.As400TableResolver.ResolvedTable;
+import io.debezium.connector.db2as400.metrics.As400StreamingChangeEventSourceMetrics;
 import io.debezium.data.Envelope.Operation;
 import io.debezium.pipeline.ErrorHandler;
 import io.debezium.pipeline.EventDispatcher;
@@ -33,13 +53,16 @@ import io.debezium.pipeline.source.spi.StreamingChangeEventSource;
 import io.debezium.pipeline.txmetadata.TransactionContext;
 import io.debezium.relational.TableId;
 import io.debezium.util.Clock;
-import io.debezium.util.Metronome;
 
 /**
  * <p>
  * A {@link StreamingChangeEventSource} A main loop polls using a RPC call for
  * new journal entries and turns them into change events.
  * </p>
+ * <p>
+ * When the tables are spread over several journals each journal is polled on
+ * its own thread with its own offset.
+ * </p>
  */
 public class As400StreamingChangeEventSource implements StreamingChangeEventSource<As400Partition, As400OffsetContext> {
     private static final String NO_TRANSACTION_ID = "00000000000000000000";
@@ -48,14 +71,33 @@ public class As400StreamingChangeEventSource implements StreamingChangeEventSour
 
     private static final Logger log = LoggerFactory.getLogger(As400StreamingChangeEventSource.class);
 
-    private final HashMap<String, Object[]> beforeMap = new HashMap<>();
+    /**
+     * every entry type handled below, used to filter the journal server side
+     */
+    static final Set<JournalEntryType> PROCESSED_ENTRY_TYPES = Collections.unmodifiableSet(EnumSet.of(
+            JournalEntryType.START_COMMIT, JournalEntryType.END_COMMIT, JournalEntryType.FILE_CHANGE,
+            JournalEntryType.FILE_CREATED, JournalEntryType.BEFORE_IMAGE, JournalEntryType.AFTER_IMAGE,
+            JournalEntryType.ADD_ROW1, JournalEntryType.ADD_ROW2, JournalEntryType.DELETE_ROW1,
+            JournalEntryType.DELETE_ROW2));
+    /**
+     * entry types with a row image, decoded ahead of dispatch when there are
+     * decode threads
+     */
+    private static final Set<JournalEntryType> ROW_ENTRY_TYPES = Collections.unmodifiableSet(EnumSet.of(
+            JournalEntryType.BEFORE_IMAGE, JournalEntryType.AFTER_IMAGE, JournalEntryType.ADD_ROW1,
+            JournalEntryType.ADD_ROW2, JournalEntryType.DELETE_ROW1, JournalEntryType.DELETE_ROW2));
     private static Set<Character> alwaysProcess = Stream.of('J', 'C').collect(Collectors.toCollection(HashSet::new));
 
     /**
      * Connection used for reading CDC tables.
      */
-    private final As400RpcConnection dataConnection;
+    private final List<As400RpcConnection> dataConnections;
     private final As400JdbcConnection jdbcConnection;
+    /**
+     * held while an entry is dispatched, journals are fetched concurrently but
+     * share the dispatcher, offsets, table cache and jdbc connection
+     */
+    private final Object dispatchLock = new Object();
 
     /**
      * A separate connection for retrieving timestamps; without it, adaptive
@@ -67,35 +109,47 @@ public class As400StreamingChangeEventSource implements StreamingChangeEventSour
     private final As400DatabaseSchema schema;
     private final Duration pollInterval;
     private final As400ConnectorConfig connectorConfig;
-    private final Map<String, TransactionContext> txMap = new HashMap<>();
     private final String database;
+    private final As400StreamingChangeEventSourceMetrics metrics;
+    private final ChangeEventQueueMetrics queue;
 
-    public As400StreamingChangeEventSource(As400ConnectorConfig connectorConfig, As400RpcConnection dataConnection,
+    public As400StreamingChangeEventSource(As400ConnectorConfig connectorConfig, List<As400RpcConnection> dataConnections,
             As400JdbcConnection jdbcConnection, EventDispatcher<As400Partition, TableId> dispatcher,
-            ErrorHandler errorHandler, Clock clock, As400DatabaseSchema schema) {
+            ErrorHandler errorHandler, Clock clock, As400DatabaseSchema schema,
+            As400StreamingChangeEventSourceMetrics metrics, ChangeEventQueueMetrics queue) {
         this.connectorConfig = connectorConfig;
-        this.dataConnection = dataConnection;
+        this.dataConnections = dataConnections;
         this.jdbcConnection = jdbcConnection;
         this.dispatcher = dispatcher;
         this.errorHandler = errorHandler;
         this.clock = clock;
         this.schema = schema;
         this.pollInterval = connectorConfig.getPollInterval();
+        this.metrics = metrics;
+        this.queue = queue;
+        final JdbcFileDecoder fileDecoder = schema.getFileDecoder();
+        metrics.setSchemaCacheCounters(fileDecoder::getCacheHits, fileDecoder::getCacheMisses);
         this.database = jdbcConnection.getRealDatabaseName();
     }
 
-    private void cacheBefore(TableId tableId, Object[] dataBefore) {
-        final String key = String.format("%s-%s", tableId.schema(), tableId.table());
-        beforeMap.put(key, dataBefore);
+    /**
+     * one for each journal, a table is only journaled to one journal so its
+     * before image and a change to it are only seen by that journal's stream
+     */
+    private As400TableResolver newTableResolver() {
+        // the signal table carries the incremental snapshot watermarks
+        return new As400TableResolver(database, jdbcConnection::getLongName,
+                tableId -> connectorConfig.getTableFilters().dataCollectionFilter().isIncluded(tableId)
+                        || connectorConfig.isSignalDataCollection(tableId),
+                (file, library) -> schema.getFileDecoder().decoderFor(file, library));
     }
 
-    private Object[] getBefore(TableId tableId) {
-        final String key = String.format("%s-%s", tableId.schema(), tableId.table());
-        final Object[] dataBefore = beforeMap.remove(key);
+    private Object[] getBefore(ResolvedTable table) {
+        final Object[] dataBefore = table.takeBefore();
         if (dataBefore == null) {
-            log.debug("before image not found for {}", key);
+            log.debug("before image not found for {}", table.tableId());
         } else {
-            log.debug("found before image for {}", key);
+            log.debug("found before image for {}", table.tableId());
         }
         return dataBefore;
     }
@@ -103,221 +157,327 @@ public class As400StreamingChangeEventSource implements StreamingChangeEventSour
     @Override
     public void execute(ChangeEventSourceContext context, As400Partition partition, As400OffsetContext offsetContext)
             throws InterruptedException {
-        final Metronome metronome = Metronome.sleeper(pollInterval, clock);
+        if (connectorConfig.isSchemaPreload()) {
+            new As400SchemaPreload(connectorConfig, jdbcConnection, schema).preload();
+        }
+        // claimed in order so the first journal keeps the offsets it had before more were added
+        for (final As400RpcConnection c : dataConnections) {
+            offsetContext.getPosition(c.getJournalInfo());
+        }
+        if (dataConnections.size() == 1) {
+            stream(context, partition, offsetContext, dataConnections.get(0), context::isRunning);
+            return;
+        }
+
+        // each journal is fetched on its own thread, the entries are dispatched one at a time
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final ExecutorService executor = Executors.newFixedThreadPool(dataConnections.size());
+        try {
+            final List<Future<?>> streams = new ArrayList<>();
+            for (final As400RpcConnection c : dataConnections) {
+                streams.add(executor.submit(() -> {
+                    try {
+                        stream(context, partition, offsetContext, c, () -> context.isRunning() && !failed.get());
+                    }
+                    catch (final RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> f : streams) {
+                f.get();
+            }
+        }
+        catch (final ExecutionException e) {
+            if (e.getCause() instanceof DebeziumException de) {
+                throw de;
+            }
+            throw new DebeziumException("Failed streaming journal", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void stream(ChangeEventSourceContext context, As400Partition partition, As400OffsetContext offsetContext,
+                        As400RpcConnection dataConnection, BooleanSupplier running)
+            throws InterruptedException {
+        final JournalInfo journal = dataConnection.getJournalInfo();
+        final BlockingReceiverConsumer consumer = processJournalEntries(partition, offsetContext);
+        final As400DecodeStage decodeStage = (connectorConfig.getDecodeThreads() > 0)
+                ? new As400DecodeStage(connectorConfig.getDecodeThreads(), metrics::recordDecode)
+                : null;
         int retries = 0;
         final WatchDog watchDog = new WatchDog(Thread.currentThread(), connectorConfig.getMaxRetrievalTimeout());
+        final As400PollScheduler scheduler = new As400PollScheduler(pollInterval, connectorConfig.getMaxPollInterval(),
+                queue, watchDog::alive);
         watchDog.start();
         try {
-            while (context.isRunning()) {
+            while (running.getAsBoolean()) {
                 try {
                     try {
-                        final JournalProcessedPosition before = new JournalProcessedPosition(offsetContext.getPosition());
-                        if (!dataConnection.getJournalEntries(context, offsetContext,
-                                processJournalEntries(partition, offsetContext), watchDog)) {
-                            metronome.pause();
-                        }
-                        if (!offsetContext.getPosition().equals(before)) {
-                            dispatcher.dispatchHeartbeatEvent(partition, offsetContext);
+                        scheduler.awaitQueueSpace(running);
+                        final JournalProcessedPosition before = new JournalProcessedPosition(offsetContext.getPosition(journal));
+                        final boolean moreAvailable = dataConnection.getJournalEntries(context, offsetContext, consumer,
+                                decodeStage, watchDog);
+                        if (!offsetContext.getPosition(journal).equals(before)) {
+                            synchronized (dispatchLock) {
+                                dispatcher.dispatchHeartbeatEvent(partition, offsetContext);
+                            }
                         }
                         retries = 0;
+                        scheduler.fetched(moreAvailable);
                     } catch (final FatalException e) {
-                        log.error("Unable to process offset {}", offsetContext.getPosition(), e);
-                        throw new DebeziumException("Unable to process offset " + offsetContext.getPosition(), e);
+                        log.error("Unable to process offset {}", offsetContext.getPosition(journal), e);
+                        throw new DebeziumException("Unable to process offset " + offsetContext.getPosition(journal), e);
                     } catch (final InvalidPositionException e) {
                         log.error("Invalid position resetting offsets to beginning", e);
-                        offsetContext.setPosition(new JournalProcessedPosition());
+                        offsetContext.setPosition(journal, new JournalProcessedPosition());
                     } catch (final InterruptedException e) {
-                        if (context.isRunning()) {
-                            log.error("Interrupted processing offset {} retry {}", offsetContext.getPosition(), retries);
-                            closeAndReconnect();
+                        if (running.getAsBoolean()) {
+                            log.error("Interrupted processing offset {} retry {}", offsetContext.getPosition(journal), retries);
+                            closeAndReconnect(dataConnection);
                             retries++;
-                            metronome.pause();
+                            scheduler.failed();
                         }
                     } catch (IOException | SQLNonTransientConnectionException e) { // SQLNonTransientConnectionException
                         // thrown by jt400 jdbc driver when
                         // connection errors
-                        log.error("Connection failed offset {} retry {}", offsetContext.getPosition(), retries, e);
-                        closeAndReconnect();
+                        log.error("Connection failed offset {} retry {}", offsetContext.getPosition(journal), retries, e);
+                        closeAndReconnect(dataConnection);
 
                         retries++;
-                        metronome.pause(); // throws interruptedException
+                        scheduler.failed(); // throws interruptedException
                     } catch (final Exception e) {
-                        log.error("Failed to process offset {} retry {}", offsetContext.getPosition(), retries, e);
+                        log.error("Failed to process offset {} retry {}", offsetContext.getPosition(journal), retries, e);
 
                         retries++;
-                        metronome.pause();
+                        scheduler.failed();
                     }
                 } catch (final InterruptedException e) { // handle InterruptedException during the exception handling
-                    if (context.isRunning()) {
+                    if (running.getAsBoolean()) {
                         log.debug("Interrupted", e);
                     }
                 }
             }
         } finally {
+            dataConnection.stopPrefetch();
+            if (decodeStage != null) {
+                decodeStage.close();
+            }
             watchDog.stop();
         }
     }
 
     public void rateLimittedClose() {
         if (System.currentTimeMillis() - connectionTime > MIN_DISCONNECT_TIME_MS) {
-            closeAndReconnect();
+            dataConnections.forEach(this::closeAndReconnect);
         } else {
             log.debug("Only connected since {} ignoring disconnect", new Date(connectionTime));
         }
     }
 
-    public void closeAndReconnect() {
+    public void closeAndReconnect(As400RpcConnection dataConnection) {
         try {
             dataConnection.close();
             dataConnection.connection();
         } catch (final Exception e) {
             log.error("Failure reconnecting command", e);
         }
-        try {
-            jdbcConnection.close();
-            jdbcConnection.connect();
-        } catch (final Exception e) {
-            log.error("Failure reconnecting sql", e);
+        // shared by every journal
+        synchronized (dispatchLock) {
+            try {
+                jdbcConnection.close();
+                jdbcConnection.connect();
+            } catch (final Exception e) {
+                log.error("Failure reconnecting sql", e);
+            }
         }
         connectionTime = System.currentTimeMillis();
     }
 
     // TODO tidy up exception handling
-    private BlockingReceiverConsumer processJournalEntries(As400Partition partition, As400OffsetContext offsetContext)
-            throws IOException, SQLNonTransientConnectionException {
-        return (nextOffset, r, eheader) -> {
-            try {
-                final JournalEntryType journalEntryType = eheader.getJournalEntryType();
-
-                if (journalEntryType == null || ignore(journalEntryType)) {
-                    log.debug("excluding table {} entry type {}", eheader.getFile(), eheader.getEntryType());
-                    return;
+    private BlockingReceiverConsumer processJournalEntries(As400Partition partition, As400OffsetContext offsetContext) {
+        // commit cycles are numbered per journal
+        final Map<String, TransactionContext> txMap = new HashMap<>();
+        final As400TableResolver tables = newTableResolver();
+        return new BlockingReceiverConsumer() {
+            @Override
+            public void accept(long nextOffset, EntryData r, EntryHeader eheader)
+                    throws IOException, SQLNonTransientConnectionException {
+                synchronized (dispatchLock) {
+                    processJournalEntry(partition, offsetContext, tables, txMap, nextOffset, r, eheader);
                 }
+            }
 
-                String longName = eheader.getFile();
-                try {
-                    longName = jdbcConnection.getLongName(eheader.getLibrary(), eheader.getFile());
-                } catch (final IllegalStateException e) {
-                    log.error("failed to look up long name", e);
+            @Override
+            public Optional<JournalEntryDeocder<Object[]>> decoderFor(EntryHeader eheader) {
+                synchronized (dispatchLock) {
+                    return rowDecoder(tables, eheader);
                 }
-                final TableId tableId = new TableId(database, eheader.getLibrary(), longName);
+            }
+        };
+    }
 
-                final boolean includeTable = connectorConfig.getTableFilters().dataCollectionFilter()
-                        .isIncluded(tableId);
+    /**
+     * @return the decoder processJournalEntry will use for the row image, empty
+     *         when the entry won't be decoded or is decoded by looking up the
+     *         record format for each entry
+     */
+    private Optional<JournalEntryDeocder<Object[]>> rowDecoder(As400TableResolver tables, EntryHeader eheader) {
+        final JournalEntryType journalEntryType = eheader.getJournalEntryType();
+        if (journalEntryType == null || !ROW_ENTRY_TYPES.contains(journalEntryType)) {
+            return Optional.empty();
+        }
+        final ResolvedTable table = tables.resolve(eheader);
+        if (!table.isIncluded()) {
+            return Optional.empty();
+        }
+        final JournalEntryDeocder<Object[]> fallback = schema.getFileDecoder();
+        final JournalEntryDeocder<Object[]> decoder = table.decoder(fallback);
+        return (decoder == fallback) ? Optional.empty() : Optional.of(decoder);
+    }
 
-                if (!alwaysProcess.contains(eheader.getJournalCode()) && !includeTable) { // always process journal J
-                    // and transaction C
-                    // messages
-                    log.debug("excluding table {} journal code {}", tableId, eheader.getJournalCode());
-                    return;
-                }
+    private void processJournalEntry(As400Partition partition, As400OffsetContext offsetContext,
+                                     As400TableResolver tables, Map<String, TransactionContext> txMap,
+                                     long nextOffset, EntryData r, EntryHeader eheader)
+            throws IOException, SQLNonTransientConnectionException {
+        try {
+            final JournalEntryType journalEntryType = eheader.getJournalEntryType();
+
+            if (journalEntryType == null || ignore(journalEntryType)) {
+                log.debug("excluding table {} entry type {}", eheader.getFile(), eheader.getEntryType());
+                return;
+            }
+
+            final ResolvedTable table = tables.resolve(eheader);
+            final TableId tableId = table.tableId();
+
+            if (!alwaysProcess.contains(eheader.getJournalCode()) && !table.isIncluded()) { // always process journal J
+                // and transaction C
+                // messages
+                log.debug("excluding table {} journal code {}", tableId, eheader.getJournalCode());
+                return;
+            }
 
-                log.debug("next event: {} - {} type: {} table: {}", eheader.getTime(), eheader.getSequenceNumber(),
-                        eheader.getEntryType(), tableId.table());
-                switch (journalEntryType) {
-                case START_COMMIT: {
-                    // start commit
-                    final String txId = eheader.getCommitCycle().toString();
-                    log.debug("begin transaction: {}", txId);
-                    final TransactionContext txc = new TransactionContext();
-                    txc.beginTransaction(txId);
-                    txMap.put(txId, txc);
-                    log.debug("start transaction id {} tx {} table {}", nextOffset, txId, tableId);
-                    dispatcher.dispatchTransactionStartedEvent(partition, txId, offsetContext,
+            log.debug("next event: {} - {} type: {} table: {}", eheader.getTime(), eheader.getSequenceNumber(),
+                    eheader.getEntryType(), tableId.table());
+            switch (journalEntryType) {
+            case START_COMMIT: {
+                // start commit
+                final String txId = SequenceNumber.toString(eheader.getCommitCycle());
+                log.debug("begin transaction: {}", txId);
+                final TransactionContext txc = new TransactionContext();
+                txc.beginTransaction(txId);
+                txMap.put(txId, txc);
+                log.debug("start transaction id {} tx {} table {}", nextOffset, txId, tableId);
+                dispatcher.dispatchTransactionStartedEvent(partition, txId, offsetContext,
+                        eheader.getTime());
+            }
+            break;
+            case END_COMMIT: {
+                // end commit
+                // TOOD transaction must be provided by the OffsetContext
+                final String txId = SequenceNumber.toString(eheader.getCommitCycle());
+                final TransactionContext txc = txMap.remove(txId);
+                log.debug("commit transaction id {} tx {} table {}", nextOffset, txId, tableId);
+                if (txc != null) {
+                    txc.endTransaction();
+                    dispatcher.dispatchTransactionCommittedEvent(partition, offsetContext,
                             eheader.getTime());
                 }
-                break;
-                case END_COMMIT: {
-                    // end commit
-                    // TOOD transaction must be provided by the OffsetContext
-                    final String txId = eheader.getCommitCycle().toString();
-                    final TransactionContext txc = txMap.remove(txId);
-                    log.debug("commit transaction id {} tx {} table {}", nextOffset, txId, tableId);
-                    if (txc != null) {
-                        txc.endTransaction();
-                        dispatcher.dispatchTransactionCommittedEvent(partition, offsetContext,
-                                eheader.getTime());
-                    }
-                }
-                break;
-                case FILE_CHANGE, FILE_CREATED: {
-                    // table has changed - reload schema
-                    schema.clearCache(tableId.table(), tableId.schema());
-                    schema.getRecordFormat(tableId.table(), tableId.schema());
-                }
-                break;
-                case BEFORE_IMAGE: {
-                    // before image
-                    tableId.schema();
-                    final Object[] dataBefore = r.decode(schema.getFileDecoder());
+            }
+            break;
+            case FILE_CHANGE, FILE_CREATED: {
+                // table has changed - reload schema
+                tables.clear();
+                schema.clearCache(table.systemName(), tableId.schema());
+                schema.getRecordFormat(table.systemName(), tableId.schema());
+            }
+            break;
+            case BEFORE_IMAGE: {
+                // before image
+                final Object[] dataBefore = r.decode(table.decoder(schema.getFileDecoder()));
 
-                    cacheBefore(tableId, dataBefore);
-                }
-                break;
-                case AFTER_IMAGE: {
-                    // after image
-                    // before image is meant to have been immediately before
-                    final Object[] dataBefore = getBefore(tableId);
-                    final Object[] dataNext = r.decode(schema.getFileDecoder());
+                table.cacheBefore(dataBefore);
+            }
+            break;
+            case AFTER_IMAGE: {
+                // after image
+                // before image is meant to have been immediately before
+                final Object[] dataBefore = getBefore(table);
+                final Object[] dataNext = r.decode(table.decoder(schema.getFileDecoder()));
 
-                    offsetContext.setSourceTime(eheader.getTime());
+                offsetContext.setSourceTime(eheader.getTime());
 
-                    final String txId = eheader.getCommitCycle().toString();
-                    final TransactionContext txc = txMap.get(txId);
-                    offsetContext.setTransaction(txc);
+                final String txId = SequenceNumber.toString(eheader.getCommitCycle());
+                final TransactionContext txc = txMap.get(txId);
+                offsetContext.setTransaction(txc);
 
-                    log.debug("update event id {} tx {} table {}", nextOffset, txId, tableId);
+                log.debug("update event id {} tx {} table {}", nextOffset, txId, tableId);
 
-                    dispatcher.dispatchDataChangeEvent(partition, tableId, new As400ChangeRecordEmitter(partition,
-                            offsetContext, Operation.UPDATE, dataBefore, dataNext, clock, connectorConfig));
+                dispatch(partition, tableId, new As400ChangeRecordEmitter(partition,
+                        offsetContext, Operation.UPDATE, dataBefore, dataNext, clock, connectorConfig));
+            }
+            break;
+            case ADD_ROW1, ADD_ROW2: {
+                // record added
+                final Object[] dataNext = r.decode(table.decoder(schema.getFileDecoder()));
+                offsetContext.setSourceTime(eheader.getTime());
+
+                final String txId = SequenceNumber.toString(eheader.getCommitCycle());
+                final TransactionContext txc = txMap.get(txId);
+                offsetContext.setTransaction(txc);
+                if (txc != null) {
+                    txc.event(tableId);
                 }
-                break;
-                case ADD_ROW1, ADD_ROW2: {
-                    // record added
-                    final Object[] dataNext = r.decode(schema.getFileDecoder());
-                    offsetContext.setSourceTime(eheader.getTime());
-
-                    final String txId = eheader.getCommitCycle().toString();
-                    final TransactionContext txc = txMap.get(txId);
-                    offsetContext.setTransaction(txc);
-                    if (txc != null) {
-                        txc.event(tableId);
-                    }
 
-                    log.debug("insert event id {} tx {} table {}", offsetContext.getPosition(), txId,
-                            tableId);
-                    dispatcher.dispatchDataChangeEvent(partition, tableId, new As400ChangeRecordEmitter(partition,
-                            offsetContext, Operation.CREATE, null, dataNext, clock, connectorConfig));
+                log.debug("insert event id {} tx {} table {}", eheader.getSequenceNumber(), txId,
+                        tableId);
+                dispatch(partition, tableId, new As400ChangeRecordEmitter(partition,
+                        offsetContext, Operation.CREATE, null, dataNext, clock, connectorConfig));
+            }
+            break;
+            case DELETE_ROW1, DELETE_ROW2: {
+                // record deleted
+                final Object[] dataBefore = r.decode(table.decoder(schema.getFileDecoder()));
+
+                offsetContext.setSourceTime(eheader.getTime());
+
+                final String txId = SequenceNumber.toString(eheader.getCommitCycle());
+                final TransactionContext txc = txMap.get(txId);
+                offsetContext.setTransaction(txc);
+                if (txc != null) {
+                    txc.event(tableId);
                 }
-                break;
-                case DELETE_ROW1, DELETE_ROW2: {
-                    // record deleted
-                    final Object[] dataBefore = r.decode(schema.getFileDecoder());
 
-                    offsetContext.setSourceTime(eheader.getTime());
-
-                    final String txId = eheader.getCommitCycle().toString();
-                    final TransactionContext txc = txMap.get(txId);
-                    offsetContext.setTransaction(txc);
-                    if (txc != null) {
-                        txc.event(tableId);
-                    }
-
-                    log.debug("delete event id {} tx {} table {}", offsetContext.getPosition(), txId,
-                            tableId);
-                    dispatcher.dispatchDataChangeEvent(partition, tableId, new As400ChangeRecordEmitter(partition,
-                            offsetContext, Operation.DELETE, dataBefore, null, clock, connectorConfig));
-                }
+                log.debug("delete event id {} tx {} table {}", eheader.getSequenceNumber(), txId,
+                        tableId);
+                dispatch(partition, tableId, new As400ChangeRecordEmitter(partition,
+                        offsetContext, Operation.DELETE, dataBefore, null, clock, connectorConfig));
+            }
+            break;
+            default:
                 break;
-                default:
-                    break;
-                }
-            } catch (IOException | SQLNonTransientConnectionException e) {
-                throw e;
-            } catch (final Exception e) {
-                log.error("Failed to process record", e);
             }
-        };
+        } catch (IOException | SQLNonTransientConnectionException e) {
+            throw e;
+        } catch (final Exception e) {
+            log.error("Failed to process record", e);
+        }
+    }
+
+    /**
+     * times the dispatch, which includes converting the values and any wait for
+     * space in the change event queue
+     */
+    private void dispatch(As400Partition partition, TableId tableId, As400ChangeRecordEmitter emitter)
+            throws InterruptedException {
+        final long start = System.nanoTime();
+        dispatcher.dispatchDataChangeEvent(partition, tableId, emitter);
+        metrics.recordDispatch(tableId, System.nanoTime() - start);
     }
 
     private boolean ignore(JournalEntryType journalCode) {
@@ -0,0 +1,169 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fnz.db2.journal.retrieve.JournalEntryDeocder;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+
+import io.debezium.relational.TableId;
+
+/**
+ * resolves the table of a journal entry from the raw file and library name in
+ * its header. Once a table has been seen the lookup converts no names and
+ * allocates nothing, the table id, include decision and decoder are reused for
+ * every entry.
+ *
+ * not thread safe, each journal stream has its own.
+ */
+public class As400TableResolver {
+    private static final Logger log = LoggerFactory.getLogger(As400TableResolver.class);
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String database;
+    private final BiFunction<String, String, String> longName;
+    private final Predicate<TableId> include;
+    private final BiFunction<String, String, Optional<JournalEntryDeocder<Object[]>>> decoderFor;
+    private ResolvedTable[] buckets = new ResolvedTable[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param longName   long table name from schema and system table name, throws
+     *                   IllegalStateException if it can't be looked up
+     * @param decoderFor decoder for a system table name and schema
+     */
+    public As400TableResolver(String database, BiFunction<String, String, String> longName,
+                              Predicate<TableId> include,
+                              BiFunction<String, String, Optional<JournalEntryDeocder<Object[]>>> decoderFor) {
+        this.database = database;
+        this.longName = longName;
+        this.include = include;
+        this.decoderFor = decoderFor;
+    }
+
+    public ResolvedTable resolve(EntryHeader header) {
+        final int hash = header.getTableHash();
+        for (ResolvedTable t = buckets[hash & (buckets.length - 1)]; t != null; t = t.next) {
+            if (t.hash == hash && header.isTable(t.tableName)) {
+                return t;
+            }
+        }
+
+        final String library = header.getLibrary();
+        final String file = header.getFile();
+        try {
+            final TableId tableId = new TableId(database, library, longName.apply(library, file));
+            final ResolvedTable table = new ResolvedTable(header.getTableName(), hash, tableId, file,
+                    include.test(tableId));
+            add(table);
+            return table;
+        }
+        catch (final IllegalStateException e) {
+            log.error("failed to look up long name", e);
+            // not kept so the lookup is tried again
+            final TableId tableId = new TableId(database, library, file);
+            return new ResolvedTable(header.getTableName(), hash, tableId, file, include.test(tableId));
+        }
+    }
+
+    /**
+     * forgets every table, called when a table is created or changed so the
+     * names and record formats are looked up again
+     */
+    public void clear() {
+        buckets = new ResolvedTable[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void add(ResolvedTable table) {
+        if (size >= buckets.length * 3 / 4) {
+            final ResolvedTable[] old = buckets;
+            buckets = new ResolvedTable[old.length * 2];
+            for (ResolvedTable t : old) {
+                while (t != null) {
+                    final ResolvedTable next = t.next;
+                    link(t);
+                    t = next;
+                }
+            }
+        }
+        link(table);
+        size++;
+    }
+
+    private void link(ResolvedTable table) {
+        final int bucket = table.hash & (buckets.length - 1);
+        table.next = buckets[bucket];
+        buckets[bucket] = table;
+    }
+
+    public class ResolvedTable {
+        private final byte[] tableName;
+        private final int hash;
+        private final TableId tableId;
+        private final String systemName;
+        private final boolean included;
+        private JournalEntryDeocder<Object[]> decoder;
+        private Object[] before;
+        private ResolvedTable next;
+
+        ResolvedTable(byte[] tableName, int hash, TableId tableId, String systemName, boolean included) {
+            this.tableName = tableName;
+            this.hash = hash;
+            this.tableId = tableId;
+            this.systemName = systemName;
+            this.included = included;
+        }
+
+        public TableId tableId() {
+            return tableId;
+        }
+
+        public String systemName() {
+            return systemName;
+        }
+
+        public boolean isIncluded() {
+            return included;
+        }
+
+        /**
+         * @param fallback used until the record format can be found
+         */
+        public JournalEntryDeocder<Object[]> decoder(JournalEntryDeocder<Object[]> fallback) {
+            if (decoder == null) {
+                decoder = decoderFor.apply(systemName, tableId.schema()).orElse(null);
+                if (decoder == null) {
+                    return fallback;
+                }
+            }
+            return decoder;
+        }
+
+        public void cacheBefore(Object[] dataBefore) {
+            before = dataBefore;
+        }
+
+        /**
+         * @return the before image, only returned once
+         */
+        public Object[] takeBefore() {
+            final Object[] dataBefore = before;
+            before = null;
+            return dataBefore;
+        }
+    }
+}
@@ -5,10 +5,38 @@
  */
 package io.debezium.connector.db2as400.metrics;
 
+import java.util.Map;
+
 import io.debezium.pipeline.metrics.StreamingChangeEventSourceMetricsMXBean;
 
 public interface As400ChangeEventSourceMetricsMXBean extends StreamingChangeEventSourceMetricsMXBean {
+    /**
+     * the journal furthest behind when streaming several journals
+     */
     long getJournalBehind();
     long getJournalOffset();
     long getLastProcessedMs();
+    /**
+     * time since the last processed entry was written, 0 once caught up
+     */
+    long getTimeBehindMs();
+    /**
+     * entries behind by journal library/name
+     */
+    Map<String, Long> getJournalsBehind();
+
+    /**
+     * the histograms give count, mean, p50, p99 and max
+     */
+    Map<String, Long> getRetrieveMicros();
+    Map<String, Long> getBlockBytes();
+    Map<String, Long> getBlockEntries();
+    Map<String, Long> getDecodeNanos();
+    Map<String, Long> getDispatchNanos();
+    long getSchemaCacheHits();
+    long getSchemaCacheMisses();
+    /**
+     * change events dispatched by table since the task started
+     */
+    Map<String, Long> getTableEvents();
 }
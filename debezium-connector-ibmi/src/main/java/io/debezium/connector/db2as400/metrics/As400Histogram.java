@@ -0,0 +1,76 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counts values in power of two buckets, cheap enough to record on every entry
+ * from several threads. Percentiles are the upper bound of the bucket they
+ * fall in so are within a factor of two.
+ */
+public class As400Histogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        final long v = Math.max(0, value);
+        // values from 2^(b-1) to 2^b - 1 go in bucket b, 0 in bucket 0
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(v));
+        count.increment();
+        sum.add(v);
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @param fraction such as 0.99
+     * @return the upper bound of the bucket holding the percentile, 0 when
+     *         nothing has been recorded
+     */
+    public long percentile(double fraction) {
+        final long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min((1L << i) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @return count, mean, p50, p99 and max for the MXBean
+     */
+    public Map<String, Long> toMap() {
+        final long total = count();
+        final Map<String, Long> map = new LinkedHashMap<>();
+        map.put("count", total);
+        map.put("mean", (total == 0) ? 0 : sum.sum() / total);
+        map.put("p50", percentile(0.5));
+        map.put("p99", percentile(0.99));
+        map.put("max", max.get());
+        return map;
+    }
+}
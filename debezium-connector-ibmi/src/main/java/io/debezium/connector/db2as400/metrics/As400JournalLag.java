@@ -0,0 +1,66 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * lag of each journal being streamed, reported as the journal furthest behind
+ * so several journals don't overwrite each other
+ */
+public class As400JournalLag {
+    private final Map<String, Lag> journals = new ConcurrentHashMap<>();
+
+    private record Lag(long offset, long behind, long lastProcessedMs, long timeBehindMs) {
+    }
+
+    /**
+     * @param lastProcessedMs when the last processed entry was written, 0 when
+     *            not known
+     */
+    public void update(String journal, long offset, long behind, long lastProcessedMs, long timeBehindMs) {
+        journals.put(journal, new Lag(offset, behind, lastProcessedMs, timeBehindMs));
+    }
+
+    /**
+     * keeps the times from the last update
+     */
+    public void update(String journal, long offset, long behind) {
+        journals.compute(journal, (k, lag) -> (lag == null) ? new Lag(offset, behind, 0, 0)
+                : new Lag(offset, behind, lag.lastProcessedMs(), lag.timeBehindMs()));
+    }
+
+    public long behind() {
+        return journals.values().stream().mapToLong(Lag::behind).max().orElse(0);
+    }
+
+    /**
+     * @return the end of the journal furthest behind
+     */
+    public long offset() {
+        return journals.values().stream().reduce((a, b) -> (b.behind() > a.behind()) ? b : a).map(Lag::offset)
+                .orElse(0L);
+    }
+
+    /**
+     * @return the oldest last processed time of any journal
+     */
+    public long lastProcessedMs() {
+        return journals.values().stream().mapToLong(Lag::lastProcessedMs).filter(ms -> ms > 0).min().orElse(0);
+    }
+
+    public long timeBehindMs() {
+        return journals.values().stream().mapToLong(Lag::timeBehindMs).max().orElse(0);
+    }
+
+    public Map<String, Long> behindByJournal() {
+        final Map<String, Long> behind = new TreeMap<>();
+        journals.forEach((journal, lag) -> behind.put(journal, lag.behind()));
+        return behind;
+    }
+}
@@ -5,19 +5,29 @@
  */
 package io.debezium.connector.db2as400.metrics;
 
-import java.math.BigInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 import io.debezium.connector.base.ChangeEventQueueMetrics;
 import io.debezium.connector.common.CdcSourceTaskContext;
 import io.debezium.connector.db2as400.As400Partition;
 import io.debezium.pipeline.metrics.DefaultStreamingChangeEventSourceMetrics;
 import io.debezium.pipeline.source.spi.EventMetadataProvider;
+import io.debezium.relational.TableId;
 
 public class As400StreamingChangeEventSourceMetrics extends DefaultStreamingChangeEventSourceMetrics<As400Partition> implements As400ChangeEventSourceMetricsMXBean {
-    private final AtomicLong journalBehind = new AtomicLong();
-    private final AtomicLong journalOffset = new AtomicLong();
-    private final AtomicLong lastProcessedMs = new AtomicLong();
+    private final As400JournalLag lag = new As400JournalLag();
+    private final As400Histogram retrieveMicros = new As400Histogram();
+    private final As400Histogram blockBytes = new As400Histogram();
+    private final As400Histogram blockEntries = new As400Histogram();
+    private final As400Histogram decodeNanos = new As400Histogram();
+    private final As400Histogram dispatchNanos = new As400Histogram();
+    private final Map<TableId, LongAdder> tableEvents = new ConcurrentHashMap<>();
+    private volatile LongSupplier schemaCacheHits = () -> 0;
+    private volatile LongSupplier schemaCacheMisses = () -> 0;
 
     public <T extends CdcSourceTaskContext> As400StreamingChangeEventSourceMetrics(T taskContext, ChangeEventQueueMetrics changeEventQueueMetrics,
             EventMetadataProvider metadataProvider) {
@@ -26,28 +36,107 @@ public class As400StreamingChangeEventSourceMetrics extends DefaultStreamingChan
 
     @Override
     public long getJournalBehind() {
-        return journalBehind.get();
+        return lag.behind();
     }
 
-    public void setJournalBehind(BigInteger behind) {
-        this.journalBehind.lazySet(behind.longValue());
-    }
-    
     @Override
     public long getJournalOffset() {
-        return journalOffset.get();
+        return lag.offset();
+    }
+
+    @Override
+    public long getLastProcessedMs() {
+        return lag.lastProcessedMs();
     }
 
-    public void setJournalOffset(BigInteger offset) {
-        this.journalOffset.lazySet(offset.longValue());
+    @Override
+    public long getTimeBehindMs() {
+        return lag.timeBehindMs();
+    }
+
+    @Override
+    public Map<String, Long> getJournalsBehind() {
+        return lag.behindByJournal();
+    }
+
+    /**
+     * @param journal         library/name, several journals share these metrics
+     * @param lastProcessedMs when the last processed entry was written
+     */
+    public void setJournalLag(String journal, long offset, long behind, long lastProcessedMs, long timeBehindMs) {
+        lag.update(journal, offset, behind, lastProcessedMs, timeBehindMs);
+    }
+
+    public void setJournalLag(String journal, long offset, long behind) {
+        lag.update(journal, offset, behind);
+    }
+
+    /**
+     * one QjoRetrieveJournalEntries call
+     */
+    public void recordRetrieve(long nanos, long bytes, long entries) {
+        retrieveMicros.record(nanos / 1000);
+        blockBytes.record(bytes);
+        blockEntries.record(entries);
+    }
+
+    public void recordDecode(long nanos) {
+        decodeNanos.record(nanos);
+    }
+
+    /**
+     * @param nanos time to dispatch the event including any wait for space in
+     *              the change event queue
+     */
+    public void recordDispatch(TableId table, long nanos) {
+        dispatchNanos.record(nanos);
+        tableEvents.computeIfAbsent(table, t -> new LongAdder()).increment();
+    }
+
+    public void setSchemaCacheCounters(LongSupplier hits, LongSupplier misses) {
+        this.schemaCacheHits = hits;
+        this.schemaCacheMisses = misses;
+    }
+
+    @Override
+    public Map<String, Long> getRetrieveMicros() {
+        return retrieveMicros.toMap();
+    }
+
+    @Override
+    public Map<String, Long> getBlockBytes() {
+        return blockBytes.toMap();
+    }
+
+    @Override
+    public Map<String, Long> getBlockEntries() {
+        return blockEntries.toMap();
+    }
+
+    @Override
+    public Map<String, Long> getDecodeNanos() {
+        return decodeNanos.toMap();
+    }
+
+    @Override
+    public Map<String, Long> getDispatchNanos() {
+        return dispatchNanos.toMap();
+    }
+
+    @Override
+    public long getSchemaCacheHits() {
+        return schemaCacheHits.getAsLong();
+    }
+
+    @Override
+    public long getSchemaCacheMisses() {
+        return schemaCacheMisses.getAsLong();
     }
 
     @Override
-	public long getLastProcessedMs() {
-		return lastProcessedMs.get();
-	}
-	
-    public void setLastProcessedMs(long lastProccessedMs) {
-        this.lastProcessedMs.lazySet(lastProccessedMs);
+    public Map<String, Long> getTableEvents() {
+        final Map<String, Long> events = new TreeMap<>();
+        tableEvents.forEach((table, count) -> events.put(table.identifier(), count.sum()));
+        return events;
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.List;
+import java.util.Set;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import io.debezium.config.Configuration;
+import io.debezium.document.Array;
+import io.debezium.document.Document;
+import io.debezium.document.DocumentReader;
+import io.debezium.relational.TableId;
+
+public class As400ConnectorTaskTest {
+    private static final TableId ORDERS = new TableId("DB", "LIB", "ORDERS");
+    private static final TableId ORDER_ITEMS = new TableId("DB", "LIB", "ORDER_ITEMS");
+    private static final TableId QUOTED = new TableId("DB", "LIB", "A\"B");
+    private static final TableId OTHER = new TableId("DB", "OTHER", "ORDERS");
+
+    private final Configuration config = Configuration.create().with("topic.prefix", "test")
+            .with("hostname", "localhost").with("table.include.list", "LIB.ITEMS").build();
+
+    @Test
+    public void resolvesRegularExpressions() {
+        Assertions.assertThat(As400ConnectorTask.signalTables(config, Set.of("LIB\\.ORDER.*"),
+                List.of(OTHER, ORDER_ITEMS, ORDERS))).isEqualTo(List.of(ORDERS, ORDER_ITEMS));
+    }
+
+    @Test
+    public void signalNamesEachTable() throws Exception {
+        final Document signal = DocumentReader.defaultReader()
+                .read(As400ConnectorTask.snapshotSignal(List.of(ORDERS, QUOTED)));
+
+        final Array collections = signal.getArray("data-collections");
+        Assertions.assertThat(collections.size()).isEqualTo(2);
+        Assertions.assertThat(collections.get(0).asString()).isEqualTo("DB.LIB.ORDERS");
+        Assertions.assertThat(collections.get(1).asString()).isEqualTo("DB.LIB.A\"B");
+        Assertions.assertThat(signal.getString("type")).isEqualTo("incremental");
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import com.fnz.db2.journal.retrieve.JournalEntryDeocder;
+import com.fnz.db2.journal.retrieve.JournalInfo;
+import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
+import com.fnz.db2.journal.retrieve.RetrieveConfig;
+import com.fnz.db2.journal.retrieve.RetrieveConfigBuilder;
+import com.fnz.db2.journal.retrieve.RetrieveJournal;
+import com.fnz.db2.journal.retrieve.RowDecoder;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+import com.fnz.db2.journal.retrieve.synthetic.SyntheticJournal;
+import com.fnz.db2.journal.retrieve.synthetic.SyntheticTable;
+
+import io.debezium.connector.db2as400.As400RpcConnection.BlockingReceiverConsumer;
+import io.debezium.connector.db2as400.As400RpcConnection.EntryData;
+
+public class As400DecodeStageTest {
+    private static final int ENTRIES = 200;
+
+    private final JournalInfo journalInfo = new JournalInfo("QSQJRN", "SYNLIB");
+    private final SyntheticTable table = new SyntheticTable("SYNLIB", "ORDERS", 6);
+    private final SyntheticJournal journal = new SyntheticJournal(journalInfo, table);
+    private final Set<String> decodingThreads = ConcurrentHashMap.newKeySet();
+    private final RowDecoder rowDecoder = RowDecoder.compile(table.structure());
+    private final JournalEntryDeocder<Object[]> decoder = (entryHeader, data, offset) -> {
+        // later entries finish first
+        if (entryHeader.getSequenceNumber() % 7 == 0) {
+            Thread.sleep(2);
+        }
+        decodingThreads.add(Thread.currentThread().getName());
+        return rowDecoder.decode(data,
+                offset + entryHeader.getEntrySpecificDataOffset() + JournalEntryDeocder.ENTRY_SPECIFIC_DATA_OFFSET,
+                offset + entryHeader.getNullValueOffest());
+    };
+
+    private RetrieveJournal retrieveJournal() throws Exception {
+        journal.attach("RCV1", 1);
+        journal.append(ENTRIES);
+        final RetrieveConfig config = new RetrieveConfigBuilder().withAs400(() -> null).withJournalInfo(journalInfo)
+                .withJournalBufferSize(SyntheticJournal.FIRST_ENTRY + ENTRIES * journal.entryLength())
+                .withPrefetchBlocks(0).build();
+        final RetrieveJournal r = new RetrieveJournal(config, journal.journalInfoRetrieval(), journal);
+        r.retrieveJournal(new JournalProcessedPosition());
+        return r;
+    }
+
+    @Test
+    public void acceptsInJournalOrder() throws Exception {
+        final RetrieveJournal r = retrieveJournal();
+        final List<Long> accepted = new ArrayList<>();
+        final List<Long> positions = new ArrayList<>();
+        final BlockingReceiverConsumer consumer = new BlockingReceiverConsumer() {
+            @Override
+            public void accept(long offset, EntryData data, EntryHeader eheader) {
+                try {
+                    Assertions.assertThat(data.decode(decoder)[0]).isEqualTo(new BigDecimal("1234567.89"));
+                }
+                catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                accepted.add(offset);
+            }
+
+            @Override
+            public Optional<JournalEntryDeocder<Object[]>> decoderFor(EntryHeader eheader) {
+                return Optional.of(decoder);
+            }
+        };
+
+        try (As400DecodeStage stage = new As400DecodeStage(4, n -> {
+        })) {
+            stage.process(() -> true, r, consumer, new WatchDog(Thread.currentThread(), 60000),
+                    p -> positions.add(p.getOffset()));
+        }
+
+        Assertions.assertThat(accepted).hasSize(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            Assertions.assertThat(accepted.get(i)).isEqualTo(i + 1L);
+        }
+        Assertions.assertThat(positions).isEqualTo(accepted);
+        Assertions.assertThat(decodingThreads).excludes(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void decodesAgainWithChangedDecoder() throws Exception {
+        final RetrieveJournal r = retrieveJournal();
+        final List<Long> accepted = new ArrayList<>();
+        final JournalEntryDeocder<Object[]> changed = (entryHeader, data, offset) -> new Object[]{ entryHeader.getSequenceNumber() };
+        final BlockingReceiverConsumer consumer = new BlockingReceiverConsumer() {
+            @Override
+            public void accept(long offset, EntryData data, EntryHeader eheader) {
+                try {
+                    // as if the table changed after the entry was handed to the pool
+                    accepted.add((Long) data.decode(changed)[0]);
+                }
+                catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public Optional<JournalEntryDeocder<Object[]>> decoderFor(EntryHeader eheader) {
+                return Optional.of(decoder);
+            }
+        };
+
+        try (As400DecodeStage stage = new As400DecodeStage(2, n -> {
+        })) {
+            stage.process(() -> true, r, consumer, new WatchDog(Thread.currentThread(), 60000), p -> {
+            });
+        }
+
+        Assertions.assertThat(accepted).hasSize(ENTRIES);
+        Assertions.assertThat(accepted.get(ENTRIES - 1)).isEqualTo((long) ENTRIES);
+    }
+}
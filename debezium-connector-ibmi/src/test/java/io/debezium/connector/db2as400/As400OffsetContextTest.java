@@ -0,0 +1,131 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import com.fnz.db2.journal.retrieve.JournalInfo;
+import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
+import com.fnz.db2.journal.retrieve.JournalReceiver;
+
+import io.debezium.config.Configuration;
+import io.debezium.connector.SnapshotRecord;
+import io.debezium.relational.TableId;
+
+public class As400OffsetContextTest {
+    private static final JournalInfo FIRST = new JournalInfo("QSQJRN", "LIB1");
+    private static final JournalInfo SECOND = new JournalInfo("QSQJRN", "LIB2");
+
+    private final As400ConnectorConfig config = new As400ConnectorConfig(
+            Configuration.create().with("topic.prefix", "test").with("hostname", "localhost")
+                    .with("table.include.list", "LIB.TAB").build());
+
+    private static JournalProcessedPosition position(long offset, String receiver) {
+        return new JournalProcessedPosition(offset, new JournalReceiver(receiver, "JRNLIB"), Instant.ofEpochSecond(100),
+                true);
+    }
+
+    @Test
+    public void firstJournalClaimsPosition() {
+        final JournalProcessedPosition legacy = position(10, "RCV1");
+        final As400OffsetContext offset = new As400OffsetContext(config, legacy);
+
+        Assertions.assertThat(offset.getPosition(FIRST)).isEqualTo(legacy);
+        Assertions.assertThat(offset.getPosition(SECOND).isOffsetSet()).isFalse();
+        offset.setPosition(SECOND, position(20, "RCV2"));
+        Assertions.assertThat(offset.getPosition(FIRST)).isEqualTo(offset.getPosition());
+        Assertions.assertThat(offset.getPosition(SECOND)).isEqualTo(position(20, "RCV2"));
+    }
+
+    @Test
+    public void positionIsCopied() {
+        final As400OffsetContext offset = new As400OffsetContext(config, position(10, "RCV1"));
+        offset.getPosition(FIRST).setPosition(position(11, "RCV1"));
+        offset.getPosition().setPosition(position(12, "RCV1"));
+
+        Assertions.assertThat(offset.getPosition(FIRST)).isEqualTo(position(10, "RCV1"));
+        Assertions.assertThat(offset.getOffset().get(As400OffsetContext.EVENT_SEQUENCE)).isEqualTo("10");
+    }
+
+    @Test
+    public void singleJournalKeepsLegacyOffset() {
+        final As400OffsetContext offset = new As400OffsetContext(config, position(10, "RCV1"));
+        offset.getPosition(FIRST);
+
+        final Map<String, ?> map = offset.getOffset();
+        Assertions.assertThat(map.containsKey(As400OffsetContext.JOURNAL)).isFalse();
+        Assertions.assertThat(map.get(As400OffsetContext.EVENT_SEQUENCE)).isEqualTo("10");
+    }
+
+    @Test
+    public void roundTripsEveryJournal() {
+        final As400OffsetContext offset = new As400OffsetContext(config, position(10, "RCV1"));
+        offset.getPosition(FIRST);
+        offset.setPosition(SECOND, position(20, "RCV2"));
+
+        final As400OffsetContext loaded = new As400OffsetContext.Loader(config).load(offset.getOffset());
+
+        Assertions.assertThat(loaded.getOtherJournals()).containsOnly(SECOND);
+        Assertions.assertThat(loaded.getPosition(FIRST)).isEqualTo(position(10, "RCV1"));
+        Assertions.assertThat(loaded.getPosition(SECOND)).isEqualTo(position(20, "RCV2"));
+    }
+
+    @Test
+    public void roundTripsUnsetPosition() {
+        final As400OffsetContext offset = new As400OffsetContext(config, new JournalProcessedPosition());
+        offset.getPosition(FIRST);
+        offset.getPosition(SECOND);
+
+        final Map<String, ?> map = offset.getOffset();
+        Assertions.assertThat(map.get(As400OffsetContext.EVENT_SEQUENCE)).isEqualTo("null");
+
+        final As400OffsetContext loaded = new As400OffsetContext.Loader(config).load(map);
+        Assertions.assertThat(loaded.getPosition(FIRST).isOffsetSet()).isFalse();
+        Assertions.assertThat(loaded.getPosition(SECOND).isOffsetSet()).isFalse();
+    }
+
+    @Test
+    public void loadsZeroAsUnset() {
+        // a position that was never set written by an older version
+        final Map<String, String> map = Map.of(As400OffsetContext.EVENT_SEQUENCE, "0",
+                As400OffsetContext.RECEIVER, "", As400OffsetContext.RECEIVER_LIBRARY, "",
+                As400OffsetContext.PROCESSED, "false");
+
+        final As400OffsetContext loaded = new As400OffsetContext.Loader(config).load(map);
+        Assertions.assertThat(loaded.getPosition(FIRST).isOffsetSet()).isFalse();
+    }
+
+    @Test
+    public void loadsStoredOffset() {
+        final Map<String, String> map = Map.of(As400OffsetContext.EVENT_SEQUENCE, "18446744073709551615",
+                As400OffsetContext.RECEIVER, "RCV1", As400OffsetContext.RECEIVER_LIBRARY, "JRNLIB",
+                As400OffsetContext.PROCESSED, "true", As400OffsetContext.EVENT_TIME, "100");
+
+        final As400OffsetContext loaded = new As400OffsetContext.Loader(config).load(map);
+        Assertions.assertThat(loaded.getPosition(FIRST).getOffsetString()).isEqualTo("18446744073709551615");
+        Assertions.assertThat(As400OffsetContext.offsetString(loaded.getPosition(FIRST)))
+                .isEqualTo("18446744073709551615");
+    }
+
+    @Test
+    public void lastRecordWaitsForChunks() {
+        final As400OffsetContext offset = new As400OffsetContext(config, position(10, "RCV1"));
+        final As400SnapshotChunks chunks = new As400SnapshotChunks();
+        chunks.add(new TableId("DB", "LIB", "TAB"), 300, 100);
+        offset.setSnapshotChunks(chunks);
+
+        offset.markSnapshotRecord(SnapshotRecord.LAST);
+        Assertions.assertThat(offset.getSourceInfo().getString("snapshot")).isEqualTo("last_in_data_collection");
+
+        chunks.pending().forEach(chunks::finished);
+        offset.markSnapshotRecord(SnapshotRecord.LAST);
+        Assertions.assertThat(offset.getSourceInfo().getString("snapshot")).isEqualTo("last");
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import io.debezium.connector.base.ChangeEventQueueMetrics;
+
+public class As400PollSchedulerTest {
+    private final List<Long> sleeps = new ArrayList<>();
+    private final ChangeEventQueueMetrics queue = mock(ChangeEventQueueMetrics.class);
+
+    private As400PollScheduler scheduler() {
+        when(queue.totalCapacity()).thenReturn(100);
+        when(queue.remainingCapacity()).thenReturn(100);
+        return new As400PollScheduler(Duration.ofMillis(100), Duration.ofMillis(700), queue, () -> {
+        }, sleeps::add);
+    }
+
+    @Test
+    public void backsOffWhileIdle() throws Exception {
+        final As400PollScheduler scheduler = scheduler();
+        for (int i = 0; i < 5; i++) {
+            scheduler.fetched(false);
+        }
+        Assertions.assertThat(sleeps).containsExactly(100L, 200L, 400L, 700L, 700L);
+
+        scheduler.fetched(true);
+        Assertions.assertThat(sleeps).hasSize(5);
+        scheduler.failed();
+        Assertions.assertThat(sleeps.get(5)).isEqualTo(100L);
+    }
+
+    @Test
+    public void waitsForQueueSpace() throws Exception {
+        final As400PollScheduler scheduler = scheduler();
+        when(queue.remainingCapacity()).thenReturn(10, 10, 10, 50);
+
+        scheduler.awaitQueueSpace(() -> true);
+        Assertions.assertThat(sleeps).hasSize(2);
+
+        sleeps.clear();
+        scheduler.awaitQueueSpace(() -> true);
+        Assertions.assertThat(sleeps).isEmpty();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+public class As400RpcConnectorTest {
+    private static final String INCLUDES = "LIB.T1,LIB.T2,LIB.T3,LIB.T4,LIB.T5,LIB.T6,LIB.T7,LIB.T8";
+
+    @Test
+    public void singleTaskKeepsConfig() {
+        final As400RpcConnector connector = new As400RpcConnector();
+        final Map<String, String> props = Map.of("table.include.list", INCLUDES);
+        connector.start(props);
+
+        Assertions.assertThat(connector.taskConfigs(1)).containsExactly(props);
+    }
+
+    @Test
+    public void splitsEveryTableOnce() {
+        final As400RpcConnector connector = new As400RpcConnector();
+        connector.start(Map.of("table.include.list", INCLUDES));
+
+        final List<Map<String, String>> configs = connector.taskConfigs(3);
+        Assertions.assertThat(configs.size()).isGreaterThan(1);
+
+        final Set<String> tables = new HashSet<>();
+        final Set<String> groups = new HashSet<>();
+        for (final Map<String, String> c : configs) {
+            for (final String t : c.get("table.include.list").split(",")) {
+                Assertions.assertThat(tables.add(t)).isTrue();
+            }
+            groups.add(c.get(As400ConnectorConfig.TASK_GROUP.name()));
+        }
+        Assertions.assertThat(tables).hasSize(8);
+        Assertions.assertThat(groups).hasSize(configs.size());
+    }
+
+    @Test
+    public void addingTableKeepsOthersInPlace() {
+        final Map<Integer, String> before = As400RpcConnector.tableGroups(INCLUDES, 4);
+        final Map<Integer, String> after = As400RpcConnector.tableGroups(INCLUDES + ",LIB.T9", 4);
+
+        for (final Map.Entry<Integer, String> e : before.entrySet()) {
+            for (final String t : e.getValue().split(",")) {
+                Assertions.assertThat(after.get(e.getKey()).split(",")).contains(t);
+            }
+        }
+    }
+
+    @Test
+    public void regularExpressionIsNotSplit() {
+        final As400RpcConnector connector = new As400RpcConnector();
+        final Map<String, String> props = Map.of("table.include.list", INCLUDES + ",LIB2.ORD.*");
+        connector.start(props);
+
+        Assertions.assertThat(As400RpcConnector.tableGroups(INCLUDES + ",LIB2.ORD.*", 4)).isEmpty();
+        Assertions.assertThat(connector.taskConfigs(4)).containsExactly(props);
+    }
+
+    @Test
+    public void escapedDotGroupsWithPlainName() {
+        final Map<Integer, String> plain = As400RpcConnector.tableGroups("LIB.T1", 4);
+        final Map<Integer, String> escaped = As400RpcConnector.tableGroups("LIB\\.T1", 4);
+
+        Assertions.assertThat(escaped.keySet()).isEqualTo(plain.keySet());
+        Assertions.assertThat(escaped.values()).containsOnly("LIB\\.T1");
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.List;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import io.debezium.config.Configuration;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables.TableFilter;
+
+public class As400SchemaPreloadTest {
+    private final List<TableId> catalog = List.of(
+            new TableId("DB", "LIB1", "TAB1"),
+            new TableId("DB", "LIB1", "TAB2"),
+            new TableId("DB", "LIB2", "TAB1"),
+            new TableId("DB", "LIB3", "ORDERS"),
+            new TableId("DB", "OTHER", "TAB1"));
+
+    private TableFilter filter(String includes) {
+        return new As400ConnectorConfig(Configuration.create().with("topic.prefix", "test").with("hostname", "localhost")
+                .with("table.include.list", includes).build()).getTableFilters().dataCollectionFilter();
+    }
+
+    @Test
+    public void schemasFromIncludeList() {
+        Assertions.assertThat(List.copyOf(As400SchemaPreload.schemas("DEF", catalog, filter("LIB1.TAB1,LIB3.ORDERS"))))
+                .containsExactly("LIB1", "LIB3");
+    }
+
+    @Test
+    public void schemasFromRegexIncludeList() {
+        Assertions.assertThat(List.copyOf(As400SchemaPreload.schemas("DEF", catalog, filter("LIB[0-9]\\.TAB1"))))
+                .containsExactly("LIB1", "LIB2");
+        Assertions.assertThat(List.copyOf(As400SchemaPreload.schemas("DEF", catalog, filter(".*\\.ORD.*"))))
+                .containsExactly("LIB3");
+    }
+
+    @Test
+    public void defaultSchemaWhenNothingIncluded() {
+        Assertions.assertThat(List.copyOf(As400SchemaPreload.schemas("DEF", catalog, filter("NOPE\\..*")))).containsExactly("DEF");
+        Assertions.assertThat(List.copyOf(As400SchemaPreload.schemas("DEF", List.of(), t -> false))).containsExactly("DEF");
+        Assertions.assertThat(List.copyOf(As400SchemaPreload.schemas(null, List.of(), t -> false))).isEmpty();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
+import com.fnz.db2.journal.retrieve.JournalReceiver;
+
+import io.debezium.config.Configuration;
+import io.debezium.connector.db2as400.As400SnapshotChunks.Chunk;
+import io.debezium.relational.TableId;
+
+public class As400SnapshotChangeEventSourceTest {
+    private static final TableId ORDERS = new TableId("DB", "LIB", "ORDERS");
+    private static final TableId ITEMS = new TableId("DB", "LIB", "ITEMS");
+
+    private final As400ConnectorConfig config = new As400ConnectorConfig(
+            Configuration.create().with("topic.prefix", "test").with("hostname", "localhost")
+                    .with("table.include.list", "LIB.ORDERS,LIB.ITEMS").build());
+
+    private static JournalProcessedPosition position(long offset) {
+        return new JournalProcessedPosition(offset, new JournalReceiver("RCV1", "JRNLIB"), Instant.ofEpochSecond(100),
+                true);
+    }
+
+    /**
+     * the offset stored while the chunks were read, the first chunk of orders
+     * has been read
+     */
+    private As400OffsetContext stopped(As400ConnectorConfig config, boolean snapshotComplete) {
+        final As400OffsetContext offset = new As400OffsetContext(config, position(10), "LIB.ORDERS,LIB.ITEMS",
+                snapshotComplete);
+        final As400SnapshotChunks chunks = new As400SnapshotChunks();
+        chunks.add(ORDERS, 300, 100);
+        chunks.add(ITEMS, 300, 100);
+        chunks.finished(chunks.pending().get(0));
+        offset.setSnapshotChunks(chunks);
+        return new As400OffsetContext.Loader(config).load(offset.getOffset());
+    }
+
+    @Test
+    public void restartKeepsPositionOfReadChunks() {
+        final Optional<As400OffsetContext> resumed = As400SnapshotChangeEventSource.resumeOffset(config,
+                stopped(config, false));
+
+        // the changes made since the first chunk was read are streamed
+        Assertions.assertThat(resumed.isPresent()).isTrue();
+        Assertions.assertThat(resumed.get().getPosition()).isEqualTo(position(10));
+        Assertions.assertThat(resumed.get().isSnapshotCompplete()).isFalse();
+        Assertions.assertThat(resumed.get().getSnapshotChunks().pending()).excludes(new Chunk(ORDERS, 0, 1, 100));
+        Assertions.assertThat(resumed.get().getSnapshotChunks().pending()).hasSize(5);
+    }
+
+    @Test
+    public void newPositionWithoutChunks() {
+        Assertions.assertThat(As400SnapshotChangeEventSource.resumeOffset(config, null).isPresent()).isFalse();
+        // chunks left by a completed snapshot are read when it resumes streaming
+        Assertions.assertThat(As400SnapshotChangeEventSource.resumeOffset(config, stopped(config, true)).isPresent())
+                .isFalse();
+        final As400OffsetContext noChunks = new As400OffsetContext(config, position(10), "LIB.ORDERS", false);
+        Assertions.assertThat(As400SnapshotChangeEventSource.resumeOffset(config, noChunks).isPresent()).isFalse();
+        final As400OffsetContext noPosition = new As400OffsetContext(config, new JournalProcessedPosition(),
+                "LIB.ORDERS", false);
+        noPosition.setSnapshotChunks(stopped(config, false).getSnapshotChunks());
+        Assertions.assertThat(As400SnapshotChangeEventSource.resumeOffset(config, noPosition).isPresent()).isFalse();
+    }
+
+    @Test
+    public void overriddenTableIsNotResumedInChunks() {
+        final As400ConnectorConfig overridden = new As400ConnectorConfig(Configuration.create()
+                .with("topic.prefix", "test").with("hostname", "localhost")
+                .with("table.include.list", "LIB.ORDERS,LIB.ITEMS")
+                .with("snapshot.select.statement.overrides", "LIB.ITEMS")
+                .with("snapshot.select.statement.overrides.LIB.ITEMS", "SELECT * FROM LIB.ITEMS WHERE QTY > 0")
+                .build());
+
+        Assertions.assertThat(As400ChunkedSnapshot.selectOverride(overridden, ITEMS).get())
+                .isEqualTo("SELECT * FROM LIB.ITEMS WHERE QTY > 0");
+        Assertions.assertThat(As400ChunkedSnapshot.selectOverride(overridden, ORDERS).isPresent()).isFalse();
+
+        final As400OffsetContext resumed = As400SnapshotChangeEventSource.resumeOffset(overridden,
+                stopped(overridden, false)).get();
+        Assertions.assertThat(resumed.getSnapshotChunks().pending()).containsExactly(new Chunk(ORDERS, 1, 101, 200),
+                new Chunk(ORDERS, 2, 201, Long.MAX_VALUE));
+    }
+}
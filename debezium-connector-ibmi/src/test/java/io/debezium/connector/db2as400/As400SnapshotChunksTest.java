@@ -0,0 +1,74 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.List;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import io.debezium.connector.db2as400.As400SnapshotChunks.Chunk;
+import io.debezium.relational.TableId;
+
+public class As400SnapshotChunksTest {
+    private static final TableId ORDERS = new TableId("DB", "LIB", "ORDERS");
+    private static final TableId ITEMS = new TableId("DB", "LIB", "ITEMS");
+
+    @Test
+    public void splitsByRelativeRecordNumber() {
+        final As400SnapshotChunks chunks = new As400SnapshotChunks();
+        chunks.add(ORDERS, 250, 100);
+
+        final List<Chunk> pending = chunks.pending();
+        Assertions.assertThat(pending).containsExactly(new Chunk(ORDERS, 0, 1, 100), new Chunk(ORDERS, 1, 101, 200),
+                new Chunk(ORDERS, 2, 201, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void resumesUnfinishedChunks() {
+        final As400SnapshotChunks chunks = new As400SnapshotChunks();
+        chunks.add(ORDERS, 500, 100);
+        chunks.add(ITEMS, 150, 100);
+        for (final Chunk c : chunks.pending()) {
+            if (c.index() != 3 && !(c.table().equals(ITEMS) && c.index() == 1)) {
+                chunks.finished(c);
+            }
+        }
+
+        final As400SnapshotChunks decoded = As400SnapshotChunks.decode(chunks.encode());
+        Assertions.assertThat(decoded.encode()).isEqualTo(chunks.encode());
+        Assertions.assertThat(decoded.pending()).containsExactly(new Chunk(ORDERS, 3, 301, 400),
+                new Chunk(ITEMS, 1, 101, Long.MAX_VALUE));
+        Assertions.assertThat(decoded.isFinished()).isFalse();
+
+        decoded.pending().forEach(decoded::finished);
+        Assertions.assertThat(decoded.isFinished()).isTrue();
+    }
+
+    @Test
+    public void addKeepsFinishedChunks() {
+        final As400SnapshotChunks chunks = new As400SnapshotChunks();
+        chunks.add(ORDERS, 300, 100);
+        chunks.finished(chunks.pending().get(0));
+
+        chunks.add(ORDERS, 300, 100);
+        Assertions.assertThat(chunks.pending()).containsExactly(new Chunk(ORDERS, 1, 101, 200),
+                new Chunk(ORDERS, 2, 201, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void tableReadAnotherWay() {
+        final As400SnapshotChunks chunks = new As400SnapshotChunks();
+        chunks.add(ORDERS, 300, 100);
+        chunks.add(ITEMS, 300, 100);
+
+        chunks.finished(ORDERS);
+        Assertions.assertThat(chunks.pending()).hasSize(3);
+        chunks.removeIf(ITEMS::equals);
+        Assertions.assertThat(chunks.pending()).isEmpty();
+        Assertions.assertThat(chunks.isFinished()).isTrue();
+    }
+}
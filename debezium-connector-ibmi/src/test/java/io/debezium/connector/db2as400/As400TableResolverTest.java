@@ -0,0 +1,77 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeaderDecoder;
+import com.ibm.as400.access.AS400Text;
+
+import io.debezium.connector.db2as400.As400TableResolver.ResolvedTable;
+
+public class As400TableResolverTest {
+    // offset of the object name in an RJNE0200 entry header
+    private static final int OBJECT = 157;
+    private static final int HEADER_LENGTH = 219;
+
+    private final List<String> lookups = new ArrayList<>();
+    private final As400TableResolver resolver = new As400TableResolver("DB", (library, file) -> {
+        lookups.add(library + "." + file);
+        return file + "_LONG";
+    }, tableId -> !"EXCLUDED".equals(tableId.schema()), (file, library) -> Optional.empty());
+
+    private static EntryHeader header(String file, String library) {
+        final byte[] data = new byte[HEADER_LENGTH];
+        final byte[] object = new AS400Text(30).toBytes(String.format("%-10s%-10s%-10s", file, library, file));
+        System.arraycopy(object, 0, data, OBJECT, object.length);
+        return new EntryHeaderDecoder().decode(data, 0);
+    }
+
+    @Test
+    public void resolvesOncePerTable() {
+        final ResolvedTable first = resolver.resolve(header("ORDERS", "LIB1"));
+        Assertions.assertThat(first.tableId().toString()).isEqualTo("DB.LIB1.ORDERS_LONG");
+        Assertions.assertThat(first.systemName()).isEqualTo("ORDERS");
+        Assertions.assertThat(first.isIncluded()).isTrue();
+
+        Assertions.assertThat(resolver.resolve(header("ORDERS", "LIB1"))).isSameAs(first);
+        Assertions.assertThat(resolver.resolve(header("ORDERS", "LIB2"))).isNotSameAs(first);
+        Assertions.assertThat(resolver.resolve(header("ORDERS", "EXCLUDED")).isIncluded()).isFalse();
+        Assertions.assertThat(lookups).containsExactly("LIB1.ORDERS", "LIB2.ORDERS", "EXCLUDED.ORDERS");
+    }
+
+    @Test
+    public void growsAndClears() {
+        final List<ResolvedTable> tables = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tables.add(resolver.resolve(header("T" + i, "LIB")));
+        }
+        Assertions.assertThat(resolver.size()).isEqualTo(200);
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertThat(resolver.resolve(header("T" + i, "LIB"))).isSameAs(tables.get(i));
+        }
+
+        resolver.clear();
+        Assertions.assertThat(resolver.resolve(header("T0", "LIB"))).isNotSameAs(tables.get(0));
+        Assertions.assertThat(lookups).hasSize(201);
+    }
+
+    @Test
+    public void beforeImageTakenOnce() {
+        final ResolvedTable table = resolver.resolve(header("ORDERS", "LIB1"));
+        final Object[] before = new Object[]{ 1 };
+        table.cacheBefore(before);
+
+        Assertions.assertThat(table.takeBefore()).isSameAs(before);
+        Assertions.assertThat(table.takeBefore()).isNull();
+    }
+}
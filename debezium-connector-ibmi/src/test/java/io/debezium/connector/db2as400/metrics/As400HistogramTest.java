@@ -0,0 +1,36 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400.metrics;
+
+import java.util.Map;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+public class As400HistogramTest {
+
+    @Test
+    public void emptyIsZero() {
+        final Map<String, Long> map = new As400Histogram().toMap();
+        Assertions.assertThat(map.get("count")).isEqualTo(0L);
+        Assertions.assertThat(map.get("p99")).isEqualTo(0L);
+    }
+
+    @Test
+    public void percentilesWithinFactorOfTwo() {
+        final As400Histogram histogram = new As400Histogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        final Map<String, Long> map = histogram.toMap();
+        Assertions.assertThat(map.get("count")).isEqualTo(1000L);
+        Assertions.assertThat(map.get("mean")).isEqualTo(500L);
+        Assertions.assertThat(map.get("max")).isEqualTo(1000L);
+        Assertions.assertThat(map.get("p50")).isGreaterThanOrEqualTo(500L).isLessThan(1000L);
+        Assertions.assertThat(map.get("p99")).isEqualTo(1000L);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.db2as400.metrics;
+
+import org.fest.assertions.Assertions;
+import org.junit.Test;
+
+public class As400JournalLagTest {
+
+    @Test
+    public void emptyIsZero() {
+        final As400JournalLag lag = new As400JournalLag();
+        Assertions.assertThat(lag.behind()).isEqualTo(0L);
+        Assertions.assertThat(lag.offset()).isEqualTo(0L);
+        Assertions.assertThat(lag.lastProcessedMs()).isEqualTo(0L);
+    }
+
+    @Test
+    public void reportsJournalFurthestBehind() {
+        final As400JournalLag lag = new As400JournalLag();
+        lag.update("LIB/JRN1", 1000, 50, 2000, 300);
+        lag.update("LIB/JRN2", 500, 0, 5000, 0);
+
+        Assertions.assertThat(lag.behind()).isEqualTo(50L);
+        Assertions.assertThat(lag.offset()).isEqualTo(1000L);
+        Assertions.assertThat(lag.lastProcessedMs()).isEqualTo(2000L);
+        Assertions.assertThat(lag.timeBehindMs()).isEqualTo(300L);
+        Assertions.assertThat(lag.behindByJournal()).hasSize(2);
+    }
+
+    @Test
+    public void journalsDontOverwriteEachOther() {
+        final As400JournalLag lag = new As400JournalLag();
+        lag.update("LIB/JRN1", 1000, 50, 2000, 300);
+        lag.update("LIB/JRN2", 600, 0);
+
+        Assertions.assertThat(lag.behind()).isEqualTo(50L);
+        Assertions.assertThat(lag.lastProcessedMs()).isEqualTo(2000L);
+
+        lag.update("LIB/JRN1", 1000, 0);
+        Assertions.assertThat(lag.behind()).isEqualTo(0L);
+        Assertions.assertThat(lag.lastProcessedMs()).isEqualTo(2000L);
+        Assertions.assertThat(lag.behindByJournal().get("LIB/JRN2")).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,76 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fnz.db2.journal.data.types.AS400VarBin;
+import com.fnz.db2.journal.data.types.AS400VarChar;
+import com.fnz.db2.journal.data.types.AS400Xml;
+import com.ibm.as400.access.AS400Text;
+
+import io.debezium.connector.db2as400.As400ValueConverters;
+
+/**
+ * single column conversions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataTypeBenchmark {
+	private static final int LENGTH = 200;
+
+	private final AS400VarChar varChar = new AS400VarChar(LENGTH, 1, 37);
+	private final AS400VarBin varBin = new AS400VarBin(LENGTH);
+	private final AS400Xml xml = new AS400Xml();
+	private byte[] varData;
+	private String text;
+	private String textWithControl;
+
+	@Setup
+	public void setup() {
+		text = "the quick brown fox jumps over the lazy dog ".repeat(4).trim();
+		textWithControl = text.substring(0, 20) + '\u0001' + text.substring(20);
+		varData = new byte[LENGTH + 2];
+		varData[0] = (byte) (text.length() >> 8);
+		varData[1] = (byte) text.length();
+		System.arraycopy(new AS400Text(LENGTH, 37).toBytes(text), 0, varData, 2, LENGTH);
+	}
+
+	@Benchmark
+	public Object varChar() {
+		return varChar.toObject(varData, 0);
+	}
+
+	@Benchmark
+	public Object varBin() {
+		return varBin.toObject(varData, 0);
+	}
+
+	@Benchmark
+	public Object xml() {
+		return xml.toObject(varData, 0);
+	}
+
+	@Benchmark
+	public Object removeBadCharacters() {
+		return As400ValueConverters.removeBadCharacters(text);
+	}
+
+	@Benchmark
+	public Object removeBadCharactersModified() {
+		return As400ValueConverters.removeBadCharacters(textWithControl);
+	}
+}
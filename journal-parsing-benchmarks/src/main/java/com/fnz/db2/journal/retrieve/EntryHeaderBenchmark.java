@@ -0,0 +1,72 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeaderDecoder;
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeaderDecoder;
+import com.fnz.db2.journal.retrieve.synthetic.SyntheticJournal;
+import com.fnz.db2.journal.retrieve.synthetic.SyntheticTable;
+
+/**
+ * header decoding per entry, the fields read are the ones the streaming loop
+ * reads for every entry
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntryHeaderBenchmark {
+	static final int ENTRIES = 1000;
+	static final String LIBRARY = "BENCHLIB";
+	static final String FILE = "WIDE";
+
+	private final EntryHeaderDecoder entryHeaderDecoder = new EntryHeaderDecoder();
+	private final FirstHeaderDecoder firstHeaderDecoder = new FirstHeaderDecoder();
+	private final JournalProcessedPosition position = new JournalProcessedPosition();
+	private byte[] block;
+
+	@Setup
+	public void setup() throws Exception {
+		final SyntheticJournal journal = new SyntheticJournal(new JournalInfo("QSQJRN", LIBRARY),
+				new SyntheticTable(LIBRARY, FILE, 10));
+		journal.attach("RCV0001", 1);
+		journal.append(ENTRIES);
+		block = journal.allEntries();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTRIES)
+	public void entryHeader(Blackhole bh) {
+		int offset = SyntheticJournal.FIRST_ENTRY;
+		for (int i = 0; i < ENTRIES; i++) {
+			final EntryHeader header = entryHeaderDecoder.decode(block, offset);
+			bh.consume(header.getSequenceNumber());
+			bh.consume(header.getTime());
+			bh.consume(header.getJournalEntryType());
+			bh.consume(header.getFile());
+			bh.consume(header.getLibrary());
+			offset += header.getNextEntryOffset();
+		}
+	}
+
+	@Benchmark
+	public Object firstHeader() {
+		return firstHeaderDecoder.decode(block, position);
+	}
+}
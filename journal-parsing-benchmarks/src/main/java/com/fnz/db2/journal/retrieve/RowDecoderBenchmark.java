@@ -0,0 +1,85 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fnz.db2.journal.retrieve.SchemaCacheIF.TableInfo;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeaderDecoder;
+import com.fnz.db2.journal.retrieve.synthetic.SyntheticJournal;
+import com.fnz.db2.journal.retrieve.synthetic.SyntheticTable;
+import com.ibm.as400.access.AS400Structure;
+
+/**
+ * decoding a single row image of a narrow and a wide table, run with -prof gc
+ * for the allocation per entry
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowDecoderBenchmark {
+	@Param({ "20", "200" })
+	public int columns;
+
+	private byte[] block;
+	private EntryHeader header;
+	private AS400Structure structure;
+	private TableInfo tableInfo;
+	private JdbcFileDecoder fileDecoder;
+	private int rowOffset;
+	private int nullOffset;
+
+	@Setup
+	public void setup() throws Exception {
+		final SyntheticTable table = new SyntheticTable(EntryHeaderBenchmark.LIBRARY, EntryHeaderBenchmark.FILE, columns);
+		final SyntheticJournal journal = new SyntheticJournal(new JournalInfo("QSQJRN", table.library()), table);
+		journal.attach("RCV0001", 1);
+		journal.append(1);
+		block = journal.allEntries();
+		header = new EntryHeaderDecoder().decode(block, SyntheticJournal.FIRST_ENTRY);
+		structure = table.structure();
+		tableInfo = table.tableInfo();
+		rowOffset = SyntheticJournal.FIRST_ENTRY + header.getEntrySpecificDataOffset()
+				+ JournalEntryDeocder.ENTRY_SPECIFIC_DATA_OFFSET;
+		nullOffset = SyntheticJournal.FIRST_ENTRY + header.getNullValueOffest();
+
+		final SchemaCacheHash schemaCache = new SchemaCacheHash();
+		schemaCache.store("BENCH", table.library(), table.file(), tableInfo);
+		fileDecoder = new JdbcFileDecoder(() -> null, "BENCH", schemaCache, -1, -1);
+	}
+
+	@Benchmark
+	public Object[] structureDecodeEntry() {
+		return fileDecoder.decodeEntry(structure, block, rowOffset);
+	}
+
+	@Benchmark
+	public Object[] structureDecodeAndNullify() {
+		final Object[] row = fileDecoder.decodeEntry(structure, block, rowOffset);
+		return fileDecoder.nullify(row, header, block, SyntheticJournal.FIRST_ENTRY);
+	}
+
+	@Benchmark
+	public Object[] rowDecoder() {
+		return tableInfo.getRowDecoder().decode(block, rowOffset, nullOffset);
+	}
+
+	@Benchmark
+	public Object[] jdbcFileDecoder() throws Exception {
+		return fileDecoder.decode(header, block, SyntheticJournal.FIRST_ENTRY);
+	}
+}
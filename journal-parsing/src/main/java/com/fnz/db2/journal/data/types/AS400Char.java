@@ -0,0 +1,95 @@
+package com.fnz.db2.journal.data.types;
+
+import com.ibm.as400.access.AS400DataType;
+import com.ibm.as400.access.AS400Text;
+import com.ibm.as400.access.InternalErrorException;
+import com.ibm.as400.access.Trace;
+
+/**
+ * fixed length character column decoded through a cached CharConverter rather
+ * than AS400Text's converter lookup, the value is not trimmed to match
+ * AS400Text
+ */
+public class AS400Char implements AS400DataType {
+	private final static String defaultValue = "";
+	private final int length;
+	private final int ccsid;
+	private final CharConverter converter;
+
+	public AS400Char(int length) {
+		this(length, CharConverter.NO_CCSID);
+	}
+
+	public AS400Char(int length, int ccsid) {
+		this.length = length;
+		this.ccsid = ccsid;
+		this.converter = CharConverter.forCcsid(ccsid);
+	}
+
+	public int getCcsid() {
+		return ccsid;
+	}
+
+	@Override
+	public int getByteLength() {
+		return length;
+	}
+
+	@Override
+	public Object getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public int getInstanceType() {
+		return AS400DataType.TYPE_TEXT;
+	}
+
+	@Override
+	public Class<?> getJavaType() {
+		return String.class;
+	}
+
+	@Override
+	public byte[] toBytes(Object javaValue) {
+		return text().toBytes(javaValue);
+	}
+
+	@Override
+	public int toBytes(Object javaValue, byte[] as400Value) {
+		return text().toBytes(javaValue, as400Value);
+	}
+
+	@Override
+	public int toBytes(Object javaValue, byte[] as400Value, int offset) {
+		return text().toBytes(javaValue, as400Value, offset);
+	}
+
+	private AS400Text text() {
+		return (ccsid == CharConverter.NO_CCSID) ? new AS400Text(length) : new AS400Text(length, ccsid);
+	}
+
+	@Override
+	public Object toObject(byte[] data) {
+		return toObject(data, 0);
+	}
+
+	@Override
+	public Object toObject(byte[] data, int offset) {
+		return converter.toString(data, offset, length, false);
+	}
+
+	@Override
+	public Object clone() {
+		try
+		{
+			return super.clone();  // Object.clone does not throw exception.
+		}
+		catch (final CloneNotSupportedException e)
+		{
+			Trace.log(Trace.ERROR, "Unexpected CloneNotSupportedException:", e);
+			throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+		}
+	}
+
+}
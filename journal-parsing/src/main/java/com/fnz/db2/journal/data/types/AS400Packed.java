@@ -0,0 +1,132 @@
+package com.fnz.db2.journal.data.types;
+
+import java.math.BigDecimal;
+
+import com.ibm.as400.access.AS400DataType;
+import com.ibm.as400.access.AS400PackedDecimal;
+import com.ibm.as400.access.InternalErrorException;
+import com.ibm.as400.access.Trace;
+
+/**
+ * packed decimal decoded nibble by nibble into an unscaled long, only precisions
+ * above 18 digits go through AS400PackedDecimal
+ */
+public class AS400Packed implements AS400DataType {
+	public static final int MAX_LONG_DIGITS = 18;
+	private static final BigDecimal defaultValue = BigDecimal.ZERO;
+	private final int digits;
+	private final int scale;
+	private final int length;
+	private final AS400PackedDecimal fallback;
+
+	public AS400Packed(int digits, int scale) {
+		this.digits = digits;
+		this.scale = scale;
+		this.length = digits / 2 + 1;
+		this.fallback = new AS400PackedDecimal(digits, scale);
+	}
+
+	public int getNumberOfDigits() {
+		return digits;
+	}
+
+	public int getNumberOfDecimalPositions() {
+		return scale;
+	}
+
+	/**
+	 * @return value without the decimal point, only valid for precisions up to
+	 *         MAX_LONG_DIGITS
+	 */
+	public long toUnscaledLong(byte[] data, int offset) {
+		long value = 0;
+		final int last = offset + length - 1;
+		for (int i = offset; i < last; i++) {
+			final int b = data[i] & 0xFF;
+			value = value * 100 + digit(b >>> 4) * 10 + digit(b & 0x0F);
+		}
+		final int b = data[last] & 0xFF;
+		value = value * 10 + digit(b >>> 4);
+		return isNegative(b & 0x0F) ? -value : value;
+	}
+
+	/**
+	 * the sign nibble must be A to F as for AS400PackedDecimal, B and D are
+	 * negative
+	 */
+	static boolean isNegative(int sign) {
+		if (sign < 0x0A) {
+			throw new NumberFormatException("invalid decimal sign " + sign);
+		}
+		return sign == 0x0B || sign == 0x0D;
+	}
+
+	static int digit(int nibble) {
+		if (nibble > 9) {
+			throw new NumberFormatException("invalid packed decimal digit " + nibble);
+		}
+		return nibble;
+	}
+
+	@Override
+	public int getByteLength() {
+		return length;
+	}
+
+	@Override
+	public Object getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public int getInstanceType() {
+		return AS400DataType.TYPE_PACKED;
+	}
+
+	@Override
+	public Class<?> getJavaType() {
+		return BigDecimal.class;
+	}
+
+	@Override
+	public byte[] toBytes(Object javaValue) {
+		return fallback.toBytes(javaValue);
+	}
+
+	@Override
+	public int toBytes(Object javaValue, byte[] as400Value) {
+		return fallback.toBytes(javaValue, as400Value);
+	}
+
+	@Override
+	public int toBytes(Object javaValue, byte[] as400Value, int offset) {
+		return fallback.toBytes(javaValue, as400Value, offset);
+	}
+
+	@Override
+	public Object toObject(byte[] data) {
+		return toObject(data, 0);
+	}
+
+	@Override
+	public Object toObject(byte[] data, int offset) {
+		if (digits > MAX_LONG_DIGITS) {
+			return fallback.toObject(data, offset);
+		}
+		return BigDecimal.valueOf(toUnscaledLong(data, offset), scale);
+	}
+
+	@Override
+	public Object clone() {
+		try
+		{
+			return super.clone();  // Object.clone does not throw exception.
+		}
+		catch (final CloneNotSupportedException e)
+		{
+			Trace.log(Trace.ERROR, "Unexpected CloneNotSupportedException:", e);
+			throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+		}
+	}
+
+}
@@ -3,7 +3,6 @@ package com.fnz.db2.journal.data.types;
 import com.ibm.as400.access.AS400Bin2;
 import com.ibm.as400.access.AS400Bin4;
 import com.ibm.as400.access.AS400DataType;
-import com.ibm.as400.access.AS400Text;
 import com.ibm.as400.access.InternalErrorException;
 import com.ibm.as400.access.Trace;
 
@@ -13,7 +12,7 @@ public class AS400VarChar implements AS400DataType {
 	private final int maxLenght;
 	private final static String defaultValue = "";
 	private int actualLength;
-	private final int ccsid;
+	private final CharConverter converter;
 	/*
 	 * as400 correctly decodes the charset but relies on the length being the buffer
 	 * length not the number of characters.
@@ -36,11 +35,11 @@ public class AS400VarChar implements AS400DataType {
 	public AS400VarChar(int maxLenght, int bytesPerChar) {
 		this.maxLenght = maxLenght * bytesPerChar;
 		this.bytesPerChar = bytesPerChar;
-		ccsid = -1;
+		this.converter = CharConverter.forCcsid(CharConverter.NO_CCSID);
 	}
 
 	public AS400VarChar(int maxLenght, int bytesPerChar, int ccsid) {
-		this.ccsid = ccsid;
+		this.converter = CharConverter.forCcsid((ccsid > 0) ? ccsid : CharConverter.NO_CCSID);
 		this.bytesPerChar = bytesPerChar;
 		this.maxLenght = maxLenght * bytesPerChar;
 	}
@@ -90,9 +89,7 @@ public class AS400VarChar implements AS400DataType {
 		final int lenOffset = 2;
 		actualLength = (Short)AS400_BIN2.toObject(data, offset);
 		actualLength *= bytesPerChar;
-		final AS400Text txt = (ccsid > 0) ? new AS400Text(actualLength, ccsid) : new AS400Text(actualLength);
-		final String text = (String) txt.toObject(data, offset + lenOffset);
-		return text;
+		return converter.toString(data, offset + lenOffset, actualLength, false);
 	}
 
 	@Override
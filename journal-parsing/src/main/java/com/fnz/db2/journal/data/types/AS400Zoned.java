@@ -0,0 +1,108 @@
+package com.fnz.db2.journal.data.types;
+
+import java.math.BigDecimal;
+
+import com.ibm.as400.access.AS400DataType;
+import com.ibm.as400.access.AS400ZonedDecimal;
+import com.ibm.as400.access.InternalErrorException;
+import com.ibm.as400.access.Trace;
+
+/**
+ * zoned decimal decoded digit by digit into an unscaled long, only precisions
+ * above 18 digits go through AS400ZonedDecimal
+ */
+public class AS400Zoned implements AS400DataType {
+	private static final BigDecimal defaultValue = BigDecimal.ZERO;
+	private final int digits;
+	private final int scale;
+	private final AS400ZonedDecimal fallback;
+
+	public AS400Zoned(int digits, int scale) {
+		this.digits = digits;
+		this.scale = scale;
+		this.fallback = new AS400ZonedDecimal(digits, scale);
+	}
+
+	public int getNumberOfDigits() {
+		return digits;
+	}
+
+	public int getNumberOfDecimalPositions() {
+		return scale;
+	}
+
+	/**
+	 * @return value without the decimal point, only valid for precisions up to
+	 *         AS400Packed.MAX_LONG_DIGITS
+	 */
+	public long toUnscaledLong(byte[] data, int offset) {
+		long value = 0;
+		final int end = offset + digits;
+		for (int i = offset; i < end; i++) {
+			value = value * 10 + AS400Packed.digit(data[i] & 0x0F);
+		}
+		return AS400Packed.isNegative((data[end - 1] & 0xF0) >>> 4) ? -value : value;
+	}
+
+	@Override
+	public int getByteLength() {
+		return digits;
+	}
+
+	@Override
+	public Object getDefaultValue() {
+		return defaultValue;
+	}
+
+	@Override
+	public int getInstanceType() {
+		return AS400DataType.TYPE_ZONED;
+	}
+
+	@Override
+	public Class<?> getJavaType() {
+		return BigDecimal.class;
+	}
+
+	@Override
+	public byte[] toBytes(Object javaValue) {
+		return fallback.toBytes(javaValue);
+	}
+
+	@Override
+	public int toBytes(Object javaValue, byte[] as400Value) {
+		return fallback.toBytes(javaValue, as400Value);
+	}
+
+	@Override
+	public int toBytes(Object javaValue, byte[] as400Value, int offset) {
+		return fallback.toBytes(javaValue, as400Value, offset);
+	}
+
+	@Override
+	public Object toObject(byte[] data) {
+		return toObject(data, 0);
+	}
+
+	@Override
+	public Object toObject(byte[] data, int offset) {
+		if (digits > AS400Packed.MAX_LONG_DIGITS) {
+			return fallback.toObject(data, offset);
+		}
+		return BigDecimal.valueOf(toUnscaledLong(data, offset), scale);
+	}
+
+	@Override
+	public Object clone() {
+		try
+		{
+			return super.clone();  // Object.clone does not throw exception.
+		}
+		catch (final CloneNotSupportedException e)
+		{
+			Trace.log(Trace.ERROR, "Unexpected CloneNotSupportedException:", e);
+			throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+		}
+	}
+
+}
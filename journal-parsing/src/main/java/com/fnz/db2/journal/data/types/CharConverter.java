@@ -0,0 +1,174 @@
+package com.fnz.db2.journal.data.types;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.as400.access.AS400Text;
+
+/**
+ * converts character data for a single ccsid straight from the journal buffer.
+ *
+ * single byte ccsids use a 256 entry table built once from jt400's own
+ * converter, UTF-16 (1200) and UCS-2 (13488) are read as big endian chars and
+ * UTF-8 (1208) copies ASCII directly. Anything else, and single byte data
+ * containing a shift out, is handed to AS400Text so the result always matches
+ * jt400.
+ */
+public final class CharConverter {
+	public static final int NO_CCSID = -1;
+	static final int UTF16 = 1200;
+	static final int UCS2 = 13488;
+	static final int UTF8 = 1208;
+
+	private static final char ESCAPE = (char) 0xFFFF;
+	private static final byte SHIFT_OUT = 0x0E;
+	private static final byte SHIFT_IN = 0x0F;
+	private static final Map<Integer, CharConverter> converters = new ConcurrentHashMap<>();
+	private static final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[256]);
+
+	private final int ccsid;
+	private final char[] table;
+	private final boolean doubleByte;
+	private final boolean utf8;
+
+	private CharConverter(int ccsid) {
+		this.ccsid = ccsid;
+		this.doubleByte = ccsid == UTF16 || ccsid == UCS2;
+		this.utf8 = ccsid == UTF8;
+		this.table = (doubleByte || utf8) ? null : singleByteTable(ccsid);
+	}
+
+	/**
+	 * @param ccsid ccsid after any from/to override, -1 for the default converter
+	 *              used by AS400Text
+	 */
+	public static CharConverter forCcsid(int ccsid) {
+		return converters.computeIfAbsent(ccsid, CharConverter::new);
+	}
+
+	public int getCcsid() {
+		return ccsid;
+	}
+
+	/**
+	 * @param length number of bytes
+	 * @param trim   drop trailing blanks
+	 */
+	public String toString(byte[] data, int offset, int length, boolean trim) {
+		if (doubleByte) {
+			return fromUtf16(data, offset, length, trim);
+		}
+		if (utf8) {
+			return fromUtf8(data, offset, length, trim);
+		}
+		if (table != null) {
+			final char[] chars = buffer(length);
+			for (int i = 0; i < length; i++) {
+				final char c = table[data[offset + i] & 0xFF];
+				if (c == ESCAPE) {
+					return fallback(data, offset, length, trim);
+				}
+				chars[i] = c;
+			}
+			return toString(chars, length, trim);
+		}
+		return fallback(data, offset, length, trim);
+	}
+
+	private String fromUtf16(byte[] data, int offset, int length, boolean trim) {
+		final int count = length / 2;
+		final char[] chars = buffer(count);
+		for (int i = 0; i < count; i++) {
+			final int at = offset + i * 2;
+			chars[i] = (char) (((data[at] & 0xFF) << 8) | (data[at + 1] & 0xFF));
+		}
+		return toString(chars, count, trim);
+	}
+
+	private String fromUtf8(byte[] data, int offset, int length, boolean trim) {
+		final char[] chars = buffer(length);
+		for (int i = 0; i < length; i++) {
+			final byte b = data[offset + i];
+			if (b < 0) {
+				final String s = new String(data, offset, length, StandardCharsets.UTF_8);
+				return trim ? s.stripTrailing() : s;
+			}
+			chars[i] = (char) b;
+		}
+		return toString(chars, length, trim);
+	}
+
+	private String fallback(byte[] data, int offset, int length, boolean trim) {
+		final String s = (String) text(length, ccsid).toObject(data, offset);
+		return trim ? s.stripTrailing() : s;
+	}
+
+	private static String toString(char[] chars, int length, boolean trim) {
+		int end = length;
+		if (trim) {
+			while (end > 0 && chars[end - 1] == ' ') {
+				end--;
+			}
+		}
+		return new String(chars, 0, end);
+	}
+
+	private static char[] buffer(int length) {
+		char[] chars = buffers.get();
+		if (chars.length < length) {
+			chars = new char[Math.max(length, chars.length * 2)];
+			buffers.set(chars);
+		}
+		return chars;
+	}
+
+	/**
+	 * @return lookup table or null when the ccsid isn't single byte, entries that
+	 *         can't be converted on their own are ESCAPE
+	 */
+	static char[] singleByteTable(int ccsid) {
+		try {
+			final char[] table = new char[256];
+			for (int i = 0; i < table.length; i++) {
+				final String s = text(1, ccsid).toObject(new byte[] { (byte) i }).toString();
+				table[i] = (s.length() == 1) ? s.charAt(0) : ESCAPE;
+			}
+
+			// a true single byte ccsid converts a whole string the same as byte by byte
+			final byte[] all = new byte[256];
+			for (int i = 0; i < all.length; i++) {
+				all[i] = (i == SHIFT_OUT || i == SHIFT_IN) ? 0x40 : (byte) i;
+			}
+			if (!matches(table, all, ccsid)) {
+				return null;
+			}
+			// mixed ccsids switch to double byte after a shift out
+			final byte[] shifted = new byte[] { SHIFT_OUT, 0x42, 0x42, SHIFT_IN };
+			if (!matches(table, shifted, ccsid)) {
+				table[SHIFT_OUT] = ESCAPE;
+				table[SHIFT_IN] = ESCAPE;
+			}
+			return table;
+		} catch (final RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static boolean matches(char[] table, byte[] bytes, int ccsid) {
+		final String expected = text(bytes.length, ccsid).toObject(bytes).toString();
+		if (expected.length() != bytes.length) {
+			return false;
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			if (table[bytes[i] & 0xFF] != expected.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static AS400Text text(int length, int ccsid) {
+		return (ccsid == NO_CCSID) ? new AS400Text(length) : new AS400Text(length, ccsid);
+	}
+}
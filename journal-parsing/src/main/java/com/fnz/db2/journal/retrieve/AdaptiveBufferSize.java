@@ -0,0 +1,120 @@
+package com.fnz.db2.journal.retrieve;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.OffsetStatus;
+import com.ibm.as400.access.BinaryConverter;
+
+/**
+ * size of the receiver variable for QjoRetrieveJournalEntries, grows while the
+ * journal is behind and shrinks back when fetches return little data
+ *
+ * when min equals max the size is fixed
+ */
+public class AdaptiveBufferSize {
+	private static final Logger log = LoggerFactory.getLogger(AdaptiveBufferSize.class);
+	// a full buffer is one with less than this fraction left unused
+	private static final int FULL_DIVISOR = 4;
+	// shrink when less than this fraction of the buffer is used
+	private static final int SPARSE_DIVISOR = 8;
+	// keep room for a few of the largest recent entries
+	private static final int LARGEST_ENTRY_MULTIPLE = 4;
+
+	private final int min;
+	private final int max;
+	private int current;
+	private int largestRecentEntry = 0;
+
+	public AdaptiveBufferSize(int min, int initial, int max) {
+		this.min = min;
+		this.max = Math.max(min, max);
+		this.current = clamp(initial);
+	}
+
+	public static AdaptiveBufferSize fixed(int size) {
+		return new AdaptiveBufferSize(size, size, size);
+	}
+
+	public synchronized int size() {
+		return current;
+	}
+
+	public boolean isAdaptive() {
+		return max > min;
+	}
+
+	/**
+	 * the first entry did not fit in the buffer
+	 *
+	 * @return true if the buffer has grown and the fetch should be retried
+	 */
+	public synchronized boolean growForOversizedEntry() {
+		if (current >= max) {
+			return false;
+		}
+		final int previous = current;
+		current = clamp(grow(current));
+		log.info("entry larger than buffer {} retrying with {}", previous, current);
+		return true;
+	}
+
+	/**
+	 * adjust the size using the bytes returned, entries retrieved and the sizes of
+	 * the entries in the block
+	 */
+	public synchronized void record(FirstHeader header, byte[] data) {
+		if (!isAdaptive() || header.status() == OffsetStatus.NOT_CALLED) {
+			return;
+		}
+		final int blockLargest = largestEntry(header, data);
+		// decay so a one off large entry doesn't pin the size forever
+		largestRecentEntry = Math.max(blockLargest, largestRecentEntry - largestRecentEntry / 8);
+
+		final int previous = current;
+		final int used = header.totalBytes();
+		if (header.hasFutureDataAvailable() && used >= current - current / FULL_DIVISOR) {
+			current = clamp(grow(current));
+		} else if (!header.hasFutureDataAvailable() && used < current / SPARSE_DIVISOR) {
+			current = clamp(Math.max(current / 2, largestRecentEntry * LARGEST_ENTRY_MULTIPLE));
+		}
+		if (previous != current) {
+			log.debug("journal buffer size changed from {} to {} bytes returned {} entries {} largest entry {}", previous,
+					current, used, header.size(), largestRecentEntry);
+		}
+	}
+
+	static int largestEntry(FirstHeader header, byte[] data) {
+		if (data == null || header.size() <= 0 || header.offset() <= 0) {
+			return 0;
+		}
+		int largest = 0;
+		int offset = header.offset();
+		final int end = Math.min(header.totalBytes(), data.length);
+		for (int i = 0; i < header.size() && offset + 4 <= end; i++) {
+			final int next = BinaryConverter.byteArrayToInt(data, offset);
+			final int length = (next > 0) ? next : end - offset;
+			largest = Math.max(largest, length);
+			if (next <= 0) {
+				break;
+			}
+			offset += next;
+		}
+		return largest;
+	}
+
+	private int grow(int size) {
+		return (size > max / 2) ? max : size * 2;
+	}
+
+	private int clamp(int size) {
+		return Math.max(min, Math.min(max, size));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AdaptiveBufferSize [min=%s, max=%s, current=%s, largestRecentEntry=%s]", min, max, current,
+				largestRecentEntry);
+	}
+}
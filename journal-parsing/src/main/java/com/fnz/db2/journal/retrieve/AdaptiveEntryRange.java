@@ -0,0 +1,84 @@
+package com.fnz.db2.journal.retrieve;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.OffsetStatus;
+
+/**
+ * number of journal entries a fetch asks the server to go through, sized from
+ * how quickly recent fetches went through their range so each call takes about
+ * the target time. Filtered fetches on sparse tables return little and stride
+ * through large ranges, dense tables get small ones before a call trips the
+ * retrieval timeout.
+ *
+ * when the buffer fills before the end of the range it is the bytes returned
+ * that limit the call so the range doesn't grow
+ *
+ * when min equals max the range is fixed
+ */
+public class AdaptiveEntryRange {
+	private static final Logger log = LoggerFactory.getLogger(AdaptiveEntryRange.class);
+	// grow by at most this factor a fetch so one quick call doesn't overshoot
+	private static final int GROWTH = 2;
+
+	private final long min;
+	private final long max;
+	private final long targetNanos;
+	private long current;
+
+	public AdaptiveEntryRange(long min, long initial, long max, long targetNanos) {
+		this.min = Math.max(1, min);
+		this.max = Math.max(this.min, max);
+		this.targetNanos = targetNanos;
+		this.current = clamp(initial);
+	}
+
+	public static AdaptiveEntryRange fixed(long size) {
+		return new AdaptiveEntryRange(size, size, size, 0);
+	}
+
+	public synchronized long size() {
+		return current;
+	}
+
+	public boolean isAdaptive() {
+		return max > min && targetNanos > 0;
+	}
+
+	/**
+	 * adjust the range from one call
+	 *
+	 * @param scanned entries from the start of the range to its end, or to the
+	 *                continuation when the buffer filled, 0 or less when unknown
+	 * @param nanos   time the call took
+	 */
+	public synchronized void record(long scanned, long nanos, FirstHeader header) {
+		if (!isAdaptive() || header.status() == OffsetStatus.NOT_CALLED || scanned <= 0 || nanos <= 0) {
+			return;
+		}
+		final long previous = current;
+		// entries the server would go through in the target time at the rate just seen
+		final double atTarget = (double) scanned * targetNanos / nanos;
+		long next = (long) Math.min(atTarget, (double) current * GROWTH);
+		if (header.hasFutureDataAvailable()) {
+			next = Math.min(next, current);
+		}
+		current = clamp(next);
+		if (previous != current) {
+			log.debug("entry range changed from {} to {} scanned {} in {}ms matched {} bytes {}", previous, current,
+					scanned, nanos / 1000000, header.size(), header.totalBytes());
+		}
+	}
+
+	private long clamp(long size) {
+		return Math.max(min, Math.min(max, size));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AdaptiveEntryRange [min=%s, max=%s, targetNanos=%s, current=%s]", min, max, targetNanos,
+				current);
+	}
+}
@@ -0,0 +1,100 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * the versioned files the caches keep on disk. Anything that can't be read is
+ * ignored so the cache is fetched again, a write replaces the file in one move
+ * so a failed write never leaves a partial file
+ */
+final class CacheFile {
+	private static final Logger log = LoggerFactory.getLogger(CacheFile.class);
+
+	interface Reader<T> {
+		T read(DataInputStream in) throws IOException;
+	}
+
+	interface Writer {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	private CacheFile() {
+	}
+
+	/**
+	 * @return empty when there is no file, it is from another version or it
+	 *         can't be read
+	 */
+	static <T> Optional<T> read(File f, int magic, int version, Reader<T> reader) {
+		if (!f.exists()) {
+			return Optional.empty();
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(f.toPath())))) {
+			if (in.readInt() != magic || in.readInt() != version) {
+				log.info("ignoring cache {} from a different version", f);
+				return Optional.empty();
+			}
+			return Optional.of(reader.read(in));
+		} catch (final IOException | RuntimeException e) {
+			log.warn("ignoring unreadable cache {}", f, e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * @return false when the file couldn't be written
+	 */
+	static boolean write(File f, int magic, int version, Writer writer) {
+		Path tmp = null;
+		try {
+			final Path folder = f.getAbsoluteFile().getParentFile().toPath();
+			Files.createDirectories(folder);
+			tmp = Files.createTempFile(folder, f.getName(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(magic);
+				out.writeInt(version);
+				writer.write(out);
+			}
+			Files.move(tmp, f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (final IOException e) {
+			log.warn("failed to write cache {}", f, e);
+			return false;
+		} finally {
+			deleteTemporary(tmp);
+		}
+	}
+
+	/**
+	 * already moved unless the write failed
+	 */
+	private static void deleteTemporary(Path tmp) {
+		if (tmp == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(tmp);
+		} catch (final IOException e) {
+			log.warn("failed to delete {}", tmp, e);
+		}
+	}
+
+	/**
+	 * @return the name with anything that isn't safe in a file name replaced
+	 */
+	static String fileName(String name) {
+		return name.replaceAll("[^A-Za-z0-9_.$#@-]", "_");
+	}
+}
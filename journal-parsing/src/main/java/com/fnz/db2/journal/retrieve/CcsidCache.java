@@ -55,19 +55,25 @@ public class CcsidCache {
 					final String longcolumn = StringHelpers.safeTrim(rs.getString(3));
 					final String shortcolumn = StringHelpers.safeTrim(rs.getString(4));
 					final Object ccsidObj = rs.getObject(5);
-					final String canonicalLongName = String.format("%s.%s.%s", schema, longTableName, longcolumn);
-					final String canonicalShortName = String.format("%s.%s.%s", schema, shortTableName, shortcolumn);
-					int ccsid = (ccsidObj == null) ? -1 : (Integer) ccsidObj;
-
-					if (fromCcsid == ccsid && toCcsid != -1) {
-						log.debug("overriding ccsid for {} was {} now {}", longTableName, fromCcsid, toCcsid);
-						ccsid = toCcsid;
-					}
-					ccsidMap.put(canonicalLongName, ccsid);
-					ccsidMap.put(canonicalShortName, ccsid);
+					final int ccsid = (ccsidObj == null) ? -1 : (Integer) ccsidObj;
+					add(schema, longTableName, longcolumn, ccsid);
+					add(schema, shortTableName, shortcolumn, ccsid);
 				}
 			}
 		}
 	}
 
+	/**
+	 * @param ccsid the column ccsid before any from/to override, -1 if it has none
+	 */
+	public void add(String schema, String table, String column, int ccsid) {
+		final String canonicalName = String.format("%s.%s.%s", schema, table, column);
+		if (fromCcsid == ccsid && toCcsid != -1) {
+			log.debug("overriding ccsid for {} was {} now {}", table, fromCcsid, toCcsid);
+			ccsidMap.put(canonicalName, toCcsid);
+		} else {
+			ccsidMap.put(canonicalName, ccsid);
+		}
+	}
+
 }
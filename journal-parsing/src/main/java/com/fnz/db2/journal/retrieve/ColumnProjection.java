@@ -0,0 +1,12 @@
+package com.fnz.db2.journal.retrieve;
+
+/**
+ * selects the columns that are worth decoding, columns that are not included
+ * are left null in the decoded row
+ */
+@FunctionalInterface
+public interface ColumnProjection {
+	ColumnProjection ALL = (database, schema, table, column) -> true;
+
+	boolean isIncluded(String database, String schema, String table, String column);
+}
@@ -1,9 +1,15 @@
 package com.fnz.db2.journal.retrieve;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -17,55 +23,160 @@ import com.fnz.db2.journal.retrieve.rnrn0200.JournalStatus;
 /**
  * caches index on receiver name and lib
  * does not cache attached receivers as they will update
+ *
+ * detached receivers never change apart from their status so when given a file
+ * they are kept there and a restart only has to ask for the details of the
+ * attached receiver and any detached since. The file is versioned, anything
+ * that can't be read is ignored and fetched again.
  * @author martin.sillence
  *
  */
 public class DetailedJournalReceiverCache {
-	private Map<String, DetailedJournalReceiver> cached = new HashMap<>();
 	private static final Logger log = LoggerFactory.getLogger(DetailedJournalReceiverCache.class);
-	
-	public boolean containsKey(JournalReceiverInfo receiverInfo)  {
-		String key = toKey(receiverInfo);
-		return cached.containsKey(key);
+	static final int MAGIC = 0x4A524356; // JRCV
+	static final int VERSION = 1;
+
+	private final Map<JournalReceiver, DetailedJournalReceiver> cached = new LinkedHashMap<>();
+	private final Optional<File> file;
+	private boolean dirty = false;
+
+	public DetailedJournalReceiverCache() {
+		this(Optional.empty());
+	}
+
+	/**
+	 * @param file where the receivers are kept between restarts
+	 */
+	public DetailedJournalReceiverCache(Optional<File> file) {
+		this.file = file;
+		file.ifPresent(this::read);
+	}
+
+	public synchronized boolean containsKey(JournalReceiverInfo receiverInfo) {
+		return current(receiverInfo) != null;
 	}
 
-	public DetailedJournalReceiver getUpdatingStatus(JournalReceiverInfo receiverInfo)  {
-		String key = toKey(receiverInfo);
-		DetailedJournalReceiver dr = cached.get(key);
+	public synchronized DetailedJournalReceiver getUpdatingStatus(JournalReceiverInfo receiverInfo) {
+		DetailedJournalReceiver dr = current(receiverInfo);
 		if (dr.info() == null || dr.info().status() == null) {
-			log.warn("null in receiver info", dr);
+			log.warn("null in receiver info {}", dr);
 		}
-		if (receiverInfo.status() != null && dr.info() != null && ! receiverInfo.status().equals(dr.info().status())) {
+		if (receiverInfo.status() != null && dr.info() != null && !receiverInfo.status().equals(dr.info().status())) {
 			dr = dr.withStatus(receiverInfo.status());
-			cached.put(key, dr);
+			cached.put(receiverInfo.receiver(), dr);
+			dirty = true;
 		}
 		return dr;
 	}
 
-	public void put(DetailedJournalReceiver details) {
+	/**
+	 * a receiver name is reused once the old receiver is deleted, an entry
+	 * attached at a different time than the one listed is for the old receiver
+	 * and is dropped
+	 */
+	private DetailedJournalReceiver current(JournalReceiverInfo receiverInfo) {
+		final DetailedJournalReceiver dr = cached.get(receiverInfo.receiver());
+		if (dr == null || receiverInfo.attachTime() == null || dr.info() == null
+				|| receiverInfo.attachTime().equals(dr.info().attachTime())) {
+			return dr;
+		}
+		log.info("dropping cached receiver {} attached {} now attached {}", receiverInfo.receiver(),
+				dr.info().attachTime(), receiverInfo.attachTime());
+		cached.remove(receiverInfo.receiver());
+		dirty = true;
+		return null;
+	}
+
+	public synchronized void put(DetailedJournalReceiver details) {
 		if (details.info().status() == null || details.info().attachTime() == null) {
 			log.debug("not caching {} ", details);
 		}
 		if (details.info().status() == null || details.info().attachTime() == null || JournalStatus.Attached.equals(details.info().status())) {
 			return;
 		}
-		cached.put(toKey(details.info()), details);
+		cached.put(details.info().receiver(), details);
+		dirty = true;
+	}
+
+	public synchronized void keepOnly(List<DetailedJournalReceiver> list) {
+		final Set<JournalReceiver> keep = list.stream().map(d -> d.info().receiver()).collect(Collectors.toSet());
+		dirty |= cached.keySet().retainAll(keep);
+	}
+
+	public synchronized int size() {
+		return cached.size();
+	}
+
+	/**
+	 * writes the receivers if they have changed since they were last read or
+	 * written
+	 */
+	public synchronized void save() {
+		if (!dirty || file.isEmpty()) {
+			return;
+		}
+		dirty = !CacheFile.write(file.get(), MAGIC, VERSION, out -> {
+			out.writeInt(cached.size());
+			for (final DetailedJournalReceiver d : cached.values()) {
+				write(out, d);
+			}
+		});
+	}
+
+	private void read(File f) {
+		CacheFile.read(f, MAGIC, VERSION, DetailedJournalReceiverCache::readReceivers).ifPresent(receivers -> {
+			receivers.forEach(d -> cached.put(d.info().receiver(), d));
+			log.info("read {} receivers from {}", receivers.size(), f);
+		});
+	}
+
+	private static List<DetailedJournalReceiver> readReceivers(DataInputStream in) throws IOException {
+		final int count = in.readInt();
+		final List<DetailedJournalReceiver> receivers = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			receivers.add(readReceiver(in));
+		}
+		return receivers;
 	}
-	
-	public void keepOnly(List<DetailedJournalReceiver> list) {
-		Set<String> toGo = new HashSet<>(cached.keySet()); // note delete operations on keySet will delete from underlying hash
-		Set<String> keep = list.stream().map(this::toKey).collect(Collectors.toSet());
-		toGo.removeAll(keep);
-		toGo.stream().forEach(x -> cached.remove(x));
+
+	private static void write(DataOutputStream out, DetailedJournalReceiver d) throws IOException {
+		final JournalReceiverInfo info = d.info();
+		writeReceiver(out, info.receiver());
+		out.writeLong(info.attachTime().getTime());
+		out.writeUTF(info.status().name());
+		out.writeBoolean(info.chain().isPresent());
+		out.writeInt(info.chain().orElse(0));
+		out.writeLong(d.start());
+		out.writeLong(d.end());
+		out.writeBoolean(d.nextReceiver().isPresent());
+		if (d.nextReceiver().isPresent()) {
+			writeReceiver(out, d.nextReceiver().get());
+		}
+		out.writeLong(d.maxEntryLength());
+		out.writeLong(d.numberOfEntries());
 	}
-	
-	private String toKey(JournalReceiverInfo receiverInfo) {
-		String key = String.format("%s:%s", receiverInfo.receiver().name(), receiverInfo.receiver().library());
-		return key;
+
+	private static DetailedJournalReceiver readReceiver(DataInputStream in) throws IOException {
+		final JournalReceiver receiver = readJournalReceiver(in);
+		final Date attachTime = new Date(in.readLong());
+		final JournalStatus status = JournalStatus.valueOf(in.readUTF());
+		final boolean hasChain = in.readBoolean();
+		final int chain = in.readInt();
+		final JournalReceiverInfo info = new JournalReceiverInfo(receiver, attachTime, status,
+				hasChain ? Optional.of(chain) : Optional.empty());
+		final long start = in.readLong();
+		final long end = in.readLong();
+		final Optional<JournalReceiver> next = in.readBoolean() ? Optional.of(readJournalReceiver(in))
+				: Optional.empty();
+		return new DetailedJournalReceiver(info, start, end, next, in.readLong(), in.readLong());
+	}
+
+	private static void writeReceiver(DataOutputStream out, JournalReceiver receiver) throws IOException {
+		out.writeUTF(receiver.name());
+		out.writeUTF(receiver.library());
 	}
 
-	private String toKey(DetailedJournalReceiver receiverInfo) {
-		String key = String.format("%s:%s", receiverInfo.info().receiver().name(), receiverInfo.info().receiver().library());
-		return key;
+	private static JournalReceiver readJournalReceiver(DataInputStream in) throws IOException {
+		return new JournalReceiver(in.readUTF(), in.readUTF());
 	}
 }
@@ -0,0 +1,20 @@
+package com.fnz.db2.journal.retrieve;
+
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+
+/**
+ * one entry of a fetched block that can be decoded after
+ * {@link RetrieveJournal} has moved on, for instance on another thread. The
+ * data is the block itself so it is only valid until the next block is
+ * fetched.
+ *
+ * @param header the decoded entry header
+ * @param data   the raw RJNE0200 output of the block
+ * @param offset start of the entry in the block
+ */
+public record EntrySlice(EntryHeader header, byte[] data, int offset) {
+
+	public <T> T decode(JournalEntryDeocder<T> decoder) throws Exception {
+		return decoder.decode(header, data, offset);
+	}
+}
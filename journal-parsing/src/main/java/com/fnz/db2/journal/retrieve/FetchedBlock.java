@@ -0,0 +1,27 @@
+package com.fnz.db2.journal.retrieve;
+
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
+
+/**
+ * the result of a single QjoRetrieveJournalEntries call
+ *
+ * @param from      the start of the range, moved on to the next receiver when
+ *                  the position asked for was the processed end of a receiver
+ * @param end       the end of the range the block was fetched for
+ * @param data      the raw RJNE0200 output, null when the call was not made
+ * @param header    the decoded first header
+ * @param fetchNanos time spent in the call, 0 when it was not made
+ */
+record FetchedBlock(JournalProcessedPosition from, JournalProcessedPosition end, byte[] data, FirstHeader header,
+		long fetchNanos) {
+
+	FetchedBlock(JournalProcessedPosition from, JournalProcessedPosition end, byte[] data, FirstHeader header) {
+		this(from, end, data, header, 0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("FetchedBlock [from=%s, end=%s, header=%s, fetchNanos=%s]", from, end, header,
+				fetchNanos);
+	}
+}
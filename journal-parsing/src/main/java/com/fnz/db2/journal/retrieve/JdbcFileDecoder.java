@@ -6,18 +6,27 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.fnz.db2.journal.data.types.AS400Char;
+import com.fnz.db2.journal.data.types.AS400Packed;
 import com.fnz.db2.journal.data.types.AS400VarBin;
 import com.fnz.db2.journal.data.types.AS400VarChar;
 import com.fnz.db2.journal.data.types.AS400Xml;
+import com.fnz.db2.journal.data.types.AS400Zoned;
 import com.fnz.db2.journal.retrieve.SchemaCacheIF.Structure;
+import com.fnz.db2.journal.retrieve.SchemaMetadata.ColumnCcsid;
+import com.fnz.db2.journal.retrieve.SchemaMetadata.ColumnMetadata;
 import com.fnz.db2.journal.retrieve.SchemaCacheIF.TableInfo;
 import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
 import com.ibm.as400.access.AS400Bin2;
@@ -28,12 +37,9 @@ import com.ibm.as400.access.AS400DataType;
 import com.ibm.as400.access.AS400Date;
 import com.ibm.as400.access.AS400Float4;
 import com.ibm.as400.access.AS400Float8;
-import com.ibm.as400.access.AS400PackedDecimal;
 import com.ibm.as400.access.AS400Structure;
-import com.ibm.as400.access.AS400Text;
 import com.ibm.as400.access.AS400Time;
 import com.ibm.as400.access.AS400Timestamp;
-import com.ibm.as400.access.AS400ZonedDecimal;
 
 public class JdbcFileDecoder extends JournalFileEntryDecoder {
 
@@ -53,15 +59,41 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 			      WHERE k.dbklib=? AND k.dbkfil=? ORDER BY k.DBKPOS ASC
 			     """;
 
+	private static final String PRELOAD_CCSIDS = "select table_name, system_table_name, column_name, system_column_name, ccsid FROM qsys2.SYSCOLUMNS where table_schema=?";
+	private static final String LAST_ALTERED = "select table_name, last_altered_timestamp FROM qsys2.SYSTABLES where table_schema=? and table_type <> 'A'";
+	private static final String PRELOAD_PRIMARY_KEYS = """
+			SELECT k.table_name, k.column_name FROM qsys2.SYSKEYCST k
+			      INNER JOIN qsys2.SYSCST c on c.constraint_schema=k.constraint_schema AND c.constraint_name=k.constraint_name
+			      WHERE c.constraint_type='PRIMARY KEY' AND k.table_schema=? ORDER BY k.table_name, k.ordinal_position ASC
+			     """;
+	private static final String PRELOAD_UNIQUE_KEYS = """
+			SELECT c.table_name, c.column_name FROM qsys.QADBKATR k
+			      INNER JOIN qsys2.SYSCOLUMNS c on c.table_schema=k.dbklib and c.system_table_name=k.dbkfil AND c.system_column_name=k.DBKFLD
+			      WHERE k.dbklib=? ORDER BY k.dbkfil, k.DBKPOS ASC
+			     """;
+
 	private final Connect<Connection, SQLException> jdbcConnect;
 	private final String databaseName;
 	private final SchemaCacheIF schemaCache;
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
 	private final CcsidCache ccsidCache;
 	private final BytesPerChar octetLengthCache;
+	private final ColumnProjection projection;
 
 	public JdbcFileDecoder(Connect<Connection, SQLException> con, String database, SchemaCacheIF schemaCache,
 			Integer fromCcsid, Integer toCcsid) {
+		this(con, database, schemaCache, fromCcsid, toCcsid, ColumnProjection.ALL);
+	}
+
+	/**
+	 * @param projection columns to decode, excluded columns other than primary keys
+	 *                   are left null
+	 */
+	public JdbcFileDecoder(Connect<Connection, SQLException> con, String database, SchemaCacheIF schemaCache,
+			Integer fromCcsid, Integer toCcsid, ColumnProjection projection) {
 		super();
+		this.projection = projection;
 		this.jdbcConnect = con;
 		this.schemaCache = schemaCache;
 		this.databaseName = database;
@@ -75,27 +107,82 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 	 * CHAR(5) Length of entry specific data 5 5 CHAR(11) Reserved 16 16 CHAR(*)
 	 * Entry specific data
 	 */
-	private static final AS400Text LENGTH_DECODER = new AS400Text(5);
+	private static final int ENTRY_LENGTH_DIGITS = 5;
 	private static final Object[] EMPTY = new Object[] {};
 
+	@Override
+	public Object[] decode(EntryHeader entryHeader, byte[] data, int offset) throws Exception {
+		final int nullOffset = entryHeader.getNullValueOffest();
+		return decodeRow(entryHeader, data, offset, (nullOffset == 0) ? -1 : offset + nullOffset);
+	}
+
 	@Override
 	public Object[] decodeFile(EntryHeader entryHeader, byte[] data, int offset) throws Exception {
-		final Optional<TableInfo> tableInfoOpt = getRecordFormat(entryHeader.getFile(), entryHeader.getLibrary());
-
-		return tableInfoOpt.map(tableInfo -> {
-			final String lengthStr = (String) LENGTH_DECODER.toObject(data,
-					offset + entryHeader.getEntrySpecificDataOffset());
-			final int length = Integer.parseInt(lengthStr);
-			if (length > 0) {
-				final Object[] os = decodeEntry(tableInfo.getAs400Structure(), data,
-						offset + entryHeader.getEntrySpecificDataOffset() + ENTRY_SPECIFIC_DATA_OFFSET);
-				return os;
-			} else {
-				log.error("Empty journal entry for {}.{} is (before image) journalling set corretly for this table?",
-						entryHeader.getLibrary(), entryHeader.getFile());
-				return EMPTY;
+		return decodeRow(entryHeader, data, offset, -1);
+	}
+
+	private Object[] decodeRow(EntryHeader entryHeader, byte[] data, int offset, int nullIndicatorsOffset) {
+		final String schema = entryHeader.getLibrary();
+		final Optional<TableInfo> tableInfoOpt = getRecordFormat(entryHeader.getFile(), schema);
+
+		return tableInfoOpt
+				.map(tableInfo -> decodeRow(rowDecoder(tableInfo, schema, entryHeader.getFile()), entryHeader, data,
+						offset, nullIndicatorsOffset))
+				.orElse(EMPTY);
+	}
+
+	private Object[] decodeRow(RowDecoder rowDecoder, EntryHeader entryHeader, byte[] data, int offset,
+			int nullIndicatorsOffset) {
+		final int length = entryLength(data, offset + entryHeader.getEntrySpecificDataOffset());
+		if (length > 0) {
+			return rowDecoder.decode(data, offset + entryHeader.getEntrySpecificDataOffset() + ENTRY_SPECIFIC_DATA_OFFSET,
+					nullIndicatorsOffset);
+		} else {
+			log.error("Empty journal entry for {}.{} is (before image) journalling set corretly for this table?",
+					entryHeader.getLibrary(), entryHeader.getFile());
+			return EMPTY;
+		}
+	}
+
+	private RowDecoder rowDecoder(TableInfo tableInfo, String schema, String systemTableName) {
+		return (projection == ColumnProjection.ALL) ? tableInfo.getRowDecoder()
+				: tableInfo.getRowDecoder(projection, databaseName, schema,
+						getLongName(schema, systemTableName).orElse(systemTableName));
+	}
+
+	/**
+	 * decoder bound to the current record format of one table, skipping the name
+	 * and cache lookups {@link #decode(EntryHeader, byte[], int)} makes for every
+	 * entry. It must be dropped when the table changes.
+	 *
+	 * @return empty if the record format can't be found
+	 */
+	public Optional<JournalEntryDeocder<Object[]>> decoderFor(String systemTableName, String schema) {
+		return getRecordFormat(systemTableName, schema).map(tableInfo -> {
+			final RowDecoder rowDecoder = rowDecoder(tableInfo, schema, systemTableName);
+			// rows may be decoded on several threads, each gets its own copy
+			final ThreadLocal<RowDecoder> decoders = ThreadLocal.withInitial(rowDecoder::copy);
+			return (entryHeader, data, offset) -> {
+				final int nullOffset = entryHeader.getNullValueOffest();
+				return decodeRow(decoders.get(), entryHeader, data, offset, (nullOffset == 0) ? -1 : offset + nullOffset);
+			};
+		});
+	}
+
+	/**
+	 * the entry specific data starts with its length as 5 EBCDIC digits, read
+	 * directly as a shared AS400Text isn't safe to use from several threads
+	 */
+	static int entryLength(byte[] data, int offset) {
+		int length = 0;
+		for (int i = offset; i < offset + ENTRY_LENGTH_DIGITS; i++) {
+			final int digit = (data[i] & 0xFF) - 0xF0;
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException("invalid entry length at " + offset);
 			}
-		}).orElse(EMPTY);
+			length = length * 10 + digit;
+		}
+		return length;
 	}
 
 	public Object[] decodeEntry(AS400Structure entryDetailStructure, byte[] data, int offset) {
@@ -116,6 +203,20 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 		// debezium doesn't close connections
 	}
 
+	/**
+	 * @return record format lookups found in the schema cache
+	 */
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * @return record format lookups read from the database
+	 */
+	public long getCacheMisses() {
+		return cacheMisses.sum();
+	}
+
 	public void clearCache(String systemTableName, String schema) {
 		final String longTableName = getLongName(schema, systemTableName).orElse(systemTableName);
 		schemaCache.clearCache(databaseName, schema, longTableName);
@@ -136,54 +237,34 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 		try {
 			TableInfo tableInfo = schemaCache.retrieve(databaseName, schema, longTableName);
 			if (tableInfo != null) {
+				cacheHits.increment();
 				return Optional.of(tableInfo);
 			}
+			cacheMisses.increment();
 
 			log.info("missed cache fetching structure for {} {}", schema, systemTableName);
 
 			final String databaseCatalog = null;
-			final List<AS400DataType> as400structure = new ArrayList<>();
-			final List<Structure> jdbcStructure = new ArrayList<>();
+			final List<ColumnMetadata> columns = new ArrayList<>();
 
 			final Connection con = jdbcConnect.connection();
 			final DatabaseMetaData metadata = con.getMetaData();
 			try (ResultSet columnMetadata = metadata.getColumns(databaseCatalog, schema, longTableName, null)) {
 				while (columnMetadata.next()) {
-					// @see
-					// https://docs.oracle.com/en/java/javase/11/docs/api/java.sql/java/sql/DatabaseMetaData.html#getColumns(java.lang.String,java.lang.String,java.lang.String,java.lang.String)
-					final String name = columnMetadata.getString(4);
-					final String type = columnMetadata.getString(6);
-					final int precision = columnMetadata.getInt(9);
-					final int length = columnMetadata.getInt(7);
-					final int jdcbType = columnMetadata.getInt(5);
-
-					final boolean optional = isNullable(columnMetadata.getInt(11));
-					final int octectLength = columnMetadata.getInt(16);
-					final int position = columnMetadata.getInt(17);
-					final boolean autoInc = "YES".equalsIgnoreCase(columnMetadata.getString(23));
-
-					jdbcStructure
-					.add(new Structure(name, type, jdcbType, length, precision, optional,
-							position, autoInc));
-					final AS400DataType dataType = toDataType(schema, longTableName, name, type, length, precision);
-
-					as400structure.add(dataType);
-					octetLengthCache.add(schema, longTableName, name, length, octectLength);
+					columns.add(ColumnMetadata.from(columnMetadata));
 				}
-				final AS400Structure entryDetailStructure = new AS400Structure(
-						as400structure.toArray(new AS400DataType[as400structure.size()]));
+			}
 
-				List<String> primaryKeys = primaryKeysFromMeta(longTableName, schema, databaseCatalog, metadata);
+			List<String> primaryKeys = primaryKeysFromMeta(longTableName, schema, databaseCatalog, metadata);
 
-				if (primaryKeys.isEmpty()) {
-					primaryKeys = ddsPrimaryKeys(systemTableName, schema);
-				}
+			if (primaryKeys.isEmpty()) {
+				primaryKeys = ddsPrimaryKeys(systemTableName, schema);
+			}
 
-				tableInfo = new TableInfo(jdbcStructure, primaryKeys, entryDetailStructure);
-				schemaCache.store(databaseName, schema, longTableName, tableInfo);
+			tableInfo = toTableInfo(schema, longTableName, columns, primaryKeys);
+			schemaCache.store(databaseName, schema, longTableName, tableInfo);
 
-				return Optional.of(tableInfo);
-			}
+			return Optional.of(tableInfo);
 		} catch (final Exception e) {
 			log.error("Failed to retrieve table info for {} {}", schema, longTableName, e);
 		}
@@ -193,6 +274,146 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 	}
 
 
+	private TableInfo toTableInfo(String schema, String longTableName, List<ColumnMetadata> columns,
+			List<String> primaryKeys) {
+		final List<AS400DataType> as400structure = new ArrayList<>();
+		final List<Structure> jdbcStructure = new ArrayList<>();
+		for (final ColumnMetadata c : columns) {
+			jdbcStructure.add(new Structure(c.name(), c.type(), c.jdbcType(), c.length(), c.precision(), c.optional(),
+					c.position(), c.autoInc()));
+			as400structure.add(toDataType(schema, longTableName, c.name(), c.type(), c.length(), c.precision()));
+			octetLengthCache.add(schema, longTableName, c.name(), c.length(), c.octetLength());
+		}
+		final AS400Structure entryDetailStructure = new AS400Structure(
+				as400structure.toArray(new AS400DataType[as400structure.size()]));
+		return new TableInfo(jdbcStructure, primaryKeys, entryDetailStructure);
+	}
+
+	/**
+	 * fetches the record format of every included table in the schema with a few
+	 * set based queries rather than several queries per table on first sight. No
+	 * caches are touched so schemas can be fetched in parallel, each on its own
+	 * connection, the result is then passed to {@link #load(SchemaMetadata)}
+	 *
+	 * @param con          connection to query with
+	 * @param includeTable long table names to fetch
+	 */
+	public SchemaMetadata fetchSchemaMetadata(Connect<Connection, SQLException> con, String schema,
+			Predicate<String> includeTable) throws SQLException {
+		final Connection connection = con.connection();
+		final SchemaMetadata metadata = new SchemaMetadata(schema);
+		try (PreparedStatement ps = connection.prepareStatement(PRELOAD_CCSIDS)) {
+			ps.setString(1, schema);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					final String longTableName = StringHelpers.safeTrim(rs.getString(1));
+					if (includeTable.test(longTableName)) {
+						final String systemTableName = StringHelpers.safeTrim(rs.getString(2));
+						final Object ccsid = rs.getObject(5);
+						metadata.longToSystem.put(longTableName, systemTableName);
+						metadata.ccsids.add(new ColumnCcsid(longTableName, systemTableName,
+								StringHelpers.safeTrim(rs.getString(3)), StringHelpers.safeTrim(rs.getString(4)),
+								(ccsid == null) ? -1 : (Integer) ccsid));
+					}
+				}
+			}
+		}
+
+		lastAltered(connection, schema).forEach((table, altered) -> {
+			if (metadata.longToSystem.containsKey(table)) {
+				metadata.lastAltered.put(table, altered);
+			}
+		});
+		keysByTable(connection, PRELOAD_PRIMARY_KEYS, schema, metadata.longToSystem.keySet(), metadata.primaryKeys);
+		keysByTable(connection, PRELOAD_UNIQUE_KEYS, schema, metadata.longToSystem.keySet(), metadata.ddsKeys);
+
+		try (ResultSet columnMetadata = connection.getMetaData().getColumns(null, schema, null, null)) {
+			while (columnMetadata.next()) {
+				final String longTableName = StringHelpers.safeTrim(columnMetadata.getString(3));
+				if (metadata.longToSystem.containsKey(longTableName)) {
+					metadata.columns.computeIfAbsent(longTableName, x -> new ArrayList<>())
+							.add(ColumnMetadata.from(columnMetadata));
+				}
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * a single cheap catalog query to check whether previously fetched metadata
+	 * is still current
+	 *
+	 * @param includeTable long table names to check
+	 * @return last altered time in milliseconds by long table name
+	 */
+	public Map<String, Long> lastAltered(Connect<Connection, SQLException> con, String schema,
+			Predicate<String> includeTable) throws SQLException {
+		final Map<String, Long> altered = lastAltered(con.connection(), schema);
+		altered.keySet().removeIf(includeTable.negate());
+		return altered;
+	}
+
+	private static Map<String, Long> lastAltered(Connection con, String schema) throws SQLException {
+		final Map<String, Long> altered = new HashMap<>();
+		try (PreparedStatement ps = con.prepareStatement(LAST_ALTERED)) {
+			ps.setString(1, schema);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					final Timestamp t = rs.getTimestamp(2);
+					altered.put(StringHelpers.safeTrim(rs.getString(1)), (t == null) ? 0L : t.getTime());
+				}
+			}
+		}
+		return altered;
+	}
+
+	/**
+	 * caches the long names, ccsids and record formats so the tables are never
+	 * missed in the cache, not thread safe
+	 *
+	 * @return table info by system table name
+	 */
+	public Map<String, TableInfo> load(SchemaMetadata metadata) {
+		final String schema = metadata.schema;
+		for (final ColumnCcsid c : metadata.ccsids) {
+			ccsidCache.add(schema, c.longTableName(), c.longColumnName(), c.ccsid());
+			ccsidCache.add(schema, c.systemTableName(), c.systemColumnName(), c.ccsid());
+		}
+		final Map<String, TableInfo> loaded = new HashMap<>();
+		for (final Map.Entry<String, List<ColumnMetadata>> e : metadata.columns.entrySet()) {
+			final String longTableName = e.getKey();
+			final String systemTableName = metadata.longToSystem.get(longTableName);
+			systemToLongName.put(systemTableName, Optional.of(longTableName));
+			try {
+				final List<String> keys = metadata.primaryKeys.getOrDefault(longTableName,
+						metadata.ddsKeys.getOrDefault(longTableName, List.of()));
+				final TableInfo tableInfo = toTableInfo(schema, longTableName, e.getValue(), keys);
+				schemaCache.store(databaseName, schema, longTableName, tableInfo);
+				loaded.put(systemTableName, tableInfo);
+			} catch (final Exception ex) {
+				// left to be fetched on first sight
+				log.warn("Failed to preload table info for {} {}", schema, longTableName, ex);
+			}
+		}
+		return loaded;
+	}
+
+	private static void keysByTable(Connection con, String sql, String schema, Set<String> tables,
+			Map<String, List<String>> keys) throws SQLException {
+		try (PreparedStatement ps = con.prepareStatement(sql)) {
+			ps.setString(1, schema);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					final String longTableName = StringHelpers.safeTrim(rs.getString(1));
+					if (tables.contains(longTableName)) {
+						keys.computeIfAbsent(longTableName, x -> new ArrayList<>())
+								.add(StringHelpers.safeTrim(rs.getString(2)));
+					}
+				}
+			}
+		}
+	}
+
 	private List<String> ddsPrimaryKeys(String table, String schema) throws SQLException {
 		final List<String> primaryKeys = new ArrayList<>();
 		final Connection con = jdbcConnect.connection();
@@ -265,11 +486,11 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 
 
 
-	AS400Text getText(int length, int ccsid) {
+	AS400Char getText(int length, int ccsid) {
 		if (ccsid != -1) {
-			return new AS400Text(length, ccsid);
+			return new AS400Char(length, ccsid);
 		}
-		return new AS400Text(length);
+		return new AS400Char(length);
 	}
 
 	AS400VarChar getVarText(int length, int bytesPerChar, Integer ccsid) {
@@ -283,7 +504,7 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 			Integer precision) {
 		switch (type) {
 		case "DECIMAL":
-			return new AS400PackedDecimal(length, precision);
+			return new AS400Packed(length, precision);
 		case "CHAR () FOR BIT DATA": // password fields - treat as binary
 			return new AS400ByteArray(length);
 		case "VARCHAR () FOR BIT DATA": // password fields - treat as binary
@@ -305,7 +526,7 @@ public class JdbcFileDecoder extends JournalFileEntryDecoder {
 			return getVarText(length, octetLengthCache.getBytesPerChar(schema, table, columnName),
 					ccsidCache.getCcsid(schema, table, columnName));
 		case "NUMERIC":
-			return new AS400ZonedDecimal(length, precision);
+			return new AS400Zoned(length, precision);
 		case "DATE":
 			return AS400_DATE;
 		case "TIME":
@@ -0,0 +1,21 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.Optional;
+
+/**
+ * retrieves a block of journal entries in the RJNE0200 format, normally from
+ * QjoRetrieveJournalEntries see {@link ServiceProgramJournalEntries}
+ */
+public interface JournalEntriesSource {
+
+	/**
+	 * @param range      entries to retrieve, the start is included
+	 * @param bufferSize size of the output buffer
+	 * @return RJNE0200 output or empty when there are no entries matching the
+	 *         range and filters
+	 * @throws Exception InvalidPositionException or
+	 *                   InvalidJournalFilterException when the request is
+	 *                   rejected
+	 */
+	Optional<byte[]> retrieve(PositionRange range, int bufferSize) throws Exception;
+}
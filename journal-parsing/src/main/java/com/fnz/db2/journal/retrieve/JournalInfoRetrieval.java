@@ -1,13 +1,16 @@
 package com.fnz.db2.journal.retrieve;
 
-import java.math.BigInteger;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -51,16 +54,38 @@ public class JournalInfoRetrieval {
 	private static final AS400Bin8 AS400_BIN8 = new AS400Bin8();
 	private static final AS400Bin4 AS400_BIN4 = new AS400Bin4();
 	private static final int KEY_HEADER_LENGTH = 20;
-	private final DetailedJournalReceiverCache cache = new DetailedJournalReceiverCache();
+	private final Map<String, DetailedJournalReceiverCache> caches = new ConcurrentHashMap<>();
+	private final Optional<File> cacheFolder;
+	private final Map<JournalInfo, Integer> receiverListSizes = new ConcurrentHashMap<>();
 
 
 	public JournalInfoRetrieval() {
+		this(Optional.empty());
+	}
+
+	/**
+	 * @param cacheFolder where the details of detached receivers are kept between
+	 *                    restarts, one file per host and journal
+	 */
+	public JournalInfoRetrieval(Optional<File> cacheFolder) {
 		super();
+		this.cacheFolder = cacheFolder;
+	}
+
+	/**
+	 * keyed by host as well, journals of the same name on different hosts may
+	 * share the folder
+	 */
+	DetailedJournalReceiverCache cache(AS400 as400, JournalInfo journal) {
+		final String key = String.format("%s.%s.%s", as400.getSystemName(), journal.journalLibrary(),
+				journal.journalName());
+		return caches.computeIfAbsent(key, k -> new DetailedJournalReceiverCache(
+				cacheFolder.map(folder -> new File(folder, CacheFile.fileName(k + ".receivers")))));
 	}
 
 	public JournalPosition getCurrentPosition(AS400 as400, JournalInfo journalLib) throws Exception {
 		final JournalReceiver ji = JournalInfoRetrieval.getReceiver(as400, journalLib);
-		final BigInteger offset = getOffset(as400, ji).end();
+		final long offset = getOffset(as400, ji).end();
 		return new JournalPosition(offset, ji);
 	}
 
@@ -114,6 +139,23 @@ public class JournalInfoRetrieval {
 
 
 
+	/**
+	 * @return the included files grouped by the journal they are journaled to, in
+	 *         the order the journals are first seen
+	 */
+	public static Map<JournalInfo, List<FileFilter>> getJournals(AS400 as400, List<FileFilter> includes)
+			throws IllegalStateException {
+		try {
+			final Map<JournalInfo, List<FileFilter>> journals = new LinkedHashMap<>();
+			for (final FileFilter f : includes) {
+				journals.computeIfAbsent(getJournal(as400, f.schema(), f.table()), j -> new ArrayList<>()).add(f);
+			}
+			return journals;
+		} catch (final Exception e) {
+			throw new IllegalStateException("unable to retrieve journal details", e);
+		}
+	}
+
 	public static JournalInfo getJournal(AS400 as400, String schema, String table) throws Exception {
 		final int rcvLen = 32768;
 		final String filename = padRight(table.toUpperCase(), 10) + padRight(schema.toUpperCase(), 10);
@@ -246,17 +288,21 @@ public class JournalInfoRetrieval {
 	 */
 	public List<DetailedJournalReceiver> getReceivers(AS400 as400, JournalInfo journalLib) throws Exception {
 		final int defaultSize = 32768; // 4k takes 31ms 32k takes 85ms must be a multiple of 4k and 0 not allowed
-		byte[] data = getReceiversForJournal(as400, journalLib, defaultSize);
+		// start from the size the list needed last time so a long list is one call
+		final int size = receiverListSizes.getOrDefault(journalLib, defaultSize);
+		byte[] data = getReceiversForJournal(as400, journalLib, size);
 		final int actualSizeRequired = decodeInt(data, 4) * 4096; // bytes available - value returned for rjrn0200 is 4k
 		// pages
-		if (actualSizeRequired > defaultSize) {
+		if (actualSizeRequired > size) {
 			data = getReceiversForJournal(as400, journalLib, actualSizeRequired+4096); // allow for any growth since call
 		}
+		receiverListSizes.put(journalLib, Math.max(defaultSize, actualSizeRequired + 4096));
 
 		final Integer keyOffset = decodeInt(data, 8) + 4;
 		final Integer totalKeys = decodeInt(data, keyOffset);
 
 		final KeyDecoder keyDecoder = new KeyDecoder();
+		final DetailedJournalReceiverCache cache = cache(as400, journalLib);
 
 		final List<DetailedJournalReceiver> l = new ArrayList<>();
 
@@ -270,33 +316,37 @@ public class JournalInfoRetrieval {
 					+ i * kheader.getLengthOfKeyInfo();
 
 					final JournalReceiverInfo r = dec.decode(data, kioffset);
-					final DetailedJournalReceiver details = getReceiverDetails(as400, r);
+					final DetailedJournalReceiver details = getReceiverDetails(as400, r, cache);
 
 					l.add(details);
 				}
 			}
 		}
 		cache.keepOnly(l);
+		cache.save();
 
 		return DetailedJournalReceiver.lastJoined(l);
 	}
 
 	DetailedJournalReceiver getOffset(AS400 as400, JournalReceiver receiver) throws Exception {
+		// the current receiver is attached so never cached
 		return getReceiverDetails(as400,
-				new JournalReceiverInfo(receiver, null, null, Optional.empty()));
+				new JournalReceiverInfo(receiver, null, null, Optional.empty()), null);
 	}
 
 	/**
 	 * @see https://www.ibm.com/support/knowledgecenter/ssw_ibm_i_74/apis/QJORRCVI.htm
 	 * @param as400
 	 * @param receiverInfo
+	 * @param cache        null to always ask the server
 	 * @return
 	 * @throws Exception
 	 */
-	private DetailedJournalReceiver getReceiverDetails(AS400 as400, JournalReceiverInfo receiverInfo) throws Exception {
+	private DetailedJournalReceiver getReceiverDetails(AS400 as400, JournalReceiverInfo receiverInfo,
+			DetailedJournalReceiverCache cache) throws Exception {
 		final int rcvLen = 32768;
 		final String receiverNameLib = padRight(receiverInfo.receiver().name(), 10) + padRight(receiverInfo.receiver().library(), 10);
-		if (cache.containsKey(receiverInfo)) {
+		if (cache != null && cache.containsKey(receiverInfo)) {
 			final DetailedJournalReceiver r = cache.getUpdatingStatus(receiverInfo);
 			if ( ! r.isAttached() ) { // don't use attached journal cache
 				return r;
@@ -312,34 +362,48 @@ public class JournalInfoRetrieval {
 
 		return callServiceProgram(as400, JOURNAL_SERVICE_LIB, "QjoRtvJrnReceiverInformation", parameters,
 				(byte[] data) -> {
-					final String journalName = decodeString(data, 8, 10);
-					final String attachTimeStr = decodeString(data, 95, 13);
-					final String nextReceiverName = decodeString(data, 332, 10);
-					String nextReceiverLib = decodeString(data, 342, 10);
-					nextReceiverLib = (nextReceiverLib == null) ? receiverInfo.receiver().library() : nextReceiverLib;
-					final Long numberOfEntries = Long.valueOf(decodeString(data, 372, 20));
-					final Long maxEntryLength = Long.valueOf(decodeString(data, 392, 20));
-					final BigInteger firstSequence = decodeBigIntFromString(data, 412);
-					final BigInteger lastSequence = decodeBigIntFromString(data, 432);
-					final JournalStatus status = JournalStatus.valueOfString(decodeString(data, 88, 1));
-
-					if (!journalName.equals(receiverInfo.receiver().name())) {
-						final String msg = String.format("journal names don't match requested %s got %s",
-								receiverInfo.receiver().name(), journalName);
-						throw new Exception(msg);
+					final DetailedJournalReceiver dr = decodeReceiverDetails(data, receiverInfo);
+					if (cache != null) {
+						cache.put(dr);
 					}
-					final Date attachTime = ReceiverDecoder.toDate(attachTimeStr);
-					final JournalReceiverInfo updatedInfo = new JournalReceiverInfo(receiverInfo.receiver(), attachTime, status, receiverInfo.chain());
+					return dr;
+				});
+	}
 
-					final Optional<JournalReceiver> nextReceiver = (nextReceiverName == null) ? Optional.empty() : Optional.of(new JournalReceiver(nextReceiverName, nextReceiverLib));
+	/**
+	 * decodes the RRCV0100 output
+	 *
+	 * @param data         RRCV0100 output
+	 * @param receiverInfo the receiver that was requested
+	 * @return the details with the attach time and status from the output
+	 * @throws Exception if the output is for a different receiver
+	 */
+	public static DetailedJournalReceiver decodeReceiverDetails(byte[] data, JournalReceiverInfo receiverInfo)
+			throws Exception {
+		final String journalName = decodeString(data, 8, 10);
+		final String attachTimeStr = decodeString(data, 95, 13);
+		final String nextReceiverName = decodeString(data, 332, 10);
+		String nextReceiverLib = decodeString(data, 342, 10);
+		nextReceiverLib = (nextReceiverLib == null) ? receiverInfo.receiver().library() : nextReceiverLib;
+		final Long numberOfEntries = Long.valueOf(decodeString(data, 372, 20));
+		final Long maxEntryLength = Long.valueOf(decodeString(data, 392, 20));
+		final long firstSequence = decodeSequenceFromString(data, 412);
+		final long lastSequence = decodeSequenceFromString(data, 432);
+		final JournalStatus status = JournalStatus.valueOfString(decodeString(data, 88, 1));
+
+		if (!journalName.equals(receiverInfo.receiver().name())) {
+			final String msg = String.format("journal names don't match requested %s got %s",
+					receiverInfo.receiver().name(), journalName);
+			throw new Exception(msg);
+		}
+		final Date attachTime = ReceiverDecoder.toDate(attachTimeStr);
+		final JournalReceiverInfo updatedInfo = new JournalReceiverInfo(receiverInfo.receiver(), attachTime, status, receiverInfo.chain());
 
-					final DetailedJournalReceiver dr = new DetailedJournalReceiver(updatedInfo, firstSequence, lastSequence,
-							nextReceiver,
-							maxEntryLength, numberOfEntries);
+		final Optional<JournalReceiver> nextReceiver = (nextReceiverName == null) ? Optional.empty() : Optional.of(new JournalReceiver(nextReceiverName, nextReceiverLib));
 
-					cache.put(dr);
-					return dr;
-				});
+		return new DetailedJournalReceiver(updatedInfo, firstSequence, lastSequence,
+				nextReceiver,
+				maxEntryLength, numberOfEntries);
 	}
 
 	/**
@@ -416,9 +480,9 @@ public class JournalInfoRetrieval {
 		public T process(byte[] data) throws Exception;
 	}
 
-	public static BigInteger decodeBigIntFromString(byte[] data, int offset) {
+	public static long decodeSequenceFromString(byte[] data, int offset) {
 		final byte[] b = Arrays.copyOfRange(data, offset, offset + 20);
 		final String s = (String) AS400_TEXT_20.toObject(b);
-		return new BigInteger(s);
+		return SequenceNumber.parse(s);
 	}
 }
@@ -5,12 +5,10 @@
  */
 package com.fnz.db2.journal.retrieve;
 
-import java.math.BigInteger;
-
 import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
 
 public record JournalPosition(
-		BigInteger offset, // sequence number up to 18 446 644 000 000 000 000
+		long offset, // unsigned sequence number up to 18 446 644 000 000 000 000 see SequenceNumber
 		JournalReceiver receiver) {
 
 	public JournalPosition(JournalPosition position) {
@@ -25,14 +23,11 @@ public record JournalPosition(
 		return new JournalPosition(details.start(), details.info().receiver());
 	}
 
-	public BigInteger getOffset() {
-		if (null == offset) {
-			return BigInteger.ZERO;
-		}
+	public long getOffset() {
 		return offset;
 	}
 
 	public JournalReceiver getReceiver() {
 		return receiver();
 	}
-}
\ No newline at end of file
+}
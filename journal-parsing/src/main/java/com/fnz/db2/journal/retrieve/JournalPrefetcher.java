@@ -0,0 +1,193 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * fetches journal blocks ahead of the consumer on a background thread. Each
+ * block is fetched from the continuation position of the previous block and at
+ * most depth blocks are held waiting to be consumed
+ *
+ * the consumer waits for a block on its own thread, when that thread is
+ * interrupted by the retrieval timeout the fetch in progress is interrupted as
+ * well
+ */
+class JournalPrefetcher {
+	private static final Logger log = LoggerFactory.getLogger(JournalPrefetcher.class);
+	private static final long POLL_MS = 100;
+	private static final long CLOSE_WAIT_MS = 10000;
+
+	interface BlockFetcher {
+		FetchedBlock fetch(JournalProcessedPosition position) throws Exception;
+	}
+
+	private final int depth;
+	private final BlockFetcher fetcher;
+	private ExecutorService executor;
+	private Producer current;
+	private Future<?> running;
+
+	JournalPrefetcher(int depth, BlockFetcher fetcher) {
+		this.depth = depth;
+		this.fetcher = fetcher;
+	}
+
+	/**
+	 * start fetching ahead from position unless blocks are already being fetched
+	 * or are waiting to be consumed
+	 */
+	void start(JournalProcessedPosition from) {
+		if (current != null && (!current.finished || !current.ready.isEmpty())) {
+			return;
+		}
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(r -> {
+				final Thread t = new Thread(r, "journal-prefetch");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		current = new Producer(new JournalProcessedPosition(from), depth);
+		running = executor.submit(current);
+	}
+
+	/**
+	 * @param position the position the consumer wants data from
+	 * @return the next prefetched block if it was fetched from position,
+	 *         otherwise empty and prefetching is stopped
+	 * @throws Exception the failure fetching from position ahead of the consumer
+	 */
+	Optional<FetchedBlock> take(JournalProcessedPosition position) throws Exception {
+		if (current == null) {
+			return Optional.empty();
+		}
+		final Producer producer = current;
+		final Prefetched prefetched;
+		try {
+			prefetched = producer.next();
+		} catch (final InterruptedException e) {
+			log.warn("interrupted waiting for prefetched block at {}, interrupting the fetch", position);
+			final Future<?> fetch = running;
+			cancel();
+			fetch.cancel(true);
+			throw e;
+		}
+		if (prefetched == null && producer.failure != null && producer.next.equals(position)) {
+			cancel();
+			throw producer.failure;
+		}
+		if (prefetched != null && prefetched.requested().equals(position)) {
+			log.debug("using prefetched block {}", prefetched.block());
+			return Optional.of(prefetched.block());
+		}
+		log.debug("discarding prefetched block {} requested position {}", prefetched, position);
+		cancel();
+		return Optional.empty();
+	}
+
+	/**
+	 * stops fetching ahead, does not wait for an in progress fetch to complete
+	 */
+	void cancel() {
+		if (current != null) {
+			current.cancelled = true;
+			current = null;
+			running = null;
+		}
+	}
+
+	/**
+	 * stops fetching ahead, interrupts an in progress fetch and waits for the
+	 * prefetch thread to exit
+	 */
+	void close() {
+		cancel();
+		if (executor == null) {
+			return;
+		}
+		executor.shutdownNow();
+		try {
+			if (!executor.awaitTermination(CLOSE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+				log.warn("prefetch thread still running after {} ms", CLOSE_WAIT_MS);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		executor = null;
+	}
+
+	/**
+	 * @param requested a copy of the position the block was fetched from, the
+	 *                  fetch may move the position it is given on to the next
+	 *                  receiver
+	 */
+	private record Prefetched(JournalProcessedPosition requested, FetchedBlock block) {
+	}
+
+	private class Producer implements Runnable {
+		private final BlockingQueue<Prefetched> ready;
+		private volatile boolean cancelled = false;
+		private volatile boolean finished = false;
+		private volatile Exception failure = null;
+		private volatile JournalProcessedPosition next;
+
+		Producer(JournalProcessedPosition from, int depth) {
+			this.next = from;
+			this.ready = new ArrayBlockingQueue<>(depth);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!cancelled) {
+					// a copy so nothing the fetch does can move next
+					final FetchedBlock block = fetcher.fetch(new JournalProcessedPosition(next));
+					final Prefetched prefetched = new Prefetched(new JournalProcessedPosition(next), block);
+					// copied before the consumer gets the block as finding the next range may move it on
+					final JournalProcessedPosition continuation = new JournalProcessedPosition(
+							block.header().nextPosition());
+					while (!ready.offer(prefetched, POLL_MS, TimeUnit.MILLISECONDS)) {
+						if (cancelled) {
+							return;
+						}
+					}
+					if (!block.header().hasFutureDataAvailable()) {
+						return;
+					}
+					next = continuation;
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (final Exception e) {
+				if (!cancelled) {
+					log.warn("prefetch failed at position {}", next, e);
+					failure = e;
+				}
+			} finally {
+				finished = true;
+			}
+		}
+
+		/**
+		 * @return the next block or null once the producer has finished and no
+		 *         blocks remain
+		 */
+		Prefetched next() throws InterruptedException {
+			while (true) {
+				final boolean wasFinished = finished;
+				final Prefetched block = ready.poll(POLL_MS, TimeUnit.MILLISECONDS);
+				if (block != null || wasFinished) {
+					return block;
+				}
+			}
+		}
+	}
+}
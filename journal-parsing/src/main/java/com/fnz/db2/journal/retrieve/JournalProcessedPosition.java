@@ -5,7 +5,6 @@
  */
 package com.fnz.db2.journal.retrieve;
 
-import java.math.BigInteger;
 import java.time.Instant;
 import java.util.Objects;
 
@@ -14,7 +13,8 @@ import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
 /** class for just the position */
 public class JournalProcessedPosition {
 	// position should be last processed record as requesting the next record will error and be indistinguishable from losing the journal
-	private BigInteger offset; // sequence number up to 18 446 644 000 000 000 000
+	private long offset; // unsigned sequence number up to 18 446 644 000 000 000 000 see SequenceNumber
+	private boolean offsetSet = false;
 	private JournalReceiver receiver;
 	private Instant timeOfLastProcessed = Instant.EPOCH;
 	private boolean processed = false;
@@ -22,6 +22,7 @@ public class JournalProcessedPosition {
 
 	public JournalProcessedPosition(JournalProcessedPosition position) {
 		this.offset = position.offset;
+		this.offsetSet = position.offsetSet;
 		this.receiver = position.receiver;
 		this.processed = position.processed;
 		this.timeOfLastProcessed = position.timeOfLastProcessed;
@@ -44,35 +45,42 @@ public class JournalProcessedPosition {
 
 	public JournalProcessedPosition(String offsetStr, String receiver, String receiverLibrary, Instant time, boolean processed) {
 		if (offsetStr == null || offsetStr.isBlank()) {
-			this.offset = null;
+			this.offset = 0;
+			this.offsetSet = false;
 		} else {
-			this.offset = new BigInteger(offsetStr);
+			this.offset = SequenceNumber.parse(offsetStr);
+			this.offsetSet = true;
 		}
 		this.receiver = new JournalReceiver(StringHelpers.safeTrim(receiver), StringHelpers.safeTrim(receiverLibrary));
 		this.timeOfLastProcessed = time;
 		this.processed = processed;
 	}
 
-	public JournalProcessedPosition(BigInteger offset, JournalReceiver receiver, Instant time, boolean processed) {
+	public JournalProcessedPosition(long offset, JournalReceiver receiver, Instant time, boolean processed) {
 		this.offset = offset;
+		this.offsetSet = true;
 		this.receiver = receiver;
 		this.timeOfLastProcessed = time;
 		this.processed = processed;
 	}
 
-	public BigInteger getOffset() {
-		if (null == offset) {
-			return BigInteger.ZERO;
-		}
+	/**
+	 * @return the unsigned sequence number or 0 when not set
+	 */
+	public long getOffset() {
 		return offset;
 	}
 
+	public String getOffsetString() {
+		return SequenceNumber.toString(offset);
+	}
+
 	public Instant getTimeOfLastProcessed() {
 		return this.timeOfLastProcessed;
 	}
 
 	public boolean isOffsetSet() {
-		return (null != offset);
+		return offsetSet;
 	}
 
 	public JournalReceiver getReceiver() {
@@ -90,7 +98,7 @@ public class JournalProcessedPosition {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(offset, processed, receiver);
+		return Objects.hash(offsetSet, offset, processed, receiver);
 	}
 
 	@Override
@@ -105,19 +113,21 @@ public class JournalProcessedPosition {
 			return false;
 		}
 		final JournalProcessedPosition other = (JournalProcessedPosition) obj;
-		return Objects.equals(offset, other.offset) && processed == other.processed
+		return offsetSet == other.offsetSet && offset == other.offset && processed == other.processed
 				&& Objects.equals(receiver, other.receiver);
 	}
 
 	@Override
 	public String toString() {
-		return String.format("JournalProcessedPosition [offset=%s, receiver=%s, timeOfLastProcessed=%s, processed=%s]", offset,
+		return String.format("JournalProcessedPosition [offset=%s, receiver=%s, timeOfLastProcessed=%s, processed=%s]",
+				offsetSet ? SequenceNumber.toString(offset) : null,
 				receiver, timeOfLastProcessed, processed);
 	}
 
 	// TODO remove all setters and convert to record
-	public JournalProcessedPosition setOffset(BigInteger offset, Instant time, boolean processed) {
+	public JournalProcessedPosition setOffset(long offset, Instant time, boolean processed) {
 		this.offset = offset;
+		this.offsetSet = true;
 		this.processed = processed;
 		this.timeOfLastProcessed = time;
 		return this;
@@ -128,8 +138,9 @@ public class JournalProcessedPosition {
 		return this;
 	}
 
-	public void setJournalReceiver(BigInteger offset, String journalReceiver, String schema, Instant time, boolean processed) {
+	public void setJournalReceiver(long offset, String journalReceiver, String schema, Instant time, boolean processed) {
 		this.offset = offset;
+		this.offsetSet = true;
 		this.receiver = new JournalReceiver(StringHelpers.safeTrim(journalReceiver), StringHelpers.safeTrim(schema));
 		this.processed = processed;
 		this.timeOfLastProcessed = time;
@@ -137,6 +148,7 @@ public class JournalProcessedPosition {
 
 	public void setPosition(JournalProcessedPosition newPosition) {
 		this.offset = newPosition.offset;
+		this.offsetSet = newPosition.offsetSet;
 		this.receiver = newPosition.receiver;
 		if (!newPosition.timeOfLastProcessed.equals(Instant.EPOCH)) {
 			this.timeOfLastProcessed = newPosition.timeOfLastProcessed;
@@ -146,11 +158,12 @@ public class JournalProcessedPosition {
 
 	public void setPosition(JournalPosition newPosition, boolean processed) {
 		this.offset = newPosition.getOffset();
+		this.offsetSet = true;
 		this.receiver = newPosition.receiver();
 		this.processed = processed;
 	}
 
-	public JournalProcessedPosition withOffset(BigInteger offset, boolean processed) {
+	public JournalProcessedPosition withOffset(long offset, boolean processed) {
 		return new JournalProcessedPosition(offset, this.receiver, this.timeOfLastProcessed, processed);
 	}
 
@@ -1,6 +1,5 @@
 package com.fnz.db2.journal.retrieve;
 
-import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -96,8 +95,8 @@ public class ParameterListBuilder {
 		return this;
 	}
 
-	private ParameterListBuilder withStartingSequence(BigInteger start) {
-		startOffset = start.toString();
+	private ParameterListBuilder withStartingSequence(long start) {
+		startOffset = SequenceNumber.toString(start);
 		criteria.withFromEnt(start);
 		return this;
 	}
@@ -108,13 +107,13 @@ public class ParameterListBuilder {
 		return this;
 	}
 
-	private ParameterListBuilder withEnd(BigInteger end) {
-		endOffset = end.toString();
+	private ParameterListBuilder withEnd(long end) {
+		endOffset = SequenceNumber.toString(end);
 		criteria.withEnd(end);
 		return this;
 	}
 
-	public ParameterListBuilder withStartReceiversToCurrentEnd(BigInteger start, String startReceiver, String startLibrary) {
+	public ParameterListBuilder withStartReceiversToCurrentEnd(long start, String startReceiver, String startLibrary) {
 		withStartingSequence(start);
 		this.startReceiver = startReceiver;
 		this.startLibrary = startLibrary;
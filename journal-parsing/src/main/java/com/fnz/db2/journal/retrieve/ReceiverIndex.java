@@ -0,0 +1,146 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
+
+/**
+ * index over a receiver list so a range can be found without walking every
+ * receiver. The receiver of a position is found by name and the receiver a
+ * range ends in by a binary search of the entries before each receiver.
+ *
+ * built once per receiver list, when only the attached receiver has moved on
+ * it is updated in place
+ */
+class ReceiverIndex {
+	private final List<DetailedJournalReceiver> receivers;
+	private final Map<JournalReceiver, Integer> positions;
+	// entries before each receiver, one longer than the list for the entries in total
+	private final long[] before;
+	private final long[] starts;
+	// last receiver before the sequence numbers are reset
+	private final int[] segmentEnd;
+	private DetailedJournalReceiver last;
+
+	ReceiverIndex(List<DetailedJournalReceiver> receivers) {
+		final int size = receivers.size();
+		this.receivers = receivers;
+		this.positions = new HashMap<>(size * 2);
+		this.before = new long[size + 1];
+		this.segmentEnd = new int[size];
+		this.starts = new long[size];
+		for (int i = 0; i < size; i++) {
+			final DetailedJournalReceiver r = receivers.get(i);
+			positions.putIfAbsent(r.info().receiver(), i);
+			starts[i] = r.start();
+			before[i + 1] = before[i] + length(r);
+		}
+		for (int i = size - 1; i >= 0; i--) {
+			final boolean continues = i + 1 < size && length(receivers.get(i)) >= 0
+					&& length(receivers.get(i + 1)) >= 0
+					&& !SequenceNumber.isBefore(receivers.get(i + 1).start(), receivers.get(i).end());
+			segmentEnd[i] = continues ? segmentEnd[i + 1] : i;
+		}
+		this.last = (size == 0) ? null : receivers.get(size - 1);
+	}
+
+	/**
+	 * @return true if this still indexes the list, updating the entries of the
+	 *         last receiver when only its end has moved
+	 */
+	boolean indexes(List<DetailedJournalReceiver> list) {
+		final int size = before.length - 1;
+		if (list != receivers || list.size() != size) {
+			return false;
+		}
+		if (size == 0) {
+			return true;
+		}
+		final DetailedJournalReceiver current = list.get(size - 1);
+		if (current == last) {
+			return true;
+		}
+		if (!current.isSameReceiver(last) || current.start() != last.start()) {
+			return false;
+		}
+		before[size] = before[size - 1] + length(current);
+		last = current;
+		return true;
+	}
+
+	/**
+	 * @return index of the first receiver with this name or -1
+	 */
+	int indexOf(JournalReceiver receiver) {
+		final Integer i = positions.get(receiver);
+		return (i == null) ? -1 : i;
+	}
+
+	boolean contains(JournalReceiver receiver) {
+		return positions.containsKey(receiver);
+	}
+
+	/**
+	 * safe to call from another thread as only the entries of the last receiver
+	 * are updated in place and the attached receiver is passed in
+	 *
+	 * @param end the attached receiver
+	 * @return entries after the offset or -1 if the receiver isn't before the
+	 *         attached receiver
+	 */
+	long entriesAfter(JournalReceiver receiver, long offset, DetailedJournalReceiver end) {
+		final int i = indexOf(receiver);
+		final int endIndex = indexOf(end.info().receiver());
+		if (i < 0 || endIndex <= i) {
+			return -1;
+		}
+		final long receiverEnd = starts[i] + (before[i + 1] - before[i]) - 1;
+		return Math.max(0, receiverEnd - offset) + (before[endIndex] - before[i + 1])
+				+ (end.end() - starts[endIndex] + 1);
+	}
+
+	/**
+	 * @param startIndex receiver holding the offset
+	 * @return the position maxEntries after the offset or empty if that is past
+	 *         the point the sequence numbers are reset
+	 */
+	Optional<JournalPosition> positionAfter(int startIndex, long offset, long maxEntries) {
+		final long target = before[startIndex] + (offset - receivers.get(startIndex).start()) + maxEntries;
+		final int end = segmentEnd[startIndex];
+		if (target < before[startIndex] || target >= before[end + 1]) {
+			return Optional.empty();
+		}
+		final int holding = floor(target, startIndex, end);
+		final DetailedJournalReceiver r = receivers.get(holding);
+		final long into = target - before[holding];
+		if (holding != startIndex && into > r.end() - r.start()) {
+			// an earlier receiver has changed since the index was built
+			return Optional.empty();
+		}
+		return Optional.of(new JournalPosition(r.start() + into, r.info().receiver()));
+	}
+
+	/**
+	 * @return last receiver from low to high with no more entries before it
+	 *         than target
+	 */
+	private int floor(long target, int low, int high) {
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if (before[mid] <= target) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	private static long length(DetailedJournalReceiver r) {
+		// differences are signed, sequence numbers unsigned
+		return r.end() - r.start() + 1;
+	}
+}
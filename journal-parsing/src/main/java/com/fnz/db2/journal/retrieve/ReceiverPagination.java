@@ -1,6 +1,5 @@
 package com.fnz.db2.journal.retrieve;
 
-import java.math.BigInteger;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,21 +14,37 @@ public class ReceiverPagination {
 
 	private final JournalInfoRetrieval journalInfoRetrieval;
 	private final JournalInfo journalInfo;
-	private final BigInteger maxServerSideEntriesBI;
+	private final AdaptiveEntryRange entryRange;
 	private DetailedJournalReceiver cachedEndPosition;
 	private List<DetailedJournalReceiver> cachedReceivers = null;
+	private volatile JournalHead head = null;
+	private ReceiverIndex index = null;
 
 	ReceiverPagination(JournalInfoRetrieval journalInfoRetrieval, int maxServerSideEntries, JournalInfo journalInfo) {
+		this(journalInfoRetrieval, AdaptiveEntryRange.fixed(maxServerSideEntries), journalInfo);
+	}
+
+	/**
+	 * @param entryRange most entries a range covers, read for every range
+	 */
+	ReceiverPagination(JournalInfoRetrieval journalInfoRetrieval, AdaptiveEntryRange entryRange, JournalInfo journalInfo) {
 		this.journalInfoRetrieval = journalInfoRetrieval;
-		maxServerSideEntriesBI = BigInteger.valueOf(maxServerSideEntries);
+		this.entryRange = entryRange;
 		this.journalInfo=  journalInfo;
 	}
 
 	PositionRange findRange(AS400 as400, JournalProcessedPosition startPosition) throws Exception {
-		final BigInteger start = startPosition.getOffset();
-		final boolean fromBeginning = !startPosition.isOffsetSet() || start.equals(BigInteger.ZERO);
-
 		final DetailedJournalReceiver endPosition = journalInfoRetrieval.getCurrentDetailedJournalReceiver(as400, journalInfo);
+		final PositionRange range = findRange(as400, startPosition, endPosition);
+		head = new JournalHead(endPosition, (cachedReceivers == null) ? null : indexFor(cachedReceivers));
+		return range;
+	}
+
+	private PositionRange findRange(AS400 as400, JournalProcessedPosition startPosition,
+			DetailedJournalReceiver endPosition) throws Exception {
+		final long start = startPosition.getOffset();
+		final long maxServerSideEntries = entryRange.size();
+		final boolean fromBeginning = !startPosition.isOffsetSet() || start == 0;
 
 		if (fromBeginning) {
 			return new PositionRange(fromBeginning, startPosition,
@@ -49,7 +64,7 @@ public class ReceiverPagination {
 			// we're currently on the same journal just check the relative offset is within range
 			// don't update the cache as we are not going to know the real end offset for this journal receiver until we move on to the next
 			if (startPosition.isSameReceiver(endPosition)) {
-				return paginateInSameReceiver(startPosition, endPosition, maxServerSideEntriesBI);
+				return paginateInSameReceiver(startPosition, endPosition, maxServerSideEntries);
 			}
 		} else {
 			// last call to current position won't include the correct end offset so we need to refresh the list
@@ -57,12 +72,12 @@ public class ReceiverPagination {
 			cachedEndPosition = endPosition;
 		}
 
-		Optional<PositionRange> endOpt = findPosition(startPosition, maxServerSideEntriesBI, cachedReceivers,
+		Optional<PositionRange> endOpt = findPosition(startPosition, maxServerSideEntries, cachedReceivers,
 				cachedEndPosition);
 		if (endOpt.isEmpty()) {
 			log.warn("retrying to find end offset");
 			cachedReceivers = journalInfoRetrieval.getReceivers(as400, journalInfo);
-			endOpt = findPosition(startPosition, maxServerSideEntriesBI, cachedReceivers, endPosition);
+			endOpt = findPosition(startPosition, maxServerSideEntries, cachedReceivers, endPosition);
 		}
 
 		log.debug("end {} journals {}", endPosition, cachedReceivers);
@@ -73,6 +88,41 @@ public class ReceiverPagination {
 	}
 
 
+	/**
+	 * counted from the end of the journal seen by the last fetch so it costs no
+	 * extra calls, at most one fetch out of date
+	 *
+	 * @return entries after the position or -1 if its receiver isn't known
+	 */
+	long entriesBehind(JournalProcessedPosition position) {
+		final JournalHead h = head;
+		if (h == null || !position.isOffsetSet()) {
+			return -1;
+		}
+		if (position.isSameReceiver(h.end())) {
+			return Math.max(0, h.end().end() - position.getOffset());
+		}
+		if (h.receivers() == null) {
+			return -1;
+		}
+		return h.receivers().entriesAfter(position.getReceiver(), position.getOffset(), h.end());
+	}
+
+	/**
+	 * @return the end of the journal seen by the last fetch
+	 */
+	Optional<JournalPosition> journalEnd() {
+		final JournalHead h = head;
+		return (h == null) ? Optional.empty() : Optional.of(JournalPosition.endPosition(h.end()));
+	}
+
+	/**
+	 * the attached receiver and the index of the receivers before it when the
+	 * last range was found
+	 */
+	private record JournalHead(DetailedJournalReceiver end, ReceiverIndex receivers) {
+	}
+
 	static void updateEndPosition(List<DetailedJournalReceiver> list, DetailedJournalReceiver endPosition) {
 		// should be last entry
 		for (int i = list.size()-1; i >= 0 ; i--) {
@@ -89,17 +139,18 @@ public class ReceiverPagination {
 	 * only valid when startPosition and endJournalPosition are the same receiver and library
 	 * @param startPosition
 	 * @param endJournalPosition
-	 * @param maxServerSideEntriesBI
+	 * @param maxServerSideEntries
 	 * @return
 	 * @throws Exception
 	 */
-	PositionRange paginateInSameReceiver(JournalProcessedPosition startPosition, DetailedJournalReceiver endJournalPosition, BigInteger maxServerSideEntriesBI) throws Exception {
+	PositionRange paginateInSameReceiver(JournalProcessedPosition startPosition, DetailedJournalReceiver endJournalPosition, long maxServerSideEntries) throws Exception {
 		if (!startPosition.isSameReceiver(endJournalPosition)) {
 			throw new Exception(String.format("Error this method is only valid for same receiver start %s, end %s", startPosition, endJournalPosition));
 		}
-		final BigInteger diff = endJournalPosition.end().subtract(startPosition.getOffset());
-		if (diff.compareTo(maxServerSideEntriesBI) > 0) {
-			final BigInteger restricted = startPosition.getOffset().add(maxServerSideEntriesBI);
+		// differences are signed, offsets unsigned
+		final long diff = endJournalPosition.end() - startPosition.getOffset();
+		if (diff > maxServerSideEntries) {
+			final long restricted = startPosition.getOffset() + maxServerSideEntries;
 			return new PositionRange(false, startPosition,
 					new JournalPosition(restricted, startPosition.getReceiver()));
 		}
@@ -114,45 +165,55 @@ public class ReceiverPagination {
 	 * @param receivers
 	 * @return try and find end position at most offsetFromStart from start using the receiver list
 	 */
-	Optional<PositionRange> findPosition(JournalProcessedPosition startPosition, BigInteger maxEntries,
+	Optional<PositionRange> findPosition(JournalProcessedPosition startPosition, long maxEntries,
 			List<DetailedJournalReceiver> receivers, DetailedJournalReceiver endPosition) {
 
-		if (!containsEndPosition(receivers, endPosition)) {
+		final ReceiverIndex receiverIndex = indexFor(receivers);
+		if (!receiverIndex.contains(endPosition.info().receiver())) {
 			log.warn("unable to find active journal {} in receiver list", endPosition);
 			return Optional.empty();
 		}
 
+		final int startIndex = receiverIndex.indexOf(startPosition.getReceiver());
+		if (startIndex < 0) {
+			log.warn("Current position {} not found in available receivers {}", startPosition, receivers);
+			return Optional.empty();
+		}
+		// within receivers that follow on from each other the end is a lookup
+		final Optional<JournalPosition> end = receiverIndex.positionAfter(startIndex, startPosition.getOffset(), maxEntries);
+		if (end.isPresent()) {
+			return Optional.of(new PositionRange(false, startPosition, end.get()));
+		}
+
+		// receivers before the start make no difference to the range
 		final RangeFinder finder = new RangeFinder(startPosition, maxEntries);
-		for (int i=0; i < receivers.size(); i++) {
+		for (int i = startIndex; i < receivers.size(); i++) {
 			final Optional<PositionRange> range = finder.next(receivers.get(i));
 			if (range.isPresent()) {
 				return range;
 			}
 		}
-		final Optional<PositionRange> range = finder.endRange();
-		if (!finder.startFound()) {
-			log.warn("Current position {} not found in available receivers {}", startPosition, receivers);
-		}
-		return range;
+		return finder.endRange();
 	}
 
 	boolean containsEndPosition(List<DetailedJournalReceiver> receivers, DetailedJournalReceiver endPosition) {
-		boolean containsEndPosition = false;
-		for (int i = receivers.size() - 1; i >= 0; i--) {
-			if (receivers.get(i).info().receiver().equals(endPosition.info().receiver())) {
-				containsEndPosition = true;
-			}
+		return indexFor(receivers).contains(endPosition.info().receiver());
+	}
+
+	private ReceiverIndex indexFor(List<DetailedJournalReceiver> receivers) {
+		if (index == null || !index.indexes(receivers)) {
+			index = new ReceiverIndex(receivers);
 		}
-		return containsEndPosition;
+		return index;
 	}
 
 	static class RangeFinder {
 		private boolean found = false;
 		private DetailedJournalReceiver lastReceiver = null;
-		private BigInteger remaining;
+		private long remaining;
 		private final JournalProcessedPosition startPosition;
 
-		public RangeFinder(JournalProcessedPosition startPosition, BigInteger maxEntries) {
+		public RangeFinder(JournalProcessedPosition startPosition, long maxEntries) {
 			this.remaining = maxEntries;
 			this.startPosition = startPosition;
 		}
@@ -160,7 +221,7 @@ public class ReceiverPagination {
 		public Optional<PositionRange> next(DetailedJournalReceiver nextReceiver) {
 			if (found) {
 				// if the next journal has wrapped use just go to the end
-				if (lastReceiver != null && nextReceiver.start().compareTo(lastReceiver.end()) < 0) {
+				if (lastReceiver != null && SequenceNumber.isBefore(nextReceiver.start(), lastReceiver.end())) {
 					// we're at the end and we've processed it move start on to next receiver
 					if (startEqualsEndAndProcessed(startPosition, lastReceiver)) {
 						startPosition.setPosition(new JournalPosition(nextReceiver.start(), nextReceiver.info().receiver()), false);
@@ -198,16 +259,16 @@ public class ReceiverPagination {
 		// but we must not use the add one when setting the end point
 		// i.e. 1-> 10 is a total of 10 entries but the range can only go to 10
 		private Optional<PositionRange> rangeWithinCurrentPosition(DetailedJournalReceiver nextReceiver,
-				BigInteger currentOffset) {
-			final BigInteger difference = nextReceiver.end().subtract(currentOffset);
-			final BigInteger entriesInJournal = difference.add(BigInteger.ONE); // add one as range is inclusive
-			if (remaining.compareTo(difference) <= 0) { // range is inclusive but don't go past end when adding
+				long currentOffset) {
+			final long difference = nextReceiver.end() - currentOffset;
+			final long entriesInJournal = difference + 1; // add one as range is inclusive
+			if (remaining <= difference) { // range is inclusive but don't go past end when adding
 				// remaining
-				final BigInteger offset = currentOffset.add(remaining);
+				final long offset = currentOffset + remaining;
 				return Optional.of(new PositionRange(false, startPosition,
 						new JournalPosition(offset, nextReceiver.info().receiver())));
 			}
-			remaining = remaining.subtract(entriesInJournal);
+			remaining -= entriesInJournal;
 			return Optional.empty();
 		}
 
@@ -224,7 +285,7 @@ public class ReceiverPagination {
 		}
 
 		private boolean startEqualsEndAndProcessed(JournalProcessedPosition start, DetailedJournalReceiver last) {
-			return start.processed() && start.getOffset().equals(last.end());
+			return start.processed() && start.getOffset() == last.end();
 		}
 	}
 }
@@ -1,6 +1,5 @@
 package com.fnz.db2.journal.retrieve;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -98,8 +97,8 @@ public class RetrievalCriteria {
 	 * 
 	 * @param value
 	 */
-	public void withFromEnt(BigInteger value) {
-		String temp = String.format("%20d", value);
+	public void withFromEnt(long value) {
+		String temp = String.format("%20s", SequenceNumber.toString(value));
 		addStructureData(RetrieveKey.FROMENT, AS400_TEXT_20, temp);
 	}
 	public void withStart() {
@@ -109,8 +108,8 @@ public class RetrievalCriteria {
 		addStructureData(RetrieveKey.TOENT, AS400_TEXT_20, "*LAST");
 	}
 	
-	public void withEnd(BigInteger value) {
-		String temp = String.format("%20d", value);
+	public void withEnd(long value) {
+		String temp = String.format("%20s", SequenceNumber.toString(value));
 		addStructureData(RetrieveKey.TOENT, AS400_TEXT_20, temp);
 	}
 
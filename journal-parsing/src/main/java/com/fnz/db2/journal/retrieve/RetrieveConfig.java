@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.util.List;
 
 import com.fnz.db2.journal.retrieve.RetrievalCriteria.JournalCode;
+import com.fnz.db2.journal.retrieve.RetrievalCriteria.JournalEntryType;
 import com.ibm.as400.access.AS400;
 
 public record RetrieveConfig(Connect<AS400, IOException> as400, 
@@ -12,9 +13,18 @@ public record RetrieveConfig(Connect<AS400, IOException> as400,
 		int journalBufferSize,
 		boolean filtering,
 		JournalCode[] filterCodes,
+		JournalEntryType[] filterEntryTypes,
 		List<FileFilter> includeFiles,
 		int maxServerSideEntries,
-		File dumpFolder) {
+		File dumpFolder,
+		int prefetchBlocks,
+		int minJournalBufferSize,
+		int maxJournalBufferSize,
+		int minServerSideEntries,
+		int maxServerSideEntriesLimit,
+		int targetFetchMs) {
 
 	public static final int DEFAULT_MAX_SERVER_SIDE_ENTRIES = 1000000;
+	public static final int DEFAULT_TARGET_FETCH_MS = 2000;
+	public static final int DEFAULT_PREFETCH_BLOCKS = 0;
 }
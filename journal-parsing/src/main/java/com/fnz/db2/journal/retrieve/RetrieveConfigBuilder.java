@@ -2,8 +2,11 @@ package com.fnz.db2.journal.retrieve;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +22,17 @@ public class RetrieveConfigBuilder {
 	private JournalInfo journalInfo;
 	private File dumpFolder;
 	private int journalBufferSize = ParameterListBuilder.DEFAULT_JOURNAL_BUFFER_SIZE;
+	private int minJournalBufferSize = 0;
+	private int maxJournalBufferSize = 0;
 	private JournalCode[] filterCodes = new JournalCode[] {};
+	private RetrievalCriteria.JournalEntryType[] filterEntryTypes = new RetrievalCriteria.JournalEntryType[] {};
 	private List<FileFilter> includeFiles = Collections.<FileFilter>emptyList();
 	private int maxServerSideEntries = RetrieveConfig.DEFAULT_MAX_SERVER_SIDE_ENTRIES;
+	private int minServerSideEntries = 0;
+	private int maxServerSideEntriesLimit = 0;
+	private int targetFetchMs = RetrieveConfig.DEFAULT_TARGET_FETCH_MS;
 	private boolean filtering;
+	private int prefetchBlocks = RetrieveConfig.DEFAULT_PREFETCH_BLOCKS;
 
 	public RetrieveConfigBuilder() {
 	}
@@ -54,6 +64,21 @@ public class RetrieveConfigBuilder {
 		return this;
 	}
 
+	/**
+	 * let the buffer size adapt between min and max, the journal buffer size is
+	 * used as the starting size. Values of 0 or less default to the journal buffer
+	 * size so leaving both unset keeps a fixed size buffer
+	 */
+	public RetrieveConfigBuilder withJournalBufferSizeRange(Integer min, Integer max) {
+		if (min != null) {
+			this.minJournalBufferSize = min.intValue();
+		}
+		if (max != null) {
+			this.maxJournalBufferSize = max.intValue();
+		}
+		return this;
+	}
+
 	public RetrieveConfigBuilder withFilterCodes(JournalCode[] filterCodes) {
 		if (filterCodes == null) {
 			this.filterCodes = new JournalCode[] {};
@@ -63,6 +88,26 @@ public class RetrieveConfigBuilder {
 		return this;
 	}
 
+	/**
+	 * only retrieve these entry types, the journal codes are limited to theirs as
+	 * well. This is applied along with any include files, when nothing in a range
+	 * matches the call fails with CPF7062 and the position moves to the end of the
+	 * range
+	 */
+	public RetrieveConfigBuilder withEntryTypeFilter(Collection<JournalEntryType> entryTypes) {
+		final Set<JournalCode> codes = new LinkedHashSet<>();
+		final Set<RetrievalCriteria.JournalEntryType> types = new LinkedHashSet<>();
+		if (entryTypes != null) {
+			for (final JournalEntryType t : entryTypes) {
+				codes.add(JournalCode.valueOf(t.code.substring(0, 1)));
+				types.add(RetrievalCriteria.JournalEntryType.valueOf(t.code.substring(2)));
+			}
+		}
+		this.filterCodes = codes.toArray(new JournalCode[codes.size()]);
+		this.filterEntryTypes = types.toArray(new RetrievalCriteria.JournalEntryType[types.size()]);
+		return this;
+	}
+
 	public RetrieveConfigBuilder withServerFiltering(boolean filtering) {
 		this.filtering = filtering;
 		return this;
@@ -90,7 +135,56 @@ public class RetrieveConfigBuilder {
 		return this;
 	}
 
+	/**
+	 * let the entries each fetch covers adapt between min and max so a call takes
+	 * about the target time, max server side entries is used as the starting
+	 * range. Values of 0 or less default to max server side entries so leaving
+	 * both unset keeps a fixed range
+	 */
+	public RetrieveConfigBuilder withMaxServerSideEntriesRange(Integer min, Integer max, Integer targetFetchMs) {
+		if (min != null) {
+			this.minServerSideEntries = min.intValue();
+		}
+		if (max != null) {
+			this.maxServerSideEntriesLimit = max.intValue();
+		}
+		if (targetFetchMs != null) {
+			this.targetFetchMs = targetFetchMs.intValue();
+		}
+		return this;
+	}
+
+	/**
+	 * @param prefetchBlocks number of blocks to fetch ahead in the background, 0
+	 *                       disables prefetching
+	 */
+	public RetrieveConfigBuilder withPrefetchBlocks(Integer prefetchBlocks) {
+		if (prefetchBlocks != null) {
+			if (prefetchBlocks.intValue() >= 0) {
+				this.prefetchBlocks = prefetchBlocks.intValue();
+			} else {
+				log.error("ignoring negative prefetch blocks {}", prefetchBlocks);
+			}
+		}
+		return this;
+	}
+
 	public RetrieveConfig build() {
-		return new RetrieveConfig(as400, journalInfo, journalBufferSize, filtering, filterCodes, includeFiles, maxServerSideEntries, dumpFolder);
+		int min = (minJournalBufferSize > 0) ? minJournalBufferSize : journalBufferSize;
+		int max = (maxJournalBufferSize > 0) ? maxJournalBufferSize : journalBufferSize;
+		if (min > max) {
+			log.error("ignoring journal buffer range min {} is greater than max {}", min, max);
+			min = journalBufferSize;
+			max = journalBufferSize;
+		}
+		int minEntries = (minServerSideEntries > 0) ? minServerSideEntries : maxServerSideEntries;
+		int maxEntries = (maxServerSideEntriesLimit > 0) ? maxServerSideEntriesLimit : maxServerSideEntries;
+		if (minEntries > maxEntries) {
+			log.error("ignoring max entries range min {} is greater than max {}", minEntries, maxEntries);
+			minEntries = maxServerSideEntries;
+			maxEntries = maxServerSideEntries;
+		}
+		return new RetrieveConfig(as400, journalInfo, journalBufferSize, filtering, filterCodes, filterEntryTypes, includeFiles, maxServerSideEntries, dumpFolder,
+				prefetchBlocks, min, max, minEntries, maxEntries, targetFetchMs);
 	}
 }
@@ -10,23 +10,17 @@ import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fnz.db2.journal.retrieve.RetrievalCriteria.JournalCode;
-import com.fnz.db2.journal.retrieve.RetrievalCriteria.JournalEntryType;
-import com.fnz.db2.journal.retrieve.exception.InvalidJournalFilterException;
-import com.fnz.db2.journal.retrieve.exception.InvalidPositionException;
 import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
 import com.fnz.db2.journal.retrieve.rjne0200.EntryHeaderDecoder;
 import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
 import com.fnz.db2.journal.retrieve.rjne0200.FirstHeaderDecoder;
 import com.fnz.db2.journal.retrieve.rjne0200.OffsetStatus;
-import com.ibm.as400.access.AS400Message;
-import com.ibm.as400.access.MessageFile;
-import com.ibm.as400.access.ProgramParameter;
-import com.ibm.as400.access.ServiceProgramCall;
 
 /**
  * based on the work of Stanley Vong see
@@ -35,16 +29,15 @@ import com.ibm.as400.access.ServiceProgramCall;
 public class RetrieveJournal {
 	private static final Logger log = LoggerFactory.getLogger(RetrieveJournal.class);
 
-	private static final JournalCode[] REQUIRED_JOURNAL_CODES = new JournalCode[] { JournalCode.D, JournalCode.R,
-			JournalCode.C };
-	private static final JournalEntryType[] REQURED_ENTRY_TYPES = new JournalEntryType[] { JournalEntryType.PT,
-			JournalEntryType.PX, JournalEntryType.UP, JournalEntryType.UB, JournalEntryType.DL, JournalEntryType.DR,
-			JournalEntryType.CT, JournalEntryType.CG, JournalEntryType.SC, JournalEntryType.CM };
 	private static final FirstHeaderDecoder firstHeaderDecoder = new FirstHeaderDecoder();
 	private static final EntryHeaderDecoder entryHeaderDecoder = new EntryHeaderDecoder();
 	private final SimpleDateFormat dateFormatter = new SimpleDateFormat("yyMMdd-hhmm");
 	private final ReceiverPagination journalReceivers;
-	private final ParameterListBuilder builder = new ParameterListBuilder();
+	private final JournalEntriesSource entries;
+	private final ReentrantLock fetchLock = new ReentrantLock();
+	private final JournalPrefetcher prefetcher;
+	private final AdaptiveBufferSize bufferSize;
+	private final AdaptiveEntryRange entryRange;
 
 	RetrieveConfig config;
 	private byte[] outputData = null;
@@ -53,17 +46,38 @@ public class RetrieveJournal {
 	private int offset = -1;
 	private JournalProcessedPosition position;
 	private long totalTransferred = 0;
+	private long lastFetchNanos = 0;
 
 	public RetrieveJournal(RetrieveConfig config, JournalInfoRetrieval journalRetrieval) {
-		this.config = config;
-		journalReceivers = new ReceiverPagination(journalRetrieval, config.maxServerSideEntries(), config.journalInfo());
+		this(config, journalRetrieval, new ServiceProgramJournalEntries(config));
+	}
 
-		builder.withJournal(config.journalInfo().journalName(), config.journalInfo().journalLibrary());
+	/**
+	 * @param entries where the journal entries come from, e.g. a synthetic journal
+	 *                for testing without a server
+	 */
+	public RetrieveJournal(RetrieveConfig config, JournalInfoRetrieval journalRetrieval, JournalEntriesSource entries) {
+		this.config = config;
+		this.entries = entries;
+		entryRange = new AdaptiveEntryRange(config.minServerSideEntries(), config.maxServerSideEntries(),
+				config.maxServerSideEntriesLimit(), config.targetFetchMs() * 1000000L);
+		journalReceivers = new ReceiverPagination(journalRetrieval, entryRange, config.journalInfo());
+
+		bufferSize = new AdaptiveBufferSize(config.minJournalBufferSize(), config.journalBufferSize(),
+				config.maxJournalBufferSize());
+		if (config.prefetchBlocks() > 0) {
+			prefetcher = new JournalPrefetcher(config.prefetchBlocks(), this::fetch);
+		} else {
+			prefetcher = null;
+		}
 	}
 
 	/**
 	 * retrieves a block of journal data
 	 *
+	 * when prefetching is enabled the block may already have been fetched in the
+	 * background from the continuation position of the previous block
+	 *
 	 * @param previousPosition
 	 * @return true if the journal was read successfully false if there was some
 	 *         problem reading the journal
@@ -75,124 +89,151 @@ public class RetrieveJournal {
 	 *                   to capture this and log an error as we may have missed data
 	 */
 	public boolean retrieveJournal(JournalProcessedPosition previousPosition) throws Exception {
+		if (prefetcher != null) {
+			final Optional<FetchedBlock> prefetched = prefetcher.take(previousPosition);
+			if (prefetched.isPresent()) {
+				return useBlock(previousPosition, prefetched.get());
+			}
+		}
 
-		final PositionRange range = journalReceivers.findRange(config.as400().connection(), previousPosition);
-
-		return retrieveJournal(previousPosition, range);
+		return useBlock(previousPosition, fetch(previousPosition));
 	}
 
 	public boolean retrieveJournal(JournalProcessedPosition previousPosition, final PositionRange range)
 			throws Exception {
+		stopPrefetch();
+		return useBlock(previousPosition, fetch(new JournalProcessedPosition(previousPosition), range));
+	}
+
+	/**
+	 * stop any background fetching, safe to call when prefetching is disabled
+	 */
+	public void stopPrefetch() {
+		if (prefetcher != null) {
+			prefetcher.cancel();
+		}
+	}
+
+	/**
+	 * stop any background fetching and wait for the prefetch thread to exit
+	 */
+	public void close() {
+		if (prefetcher != null) {
+			prefetcher.close();
+		}
+	}
+
+	private boolean useBlock(JournalProcessedPosition previousPosition, FetchedBlock block) {
 		this.offset = -1;
 		this.entryHeader = null;
-		this.position = new JournalProcessedPosition(previousPosition);
+		this.position = new JournalProcessedPosition(block.from());
+		this.outputData = block.data();
+		this.header = block.header();
+		this.lastFetchNanos = block.fetchNanos();
 
-		// will return data for both first entry and last entry
-		// but call fails if start == end
-		if (range.startEqualsEnd()) {
-			this.header = new FirstHeader(0, 0, 0, OffsetStatus.NOT_CALLED,
-					new JournalProcessedPosition(range.end(), Instant.EPOCH, true));
-
-			log.debug("start equals end - range {}", range);
+		if (header.status() == OffsetStatus.NOT_CALLED) {
 			return true;
 		}
 
-		// TODO end could be optional for filtering or use same mechanism as non
-		// filtering?
-		final JournalProcessedPosition end = new JournalProcessedPosition(range.end(), Instant.EPOCH, true);
-
-		final ServiceProgramCall spc = new ServiceProgramCall(config.as400().connection());
-		spc.getServerJob().setLoggingLevel(0);
-		builder.init();
-		builder.withBufferLenth(config.journalBufferSize());
-		builder.withJournalEntryType(JournalEntryType.ALL);
-		if (config.filtering() && !config.includeFiles().isEmpty()) {
-			builder.withFileFilters(config.includeFiles());
+		totalTransferred += header.totalBytes();
+		if (isOversized(header)) {
+			log.error("buffer {} too small need to skip this entry {}", bufferSize.size(), previousPosition);
+			this.position.setPosition(header.nextPosition());
 		}
-		builder.withRange(range);
-		final ProgramParameter[] parameters = builder.build();
-
-		log.debug("Fetch journal position {} parameters {}", previousPosition, builder);
-		spc.setProgram(JournalInfoRetrieval.JOURNAL_SERVICE_LIB, parameters);
-		spc.setProcedureName("QjoRetrieveJournalEntries");
-		spc.setAlignOn16Bytes(true);
-		spc.setReturnValueFormat(ServiceProgramCall.RETURN_INTEGER);
-		final boolean success = spc.run();
-		if (success) {
-			outputData = parameters[0].getOutputData();
-			header = firstHeaderDecoder.decode(outputData, end);
-			totalTransferred += header.totalBytes();
-			log.debug("first header: {} ", header);
-			offset = -1;
-			if (header.status() == OffsetStatus.MORE_DATA_NEW_OFFSET && header.offset() == 0) {
-				log.error("buffer too small need to skip this entry {}", previousPosition);
-				this.position.setPosition(header.nextPosition());
-			}
-			if (!hasData()) {
-				this.position.setPosition(end);
-			}
-		} else {
-			return reThrowIfFatal(previousPosition, spc, end, builder);
+		if (!hasData()) {
+			this.position.setPosition(block.end());
+		}
+		if (prefetcher != null && header.hasFutureDataAvailable()) {
+			prefetcher.start(header.nextPosition());
 		}
-		return success;
+		return true;
 	}
 
-	private boolean reThrowIfFatal(JournalProcessedPosition retrievePosition, final ServiceProgramCall spc,
-			JournalProcessedPosition latestJournalPosition, final ParameterListBuilder builder)
-					throws InvalidPositionException, InvalidJournalFilterException, RetrieveJournalException {
-		for (final AS400Message id : spc.getMessageList()) {
-			final String idt = id.getID();
-			if (idt == null) {
-				log.error("Call failed position {} parameters {} no Id, message: {}", retrievePosition, builder, id.getText());
-				continue;
-			}
-			switch (idt) {
-			case "CPF7053": { // sequence number does not exist or break in receivers
-				throw new InvalidPositionException(
-						String.format("Call failed position %s parameters %s failed to find sequence or break in receivers: %s",
-								retrievePosition, builder, getFullAS400MessageText(id)));
-			}
-			case "CPF9801": { // specify invalid receiver
-				throw new InvalidPositionException(String.format("Call failed position %s parameters %s failed to find receiver: %s",
-						retrievePosition, builder, getFullAS400MessageText(id)));
-			}
-			case "CPF7054": { // e.g. last < first
-				throw new InvalidPositionException(
-						String.format("Call failed position %s parameters %s failed to find offset or invalid offsets: %s",
-								retrievePosition, builder, id.getText()));
-			}
-			case "CPF7060": { // object in filter doesn't exist, or was not journaled
-				throw new InvalidJournalFilterException(
-						String.format("Call failed position %s parameters %s object not found or not journaled: %s", retrievePosition, builder,
-								getFullAS400MessageText(id)));
-			}
-			case "CPF7062": {
-				log.debug("Normal when filtering, call failed position {} parameters {} no data received: {}", retrievePosition, builder,
-						id.getText());
-				// if we're filtering we get no continuation offset just an error
-				header = new FirstHeader(0, 0, 0, OffsetStatus.NO_DATA, latestJournalPosition);
-				this.position.setPosition(latestJournalPosition);
-				return true;
+	/**
+	 * finds the range from a copy of previousPosition, at the end of a receiver
+	 * finding the range moves the start on to the next receiver and the caller's
+	 * position must still match what it asked for
+	 */
+	private FetchedBlock fetch(JournalProcessedPosition previousPosition) throws Exception {
+		fetchLock.lockInterruptibly();
+		try {
+			final JournalProcessedPosition from = new JournalProcessedPosition(previousPosition);
+			final PositionRange range = journalReceivers.findRange(config.as400().connection(), from);
+			return fetch(from, range);
+		} finally {
+			fetchLock.unlock();
+		}
+	}
+
+	/**
+	 * the only place the journal is called, guarded as it may run on the prefetch
+	 * thread, the lock is interruptible so a fetch stuck behind a hung prefetch is
+	 * still stopped by the retrieval timeout
+	 */
+	private FetchedBlock fetch(JournalProcessedPosition from, final PositionRange range) throws Exception {
+		fetchLock.lockInterruptibly();
+		try {
+			// TODO end could be optional for filtering or use same mechanism as non
+			// filtering?
+			final JournalProcessedPosition end = new JournalProcessedPosition(range.end(), Instant.EPOCH, true);
+
+			// will return data for both first entry and last entry
+			// but call fails if start == end
+			if (range.startEqualsEnd()) {
+				log.debug("start equals end - range {}", range);
+				return new FetchedBlock(from, end, null, new FirstHeader(0, 0, 0, OffsetStatus.NOT_CALLED, end));
 			}
-			default:
-				log.error("Call failed position {} parameters {} with error code {} message {}", retrievePosition, idt,
-						builder, getFullAS400MessageText(id));
+
+			final long start = System.nanoTime();
+			while (true) {
+				final Optional<byte[]> output = entries.retrieve(range, bufferSize.size());
+				if (output.isEmpty()) {
+					// no entries matched, there is no continuation offset
+					final FirstHeader noData = new FirstHeader(0, 0, 0, OffsetStatus.NO_DATA, end);
+					entryRange.record(entriesScanned(range, noData), System.nanoTime() - start, noData);
+					return new FetchedBlock(from, end, null, noData, System.nanoTime() - start);
+				}
+				final byte[] data = output.get();
+				final FirstHeader firstHeader = firstHeaderDecoder.decode(data, end);
+				log.debug("first header: {} ", firstHeader);
+				if (isOversized(firstHeader) && bufferSize.growForOversizedEntry()) {
+					// first entry didn't fit, try again from the same position
+					continue;
+				}
+				bufferSize.record(firstHeader, data);
+				entryRange.record(entriesScanned(range, firstHeader), System.nanoTime() - start, firstHeader);
+				return new FetchedBlock(from, end, data, firstHeader, System.nanoTime() - start);
 			}
+		} finally {
+			fetchLock.unlock();
 		}
-		throw new RetrieveJournalException(String.format("Call failed position %s", retrievePosition));
 	}
 
-	boolean shouldLimitRange() {
-		return config.filtering();
+	/**
+	 * @return entries the server went through for the range, -1 when the range
+	 *         crosses receivers as the sequence numbers may have been reset
+	 */
+	static long entriesScanned(PositionRange range, FirstHeader header) {
+		final JournalProcessedPosition start = range.start();
+		if (range.fromBeginning() || !start.isOffsetSet() || start.getReceiver() == null
+				|| (header.hasFutureDataAvailable() && header.nextPosition() == null)) {
+			return -1;
+		}
+		// a full buffer stops the call at the continuation
+		final JournalPosition last = header.hasFutureDataAvailable() ? header.nextPosition().asJournalPosition()
+				: range.end();
+		if (!start.getReceiver().equals(last.getReceiver())) {
+			return -1;
+		}
+		return last.getOffset() - start.getOffset();
 	}
 
-	private String getFullAS400MessageText(AS400Message message) {
-		try {
-			message.load(MessageFile.RETURN_FORMATTING_CHARACTERS);
-			return String.format("%s %s", message.getText(), message.getHelp());
-		} catch (final Exception e) {
-			return message.getText();
-		}
+	private static boolean isOversized(FirstHeader header) {
+		return header.status() == OffsetStatus.MORE_DATA_NEW_OFFSET && header.offset() == 0;
+	}
+
+	boolean shouldLimitRange() {
+		return config.filtering();
 	}
 
 	/**
@@ -260,7 +301,7 @@ public class RetrieveJournal {
 	}
 
     static boolean alreadyProcessed(JournalProcessedPosition position, EntryHeader entryHeader) {
-        return position.processed() && position.getOffset().equals(entryHeader.getSequenceNumber()) && (!entryHeader.hasReceiver() ||
+        return position.processed() && position.getOffset() == entryHeader.getSequenceNumber() && (!entryHeader.hasReceiver() ||
                 (entryHeader.getReceiverLibrary().equals(position.getReceiver().library()) && entryHeader.getReceiver().equals(position.getReceiver().name())));
 
     }
@@ -291,6 +332,13 @@ public class RetrieveJournal {
 		return offset;
 	}
 
+	/**
+	 * @return the current entry, valid until the next block is fetched
+	 */
+	public EntrySlice slice() {
+		return new EntrySlice(entryHeader, outputData, offset);
+	}
+
 	public <T> T decode(JournalEntryDeocder<T> decoder) throws Exception {
 		//		Diagnostics.dump(outputData, start);
 		try {
@@ -356,6 +404,36 @@ public class RetrieveJournal {
 		return totalTransferred;
 	}
 
+	/**
+	 * @return entries in the journal after the position as of the last fetch, -1
+	 *         when it can't be worked out without asking the server
+	 */
+	public long entriesBehind(JournalProcessedPosition position) {
+		return journalReceivers.entriesBehind(position);
+	}
+
+	/**
+	 * @return the end of the journal as of the last fetch
+	 */
+	public Optional<JournalPosition> journalEnd() {
+		return journalReceivers.journalEnd();
+	}
+
+	/**
+	 * @return most entries the next range will cover
+	 */
+	public long getEntryRange() {
+		return entryRange.size();
+	}
+
+	/**
+	 * @return time spent retrieving the current block including retries for an
+	 *         oversized entry, 0 when no call was made
+	 */
+	public long getLastFetchNanos() {
+		return lastFetchNanos;
+	}
+
 	public static class RetrieveJournalException extends Exception {
 		private static final long serialVersionUID = 1L;
 
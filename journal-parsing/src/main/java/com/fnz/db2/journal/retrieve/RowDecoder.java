@@ -0,0 +1,193 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.Arrays;
+
+import com.ibm.as400.access.AS400Bin2;
+import com.ibm.as400.access.AS400Bin4;
+import com.ibm.as400.access.AS400Bin8;
+import com.ibm.as400.access.AS400ByteArray;
+import com.ibm.as400.access.AS400DataType;
+import com.ibm.as400.access.AS400Float4;
+import com.ibm.as400.access.AS400Float8;
+import com.ibm.as400.access.AS400Structure;
+import com.ibm.as400.access.BinaryConverter;
+
+/**
+ * row image decoder compiled once per table from its record format.
+ *
+ * the column offsets are calculated up front and each column is given a codec
+ * so decoding a row is a single pass over a flat table rather than walking
+ * AS400Structure. Binary, floating point and byte array columns are read
+ * straight from the buffer, everything else is delegated to its
+ * AS400DataType. Null indicators are applied in the same pass and null columns
+ * are never converted, neither are columns dropped by a projection.
+ */
+public final class RowDecoder {
+	static final int NULL_INDICATOR_LENGTH = 4;
+
+	static final byte SKIP = -1;
+	static final byte DELEGATE = 0;
+	static final byte BIN2 = 1;
+	static final byte BIN4 = 2;
+	static final byte BIN8 = 3;
+	static final byte FLOAT4 = 4;
+	static final byte FLOAT8 = 5;
+	static final byte BYTES = 6;
+
+	private final AS400DataType[] types;
+	private final int[] offsets;
+	private final int[] lengths;
+	private final byte[] codecs;
+	private final int rowLength;
+
+	RowDecoder(AS400DataType[] types) {
+		this.types = types;
+		this.offsets = new int[types.length];
+		this.lengths = new int[types.length];
+		this.codecs = new byte[types.length];
+		int position = 0;
+		for (int i = 0; i < types.length; i++) {
+			offsets[i] = position;
+			lengths[i] = types[i].getByteLength();
+			codecs[i] = codecFor(types[i]);
+			position += lengths[i];
+		}
+		this.rowLength = position;
+	}
+
+	private RowDecoder(RowDecoder decoder, boolean[] included) {
+		this.types = decoder.types;
+		this.offsets = decoder.offsets;
+		this.lengths = decoder.lengths;
+		this.codecs = decoder.codecs.clone();
+		this.rowLength = decoder.rowLength;
+		for (int i = 0; i < codecs.length && i < included.length; i++) {
+			if (!included[i]) {
+				codecs[i] = SKIP;
+			}
+		}
+	}
+
+	private RowDecoder(RowDecoder decoder) {
+		this.types = new AS400DataType[decoder.types.length];
+		this.offsets = decoder.offsets;
+		this.lengths = decoder.lengths;
+		this.codecs = decoder.codecs;
+		this.rowLength = decoder.rowLength;
+		for (int i = 0; i < types.length; i++) {
+			types[i] = (codecs[i] == DELEGATE) ? (AS400DataType) decoder.types[i].clone() : decoder.types[i];
+		}
+	}
+
+	public static RowDecoder compile(AS400Structure structure) {
+		return new RowDecoder(structure.getMembers());
+	}
+
+	static byte codecFor(AS400DataType type) {
+		final Class<?> c = type.getClass();
+		if (c == AS400Bin2.class) {
+			return BIN2;
+		}
+		if (c == AS400Bin4.class) {
+			return BIN4;
+		}
+		if (c == AS400Bin8.class) {
+			return BIN8;
+		}
+		if (c == AS400Float4.class) {
+			return FLOAT4;
+		}
+		if (c == AS400Float8.class) {
+			return FLOAT8;
+		}
+		if (c == AS400ByteArray.class) {
+			return BYTES;
+		}
+		return DELEGATE;
+	}
+
+	/**
+	 * @param included one flag per column, columns that are not included are never
+	 *                 converted and are always null
+	 * @return a decoder that shares this decoders offsets and types
+	 */
+	public RowDecoder project(boolean[] included) {
+		return new RowDecoder(this, included);
+	}
+
+	/**
+	 * the AS400 data types keep state while converting so they can't be shared
+	 * between threads
+	 *
+	 * @return a decoder with its own copy of the delegated types for use on another
+	 *         thread
+	 */
+	public RowDecoder copy() {
+		return new RowDecoder(this);
+	}
+
+	public int getColumnCount() {
+		return types.length;
+	}
+
+	public int getRowLength() {
+		return rowLength;
+	}
+
+	/**
+	 * @param data   journal output data
+	 * @param offset start of the row image
+	 * @return one value per column
+	 */
+	public Object[] decode(byte[] data, int offset) {
+		return decode(data, offset, -1);
+	}
+
+	/**
+	 * @param data                 journal output data
+	 * @param offset               start of the row image
+	 * @param nullIndicatorsOffset start of the null value indicators, the 4 byte
+	 *                             length followed by one byte per column, or -1
+	 *                             if there are none
+	 * @return one value per column, null where the indicator says so
+	 */
+	public Object[] decode(byte[] data, int offset, int nullIndicatorsOffset) {
+		final Object[] values = new Object[types.length];
+		int indicators = 0;
+		if (nullIndicatorsOffset >= 0) {
+			final long l = BinaryConverter.byteArrayToUnsignedInt(data, nullIndicatorsOffset);
+			indicators = (int) Math.min(l, types.length);
+		}
+		final int indicatorStart = nullIndicatorsOffset + NULL_INDICATOR_LENGTH;
+		for (int i = 0; i < types.length; i++) {
+			if (codecs[i] == SKIP) {
+				continue;
+			}
+			// BCD bottom 4 bits 1 = is null, 0 = not null, 9 = default value returned
+			if (i < indicators && (data[indicatorStart + i] & 15) == 1) {
+				continue;
+			}
+			values[i] = decodeColumn(i, data, offset + offsets[i]);
+		}
+		return values;
+	}
+
+	private Object decodeColumn(int i, byte[] data, int at) {
+		switch (codecs[i]) {
+		case BIN2:
+			return Short.valueOf(BinaryConverter.byteArrayToShort(data, at));
+		case BIN4:
+			return Integer.valueOf(BinaryConverter.byteArrayToInt(data, at));
+		case BIN8:
+			return Long.valueOf(BinaryConverter.byteArrayToLong(data, at));
+		case FLOAT4:
+			return Float.valueOf(Float.intBitsToFloat(BinaryConverter.byteArrayToInt(data, at)));
+		case FLOAT8:
+			return Double.valueOf(Double.longBitsToDouble(BinaryConverter.byteArrayToLong(data, at)));
+		case BYTES:
+			return Arrays.copyOfRange(data, at, at + lengths[i]);
+		default:
+			return types[i].toObject(data, at);
+		}
+	}
+}
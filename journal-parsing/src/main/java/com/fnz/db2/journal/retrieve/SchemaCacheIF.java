@@ -13,6 +13,8 @@ public interface SchemaCacheIF {
 	public class TableInfo {
 		private final List<Structure> structure;
 		private final AS400Structure as400Structure;
+		private final RowDecoder rowDecoder;
+		private volatile RowDecoder projectedRowDecoder;
 		//		private final AS400Structure as400Keys;
 		private final List<String> primaryKeys;
 
@@ -20,6 +22,7 @@ public interface SchemaCacheIF {
 			super();
 			this.structure = structure;
 			this.as400Structure = as400Structure;
+			this.rowDecoder = (as400Structure == null) ? null : RowDecoder.compile(as400Structure);
 			//			this.as400Keys = as400Keys;
 			this.primaryKeys = primaryKeys;
 		}
@@ -29,6 +32,26 @@ public interface SchemaCacheIF {
 		public AS400Structure getAs400Structure() {
 			return as400Structure;
 		}
+		public RowDecoder getRowDecoder() {
+			return rowDecoder;
+		}
+		/**
+		 * decoder that only converts the included columns and the primary keys, built
+		 * on first use so the projection must not change for this table
+		 */
+		public RowDecoder getRowDecoder(ColumnProjection projection, String database, String schema, String table) {
+			RowDecoder projected = projectedRowDecoder;
+			if (projected == null) {
+				final boolean[] included = new boolean[structure.size()];
+				for (int i = 0; i < included.length; i++) {
+					final String name = structure.get(i).getName();
+					included[i] = primaryKeys.contains(name) || projection.isIncluded(database, schema, table, name);
+				}
+				projected = rowDecoder.project(included);
+				projectedRowDecoder = projected;
+			}
+			return projected;
+		}
 		public List<String> getPrimaryKeys() {
 			return primaryKeys;
 		}
@@ -0,0 +1,157 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * catalog metadata for the included tables of one schema, fetched by
+ * {@link JdbcFileDecoder#fetchSchemaMetadata(Connect, String, java.util.function.Predicate)}
+ * and turned into table info by {@link JdbcFileDecoder#load(SchemaMetadata)}
+ *
+ * it is kept as the raw catalog rows so it can be written to disk and loaded
+ * again without a round trip, see {@link SchemaMetadataStore}
+ */
+public final class SchemaMetadata {
+	final String schema;
+	final Map<String, String> longToSystem = new HashMap<>();
+	final Map<String, Long> lastAltered = new HashMap<>();
+	final List<ColumnCcsid> ccsids = new ArrayList<>();
+	final Map<String, List<String>> primaryKeys = new HashMap<>();
+	final Map<String, List<String>> ddsKeys = new HashMap<>();
+	final Map<String, List<ColumnMetadata>> columns = new HashMap<>();
+
+	SchemaMetadata(String schema) {
+		this.schema = schema;
+	}
+
+	public String getSchema() {
+		return schema;
+	}
+
+	public int getTableCount() {
+		return columns.size();
+	}
+
+	/**
+	 * @param current last altered time of the included tables in the catalog now
+	 * @return true if exactly the same tables are included and none have been
+	 *         altered since this was fetched
+	 */
+	public boolean isCurrent(Map<String, Long> current) {
+		return lastAltered.equals(current);
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeUTF(schema);
+		out.writeInt(longToSystem.size());
+		for (final Map.Entry<String, String> e : longToSystem.entrySet()) {
+			out.writeUTF(e.getKey());
+			out.writeUTF(e.getValue());
+			out.writeLong(lastAltered.getOrDefault(e.getKey(), 0L));
+		}
+		out.writeInt(ccsids.size());
+		for (final ColumnCcsid c : ccsids) {
+			out.writeUTF(c.longTableName());
+			out.writeUTF(c.systemTableName());
+			out.writeUTF(c.longColumnName());
+			out.writeUTF(c.systemColumnName());
+			out.writeInt(c.ccsid());
+		}
+		writeKeys(out, primaryKeys);
+		writeKeys(out, ddsKeys);
+		out.writeInt(columns.size());
+		for (final Map.Entry<String, List<ColumnMetadata>> e : columns.entrySet()) {
+			out.writeUTF(e.getKey());
+			out.writeInt(e.getValue().size());
+			for (final ColumnMetadata c : e.getValue()) {
+				out.writeUTF(c.name());
+				out.writeUTF(c.type());
+				out.writeInt(c.jdbcType());
+				out.writeInt(c.length());
+				out.writeInt(c.precision());
+				out.writeBoolean(c.optional());
+				out.writeInt(c.octetLength());
+				out.writeInt(c.position());
+				out.writeBoolean(c.autoInc());
+			}
+		}
+	}
+
+	static SchemaMetadata read(DataInputStream in) throws IOException {
+		final SchemaMetadata metadata = new SchemaMetadata(in.readUTF());
+		final int tables = in.readInt();
+		for (int i = 0; i < tables; i++) {
+			final String longTableName = in.readUTF();
+			metadata.longToSystem.put(longTableName, in.readUTF());
+			metadata.lastAltered.put(longTableName, in.readLong());
+		}
+		final int ccsids = in.readInt();
+		for (int i = 0; i < ccsids; i++) {
+			metadata.ccsids.add(new ColumnCcsid(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readInt()));
+		}
+		readKeys(in, metadata.primaryKeys);
+		readKeys(in, metadata.ddsKeys);
+		final int columnTables = in.readInt();
+		for (int i = 0; i < columnTables; i++) {
+			final String longTableName = in.readUTF();
+			final int count = in.readInt();
+			final List<ColumnMetadata> l = new ArrayList<>(count);
+			for (int c = 0; c < count; c++) {
+				l.add(new ColumnMetadata(in.readUTF(), in.readUTF(), in.readInt(), in.readInt(), in.readInt(),
+						in.readBoolean(), in.readInt(), in.readInt(), in.readBoolean()));
+			}
+			metadata.columns.put(longTableName, l);
+		}
+		return metadata;
+	}
+
+	private static void writeKeys(DataOutputStream out, Map<String, List<String>> keys) throws IOException {
+		out.writeInt(keys.size());
+		for (final Map.Entry<String, List<String>> e : keys.entrySet()) {
+			out.writeUTF(e.getKey());
+			out.writeInt(e.getValue().size());
+			for (final String column : e.getValue()) {
+				out.writeUTF(column);
+			}
+		}
+	}
+
+	private static void readKeys(DataInputStream in, Map<String, List<String>> keys) throws IOException {
+		final int tables = in.readInt();
+		for (int i = 0; i < tables; i++) {
+			final String longTableName = in.readUTF();
+			final int count = in.readInt();
+			final List<String> columns = new ArrayList<>(count);
+			for (int c = 0; c < count; c++) {
+				columns.add(in.readUTF());
+			}
+			keys.put(longTableName, columns);
+		}
+	}
+
+	/**
+	 * the DatabaseMetaData.getColumns fields used for the record format
+	 */
+	record ColumnMetadata(String name, String type, int jdbcType, int length, int precision, boolean optional,
+			int octetLength, int position, boolean autoInc) {
+		// @see
+		// https://docs.oracle.com/en/java/javase/11/docs/api/java.sql/java/sql/DatabaseMetaData.html#getColumns(java.lang.String,java.lang.String,java.lang.String,java.lang.String)
+		static ColumnMetadata from(ResultSet columnMetadata) throws SQLException {
+			return new ColumnMetadata(columnMetadata.getString(4), columnMetadata.getString(6),
+					columnMetadata.getInt(5), columnMetadata.getInt(7), columnMetadata.getInt(9),
+					JdbcFileDecoder.isNullable(columnMetadata.getInt(11)), columnMetadata.getInt(16),
+					columnMetadata.getInt(17), "YES".equalsIgnoreCase(columnMetadata.getString(23)));
+		}
+	}
+
+	record ColumnCcsid(String longTableName, String systemTableName, String longColumnName,
+			String systemColumnName, int ccsid) {
+	}
+}
@@ -0,0 +1,54 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * keeps the schema metadata on disk so a restart doesn't have to fetch it all
+ * again, one file per database and schema.
+ *
+ * the files are versioned, anything that can't be read is ignored and
+ * refetched. Callers check the metadata is still current against the catalog
+ * before using it and delete it when the journal reports a table change.
+ */
+public class SchemaMetadataStore {
+	private static final Logger log = LoggerFactory.getLogger(SchemaMetadataStore.class);
+	static final int MAGIC = 0x4A534D44; // JSMD
+	static final int VERSION = 1;
+
+	private final File folder;
+
+	public SchemaMetadataStore(File folder) {
+		this.folder = folder;
+	}
+
+	public Optional<SchemaMetadata> read(String database, String schema) {
+		return CacheFile.read(file(database, schema), MAGIC, VERSION, SchemaMetadata::read);
+	}
+
+	public void write(String database, SchemaMetadata metadata) {
+		CacheFile.write(file(database, metadata.getSchema()), MAGIC, VERSION, metadata::write);
+	}
+
+	/**
+	 * a table in the schema has changed so it has to be fetched again
+	 */
+	public void invalidate(String database, String schema) {
+		try {
+			if (Files.deleteIfExists(file(database, schema).toPath())) {
+				log.info("invalidated schema cache for {}.{}", database, schema);
+			}
+		} catch (final IOException e) {
+			log.warn("failed to invalidate schema cache for {}.{}", database, schema, e);
+		}
+	}
+
+	File file(String database, String schema) {
+		return new File(folder, CacheFile.fileName(String.format("%s.%s.schema", database, schema)));
+	}
+}
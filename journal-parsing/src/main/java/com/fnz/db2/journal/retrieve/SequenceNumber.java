@@ -0,0 +1,32 @@
+package com.fnz.db2.journal.retrieve;
+
+/**
+ * journal sequence numbers are unsigned 64 bit values (up to 18 446 644 000 000
+ * 000 000) held in a long, these helpers keep comparisons and conversions
+ * unsigned
+ *
+ * differences between two sequence numbers are normal signed longs
+ */
+public final class SequenceNumber {
+	private SequenceNumber() {
+	}
+
+	public static int compare(long a, long b) {
+		return Long.compareUnsigned(a, b);
+	}
+
+	public static boolean isBefore(long a, long b) {
+		return Long.compareUnsigned(a, b) < 0;
+	}
+
+	public static String toString(long sequence) {
+		return Long.toUnsignedString(sequence);
+	}
+
+	/**
+	 * @param sequence unsigned decimal, surrounding blanks are ignored
+	 */
+	public static long parse(String sequence) {
+		return Long.parseUnsignedLong(sequence.trim());
+	}
+}
@@ -0,0 +1,120 @@
+package com.fnz.db2.journal.retrieve;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fnz.db2.journal.retrieve.RetrievalCriteria.JournalEntryType;
+import com.fnz.db2.journal.retrieve.RetrieveJournal.RetrieveJournalException;
+import com.fnz.db2.journal.retrieve.exception.InvalidJournalFilterException;
+import com.fnz.db2.journal.retrieve.exception.InvalidPositionException;
+import com.ibm.as400.access.AS400Message;
+import com.ibm.as400.access.MessageFile;
+import com.ibm.as400.access.ProgramParameter;
+import com.ibm.as400.access.ServiceProgramCall;
+
+/**
+ * calls QjoRetrieveJournalEntries
+ *
+ * see https://www.ibm.com/docs/en/i/7.5?topic=ssw_ibm_i_75/apis/QJORJRNE.html
+ */
+public class ServiceProgramJournalEntries implements JournalEntriesSource {
+	private static final Logger log = LoggerFactory.getLogger(ServiceProgramJournalEntries.class);
+
+	private final RetrieveConfig config;
+	private final ParameterListBuilder builder = new ParameterListBuilder();
+
+	public ServiceProgramJournalEntries(RetrieveConfig config) {
+		this.config = config;
+		builder.withJournal(config.journalInfo().journalName(), config.journalInfo().journalLibrary());
+	}
+
+	@Override
+	public Optional<byte[]> retrieve(PositionRange range, int bufferSize) throws Exception {
+		final ServiceProgramCall spc = new ServiceProgramCall(config.as400().connection());
+		spc.getServerJob().setLoggingLevel(0);
+		builder.init();
+		builder.withBufferLenth(bufferSize);
+		if (config.filterCodes().length > 0) {
+			builder.filterJournalCodes(config.filterCodes());
+		}
+		if (config.filterEntryTypes().length > 0) {
+			builder.filterJournalEntryType(config.filterEntryTypes());
+		} else {
+			builder.withJournalEntryType(JournalEntryType.ALL);
+		}
+		if (config.filtering() && !config.includeFiles().isEmpty()) {
+			builder.withFileFilters(config.includeFiles());
+		}
+		builder.withRange(range);
+		final ProgramParameter[] parameters = builder.build();
+
+		log.debug("Fetch journal range {} parameters {} buffer {}", range, builder, bufferSize);
+		spc.setProgram(JournalInfoRetrieval.JOURNAL_SERVICE_LIB, parameters);
+		spc.setProcedureName("QjoRetrieveJournalEntries");
+		spc.setAlignOn16Bytes(true);
+		spc.setReturnValueFormat(ServiceProgramCall.RETURN_INTEGER);
+		final boolean success = spc.run();
+		if (!success) {
+			reThrowIfFatal(range.start(), spc, builder);
+			return Optional.empty();
+		}
+		return Optional.of(parameters[0].getOutputData());
+	}
+
+	/**
+	 * returns normally only when the call failed because no entries matched
+	 */
+	private void reThrowIfFatal(JournalProcessedPosition retrievePosition, final ServiceProgramCall spc,
+			final ParameterListBuilder builder)
+					throws InvalidPositionException, InvalidJournalFilterException, RetrieveJournalException {
+		for (final AS400Message id : spc.getMessageList()) {
+			final String idt = id.getID();
+			if (idt == null) {
+				log.error("Call failed position {} parameters {} no Id, message: {}", retrievePosition, builder, id.getText());
+				continue;
+			}
+			switch (idt) {
+			case "CPF7053": { // sequence number does not exist or break in receivers
+				throw new InvalidPositionException(
+						String.format("Call failed position %s parameters %s failed to find sequence or break in receivers: %s",
+								retrievePosition, builder, getFullAS400MessageText(id)));
+			}
+			case "CPF9801": { // specify invalid receiver
+				throw new InvalidPositionException(String.format("Call failed position %s parameters %s failed to find receiver: %s",
+						retrievePosition, builder, getFullAS400MessageText(id)));
+			}
+			case "CPF7054": { // e.g. last < first
+				throw new InvalidPositionException(
+						String.format("Call failed position %s parameters %s failed to find offset or invalid offsets: %s",
+								retrievePosition, builder, id.getText()));
+			}
+			case "CPF7060": { // object in filter doesn't exist, or was not journaled
+				throw new InvalidJournalFilterException(
+						String.format("Call failed position %s parameters %s object not found or not journaled: %s", retrievePosition, builder,
+								getFullAS400MessageText(id)));
+			}
+			case "CPF7062": {
+				log.debug("Normal when filtering, call failed position {} parameters {} no data received: {}", retrievePosition, builder,
+						id.getText());
+				// if we're filtering we get no continuation offset just an error
+				return;
+			}
+			default:
+				log.error("Call failed position {} parameters {} with error code {} message {}", retrievePosition, idt,
+						builder, getFullAS400MessageText(id));
+			}
+		}
+		throw new RetrieveJournalException(String.format("Call failed position %s", retrievePosition));
+	}
+
+	private String getFullAS400MessageText(AS400Message message) {
+		try {
+			message.load(MessageFile.RETURN_FORMATTING_CHARACTERS);
+			return String.format("%s %s", message.getText(), message.getHelp());
+		} catch (final Exception e) {
+			return message.getText();
+		}
+	}
+}
@@ -1,57 +1,110 @@
 package com.fnz.db2.journal.retrieve.rjne0200;
 
-import java.math.BigInteger;
 import java.time.Instant;
+import java.util.Arrays;
 
 import com.fnz.db2.journal.retrieve.JournalEntryType;
+import com.fnz.db2.journal.retrieve.SequenceNumber;
 import com.fnz.db2.journal.retrieve.StringHelpers;
+import com.ibm.as400.access.AS400Text;
+import com.ibm.as400.access.BinaryConverter;
 
+/**
+ * view over a single RJNE0200 entry header within the journal output data.
+ *
+ * numeric fields are read directly from their fixed offsets, text fields are
+ * only converted from EBCDIC when first asked for. Only valid while the output
+ * data it was created from is not reused.
+ *
+ * see https://www.ibm.com/docs/en/i/7.5?topic=ssw_ibm_i_75/apis/QJORJRNE.html
+ */
 public class EntryHeader {
+	static final int NEXT_ENTRY = 0;
+	static final int NULL_VALUE_INDICATORS = 4;
+	static final int ENTRY_SPECIFIC_DATA = 8;
+	static final int RECEIVER_INFORMATION = 20;
+	static final int SEQUENCE_NUMBER = 24;
+	static final int TIMESTAMP = 32;
+	static final int SYSTEM_SEQUENCE_NUMBER = 48;
+	static final int COMMIT_CYCLE = 64;
+	static final int POINTER_HANDLE = 72;
+	static final int JOURNAL_CODE = 98;
+	static final int ENTRY_TYPE = 99;
+	static final int OBJECT = 157;
+	static final int OBJECT_LENGTH = 30;
+	// file and library, the member is ignored
+	public static final int TABLE_NAME_LENGTH = 20;
+	static final int HEADER_LENGTH = 219;
+
+	// *DTS is microseconds since 1928-08-23 12:03:06.314752 shifted left 12 bits
+	private static final long DTS_EPOCH_MICROS = -1305115013685248L;
+	private static final int DTS_UNIQUE_BITS = 12;
+
+	private static final AS400Text CODE_TEXT = new AS400Text(1);
+	private static final AS400Text TYPE_TEXT = new AS400Text(2);
+	private static final AS400Text NAME_TEXT = new AS400Text(10);
+	private static final AS400Text OBJECT_TEXT = new AS400Text(OBJECT_LENGTH);
+	private static final char[] JOURNAL_CODES = new char[256];
+	private static final JournalEntryType[] ENTRY_TYPES = JournalEntryType.values();
+	private static final int[] ENTRY_TYPE_KEYS = new int[ENTRY_TYPES.length];
+
+	static {
+		for (int i = 0; i < JOURNAL_CODES.length; i++) {
+			final String code = (String) CODE_TEXT.toObject(new byte[] { (byte) i });
+			JOURNAL_CODES[i] = code.isEmpty() ? ' ' : code.charAt(0);
+		}
+		for (int i = 0; i < ENTRY_TYPES.length; i++) {
+			final String code = ENTRY_TYPES[i].code;
+			ENTRY_TYPE_KEYS[i] = entryTypeKey(CODE_TEXT.toBytes(code.substring(0, 1)), 0,
+					TYPE_TEXT.toBytes(code.substring(2, 4)), 0);
+		}
+	}
+
+	private final byte[] data;
+	private final int offset;
 	private final int nextEntryOffset;
 	private final int nullValueOffest;
 	private final int entrySpecificDataOffset;
-//	private final int transactionDataOffset;
-//	private final int logicalWorkOffset;
-//	private final int receiverOffset;
-	private final BigInteger sequenceNumber;
-	private final BigInteger systemSequenceNumber;
-	private final Instant timestamp;
-	private final char journalCode;
-	private final String entryType;
-	private final String objectName;
-	private final BigInteger commitCycle;
+	private final int receiverOffset;
 	private final int endOffset;
-	private final long pointerHandle;
-	private final String receiver;
-	private final String receiverLibrary;
-	
-	public EntryHeader(int nextEntryOffset, int nullValueOffest, long entrySpecificDataOffset, BigInteger sequenceNumber, BigInteger systemSequenceNumber,
-			Instant timestamp, char journalCode, String entryType, String objectName, BigInteger commitCycle, int endOffset, long pointerHandle, 
-			String receiver, String receiverLibrary) {
-		super();
-		this.nextEntryOffset = nextEntryOffset;
-		this.nullValueOffest = nullValueOffest;
-		this.entrySpecificDataOffset = (int)entrySpecificDataOffset;
-		this.sequenceNumber = sequenceNumber;
-		this.systemSequenceNumber = systemSequenceNumber;
-		this.timestamp = timestamp;
-		this.journalCode = journalCode;
-		this.entryType = entryType;
-		this.objectName = objectName;
-		this.commitCycle = commitCycle;
-		this.endOffset = endOffset;
-		this.pointerHandle = pointerHandle;
-		this.receiver = receiver;
-		this.receiverLibrary = receiverLibrary;
+
+	private String entryType;
+	private String objectName;
+	private String receiver;
+	private String receiverLibrary;
+
+	EntryHeader(byte[] data, int offset) {
+		this.data = data;
+		this.offset = offset;
+		this.nextEntryOffset = BinaryConverter.byteArrayToInt(data, offset + NEXT_ENTRY);
+		this.nullValueOffest = BinaryConverter.byteArrayToInt(data, offset + NULL_VALUE_INDICATORS);
+		this.entrySpecificDataOffset = BinaryConverter.byteArrayToInt(data, offset + ENTRY_SPECIFIC_DATA);
+		this.receiverOffset = BinaryConverter.byteArrayToInt(data, offset + RECEIVER_INFORMATION);
+		if (nextEntryOffset < 0 || nullValueOffest < 0) {
+			throw new RuntimeException(
+					"Offsets too big for data, these are used as offsets into the buffer the data is in, they should never be this big nextEntryOffset "
+							+ Integer.toUnsignedString(nextEntryOffset) + ", nullEntryOffset "
+							+ Integer.toUnsignedString(nullValueOffest));
+		}
+		this.endOffset = (nextEntryOffset == 0) ? data.length - offset : nextEntryOffset;
+	}
+
+	private static int entryTypeKey(byte[] code, int codeOffset, byte[] type, int typeOffset) {
+		return ((code[codeOffset] & 0xff) << 16) | ((type[typeOffset] & 0xff) << 8) | (type[typeOffset + 1] & 0xff);
+	}
+
+	private long longAt(int field) {
+		return BinaryConverter.byteArrayToLong(data, offset + field);
 	}
 
 	@Override
 	public String toString() {
 		return String.format(
 				"EntryHeader [nextEntryOffset=%s, nullValueOffest=%s, entrySpecificDataOffset=%s, sequenceNumber=%s, systemSequenceNumber=%s, timestamp=%s, journalCode=%s, entryType=%s, objectName=%s, commitCycle=%s, endOffset=%s, pointerHandle=%s, receiver=%s, receiverLibrary=%s]",
-				nextEntryOffset, nullValueOffest, entrySpecificDataOffset, sequenceNumber, systemSequenceNumber,
-				timestamp, journalCode, entryType, objectName, commitCycle, endOffset, pointerHandle, receiver,
-				receiverLibrary);
+				nextEntryOffset, nullValueOffest, entrySpecificDataOffset, SequenceNumber.toString(getSequenceNumber()),
+				SequenceNumber.toString(getSystemSequenceNumber()), getTime(), getJournalCode(), getEntryType(),
+				getObjectName(), SequenceNumber.toString(getCommitCycle()), endOffset,
+				getPointerHandle(), getReceiver(), getReceiverLibrary());
 	}
 
 	public int getLength() {
@@ -66,58 +119,108 @@ public class EntryHeader {
 		return entrySpecificDataOffset;
 	}
 
-	public BigInteger getSequenceNumber() {
-		return sequenceNumber;
+	/**
+	 * @return unsigned sequence number
+	 */
+	public long getSequenceNumber() {
+		return longAt(SEQUENCE_NUMBER);
 	}
 
-	public BigInteger getSystemSequenceNumber() {
-		return systemSequenceNumber;
+	/**
+	 * @return unsigned system sequence number
+	 */
+	public long getSystemSequenceNumber() {
+		return longAt(SYSTEM_SEQUENCE_NUMBER);
 	}
-	
+
 	public Instant getTime() {
-		if (timestamp == null) {
-			return Instant.ofEpochSecond(0);
-		}
-		return timestamp;
+		final long micros = (longAt(TIMESTAMP) >>> DTS_UNIQUE_BITS) + DTS_EPOCH_MICROS;
+		return Instant.ofEpochSecond(Math.floorDiv(micros, 1000000L), Math.floorMod(micros, 1000000L) * 1000L);
 	}
 
 	public char getJournalCode() {
-		return journalCode;
+		return JOURNAL_CODES[data[offset + JOURNAL_CODE] & 0xff];
 	}
 
 	public String getEntryType() {
+		if (entryType == null) {
+			entryType = (String) TYPE_TEXT.toObject(data, offset + ENTRY_TYPE);
+		}
 		return entryType;
 	}
 
 	public String getObjectName() {
+		if (objectName == null) {
+			objectName = (String) OBJECT_TEXT.toObject(data, offset + OBJECT);
+		}
 		return objectName;
 	}
-	
+
+	/**
+	 * @return hash of the raw file and library name so tables can be looked up
+	 *         without converting the name, see {@link #isTable(byte[])}
+	 */
+	public int getTableHash() {
+		int hash = 1;
+		for (int i = offset + OBJECT; i < offset + OBJECT + TABLE_NAME_LENGTH; i++) {
+			hash = 31 * hash + data[i];
+		}
+		return hash;
+	}
+
+	/**
+	 * @param tableName raw file and library name from {@link #getTableName()}
+	 * @return true if this entry is for the same file and library
+	 */
+	public boolean isTable(byte[] tableName) {
+		return Arrays.equals(data, offset + OBJECT, offset + OBJECT + TABLE_NAME_LENGTH, tableName, 0,
+				TABLE_NAME_LENGTH);
+	}
+
+	/**
+	 * @return copy of the raw file and library name
+	 */
+	public byte[] getTableName() {
+		return Arrays.copyOfRange(data, offset + OBJECT, offset + OBJECT + TABLE_NAME_LENGTH);
+	}
+
 	public JournalEntryType getJournalEntryType() {
-        String entryType = String.format("%s.%s", getJournalCode(), getEntryType());
-        return JournalEntryType.toValue(entryType);
+		final int key = entryTypeKey(data, offset + JOURNAL_CODE, data, offset + ENTRY_TYPE);
+		// last match wins to resolve duplicate codes the same way as JournalEntryType.toValue
+		for (int i = ENTRY_TYPES.length - 1; i >= 0; i--) {
+			if (ENTRY_TYPE_KEYS[i] == key) {
+				return ENTRY_TYPES[i];
+			}
+		}
+		return null;
 	}
-	
+
 	/**
 	 * @return table name
 	 */
 	public String getFile() {
-		return StringHelpers.safeTrim(objectName.substring(0, 10));
+		return StringHelpers.safeTrim(getObjectName().substring(0, 10));
 	}
 	/**
 	 * @return schema
 	 */
 	public String getLibrary() {
-		return StringHelpers.safeTrim(objectName.substring(10, 20));
+		return StringHelpers.safeTrim(getObjectName().substring(10, 20));
 	}
 	/**
 	 * @return magic stuff within a file
 	 */
 	public String getMember() {
-		return StringHelpers.safeTrim(objectName.substring(20, 30));
+		return StringHelpers.safeTrim(getObjectName().substring(20, 30));
 	}
-	public BigInteger getCommitCycle() {
-		return commitCycle;
+	/**
+	 * @return unsigned commit cycle identifier
+	 */
+	public long getCommitCycle() {
+		return longAt(COMMIT_CYCLE);
+	}
+	public long getPointerHandle() {
+		return Integer.toUnsignedLong(BinaryConverter.byteArrayToInt(data, offset + POINTER_HANDLE));
 	}
 	public int getEndOffset() {
 		return endOffset;
@@ -125,15 +228,21 @@ public class EntryHeader {
 	public int getNullValueOffest() {
 		return nullValueOffest;
 	}
-	
+
 	public boolean hasReceiver() {
-		return !receiver.isEmpty();
+		return receiverOffset > 0;
 	}
 
 	public String getReceiver() {
+		if (receiver == null) {
+			receiver = hasReceiver() ? (String) NAME_TEXT.toObject(data, offset + receiverOffset) : "";
+		}
 		return receiver;
 	}
 	public String getReceiverLibrary() {
+		if (receiverLibrary == null) {
+			receiverLibrary = hasReceiver() ? (String) NAME_TEXT.toObject(data, offset + receiverOffset + 10) : "";
+		}
 		return receiverLibrary;
 	}
 }
@@ -1,6 +1,5 @@
 package com.fnz.db2.journal.retrieve.rjne0200;
 
-import java.math.BigInteger;
 import java.time.Instant;
 import java.util.ArrayList;
 
@@ -10,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import com.fnz.db2.journal.retrieve.JournalPosition;
 import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
 import com.fnz.db2.journal.retrieve.JournalReceiver;
+import com.fnz.db2.journal.retrieve.SequenceNumber;
 import com.fnz.db2.journal.retrieve.StringHelpers;
 import com.ibm.as400.access.AS400Bin4;
 import com.ibm.as400.access.AS400DataType;
@@ -54,7 +54,7 @@ public class FirstHeaderDecoder {
 			final String receiver = StringHelpers.safeTrim((String)os[4]);
 			final String library = StringHelpers.safeTrim((String)os[5]);
 			final String offsetStr = StringHelpers.safeTrim((String)os[6]);
-			final BigInteger nextOffset = new BigInteger(offsetStr);
+			final long nextOffset = SequenceNumber.parse(offsetStr);
 			log.debug("continuation offset {} {}", receiver, nextOffset);
 			final JournalPosition jp = new JournalPosition(nextOffset, new JournalReceiver(receiver, library));
 			pos = new JournalProcessedPosition(jp, Instant.EPOCH, false);
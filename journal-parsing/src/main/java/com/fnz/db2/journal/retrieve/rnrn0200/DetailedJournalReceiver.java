@@ -1,6 +1,5 @@
 package com.fnz.db2.journal.retrieve.rnrn0200;
 
-import java.math.BigInteger;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -12,7 +11,10 @@ import org.slf4j.LoggerFactory;
 import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
 import com.fnz.db2.journal.retrieve.JournalReceiver;
 
-public record DetailedJournalReceiver(JournalReceiverInfo info, BigInteger start, BigInteger end, Optional<JournalReceiver> nextReceiver, long maxEntryLength, long numberOfEntries) {
+/**
+ * start and end are unsigned sequence numbers see {@link com.fnz.db2.journal.retrieve.SequenceNumber}
+ */
+public record DetailedJournalReceiver(JournalReceiverInfo info, long start, long end, Optional<JournalReceiver> nextReceiver, long maxEntryLength, long numberOfEntries) {
 	private static final Logger log = LoggerFactory.getLogger(DetailedJournalReceiver.class);
 
 	public DetailedJournalReceiver withStatus(JournalStatus status) {
@@ -23,6 +23,7 @@ import com.fnz.db2.journal.retrieve.RetrieveConfig;
 import com.fnz.db2.journal.retrieve.RetrieveConfigBuilder;
 import com.fnz.db2.journal.retrieve.RetrieveJournal;
 import com.fnz.db2.journal.retrieve.SchemaCacheHash;
+import com.fnz.db2.journal.retrieve.SequenceNumber;
 import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
 import com.ibm.as400.access.AS400;
 
@@ -52,7 +53,7 @@ public class JournalFilterTimeout {
 		final JournalInfoRetrieval journalInfoRetrieval = new JournalInfoRetrieval();
 		final List<DetailedJournalReceiver> receivers = journalInfoRetrieval.getReceivers(as400Connect.connection(),
 				journal);
-		final DetailedJournalReceiver first = receivers.stream().min((x, y) -> x.start().compareTo(y.start())).get();
+		final DetailedJournalReceiver first = receivers.stream().min((x, y) -> SequenceNumber.compare(x.start(), y.start())).get();
 		final JournalPosition endPosition = journalInfoRetrieval.getCurrentPosition(as400Connect.connection(),
 				journal);
 		log.info("start {} end {}", first, endPosition);
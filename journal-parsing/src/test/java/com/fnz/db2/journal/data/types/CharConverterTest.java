@@ -0,0 +1,68 @@
+package com.fnz.db2.journal.data.types;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.ibm.as400.access.AS400Text;
+
+class CharConverterTest {
+
+	@Test
+	void singleByteMatchesAS400Text() {
+		final byte[] data = new byte[256];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		for (final int ccsid : new int[] { 37, 285, 500 }) {
+			final String expected = (String) new AS400Text(data.length, ccsid).toObject(data);
+			assertEquals(expected, CharConverter.forCcsid(ccsid).toString(data, 0, data.length, false));
+		}
+	}
+
+	@Test
+	void defaultCcsidMatchesAS400Text() {
+		final byte[] data = new AS400Text(10).toBytes("hello");
+		assertEquals(new AS400Text(10).toObject(data),
+				CharConverter.forCcsid(CharConverter.NO_CCSID).toString(data, 0, data.length, false));
+	}
+
+	@Test
+	void trimsTrailingBlanks() {
+		final byte[] data = new AS400Text(10, 37).toBytes(" abc");
+		final CharConverter converter = CharConverter.forCcsid(37);
+		assertEquals(" abc      ", converter.toString(data, 0, data.length, false));
+		assertEquals(" abc", converter.toString(data, 0, data.length, true));
+	}
+
+	@Test
+	void doubleByte() {
+		final String value = "ab\u00e9\u4e2d";
+		final byte[] data = value.getBytes(StandardCharsets.UTF_16BE);
+		assertEquals(value, CharConverter.forCcsid(1200).toString(data, 0, data.length, false));
+		assertEquals(value, CharConverter.forCcsid(13488).toString(data, 0, data.length, false));
+	}
+
+	@Test
+	void utf8() {
+		final byte[] ascii = "plain  ".getBytes(StandardCharsets.UTF_8);
+		assertEquals("plain", CharConverter.forCcsid(1208).toString(ascii, 0, ascii.length, true));
+		final byte[] accented = "caf\u00e9".getBytes(StandardCharsets.UTF_8);
+		assertEquals("caf\u00e9", CharConverter.forCcsid(1208).toString(accented, 0, accented.length, false));
+	}
+
+	@Test
+	void offsetWithinBuffer() {
+		final byte[] data = new byte[20];
+		System.arraycopy(new AS400Text(5, 37).toBytes("xyz"), 0, data, 7, 5);
+		assertEquals("xyz  ", new AS400Char(5, 37).toObject(data, 7));
+	}
+
+	@Test
+	void convertersAreShared() {
+		assertSame(CharConverter.forCcsid(37), CharConverter.forCcsid(37));
+	}
+}
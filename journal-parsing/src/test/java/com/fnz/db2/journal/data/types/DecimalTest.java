@@ -0,0 +1,87 @@
+package com.fnz.db2.journal.data.types;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.ibm.as400.access.AS400PackedDecimal;
+import com.ibm.as400.access.AS400ZonedDecimal;
+
+class DecimalTest {
+	private static final String[] VALUES = new String[] { "0.00", "1.00", "-1.00", "12345.67", "-9999999999999.99",
+			"9999999999999.99", "-0.01" };
+
+	@Test
+	void packedMatchesJt400() {
+		for (final int digits : new int[] { 15, 16 }) {
+			final AS400PackedDecimal jt400 = new AS400PackedDecimal(digits, 2);
+			final AS400Packed packed = new AS400Packed(digits, 2);
+			assertEquals(jt400.getByteLength(), packed.getByteLength());
+			for (final String v : VALUES) {
+				final byte[] data = jt400.toBytes(new BigDecimal(v));
+				assertEquals(jt400.toObject(data), packed.toObject(data), v);
+				assertEquals(new BigDecimal(v).unscaledValue().longValue(), packed.toUnscaledLong(data, 0), v);
+			}
+		}
+	}
+
+	@Test
+	void zonedMatchesJt400() {
+		final AS400ZonedDecimal jt400 = new AS400ZonedDecimal(15, 2);
+		final AS400Zoned zoned = new AS400Zoned(15, 2);
+		assertEquals(jt400.getByteLength(), zoned.getByteLength());
+		for (final String v : VALUES) {
+			final byte[] data = jt400.toBytes(new BigDecimal(v));
+			assertEquals(jt400.toObject(data), zoned.toObject(data), v);
+		}
+	}
+
+	@Test
+	void maximumLongPrecision() {
+		final BigDecimal max = new BigDecimal("-999999999999999999");
+		final byte[] data = new AS400PackedDecimal(18, 0).toBytes(max);
+		assertEquals(max, new AS400Packed(18, 0).toObject(data));
+	}
+
+	@Test
+	void largePrecisionFallsBack() {
+		final BigDecimal big = new BigDecimal("123456789012345678901234.567890");
+		final byte[] packed = new AS400PackedDecimal(30, 6).toBytes(big);
+		assertEquals(big, new AS400Packed(30, 6).toObject(packed));
+		final byte[] zoned = new AS400ZonedDecimal(30, 6).toBytes(big);
+		assertEquals(big, new AS400Zoned(30, 6).toObject(zoned));
+	}
+
+	@Test
+	void invalidDigit() {
+		assertThrows(NumberFormatException.class, () -> new AS400Packed(3, 0).toObject(new byte[] { (byte) 0xA1, 0x1F }));
+	}
+
+	@Test
+	void signNibbleMatchesJt400() {
+		for (int sign = 0; sign < 16; sign++) {
+			final byte[] packed = new byte[] { 0x12, (byte) (0x30 | sign) };
+			assertSameResult(() -> new AS400PackedDecimal(3, 0).toObject(packed),
+					() -> new AS400Packed(3, 0).toObject(packed), sign);
+
+			final byte[] zoned = new byte[] { (byte) 0xF1, (byte) 0xF2, (byte) (sign << 4 | 3) };
+			assertSameResult(() -> new AS400ZonedDecimal(3, 0).toObject(zoned),
+					() -> new AS400Zoned(3, 0).toObject(zoned), sign);
+		}
+	}
+
+	private static void assertSameResult(Supplier<Object> jt400, Supplier<Object> decoded, int sign) {
+		Object expected;
+		try {
+			expected = jt400.get();
+		} catch (final NumberFormatException e) {
+			assertThrows(NumberFormatException.class, decoded::get, "sign " + sign);
+			return;
+		}
+		assertEquals(expected, decoded.get(), "sign " + sign);
+	}
+}
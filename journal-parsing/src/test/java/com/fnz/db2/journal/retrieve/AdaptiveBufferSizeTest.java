@@ -0,0 +1,69 @@
+package com.fnz.db2.journal.retrieve;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.OffsetStatus;
+
+class AdaptiveBufferSizeTest {
+	private final JournalProcessedPosition next = new JournalProcessedPosition();
+
+	private FirstHeader header(int bytes, int entries, OffsetStatus status) {
+		return new FirstHeader(bytes, 64, entries, status, next);
+	}
+
+	@Test
+	void growsWhenFull() {
+		final AdaptiveBufferSize size = new AdaptiveBufferSize(1000, 1000, 3000);
+		size.record(header(990, 10, OffsetStatus.MORE_DATA_NEW_OFFSET), null);
+		assertEquals(2000, size.size());
+		size.record(header(1990, 10, OffsetStatus.MORE_DATA_NEW_OFFSET), null);
+		assertEquals(3000, size.size());
+		size.record(header(2990, 10, OffsetStatus.MORE_DATA_NEW_OFFSET), null);
+		assertEquals(3000, size.size());
+	}
+
+	@Test
+	void shrinksWhenSparse() {
+		final AdaptiveBufferSize size = new AdaptiveBufferSize(1000, 8000, 8000);
+		size.record(header(100, 1, OffsetStatus.DATA), null);
+		assertEquals(4000, size.size());
+		size.record(header(100, 1, OffsetStatus.DATA), null);
+		size.record(header(100, 1, OffsetStatus.DATA), null);
+		size.record(header(100, 1, OffsetStatus.DATA), null);
+		assertEquals(1000, size.size());
+	}
+
+	@Test
+	void fixedNeverChanges() {
+		final AdaptiveBufferSize size = AdaptiveBufferSize.fixed(1000);
+		size.record(header(990, 10, OffsetStatus.MORE_DATA_NEW_OFFSET), null);
+		assertEquals(1000, size.size());
+		assertFalse(size.growForOversizedEntry());
+	}
+
+	@Test
+	void oversizedEntryGrowsUntilMax() {
+		final AdaptiveBufferSize size = new AdaptiveBufferSize(1000, 1000, 3000);
+		assertTrue(size.growForOversizedEntry());
+		assertTrue(size.growForOversizedEntry());
+		assertEquals(3000, size.size());
+		assertFalse(size.growForOversizedEntry());
+	}
+
+	@Test
+	void largestEntry() {
+		final ByteBuffer bb = ByteBuffer.allocate(400);
+		bb.putInt(64, 100);
+		bb.putInt(164, 200);
+		bb.putInt(364, 0);
+		final FirstHeader header = new FirstHeader(400, 64, 3, OffsetStatus.DATA, next);
+		assertEquals(200, AdaptiveBufferSize.largestEntry(header, bb.array()));
+	}
+}
@@ -0,0 +1,66 @@
+package com.fnz.db2.journal.retrieve;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.OffsetStatus;
+
+class AdaptiveEntryRangeTest {
+	private static final long MS = 1000000L;
+	private final JournalReceiver receiver = new JournalReceiver("RCV1", "JRNLIB");
+
+	private FirstHeader header(int entries, OffsetStatus status, long next) {
+		return new FirstHeader(entries * 100, 64, entries, status,
+				new JournalProcessedPosition(next, receiver, Instant.EPOCH, true));
+	}
+
+	@Test
+	void stridesThroughSparseRanges() {
+		final AdaptiveEntryRange range = new AdaptiveEntryRange(1000, 10000, 1000000, 1000 * MS);
+		range.record(10000, 10 * MS, header(0, OffsetStatus.NO_DATA, 0));
+		assertEquals(20000, range.size());
+		for (int i = 0; i < 10; i++) {
+			range.record(range.size(), 10 * MS, header(1, OffsetStatus.DATA, 0));
+		}
+		assertEquals(1000000, range.size());
+	}
+
+	@Test
+	void shrinksWhenSlow() {
+		final AdaptiveEntryRange range = new AdaptiveEntryRange(1000, 100000, 1000000, 1000 * MS);
+		range.record(100000, 4000 * MS, header(50, OffsetStatus.DATA, 0));
+		assertEquals(25000, range.size());
+		range.record(25000, 100000 * MS, header(50, OffsetStatus.DATA, 0));
+		assertEquals(1000, range.size());
+	}
+
+	@Test
+	void doesNotGrowWhenTheBufferFills() {
+		final AdaptiveEntryRange range = new AdaptiveEntryRange(1000, 10000, 1000000, 1000 * MS);
+		range.record(500, 10 * MS, header(500, OffsetStatus.MORE_DATA_NEW_OFFSET, 501));
+		assertEquals(10000, range.size());
+	}
+
+	@Test
+	void fixedNeverChanges() {
+		final AdaptiveEntryRange range = AdaptiveEntryRange.fixed(5000);
+		range.record(5000, 100000 * MS, header(50, OffsetStatus.DATA, 0));
+		assertEquals(5000, range.size());
+	}
+
+	@Test
+	void entriesScanned() {
+		final JournalProcessedPosition start = new JournalProcessedPosition(100, receiver, Instant.EPOCH, true);
+		final PositionRange range = new PositionRange(false, start, new JournalPosition(1100, receiver));
+		assertEquals(1000, RetrieveJournal.entriesScanned(range, header(0, OffsetStatus.NO_DATA, 0)));
+		assertEquals(400, RetrieveJournal.entriesScanned(range, header(10, OffsetStatus.MORE_DATA_NEW_OFFSET, 500)));
+
+		final PositionRange crossing = new PositionRange(false, start,
+				new JournalPosition(10, new JournalReceiver("RCV2", "JRNLIB")));
+		assertEquals(-1, RetrieveJournal.entriesScanned(crossing, header(10, OffsetStatus.DATA, 0)));
+	}
+}
@@ -0,0 +1,131 @@
+package com.fnz.db2.journal.retrieve;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ibm.as400.access.AS400;
+
+import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
+import com.fnz.db2.journal.retrieve.rnrn0200.JournalReceiverInfo;
+import com.fnz.db2.journal.retrieve.rnrn0200.JournalStatus;
+
+class DetailedJournalReceiverCacheTest {
+	@TempDir
+	Path folder;
+
+	private static DetailedJournalReceiver receiver(String name, JournalStatus status, long start, long end,
+			Optional<JournalReceiver> next) {
+		return new DetailedJournalReceiver(
+				new JournalReceiverInfo(new JournalReceiver(name, "JRNLIB"), new Date(1000L * start), status,
+						Optional.of(1)),
+				start, end, next, 32000, end - start + 1);
+	}
+
+	@Test
+	void keepsDetachedReceiversBetweenRestarts() {
+		final File file = folder.resolve("JRNLIB.QSQJRN.receivers").toFile();
+		final DetailedJournalReceiver first = receiver("RCV1", JournalStatus.OnlineSavedDetached, 1, 100,
+				Optional.of(new JournalReceiver("RCV2", "JRNLIB")));
+		final DetailedJournalReceiver attached = receiver("RCV2", JournalStatus.Attached, 101, 150, Optional.empty());
+
+		final DetailedJournalReceiverCache cache = new DetailedJournalReceiverCache(Optional.of(file));
+		cache.put(first);
+		cache.put(attached);
+		cache.save();
+		assertTrue(file.exists());
+
+		final DetailedJournalReceiverCache restarted = new DetailedJournalReceiverCache(Optional.of(file));
+		assertEquals(1, restarted.size());
+		assertTrue(restarted.containsKey(first.info()));
+		assertFalse(restarted.containsKey(attached.info()));
+		assertEquals(first, restarted.getUpdatingStatus(first.info()));
+	}
+
+	@Test
+	void dropsReceiversNoLongerInTheJournal() {
+		final File file = folder.resolve("JRNLIB.QSQJRN.receivers").toFile();
+		final DetailedJournalReceiver first = receiver("RCV1", JournalStatus.OnlineSavedDetached, 1, 100,
+				Optional.of(new JournalReceiver("RCV2", "JRNLIB")));
+		final DetailedJournalReceiver second = receiver("RCV2", JournalStatus.OnlineSavedDetached, 101, 150,
+				Optional.of(new JournalReceiver("RCV3", "JRNLIB")));
+
+		final DetailedJournalReceiverCache cache = new DetailedJournalReceiverCache(Optional.of(file));
+		cache.put(first);
+		cache.put(second);
+		cache.save();
+		cache.keepOnly(List.of(second));
+		cache.save();
+
+		final DetailedJournalReceiverCache restarted = new DetailedJournalReceiverCache(Optional.of(file));
+		assertEquals(1, restarted.size());
+		assertTrue(restarted.containsKey(second.info()));
+	}
+
+	@Test
+	void ignoresUnreadableFile() throws Exception {
+		final File file = folder.resolve("JRNLIB.QSQJRN.receivers").toFile();
+		Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+
+		final DetailedJournalReceiverCache cache = new DetailedJournalReceiverCache(Optional.of(file));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void removesTemporaryFileWhenSaveFails() throws Exception {
+		final File file = folder.resolve("JRNLIB.QSQJRN.receivers").toFile();
+		// a non empty folder can't be replaced so the move fails
+		Files.createDirectories(file.toPath().resolve("blocked"));
+
+		final DetailedJournalReceiverCache cache = new DetailedJournalReceiverCache(Optional.of(file));
+		cache.put(receiver("RCV1", JournalStatus.OnlineSavedDetached, 1, 100, Optional.empty()));
+		cache.save();
+
+		try (Stream<Path> files = Files.list(folder)) {
+			assertEquals(List.of(file.toPath()), files.toList());
+		}
+	}
+
+	@Test
+	void dropsReceiverAttachedAtAnotherTime() {
+		final File file = folder.resolve("JRNLIB.QSQJRN.receivers").toFile();
+		final DetailedJournalReceiver old = receiver("RCV1", JournalStatus.OnlineSavedDetached, 1, 100,
+				Optional.empty());
+		final DetailedJournalReceiverCache cache = new DetailedJournalReceiverCache(Optional.of(file));
+		cache.put(old);
+		cache.save();
+
+		// the name reused by a receiver attached later
+		final DetailedJournalReceiver reused = receiver("RCV1", JournalStatus.OnlineSavedDetached, 500, 600,
+				Optional.empty());
+		final DetailedJournalReceiverCache restarted = new DetailedJournalReceiverCache(Optional.of(file));
+		assertFalse(restarted.containsKey(reused.info()));
+		assertEquals(0, restarted.size());
+		restarted.save();
+		assertEquals(0, new DetailedJournalReceiverCache(Optional.of(file)).size());
+	}
+
+	@Test
+	void hostsKeepSeparateFiles() {
+		final JournalInfo journal = new JournalInfo("QSQJRN", "JRNLIB");
+		final DetailedJournalReceiverCache cache = new JournalInfoRetrieval(Optional.of(folder.toFile()))
+				.cache(new AS400("HOST1"), journal);
+		cache.put(receiver("RCV1", JournalStatus.OnlineSavedDetached, 1, 100, Optional.empty()));
+		cache.save();
+
+		final JournalInfoRetrieval restarted = new JournalInfoRetrieval(Optional.of(folder.toFile()));
+		assertEquals(1, restarted.cache(new AS400("HOST1"), journal).size());
+		assertEquals(0, restarted.cache(new AS400("HOST2"), journal).size());
+	}
+}
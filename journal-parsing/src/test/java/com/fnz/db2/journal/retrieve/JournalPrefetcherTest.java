@@ -0,0 +1,160 @@
+package com.fnz.db2.journal.retrieve;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fnz.db2.journal.retrieve.rjne0200.FirstHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.OffsetStatus;
+
+class JournalPrefetcherTest {
+	private final JournalReceiver receiver = new JournalReceiver("j1", "jlib");
+	private final List<JournalProcessedPosition> fetched = new CopyOnWriteArrayList<>();
+
+	// blocks of 10 entries with a continuation until offset 30
+	private FetchedBlock fetch(JournalProcessedPosition from) {
+		fetched.add(from);
+		final long next = from.getOffset() + 10;
+		final JournalProcessedPosition end = position(30, true);
+		if (next >= 30) {
+			return new FetchedBlock(from, end, new byte[0], new FirstHeader(0, 1, 10, OffsetStatus.DATA, end));
+		}
+		return new FetchedBlock(from, end, new byte[0],
+				new FirstHeader(0, 1, 10, OffsetStatus.MORE_DATA_NEW_OFFSET, position(next, false)));
+	}
+
+	private JournalProcessedPosition position(long offset, boolean processed) {
+		return new JournalProcessedPosition(offset, receiver, Instant.EPOCH, processed);
+	}
+
+	@Test
+	void prefetchesUntilNoContinuation() throws Exception {
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(2, this::fetch);
+		prefetcher.start(position(10, false));
+
+		final Optional<FetchedBlock> first = prefetcher.take(position(10, false));
+		assertTrue(first.isPresent());
+		assertEquals(position(20, false), first.get().header().nextPosition());
+
+		final Optional<FetchedBlock> second = prefetcher.take(position(20, false));
+		assertTrue(second.isPresent());
+		assertFalse(second.get().header().hasFutureDataAvailable());
+
+		assertFalse(prefetcher.take(position(30, true)).isPresent());
+		assertEquals(List.of(position(10, false), position(20, false)), fetched);
+	}
+
+	@Test
+	void discardsWhenPositionDiffers() throws Exception {
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(1, this::fetch);
+		prefetcher.start(position(10, false));
+
+		assertFalse(prefetcher.take(position(15, true)).isPresent());
+		assertFalse(prefetcher.take(position(10, false)).isPresent());
+	}
+
+	@Test
+	void stopsOnFailure() throws Exception {
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(1, p -> {
+			throw new IllegalStateException("connection lost");
+		});
+		prefetcher.start(position(10, false));
+
+		assertThrows(IllegalStateException.class, () -> prefetcher.take(position(10, false)));
+		assertFalse(prefetcher.take(position(10, false)).isPresent());
+	}
+
+	@Test
+	void continuationIsCopied() throws Exception {
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(2, this::fetch);
+		prefetcher.start(position(10, false));
+
+		final FetchedBlock first = prefetcher.take(position(10, false)).get();
+		// as finding a range does to the position it is given
+		first.header().nextPosition().setOffset(99, Instant.EPOCH, true);
+		assertTrue(prefetcher.take(position(20, false)).isPresent());
+		assertEquals(List.of(position(10, false), position(20, false)), fetched);
+	}
+
+	@Test
+	void nothingStarted() throws Exception {
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(1, this::fetch);
+
+		assertFalse(prefetcher.take(position(10, false)).isPresent());
+		assertTrue(fetched.isEmpty());
+	}
+
+	@Test
+	void fetchMayNotMoveRequestedPosition() throws Exception {
+		// finding the range moves a processed end of receiver on to the next receiver
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(1, from -> {
+			final FetchedBlock block = fetch(from);
+			from.setPosition(new JournalPosition(1, new JournalReceiver("j2", "jlib")), false);
+			return block;
+		});
+		prefetcher.start(position(10, false));
+
+		assertTrue(prefetcher.take(position(10, false)).isPresent());
+		assertTrue(prefetcher.take(position(20, false)).isPresent());
+	}
+
+	@Test
+	void interruptedConsumerInterruptsFetch() throws Exception {
+		final CountDownLatch fetching = new CountDownLatch(1);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(1, p -> {
+			fetching.countDown();
+			try {
+				Thread.sleep(Long.MAX_VALUE);
+			} catch (final InterruptedException e) {
+				interrupted.countDown();
+				throw e;
+			}
+			return null;
+		});
+		prefetcher.start(position(10, false));
+		assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+		// as the watch dog does when the retrieval takes too long
+		final Thread consumer = Thread.currentThread();
+		final Thread watchDog = new Thread(consumer::interrupt);
+		watchDog.start();
+		assertThrows(InterruptedException.class, () -> prefetcher.take(position(10, false)));
+		watchDog.join();
+		Thread.interrupted();
+
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+		prefetcher.close();
+	}
+
+	@Test
+	void closeWaitsForFetch() throws Exception {
+		final CountDownLatch fetching = new CountDownLatch(1);
+		final CountDownLatch exited = new CountDownLatch(1);
+		final JournalPrefetcher prefetcher = new JournalPrefetcher(1, p -> {
+			fetching.countDown();
+			try {
+				Thread.sleep(Long.MAX_VALUE);
+				return null;
+			} finally {
+				exited.countDown();
+			}
+		});
+		prefetcher.start(position(10, false));
+		assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+		prefetcher.close();
+		assertEquals(0, exited.getCount());
+		assertFalse(prefetcher.take(position(10, false)).isPresent());
+	}
+}
@@ -6,8 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
-import java.math.BigInteger;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -34,14 +34,14 @@ class ReceiverPaginationTest {
 	AS400 as400;
 
 	DetailedJournalReceiver dr3 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("j3", "jlib"),
-			new Date(3), JournalStatus.Attached, Optional.of(1)), BigInteger.valueOf(9), BigInteger.valueOf(17),
+			new Date(3), JournalStatus.Attached, Optional.of(1)), 9, 17,
 			Optional.empty(), 1, 1);
 	DetailedJournalReceiver dr2 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("j2", "jlib"),
-			new Date(2), JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.valueOf(3),
-			BigInteger.valueOf(8),
+			new Date(2), JournalStatus.OnlineSavedDetached, Optional.of(1)), 3,
+			8,
 			Optional.of(dr3.info().receiver()), 1, 1);
 	DetailedJournalReceiver dr1 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("j1", "jlib"),
-			new Date(1), JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ONE, BigInteger.TWO,
+			new Date(1), JournalStatus.OnlineSavedDetached, Optional.of(1)), 1, 2,
 			Optional.of(dr2.info().receiver()), 1, 1);
 
 	@BeforeEach
@@ -58,7 +58,7 @@ class ReceiverPaginationTest {
 
 		when(journalInfoRetrieval.getCurrentDetailedJournalReceiver(any(), any())).thenReturn(dr1);
 
-		final JournalProcessedPosition startPosition = new JournalProcessedPosition(BigInteger.ONE,
+		final JournalProcessedPosition startPosition = new JournalProcessedPosition(1,
 				new JournalReceiver("j1", "jlib"), Instant.ofEpochSecond(0), true);
 		final PositionRange result = jreceivers.findRange(as400, startPosition);
 		final PositionRange rangeAnswer = new PositionRange(false, startPosition,
@@ -66,6 +66,25 @@ class ReceiverPaginationTest {
 		assertEquals(rangeAnswer, result);
 	}
 
+	@Test
+	void entriesBehindFromLastFetch() throws Exception {
+		final ReceiverPagination jreceivers = new ReceiverPagination(journalInfoRetrieval, 100, journalInfo);
+		final JournalProcessedPosition startPosition = new JournalProcessedPosition(1,
+				new JournalReceiver("j1", "jlib"), Instant.ofEpochSecond(0), true);
+		assertEquals(-1, jreceivers.entriesBehind(startPosition));
+
+		when(journalInfoRetrieval.getReceivers(any(), any())).thenReturn(Arrays.asList(dr1, dr2, dr3));
+		when(journalInfoRetrieval.getCurrentDetailedJournalReceiver(any(), any())).thenReturn(dr3);
+		jreceivers.findRange(as400, startPosition);
+
+		assertEquals(1 + 6 + 9, jreceivers.entriesBehind(startPosition));
+		assertEquals(7, jreceivers.entriesBehind(new JournalProcessedPosition(10, new JournalReceiver("j3", "jlib"),
+				Instant.ofEpochSecond(0), true)));
+		assertEquals(-1, jreceivers.entriesBehind(new JournalProcessedPosition(10, new JournalReceiver("j0", "jlib"),
+				Instant.ofEpochSecond(0), true)));
+		assertEquals(new JournalPosition(17, dr3.info().receiver()), jreceivers.journalEnd().get());
+	}
+
 	@Test
 	void findRangeInList() throws Exception {
 		final ReceiverPagination jreceivers = new ReceiverPagination(journalInfoRetrieval, 100, journalInfo);
@@ -76,7 +95,7 @@ class ReceiverPaginationTest {
 
 		when(journalInfoRetrieval.getCurrentDetailedJournalReceiver(any(), any())).thenReturn(dr2);
 
-		final JournalProcessedPosition startPosition = new JournalProcessedPosition(BigInteger.ONE,
+		final JournalProcessedPosition startPosition = new JournalProcessedPosition(1,
 				new JournalReceiver("j1", "jlib"), Instant.ofEpochSecond(0), true);
 		final PositionRange result = jreceivers.findRange(as400, startPosition);
 		final PositionRange rangeAnswer = new PositionRange(false, startPosition,
@@ -97,18 +116,18 @@ class ReceiverPaginationTest {
 		when(journalInfoRetrieval.getCurrentDetailedJournalReceiver(any(), any())).thenReturn(detailedEnd)
 		.thenReturn(detailedEnd2);
 
-		final JournalProcessedPosition startPosition = new JournalProcessedPosition(BigInteger.ONE,
+		final JournalProcessedPosition startPosition = new JournalProcessedPosition(1,
 				new JournalReceiver("j1", "jlib"), Instant.ofEpochSecond(0), true);
 		final PositionRange result = jreceivers.findRange(as400, startPosition);
 		final PositionRange rangeAnswer = new PositionRange(false, startPosition,
-				new JournalPosition(BigInteger.valueOf(8), detailedEnd.info().receiver()));
+				new JournalPosition(8, detailedEnd.info().receiver()));
 		assertEquals(rangeAnswer, result);
 
-		final JournalProcessedPosition startPosition2 = new JournalProcessedPosition(BigInteger.valueOf(2),
+		final JournalProcessedPosition startPosition2 = new JournalProcessedPosition(2,
 				new JournalReceiver("j2", "jlib"), Instant.ofEpochSecond(0), true);
 		final PositionRange result2 = jreceivers.findRange(as400, startPosition2);
 		final PositionRange rangeAnswer2 = new PositionRange(false, startPosition2,
-				new JournalPosition(BigInteger.valueOf(17), detailedEnd2.info().receiver()));
+				new JournalPosition(17, detailedEnd2.info().receiver()));
 		assertEquals(rangeAnswer2, result2);
 
 	}
@@ -119,22 +138,22 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(5), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 5, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(6), BigInteger.valueOf(20), Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
+				6, 20, Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
 		final DetailedJournalReceiver j3 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j3", "jlib"), new Date(3),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(21), BigInteger.valueOf(22), Optional.empty(), 1, 1);
+				21, 22, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = Arrays.asList(j1, j2, j3);
 		final Optional<PositionRange> position = jreceivers.findPosition(
-				new JournalProcessedPosition(BigInteger.ONE, j1.info().receiver(), Instant.ofEpochSecond(0), true),
-				BigInteger.valueOf(3), list, j3);
+				new JournalProcessedPosition(1, j1.info().receiver(), Instant.ofEpochSecond(0), true),
+				3, list, j3);
 		assertTrue(position.isPresent());
 		assertEquals("j1", position.get().end().getReceiver().name());
-		assertEquals(BigInteger.valueOf(4), position.get().end().getOffset());
+		assertEquals(4, position.get().end().getOffset());
 	}
 
 	@Test
@@ -143,22 +162,22 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(11), BigInteger.valueOf(20), Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
+				11, 20, Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
 		final DetailedJournalReceiver j3 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j3", "jlib"), new Date(3),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(21), BigInteger.valueOf(30), Optional.empty(), 1, 1);
+				21, 30, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = Arrays.asList(j1, j2, j3);
 		final Optional<PositionRange> position = jreceivers.findPosition(
-				new JournalProcessedPosition(BigInteger.ONE, j1.info().receiver(), Instant.ofEpochSecond(0), true),
-				BigInteger.valueOf(15), list, j3);
+				new JournalProcessedPosition(1, j1.info().receiver(), Instant.ofEpochSecond(0), true),
+				15, list, j3);
 		assertTrue(position.isPresent());
 		assertEquals("j2", position.get().end().getReceiver().name());
-		assertEquals(BigInteger.valueOf(16), position.get().end().getOffset());
+		assertEquals(16, position.get().end().getOffset());
 	}
 
 	@Test
@@ -167,22 +186,22 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(2), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 2, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(3), BigInteger.valueOf(20), Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
+				3, 20, Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
 		final DetailedJournalReceiver j3 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j3", "jlib"), new Date(3),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(21), BigInteger.valueOf(22), Optional.empty(), 1, 1);
+				21, 22, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = Arrays.asList(j1, j2, j3);
 		final Optional<PositionRange> position = jreceivers.findPosition(
-				new JournalProcessedPosition(BigInteger.ONE, j1.info().receiver(), Instant.ofEpochSecond(0), true),
-				BigInteger.valueOf(10), list, j3);
+				new JournalProcessedPosition(1, j1.info().receiver(), Instant.ofEpochSecond(0), true),
+				10, list, j3);
 		assertTrue(position.isPresent());
 		assertEquals("j2", position.get().end().getReceiver().name());
-		assertEquals(BigInteger.valueOf(11), position.get().end().getOffset());
+		assertEquals(11, position.get().end().getOffset());
 	}
 
 	@Test
@@ -191,22 +210,22 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(2), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 2, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(3), BigInteger.valueOf(20), Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
+				3, 20, Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
 		final DetailedJournalReceiver j3 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j3", "jlib"), new Date(3),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(21), BigInteger.valueOf(35), Optional.empty(), 1, 1);
+				21, 35, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = Arrays.asList(j1, j2, j3);
 		final Optional<PositionRange> position = jreceivers.findPosition(
-				new JournalProcessedPosition(BigInteger.ONE, j1.info().receiver(), Instant.ofEpochSecond(0), true),
-				BigInteger.valueOf(30), list, j3);
+				new JournalProcessedPosition(1, j1.info().receiver(), Instant.ofEpochSecond(0), true),
+				30, list, j3);
 		assertTrue(position.isPresent());
 		assertEquals("j3", position.get().end().getReceiver().name());
-		assertEquals(BigInteger.valueOf(31), position.get().end().getOffset());
+		assertEquals(31, position.get().end().getOffset());
 	}
 
 	@Test
@@ -215,22 +234,22 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(2), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 2, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(3), BigInteger.valueOf(20), Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
+				3, 20, Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
 		final DetailedJournalReceiver j3 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j3", "jlib"), new Date(3),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(21), BigInteger.valueOf(35), Optional.empty(), 1, 1);
+				21, 35, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1, j2, j3);
 		final Optional<PositionRange> position = jreceivers.findPosition(
-				new JournalProcessedPosition(BigInteger.ONE, j1.info().receiver(), Instant.ofEpochSecond(0), true),
-				BigInteger.valueOf(100), list, j3);
+				new JournalProcessedPosition(1, j1.info().receiver(), Instant.ofEpochSecond(0), true),
+				100, list, j3);
 		assertTrue(position.isPresent());
 		assertEquals("j3", position.get().end().getReceiver().name());
-		assertEquals(BigInteger.valueOf(35), position.get().end().getOffset());
+		assertEquals(35, position.get().end().getOffset());
 	}
 
 	@Test
@@ -239,14 +258,14 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.empty(), 1, 1);
+				1, 10, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1);
 		final Optional<PositionRange> position = jreceivers.findPosition(
-				new JournalProcessedPosition(BigInteger.ONE, j1.info().receiver(), Instant.ofEpochSecond(0), true),
-				BigInteger.valueOf(100), list, j1);
+				new JournalProcessedPosition(1, j1.info().receiver(), Instant.ofEpochSecond(0), true),
+				100, list, j1);
 		assertTrue(position.isPresent());
 		assertEquals("j1", position.get().end().getReceiver().name());
-		assertEquals(BigInteger.valueOf(10), position.get().end().getOffset());
+		assertEquals(10, position.get().end().getOffset());
 	}
 
 	@Test
@@ -255,26 +274,26 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(11), BigInteger.valueOf(20), Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
+				11, 20, Optional.of(new JournalReceiver("j3", "jlib")), 1, 1);
 		final DetailedJournalReceiver j3 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j3", "jlib"), new Date(3),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(21), BigInteger.valueOf(30), Optional.of(new JournalReceiver("j4", "jlib")), 1, 1);
+				21, 30, Optional.of(new JournalReceiver("j4", "jlib")), 1, 1);
 		final DetailedJournalReceiver j4 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j4", "jlib"), new Date(4),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(41), BigInteger.valueOf(50), Optional.empty(), 1, 1);
+				41, 50, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1, j2, j3, j4);
-		final JournalProcessedPosition start = new JournalProcessedPosition(BigInteger.valueOf(25),
+		final JournalProcessedPosition start = new JournalProcessedPosition(25,
 				j3.info().receiver(), Instant.ofEpochSecond(0), true);
-		final Optional<PositionRange> position = jreceivers.findPosition(start, BigInteger.valueOf(10), list, j4);
+		final Optional<PositionRange> position = jreceivers.findPosition(start, 10, list, j4);
 		assertTrue(position.isPresent());
 		assertEquals("j4", position.get().end().getReceiver().name());
-		assertEquals(BigInteger.valueOf(45), position.get().end().getOffset());
+		assertEquals(45, position.get().end().getOffset());
 
 	}
 
@@ -284,52 +303,52 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(11), BigInteger.valueOf(20), Optional.empty(), 1, 1);
+				11, 20, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1, j2);
 		final Optional<PositionRange> position = jreceivers
-				.findPosition(new JournalProcessedPosition(BigInteger.valueOf(30), new JournalReceiver("j3", "jlib"),
-						Instant.ofEpochSecond(0), true), BigInteger.valueOf(15), list, j2);
+				.findPosition(new JournalProcessedPosition(30, new JournalReceiver("j3", "jlib"),
+						Instant.ofEpochSecond(0), true), 15, list, j2);
 		assertTrue(position.isEmpty());
 	}
 
 	@Test
 	void testPaginateInSameReceiverEnd() throws Exception {
 		final int maxOffset = 1000;
-		final BigInteger maxServerSideEntriesBI = BigInteger.valueOf(maxOffset);
+		final long maxServerSideEntries = maxOffset;
 		final ReceiverPagination jreceivers = new ReceiverPagination(journalInfoRetrieval, maxOffset, journalInfo);
 
-		final JournalProcessedPosition startPosition = new JournalProcessedPosition(BigInteger.ONE,
+		final JournalProcessedPosition startPosition = new JournalProcessedPosition(1,
 				new JournalReceiver("j1", "jlib"), Instant.ofEpochSecond(0), true);
 		final DetailedJournalReceiver endJournalPosition = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(100), Optional.empty(), 1, 1);
+				1, 100, Optional.empty(), 1, 1);
 
 		final PositionRange range = jreceivers.paginateInSameReceiver(startPosition, endJournalPosition,
-				maxServerSideEntriesBI);
+				maxServerSideEntries);
 		assertEquals(endJournalPosition.end(), range.end().getOffset());
 	}
 
 	@Test
 	void testPaginateInSameReceiverLimited() throws Exception {
 		final int maxOffset = 10;
-		final BigInteger maxServerSideEntriesBI = BigInteger.valueOf(maxOffset);
+		final long maxServerSideEntries = maxOffset;
 		final ReceiverPagination jreceivers = new ReceiverPagination(journalInfoRetrieval, maxOffset, journalInfo);
 
-		final JournalProcessedPosition startPosition = new JournalProcessedPosition(BigInteger.ONE,
+		final JournalProcessedPosition startPosition = new JournalProcessedPosition(1,
 				new JournalReceiver("j1", "jlib"), Instant.ofEpochSecond(0), true);
 		final DetailedJournalReceiver endJournalPosition = new DetailedJournalReceiver(
 				new JournalReceiverInfo(startPosition.getReceiver(), new Date(1), JournalStatus.OnlineSavedDetached,
 						Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(100), Optional.empty(), 1, 1);
+				1, 100, Optional.empty(), 1, 1);
 
 		final PositionRange range = jreceivers.paginateInSameReceiver(startPosition, endJournalPosition,
-				maxServerSideEntriesBI);
-		assertEquals(startPosition.getOffset().add(maxServerSideEntriesBI), range.end().getOffset());
+				maxServerSideEntries);
+		assertEquals(startPosition.getOffset() + maxServerSideEntries, range.end().getOffset());
 	}
 
 	@Test
@@ -337,17 +356,17 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(11), BigInteger.valueOf(20), Optional.empty(), 1, 1);
+				11, 20, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = Arrays.asList(j1, j2);
 
 		final DetailedJournalReceiver endPosition = new DetailedJournalReceiver(
 				new JournalReceiverInfo(j2.info().receiver(), new Date(2), JournalStatus.OnlineSavedDetached,
 						Optional.of(1)),
-				BigInteger.valueOf(11), BigInteger.valueOf(200), Optional.empty(), 1, 1);
+				11, 200, Optional.empty(), 1, 1);
 		ReceiverPagination.updateEndPosition(list, endPosition);
 
 		assertEquals(endPosition, list.get(1));
@@ -359,19 +378,19 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(11), BigInteger.valueOf(20), Optional.empty(), 1, 1);
+				11, 20, Optional.empty(), 1, 1);
 		final DetailedJournalReceiver j3 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j3", "jlib"), new Date(3),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(21), BigInteger.valueOf(31), Optional.of(new JournalReceiver("j4", "jlib")), 1, 1);
+				21, 31, Optional.of(new JournalReceiver("j4", "jlib")), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1, j2);
 		final Optional<PositionRange> position = jreceivers
-				.findPosition(new JournalProcessedPosition(BigInteger.valueOf(30), j1.info().receiver(),
-						Instant.ofEpochSecond(0), true), BigInteger.valueOf(15), list, j3);
+				.findPosition(new JournalProcessedPosition(30, j1.info().receiver(),
+						Instant.ofEpochSecond(0), true), 15, list, j3);
 		assertTrue(position.isEmpty());
 	}
 
@@ -397,13 +416,13 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.empty(), 1, 1);
+				1, 10, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1);
 
-		final JournalProcessedPosition start = new JournalProcessedPosition(BigInteger.valueOf(10),
+		final JournalProcessedPosition start = new JournalProcessedPosition(10,
 				j1.info().receiver(), Instant.ofEpochSecond(0), false);
 
-		final Optional<PositionRange> found = jreceivers.findPosition(start, BigInteger.valueOf(15), list, j1);
+		final Optional<PositionRange> found = jreceivers.findPosition(start, 15, list, j1);
 		assertEquals(start, found.get().start());
 		assertEquals(start.asJournalPosition(), found.get().end());
 		assertFalse(found.get().startEqualsEnd());
@@ -415,14 +434,14 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.empty(), 1, 1);
+				1, 10, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1);
 
-		final JournalProcessedPosition start = new JournalProcessedPosition(BigInteger.valueOf(10),
+		final JournalProcessedPosition start = new JournalProcessedPosition(10,
 				j1.info().receiver(), Instant.ofEpochSecond(0), true);
 
 		final Optional<PositionRange> found = jreceivers
-				.findPosition(start, BigInteger.valueOf(15), list, j1);
+				.findPosition(start, 15, list, j1);
 		assertEquals(start, found.get().start());
 		assertEquals(start.asJournalPosition(), found.get().end());
 		assertTrue(found.get().startEqualsEnd());
@@ -434,17 +453,17 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(1), Optional.empty(), 1, 1);
+				1, 1, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1, j2);
 
-		final JournalProcessedPosition start = new JournalProcessedPosition(BigInteger.valueOf(10),
+		final JournalProcessedPosition start = new JournalProcessedPosition(10,
 				j1.info().receiver(), Instant.ofEpochSecond(10), true);
 
-		final Optional<PositionRange> found = jreceivers.findPosition(start, BigInteger.valueOf(20), list, j2);
+		final Optional<PositionRange> found = jreceivers.findPosition(start, 20, list, j2);
 		assertEquals(
 				new JournalProcessedPosition(JournalPosition.startPosition(j2), start.getTimeOfLastProcessed(), false),
 				found.get().start());
@@ -458,17 +477,17 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(1), Optional.empty(), 1, 1);
+				1, 1, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1, j2);
 
-		final JournalProcessedPosition start = new JournalProcessedPosition(BigInteger.valueOf(10),
+		final JournalProcessedPosition start = new JournalProcessedPosition(10,
 				j1.info().receiver(), Instant.ofEpochSecond(10), false);
 
-		final Optional<PositionRange> found = jreceivers.findPosition(start, BigInteger.valueOf(20), list, j2);
+		final Optional<PositionRange> found = jreceivers.findPosition(start, 20, list, j2);
 		assertEquals(start, found.get().start());
 		assertEquals(JournalPosition.endPosition(j1), found.get().end());
 		assertFalse(found.get().startEqualsEnd());
@@ -480,21 +499,48 @@ class ReceiverPaginationTest {
 		final DetailedJournalReceiver j1 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j1", "jlib"), new Date(1),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
+				1, 10, Optional.of(new JournalReceiver("j2", "jlib")), 1, 1);
 		final DetailedJournalReceiver j2 = new DetailedJournalReceiver(
 				new JournalReceiverInfo(new JournalReceiver("j2", "jlib"), new Date(2),
 						JournalStatus.OnlineSavedDetached, Optional.of(1)),
-				BigInteger.valueOf(1), BigInteger.valueOf(10), Optional.empty(), 1, 1);
+				1, 10, Optional.empty(), 1, 1);
 		final List<DetailedJournalReceiver> list = List.of(j1, j2);
 
-		final JournalProcessedPosition start = new JournalProcessedPosition(BigInteger.valueOf(10),
+		final JournalProcessedPosition start = new JournalProcessedPosition(10,
 				j1.info().receiver(), Instant.ofEpochSecond(10), true);
 
-		final Optional<PositionRange> found = jreceivers.findPosition(start, BigInteger.valueOf(5), list, j2);
+		final Optional<PositionRange> found = jreceivers.findPosition(start, 5, list, j2);
 		assertEquals(
 				new JournalProcessedPosition(JournalPosition.startPosition(j2), start.getTimeOfLastProcessed(), false),
 				found.get().start());
-		assertEquals(new JournalPosition(BigInteger.valueOf(5l), j2.info().receiver()), found.get().end());
+		assertEquals(new JournalPosition(5, j2.info().receiver()), found.get().end());
 		assertFalse(found.get().startEqualsEnd());
 	}
+
+	@Test
+	void findPositionAcrossLongReceiverHistory() {
+		final ReceiverPagination jreceivers = new ReceiverPagination(journalInfoRetrieval, 100, journalInfo);
+		final List<DetailedJournalReceiver> list = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			list.add(new DetailedJournalReceiver(
+					new JournalReceiverInfo(new JournalReceiver("r" + i, "jlib"), new Date(i),
+							(i == 999) ? JournalStatus.Attached : JournalStatus.OnlineSavedDetached, Optional.of(1)),
+					i * 100L + 1, i * 100L + 100, Optional.empty(), 1, 100));
+		}
+		final DetailedJournalReceiver attached = list.get(999);
+
+		final JournalProcessedPosition start = new JournalProcessedPosition(1050, new JournalReceiver("r10", "jlib"),
+				Instant.ofEpochSecond(0), true);
+		final Optional<PositionRange> found = jreceivers.findPosition(start, 250, list, attached);
+		assertEquals(new JournalPosition(1300, new JournalReceiver("r12", "jlib")), found.get().end());
+
+		// the attached receiver moving on keeps the index
+		final DetailedJournalReceiver moved = new DetailedJournalReceiver(attached.info(), attached.start(), 100050,
+				Optional.empty(), 1, 150);
+		ReceiverPagination.updateEndPosition(list, moved);
+		final JournalProcessedPosition nearEnd = new JournalProcessedPosition(99950, new JournalReceiver("r999", "jlib"),
+				Instant.ofEpochSecond(0), true);
+		assertEquals(new JournalPosition(100050, attached.info().receiver()),
+				jreceivers.findPosition(nearEnd, 250, list, moved).get().end());
+	}
 }
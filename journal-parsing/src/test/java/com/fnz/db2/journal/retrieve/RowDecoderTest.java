@@ -0,0 +1,108 @@
+package com.fnz.db2.journal.retrieve;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fnz.db2.journal.retrieve.SchemaCacheIF.Structure;
+import com.fnz.db2.journal.retrieve.SchemaCacheIF.TableInfo;
+import com.ibm.as400.access.AS400Bin2;
+import com.ibm.as400.access.AS400Bin4;
+import com.ibm.as400.access.AS400Bin8;
+import com.ibm.as400.access.AS400ByteArray;
+import com.ibm.as400.access.AS400DataType;
+import com.ibm.as400.access.AS400Float4;
+import com.ibm.as400.access.AS400Float8;
+import com.ibm.as400.access.AS400PackedDecimal;
+import com.ibm.as400.access.AS400Structure;
+import com.ibm.as400.access.AS400Text;
+
+class RowDecoderTest {
+	private final AS400Structure structure = new AS400Structure(new AS400DataType[] { new AS400Bin2(),
+			new AS400Bin4(), new AS400Bin8(), new AS400Float4(), new AS400Float8(), new AS400ByteArray(3),
+			new AS400PackedDecimal(15, 2), new AS400Text(5) });
+	private final Object[] row = new Object[] { (short) -2, 123456, -9876543210L, 1.5f, -2.25d,
+			new byte[] { 1, 2, 3 }, new BigDecimal("1234567890123.45"), "abc  " };
+
+	@Test
+	void decodesLikeStructure() {
+		final byte[] data = structure.toBytes(row);
+		final RowDecoder decoder = RowDecoder.compile(structure);
+
+		assertEquals(data.length, decoder.getRowLength());
+		assertEquals(row.length, decoder.getColumnCount());
+		assertArrayEquals(row, decoder.decode(data, 0));
+		assertArrayEquals((Object[]) structure.toObject(data, 0), decoder.decode(data, 0));
+	}
+
+	@Test
+	void decodesAtOffset() {
+		final byte[] rowData = structure.toBytes(row);
+		final byte[] data = new byte[rowData.length + 10];
+		System.arraycopy(rowData, 0, data, 10, rowData.length);
+
+		assertArrayEquals(row, RowDecoder.compile(structure).decode(data, 10));
+	}
+
+	@Test
+	void appliesNullIndicators() {
+		final byte[] rowData = structure.toBytes(row);
+		// 4 byte count then one indicator per column, fewer indicators than columns
+		final byte[] indicators = new byte[] { 0, 0, 0, 3, (byte) 0xF0, (byte) 0xF1, (byte) 0xF9 };
+		final byte[] data = new byte[rowData.length + indicators.length];
+		System.arraycopy(rowData, 0, data, 0, rowData.length);
+		System.arraycopy(indicators, 0, data, rowData.length, indicators.length);
+
+		final Object[] decoded = RowDecoder.compile(structure).decode(data, 0, rowData.length);
+		assertEquals(row[0], decoded[0]);
+		assertNull(decoded[1]);
+		assertEquals(row[2], decoded[2]);
+		assertEquals(row[7], decoded[7]);
+	}
+
+	@Test
+	void projectionSkipsExcludedColumns() {
+		final byte[] data = structure.toBytes(row);
+		final boolean[] included = new boolean[] { true, false, true, false, true, false, true, false };
+
+		final Object[] decoded = RowDecoder.compile(structure).project(included).decode(data, 0);
+		for (int i = 0; i < row.length; i++) {
+			if (included[i]) {
+				assertEquals(row[i].getClass(), decoded[i].getClass());
+			} else {
+				assertNull(decoded[i]);
+			}
+		}
+	}
+
+	@Test
+	void copyDecodesLikeOriginal() {
+		final byte[] data = structure.toBytes(row);
+		final RowDecoder decoder = RowDecoder.compile(structure);
+
+		assertArrayEquals(decoder.decode(data, 0), decoder.copy().decode(data, 0));
+	}
+
+	@Test
+	void tableProjectionKeepsPrimaryKeys() {
+		final List<Structure> columns = new ArrayList<>();
+		for (int i = 0; i < row.length; i++) {
+			columns.add(new Structure("C" + i, "TYPE", 0, 1, 0, true, i + 1, false));
+		}
+		final TableInfo tableInfo = new TableInfo(columns, List.of("C1"), structure);
+		final RowDecoder decoder = tableInfo.getRowDecoder((database, schema, table, column) -> "C7".equals(column),
+				"DB", "SCHEMA", "TABLE");
+
+		final Object[] decoded = decoder.decode(structure.toBytes(row), 0);
+		assertNull(decoded[0]);
+		assertEquals(row[1], decoded[1]);
+		assertNull(decoded[6]);
+		assertEquals(row[7], decoded[7]);
+	}
+}
@@ -0,0 +1,106 @@
+package com.fnz.db2.journal.retrieve;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fnz.db2.journal.retrieve.SchemaMetadata.ColumnCcsid;
+import com.fnz.db2.journal.retrieve.SchemaMetadata.ColumnMetadata;
+
+class SchemaMetadataStoreTest {
+	@TempDir
+	File folder;
+
+	private SchemaMetadata metadata() {
+		final SchemaMetadata metadata = new SchemaMetadata("MYLIB");
+		metadata.longToSystem.put("CUSTOMER_ORDERS", "CUSTO00001");
+		metadata.lastAltered.put("CUSTOMER_ORDERS", 1_000L);
+		metadata.ccsids.add(new ColumnCcsid("CUSTOMER_ORDERS", "CUSTO00001", "DESCRIPTION", "DESCR00001", 37));
+		metadata.primaryKeys.put("CUSTOMER_ORDERS", List.of("ID"));
+		metadata.columns.put("CUSTOMER_ORDERS",
+				List.of(new ColumnMetadata("ID", "DECIMAL", Types.DECIMAL, 9, 0, false, 5, 1, true),
+						new ColumnMetadata("DESCRIPTION", "VARCHAR", Types.VARCHAR, 40, 0, true, 40, 2, false)));
+		return metadata;
+	}
+
+	@Test
+	void roundTrip() {
+		final SchemaMetadataStore store = new SchemaMetadataStore(folder);
+		store.write("DB", metadata());
+
+		final SchemaMetadata read = store.read("DB", "MYLIB").get();
+		assertEquals("MYLIB", read.getSchema());
+		assertEquals(1, read.getTableCount());
+		assertEquals("CUSTO00001", read.longToSystem.get("CUSTOMER_ORDERS"));
+		assertEquals(metadata().ccsids, read.ccsids);
+		assertEquals(metadata().primaryKeys, read.primaryKeys);
+		assertEquals(metadata().columns, read.columns);
+		assertTrue(read.isCurrent(Map.of("CUSTOMER_ORDERS", 1_000L)));
+		assertFalse(read.isCurrent(Map.of("CUSTOMER_ORDERS", 2_000L)));
+		assertFalse(read.isCurrent(Map.of("CUSTOMER_ORDERS", 1_000L, "NEW_TABLE", 1_000L)));
+	}
+
+	@Test
+	void invalidateRemovesFile() {
+		final SchemaMetadataStore store = new SchemaMetadataStore(folder);
+		store.write("DB", metadata());
+		assertTrue(store.read("DB", "MYLIB").isPresent());
+
+		store.invalidate("DB", "MYLIB");
+		assertFalse(store.file("DB", "MYLIB").exists());
+		assertTrue(store.read("DB", "MYLIB").isEmpty());
+	}
+
+	@Test
+	void otherVersionIgnored() throws IOException {
+		final SchemaMetadataStore store = new SchemaMetadataStore(folder);
+		try (DataOutputStream out = new DataOutputStream(
+				Files.newOutputStream(store.file("DB", "MYLIB").toPath()))) {
+			out.writeInt(SchemaMetadataStore.MAGIC);
+			out.writeInt(SchemaMetadataStore.VERSION + 1);
+		}
+
+		assertTrue(store.read("DB", "MYLIB").isEmpty());
+	}
+
+	@Test
+	void removesTemporaryFileWhenWriteFails() throws IOException {
+		final SchemaMetadataStore store = new SchemaMetadataStore(folder);
+		// a non empty folder can't be replaced so the move fails
+		Files.createDirectories(store.file("DB", "MYLIB").toPath().resolve("blocked"));
+
+		store.write("DB", metadata());
+
+		assertEquals(List.of(store.file("DB", "MYLIB")), List.of(folder.listFiles()));
+	}
+
+	@Test
+	void corruptFileIgnored() throws IOException {
+		final SchemaMetadataStore store = new SchemaMetadataStore(folder);
+		try (DataOutputStream out = new DataOutputStream(
+				Files.newOutputStream(store.file("DB", "MYLIB").toPath()))) {
+			out.writeInt(SchemaMetadataStore.MAGIC);
+			out.writeInt(SchemaMetadataStore.VERSION);
+			out.writeUTF("MYLIB");
+			out.writeInt(0);
+			out.writeInt(0);
+			// a primary key with a negative column count
+			out.writeInt(1);
+			out.writeUTF("CUSTOMER_ORDERS");
+			out.writeInt(-1);
+		}
+
+		assertTrue(store.read("DB", "MYLIB").isEmpty());
+	}
+}
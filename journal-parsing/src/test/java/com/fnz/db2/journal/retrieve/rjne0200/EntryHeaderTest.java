@@ -0,0 +1,125 @@
+package com.fnz.db2.journal.retrieve.rjne0200;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.fnz.db2.journal.retrieve.JournalEntryType;
+import com.fnz.db2.journal.retrieve.SequenceNumber;
+import com.ibm.as400.access.AS400Text;
+import com.ibm.as400.access.AS400Timestamp;
+
+class EntryHeaderTest {
+	private static final long DTS_EPOCH_MICROS = -1305115013685248L;
+	private final EntryHeaderDecoder decoder = new EntryHeaderDecoder();
+
+	private static long toDts(Instant time) {
+		final long micros = time.getEpochSecond() * 1000000L + time.getNano() / 1000;
+		return (micros - DTS_EPOCH_MICROS) << 12;
+	}
+
+	private static void text(ByteBuffer bb, int offset, String s, int length) {
+		bb.put(offset, new AS400Text(length).toBytes(s));
+	}
+
+	private byte[] entry(int start, long sequence, Instant time, String code, String type, String object,
+			boolean withReceiver) {
+		final int receiverOffset = EntryHeader.HEADER_LENGTH + 1;
+		final ByteBuffer bb = ByteBuffer.allocate(start + receiverOffset + 34);
+		bb.putInt(start + EntryHeader.NEXT_ENTRY, 0);
+		bb.putInt(start + EntryHeader.NULL_VALUE_INDICATORS, 300);
+		bb.putInt(start + EntryHeader.ENTRY_SPECIFIC_DATA, 240);
+		bb.putInt(start + EntryHeader.RECEIVER_INFORMATION, withReceiver ? receiverOffset : 0);
+		bb.putLong(start + EntryHeader.SEQUENCE_NUMBER, sequence);
+		bb.putLong(start + EntryHeader.TIMESTAMP, toDts(time));
+		bb.putLong(start + EntryHeader.SYSTEM_SEQUENCE_NUMBER, 5);
+		bb.putLong(start + EntryHeader.COMMIT_CYCLE, 77);
+		text(bb, start + EntryHeader.JOURNAL_CODE, code, 1);
+		text(bb, start + EntryHeader.ENTRY_TYPE, type, 2);
+		text(bb, start + EntryHeader.OBJECT, object, 30);
+		text(bb, start + receiverOffset, "RCV0001", 10);
+		text(bb, start + receiverOffset + 10, "JRNLIB", 10);
+		return bb.array();
+	}
+
+	@Test
+	void decodesFixedFields() {
+		final Instant time = Instant.parse("2023-11-02T10:15:30.123456Z");
+		final byte[] data = entry(16, 1234, time, "R", "PT", "MYTABLE   MYLIB     MYTABLE   ", true);
+		final EntryHeader header = decoder.decode(data, 16);
+
+		assertEquals(1234, header.getSequenceNumber());
+		assertEquals(5, header.getSystemSequenceNumber());
+		assertEquals(77, header.getCommitCycle());
+		assertEquals(time, header.getTime());
+		assertEquals('R', header.getJournalCode());
+		assertEquals("PT", header.getEntryType());
+		assertEquals(JournalEntryType.ADD_ROW2, header.getJournalEntryType());
+		assertEquals("MYTABLE", header.getFile());
+		assertEquals("MYLIB", header.getLibrary());
+		assertEquals(240, header.getEntrySpecificDataOffset());
+		assertEquals(300, header.getNullValueOffest());
+		assertEquals(data.length - 16, header.getEndOffset());
+		assertTrue(header.hasReceiver());
+		assertEquals("RCV0001", header.getReceiver().trim());
+		assertEquals("JRNLIB", header.getReceiverLibrary().trim());
+	}
+
+	@Test
+	void unsignedSequence() {
+		final byte[] data = entry(0, -1L, Instant.EPOCH, "C", "SC", "", false);
+		final EntryHeader header = decoder.decode(data, 0);
+
+		assertEquals("18446744073709551615", SequenceNumber.toString(header.getSequenceNumber()));
+		assertFalse(header.hasReceiver());
+		assertEquals("", header.getReceiver());
+		assertEquals(JournalEntryType.START_COMMIT, header.getJournalEntryType());
+	}
+
+	@Test
+	void matchesRawTableName() {
+		final byte[] data = entry(16, 1, Instant.EPOCH, "R", "PT", "MYTABLE   MYLIB     MEMBER1   ", false);
+		final EntryHeader header = decoder.decode(data, 16);
+		final EntryHeader otherMember = decoder.decode(
+				entry(0, 2, Instant.EPOCH, "R", "UP", "MYTABLE   MYLIB     MEMBER2   ", false), 0);
+		final EntryHeader otherLibrary = decoder.decode(
+				entry(0, 3, Instant.EPOCH, "R", "UP", "MYTABLE   OTHERLIB  MEMBER1   ", false), 0);
+
+		final byte[] name = header.getTableName();
+		assertEquals(EntryHeader.TABLE_NAME_LENGTH, name.length);
+		assertTrue(header.isTable(name));
+		assertTrue(otherMember.isTable(name));
+		assertEquals(header.getTableHash(), otherMember.getTableHash());
+		assertFalse(otherLibrary.isTable(name));
+	}
+
+	@Test
+	void unknownEntryType() {
+		final byte[] data = entry(0, 1, Instant.EPOCH, "J", "NR", "", false);
+
+		assertEquals(null, decoder.decode(data, 0).getJournalEntryType());
+	}
+
+	@Test
+	void timestampMatchesJt400() throws Exception {
+		final AS400Timestamp dts = new AS400Timestamp();
+		final Field format = AS400Timestamp.class.getDeclaredField("FORMAT_DTS");
+		format.setAccessible(true);
+		final Method setFormat = AS400Timestamp.class.getDeclaredMethod("setFormat", int.class);
+		setFormat.setAccessible(true);
+		setFormat.invoke(dts, (int) format.get(dts));
+
+		final Instant time = Instant.parse("2019-06-30T23:59:59.999999Z");
+		final byte[] data = entry(0, 1, time, "R", "UP", "", false);
+		final java.sql.Timestamp expected = (java.sql.Timestamp) dts.toObject(data, EntryHeader.TIMESTAMP);
+
+		assertEquals(expected.toInstant(), decoder.decode(data, 0).getTime());
+	}
+}
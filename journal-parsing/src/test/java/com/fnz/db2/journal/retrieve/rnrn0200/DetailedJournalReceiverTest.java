@@ -2,7 +2,6 @@ package com.fnz.db2.journal.retrieve.rnrn0200;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -15,9 +14,9 @@ import org.junit.jupiter.api.Test;
 import com.fnz.db2.journal.retrieve.JournalReceiver;
 
 class DetailedJournalReceiverTest {
-	DetailedJournalReceiver dr3 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("3", "lib"), new Date(3), JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ONE, BigInteger.TWO, Optional.empty(), 1, 1);
-	DetailedJournalReceiver dr2 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("2", "lib"), new Date(2), JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ZERO, BigInteger.ONE, Optional.of(dr3.info().receiver()), 1, 1);
-	DetailedJournalReceiver dr1 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("1",  "lib"), new Date(1), JournalStatus.Partial, Optional.of(1)), BigInteger.ONE, BigInteger.TWO, Optional.of(dr2.info().receiver()), 1, 1);
+	DetailedJournalReceiver dr3 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("3", "lib"), new Date(3), JournalStatus.OnlineSavedDetached, Optional.of(1)), 1, 2, Optional.empty(), 1, 1);
+	DetailedJournalReceiver dr2 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("2", "lib"), new Date(2), JournalStatus.OnlineSavedDetached, Optional.of(1)), 0, 1, Optional.of(dr3.info().receiver()), 1, 1);
+	DetailedJournalReceiver dr1 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("1",  "lib"), new Date(1), JournalStatus.Partial, Optional.of(1)), 1, 2, Optional.of(dr2.info().receiver()), 1, 1);
 
 	@BeforeEach
 	void setUp() throws Exception {
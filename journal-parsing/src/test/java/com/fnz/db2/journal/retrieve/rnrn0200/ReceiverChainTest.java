@@ -3,7 +3,6 @@ package com.fnz.db2.journal.retrieve.rnrn0200;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -20,17 +19,17 @@ import com.fnz.db2.journal.retrieve.JournalReceiver;
 class ReceiverChainTest {
 	
 	DetailedJournalReceiver dr6 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("6", "lib"), new Date(6), 
-			JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ZERO, BigInteger.ONE, Optional.empty(), 1, 1);
+			JournalStatus.OnlineSavedDetached, Optional.of(1)), 0, 1, Optional.empty(), 1, 1);
 	DetailedJournalReceiver dr5 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("5", "lib"), new Date(5),
-			JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ZERO, BigInteger.ONE, Optional.of(dr6.info().receiver()), 1, 1);
+			JournalStatus.OnlineSavedDetached, Optional.of(1)), 0, 1, Optional.of(dr6.info().receiver()), 1, 1);
 	DetailedJournalReceiver dr4 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("4", "lib"), new Date(4), 
-			JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ONE, BigInteger.TWO, Optional.of(dr5.info().receiver()), 1, 1);
+			JournalStatus.OnlineSavedDetached, Optional.of(1)), 1, 2, Optional.of(dr5.info().receiver()), 1, 1);
 	DetailedJournalReceiver dr3 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("3", "lib"), new Date(3), 
-			JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ONE, BigInteger.TWO, Optional.of(dr4.info().receiver()), 1, 1);
+			JournalStatus.OnlineSavedDetached, Optional.of(1)), 1, 2, Optional.of(dr4.info().receiver()), 1, 1);
 	DetailedJournalReceiver dr2 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("2", "lib"), new Date(2), 
-			JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ONE, BigInteger.TWO, Optional.of(dr3.info().receiver()), 1, 1);
+			JournalStatus.OnlineSavedDetached, Optional.of(1)), 1, 2, Optional.of(dr3.info().receiver()), 1, 1);
 	DetailedJournalReceiver dr1 = new DetailedJournalReceiver(new JournalReceiverInfo(new JournalReceiver("1", "lib"), new Date(1),
-			JournalStatus.OnlineSavedDetached, Optional.of(1)), BigInteger.ONE, BigInteger.TWO, Optional.of(dr2.info().receiver()),1, 1);
+			JournalStatus.OnlineSavedDetached, Optional.of(1)), 1, 2, Optional.of(dr2.info().receiver()),1, 1);
 
 	DetailedJournalReceiver dr1Unavailable = dr1.withStatus(JournalStatus.Partial);
 	
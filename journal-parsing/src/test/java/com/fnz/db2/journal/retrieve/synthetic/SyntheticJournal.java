@@ -0,0 +1,340 @@
+package com.fnz.db2.journal.retrieve.synthetic;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fnz.db2.journal.retrieve.JournalEntriesSource;
+import com.fnz.db2.journal.retrieve.JournalEntryType;
+import com.fnz.db2.journal.retrieve.JournalInfo;
+import com.fnz.db2.journal.retrieve.JournalInfoRetrieval;
+import com.fnz.db2.journal.retrieve.JournalPosition;
+import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
+import com.fnz.db2.journal.retrieve.JournalReceiver;
+import com.fnz.db2.journal.retrieve.PositionRange;
+import com.fnz.db2.journal.retrieve.SequenceNumber;
+import com.fnz.db2.journal.retrieve.exception.InvalidPositionException;
+import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
+import com.fnz.db2.journal.retrieve.rnrn0200.JournalReceiverInfo;
+import com.ibm.as400.access.AS400;
+import com.ibm.as400.access.AS400Text;
+
+/**
+ * an in memory journal that stands in for QjoRetrieveJournalEntries and
+ * QjoRtvJrnReceiverInformation so the retrieval and decoding can be driven
+ * without a server.
+ *
+ * entries are record changes to a single {@link SyntheticTable}, the entry type
+ * follows the sequence number PT, UB, UP, DL. Receivers are attached in order
+ * and may restart the sequence numbers. The output is written in the RJNE0200
+ * and RRCV0100 formats so it goes through the same decoders as real output.
+ */
+public class SyntheticJournal implements JournalEntriesSource {
+	public static final int FIRST_ENTRY = 64;
+	static final int HEADER_LENGTH = 219;
+	static final int RECEIVER_LENGTH = 20;
+	static final int ENTRY_SPECIFIC_DATA = HEADER_LENGTH + RECEIVER_LENGTH + 1;
+	static final int ENTRY_SPECIFIC_HEADER_LENGTH = 16;
+	static final int RRCV0100_LENGTH = 452;
+
+	// *DTS is microseconds since 1928-08-23 12:03:06.314752 shifted left 12 bits
+	private static final long DTS_EPOCH_MICROS = -1305115013685248L;
+	private static final String[] ENTRY_TYPES = new String[] { "PT", "UB", "UP", "DL" };
+	private static final DateTimeFormatter ATTACH_TIME = DateTimeFormatter.ofPattern("yyMMddHHmmss")
+			.withZone(ZoneId.systemDefault());
+
+	private final JournalInfo journal;
+	private final SyntheticTable table;
+	private final List<Receiver> receivers = new ArrayList<>();
+	private Set<String> entryTypes;
+
+	public SyntheticJournal(JournalInfo journal, SyntheticTable table) {
+		this.journal = journal;
+		this.table = table;
+	}
+
+	public JournalInfo journalInfo() {
+		return journal;
+	}
+
+	public SyntheticTable table() {
+		return table;
+	}
+
+	/**
+	 * detaches the current receiver and attaches a new empty one
+	 *
+	 * @param firstSequence sequence number of the first entry, either following
+	 *                      on from the previous receiver or a reset
+	 */
+	public synchronized JournalReceiver attach(String name, long firstSequence) {
+		Instant attached = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		if (!receivers.isEmpty()) {
+			final Receiver current = current();
+			current.next = name;
+			// attach times only have second precision and order the receivers
+			if (!attached.isAfter(current.attached)) {
+				attached = current.attached.plusSeconds(1);
+			}
+		}
+		final Receiver r = new Receiver(new JournalReceiver(name, table.library()), firstSequence, attached);
+		receivers.add(r);
+		return r.receiver;
+	}
+
+	/**
+	 * adds entries to the attached receiver
+	 */
+	public synchronized JournalPosition append(long entries) {
+		final Receiver current = current();
+		current.last += entries;
+		return new JournalPosition(current.last, current.receiver);
+	}
+
+	/**
+	 * only return these entry types the way the server side filter does, a range
+	 * with no matching entries returns nothing as the call fails with CPF7062
+	 */
+	public synchronized void filterEntryTypes(Collection<JournalEntryType> types) {
+		entryTypes = types.stream().map(t -> t.code).collect(Collectors.toSet());
+	}
+
+	public synchronized JournalPosition currentPosition() {
+		final Receiver current = current();
+		return new JournalPosition(current.last, current.receiver);
+	}
+
+	public int entryLength() {
+		return ENTRY_SPECIFIC_DATA + ENTRY_SPECIFIC_HEADER_LENGTH + table.row().length
+				+ table.nullIndicators().length;
+	}
+
+	/**
+	 * @return one block holding every entry in the journal
+	 */
+	public synchronized byte[] allEntries() throws Exception {
+		long entries = 0;
+		for (final Receiver r : receivers) {
+			entries += r.last - r.first + 1;
+		}
+		return retrieve(new PositionRange(true, new JournalProcessedPosition(), null),
+				Math.toIntExact(FIRST_ENTRY + entries * entryLength())).orElseThrow();
+	}
+
+	@Override
+	public synchronized Optional<byte[]> retrieve(PositionRange range, int bufferSize) throws Exception {
+		if (receivers.isEmpty()) {
+			return Optional.empty();
+		}
+		int r;
+		long sequence;
+		if (range.fromBeginning()) {
+			r = 0;
+			sequence = receivers.get(0).first;
+		} else {
+			r = indexOf(range.start().getReceiver());
+			sequence = range.start().getOffset();
+			if (SequenceNumber.isBefore(sequence, receivers.get(r).first)) {
+				throw new InvalidPositionException(
+						String.format("sequence %s not in receiver %s", SequenceNumber.toString(sequence),
+								receivers.get(r).receiver));
+			}
+		}
+		final int endReceiver;
+		final long endSequence;
+		if (range.end() == null) {
+			endReceiver = receivers.size() - 1;
+			endSequence = current().last;
+		} else {
+			endReceiver = indexOf(range.end().getReceiver());
+			endSequence = range.end().getOffset();
+		}
+
+		final int entryLength = entryLength();
+		final ByteBuffer bb = ByteBuffer.allocate(bufferSize);
+		int position = FIRST_ENTRY;
+		int previous = -1;
+		int count = 0;
+		boolean more = false;
+		while (true) {
+			// move on to the next receiver when this one is exhausted
+			while (r < endReceiver && SequenceNumber.isBefore(receivers.get(r).last, sequence)) {
+				r++;
+				sequence = receivers.get(r).first;
+			}
+			final Receiver receiver = receivers.get(r);
+			final long last = (r == endReceiver) ? endSequence : receiver.last;
+			if (SequenceNumber.isBefore(last, sequence) || SequenceNumber.isBefore(receiver.last, sequence)) {
+				break;
+			}
+			if (entryTypes != null && !entryTypes.contains("R." + entryType(sequence))) {
+				sequence++;
+				continue;
+			}
+			if (position + entryLength > bufferSize) {
+				more = true;
+				break;
+			}
+			writeEntry(bb, position, receiver, sequence);
+			if (previous >= 0) {
+				bb.putInt(previous, position - previous);
+			}
+			previous = position;
+			position += entryLength;
+			count++;
+			sequence++;
+		}
+
+		if (count == 0 && !more) {
+			return Optional.empty();
+		}
+		bb.putInt(0, position);
+		bb.putInt(4, (count > 0) ? FIRST_ENTRY : 0);
+		bb.putInt(8, count);
+		bb.put(12, text(1, more ? "1" : "0"));
+		if (more) {
+			final Receiver receiver = receivers.get(r);
+			bb.put(13, text(10, receiver.receiver.name()));
+			bb.put(23, text(10, receiver.receiver.library()));
+			bb.put(33, text(20, SequenceNumber.toString(sequence)));
+		}
+		return Optional.of(bb.array());
+	}
+
+	private static String entryType(long sequence) {
+		return ENTRY_TYPES[(int) Long.remainderUnsigned(sequence, ENTRY_TYPES.length)];
+	}
+
+	private void writeEntry(ByteBuffer bb, int start, Receiver receiver, long sequence) {
+		final byte[] row = table.row();
+		final int nullOffset = ENTRY_SPECIFIC_DATA + ENTRY_SPECIFIC_HEADER_LENGTH + row.length;
+		final long micros = ChronoUnit.MICROS.between(Instant.EPOCH, receiver.attached)
+				+ (sequence - receiver.first) * 1000;
+
+		bb.putInt(start, 0);
+		bb.putInt(start + 4, nullOffset);
+		bb.putInt(start + 8, ENTRY_SPECIFIC_DATA);
+		bb.putInt(start + 20, HEADER_LENGTH + 1);
+		bb.putLong(start + 24, sequence);
+		bb.putLong(start + 32, (micros - DTS_EPOCH_MICROS) << 12);
+		bb.putLong(start + 48, sequence);
+		bb.put(start + 98, text(1, "R"));
+		bb.put(start + 99, text(2, entryType(sequence)));
+		bb.put(start + 157,
+				text(30, String.format("%-10s%-10s%-10s", table.file(), table.library(), table.file())));
+		bb.put(start + HEADER_LENGTH + 1, text(RECEIVER_LENGTH,
+				String.format("%-10s%-10s", receiver.receiver.name(), receiver.receiver.library())));
+		bb.put(start + ENTRY_SPECIFIC_DATA, text(5, String.format("%05d", row.length)));
+		bb.put(start + ENTRY_SPECIFIC_DATA + ENTRY_SPECIFIC_HEADER_LENGTH, row);
+		bb.put(start + nullOffset, table.nullIndicators());
+	}
+
+	/**
+	 * @return RRCV0100 output for the receiver
+	 */
+	public synchronized byte[] receiverInformation(JournalReceiver receiver) throws InvalidPositionException {
+		final int r = indexOf(receiver);
+		final Receiver details = receivers.get(r);
+		final boolean attached = r == receivers.size() - 1;
+		// CYYMMDDHHMMSS with century 0 for 19xx and 1 for 20xx
+		final int century = details.attached.atZone(ZoneId.systemDefault()).getYear() / 100 - 19;
+		final String attachTime = century + ATTACH_TIME.format(details.attached);
+		final long entries = details.last - details.first + 1;
+
+		final ByteBuffer bb = ByteBuffer.allocate(RRCV0100_LENGTH);
+		bb.putInt(0, RRCV0100_LENGTH);
+		bb.putInt(4, RRCV0100_LENGTH);
+		bb.put(8, text(10, details.receiver.name()));
+		bb.put(18, text(10, details.receiver.library()));
+		bb.put(88, text(1, attached ? "1" : "2"));
+		bb.put(95, text(13, attachTime));
+		bb.put(332, text(10, (details.next == null) ? "" : details.next));
+		bb.put(342, text(10, (details.next == null) ? "" : details.receiver.library()));
+		bb.put(372, text(20, Long.toString(entries)));
+		bb.put(392, text(20, Integer.toString(entryLength())));
+		bb.put(412, text(20, SequenceNumber.toString(details.first)));
+		bb.put(432, text(20, SequenceNumber.toString(details.last)));
+		return bb.array();
+	}
+
+	/**
+	 * @return receiver retrieval answering from this journal, the as400 passed in
+	 *         is ignored
+	 */
+	public JournalInfoRetrieval journalInfoRetrieval() {
+		return new JournalInfoRetrieval() {
+			@Override
+			public JournalPosition getCurrentPosition(AS400 as400, JournalInfo journalLib) throws Exception {
+				return currentPosition();
+			}
+
+			@Override
+			public DetailedJournalReceiver getCurrentDetailedJournalReceiver(AS400 as400, JournalInfo journalLib)
+					throws Exception {
+				return details(currentPosition().getReceiver());
+			}
+
+			@Override
+			public List<DetailedJournalReceiver> getReceivers(AS400 as400, JournalInfo journalLib) throws Exception {
+				final List<DetailedJournalReceiver> l = new ArrayList<>();
+				for (final JournalReceiver receiver : receivers()) {
+					l.add(details(receiver));
+				}
+				return DetailedJournalReceiver.lastJoined(l);
+			}
+		};
+	}
+
+	private DetailedJournalReceiver details(JournalReceiver receiver) throws Exception {
+		return JournalInfoRetrieval.decodeReceiverDetails(receiverInformation(receiver),
+				new JournalReceiverInfo(receiver, null, null, Optional.empty()));
+	}
+
+	private synchronized List<JournalReceiver> receivers() {
+		return receivers.stream().map(x -> x.receiver).toList();
+	}
+
+	private Receiver current() {
+		if (receivers.isEmpty()) {
+			throw new IllegalStateException("no receiver attached to " + journal);
+		}
+		return receivers.get(receivers.size() - 1);
+	}
+
+	private int indexOf(JournalReceiver receiver) throws InvalidPositionException {
+		for (int i = 0; i < receivers.size(); i++) {
+			final JournalReceiver r = receivers.get(i).receiver;
+			if (r.name().equals(receiver.name().trim()) && r.library().equals(receiver.library().trim())) {
+				return i;
+			}
+		}
+		throw new InvalidPositionException(String.format("receiver %s not found in %s", receiver, journal));
+	}
+
+	private static byte[] text(int length, String s) {
+		return new AS400Text(length).toBytes(s);
+	}
+
+	private static class Receiver {
+		private final JournalReceiver receiver;
+		private final long first;
+		private final Instant attached;
+		private long last;
+		private String next;
+
+		Receiver(JournalReceiver receiver, long first, Instant attached) {
+			this.receiver = receiver;
+			this.first = first;
+			this.last = first - 1;
+			this.attached = attached;
+		}
+	}
+}
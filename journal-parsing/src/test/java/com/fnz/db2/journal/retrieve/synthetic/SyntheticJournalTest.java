@@ -0,0 +1,242 @@
+package com.fnz.db2.journal.retrieve.synthetic;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fnz.db2.journal.retrieve.JournalEntriesSource;
+import com.fnz.db2.journal.retrieve.JournalEntryDeocder;
+import com.fnz.db2.journal.retrieve.JournalEntryType;
+import com.fnz.db2.journal.retrieve.JournalInfo;
+import com.fnz.db2.journal.retrieve.JournalInfoRetrieval;
+import com.fnz.db2.journal.retrieve.JournalProcessedPosition;
+import com.fnz.db2.journal.retrieve.PositionRange;
+import com.fnz.db2.journal.retrieve.RetrievalCriteria;
+import com.fnz.db2.journal.retrieve.RetrievalCriteria.JournalCode;
+import com.fnz.db2.journal.retrieve.RetrieveConfig;
+import com.fnz.db2.journal.retrieve.RetrieveConfigBuilder;
+import com.fnz.db2.journal.retrieve.RetrieveJournal;
+import com.fnz.db2.journal.retrieve.RowDecoder;
+import com.fnz.db2.journal.retrieve.rjne0200.EntryHeader;
+import com.fnz.db2.journal.retrieve.rjne0200.OffsetStatus;
+import com.fnz.db2.journal.retrieve.rnrn0200.DetailedJournalReceiver;
+import com.fnz.db2.journal.retrieve.rnrn0200.JournalStatus;
+
+class SyntheticJournalTest {
+	private final JournalInfo journalInfo = new JournalInfo("QSQJRN", "SYNLIB");
+	private final SyntheticTable table = new SyntheticTable("SYNLIB", "ORDERS", 8);
+	private final SyntheticJournal journal = new SyntheticJournal(journalInfo, table);
+
+	@Test
+	void receiverDetailsDecode() throws Exception {
+		journal.attach("RCV1", 1);
+		journal.append(10);
+		journal.attach("RCV2", 1);
+		journal.append(3);
+
+		final List<DetailedJournalReceiver> receivers = journal.journalInfoRetrieval().getReceivers(null, journalInfo);
+		assertEquals(2, receivers.size());
+		final DetailedJournalReceiver first = receivers.get(0);
+		assertEquals("RCV1", first.info().receiver().name());
+		assertEquals(JournalStatus.OnlineSavedDetached, first.info().status());
+		assertEquals(1, first.start());
+		assertEquals(10, first.end());
+		assertEquals("RCV2", first.nextReceiver().get().name());
+		assertEquals(JournalStatus.Attached, receivers.get(1).info().status());
+		assertEquals(3, receivers.get(1).end());
+		assertTrue(first.info().attachTime().before(receivers.get(1).info().attachTime()));
+	}
+
+	@Test
+	void noEntriesIsEmpty() throws Exception {
+		journal.attach("RCV1", 1);
+
+		assertTrue(journal.retrieve(new PositionRange(true, new JournalProcessedPosition(), null), 4096).isEmpty());
+	}
+
+	@Test
+	void readsAcrossReceiversWithContinuation() throws Exception {
+		journal.attach("RCV1", 1);
+		journal.append(10);
+		journal.attach("RCV2", 11);
+		journal.append(15);
+		// sequence numbers reset
+		journal.attach("RCV3", 1);
+		journal.append(7);
+
+		final RetrieveConfig config = new RetrieveConfigBuilder().withAs400(() -> null).withJournalInfo(journalInfo)
+				.withJournalBufferSize(SyntheticJournal.FIRST_ENTRY + 4 * journal.entryLength())
+				.withPrefetchBlocks(0).build();
+		final RetrieveJournal retrieveJournal = new RetrieveJournal(config, journal.journalInfoRetrieval(), journal);
+		final RowDecoder rowDecoder = RowDecoder.compile(table.structure());
+		final JournalEntryDeocder<Object[]> decoder = (entryHeader, data, offset) -> rowDecoder.decode(data,
+				offset + entryHeader.getEntrySpecificDataOffset() + JournalEntryDeocder.ENTRY_SPECIFIC_DATA_OFFSET,
+				offset + entryHeader.getNullValueOffest());
+
+		final List<String> seen = new ArrayList<>();
+		JournalProcessedPosition position = new JournalProcessedPosition();
+		for (int block = 0; block < 100; block++) {
+			retrieveJournal.retrieveJournal(position);
+			if (retrieveJournal.getFirstHeader().status() == OffsetStatus.NOT_CALLED) {
+				break;
+			}
+			while (retrieveJournal.nextEntry()) {
+				final EntryHeader header = retrieveJournal.getEntryHeader();
+				seen.add(header.getReceiver().trim() + ":" + header.getSequenceNumber());
+				final Object[] row = retrieveJournal.decode(decoder);
+				assertEquals(new BigDecimal("1234567.89"), row[0]);
+				assertNull(row[3]);
+			}
+			position = retrieveJournal.getPosition();
+		}
+
+		assertEquals(32, seen.size());
+		assertEquals("RCV1:1", seen.get(0));
+		assertEquals("RCV2:11", seen.get(10));
+		assertEquals("RCV2:25", seen.get(24));
+		assertEquals("RCV3:1", seen.get(25));
+		assertEquals("RCV3:7", seen.get(31));
+	}
+
+	@Test
+	void rolloverDoesNotMoveRequestedPosition() throws Exception {
+		journal.attach("RCV1", 1);
+		journal.append(10);
+
+		final RetrieveConfig config = new RetrieveConfigBuilder().withAs400(() -> null).withJournalInfo(journalInfo)
+				.withPrefetchBlocks(0).build();
+		final RetrieveJournal retrieveJournal = new RetrieveJournal(config, journal.journalInfoRetrieval(), journal);
+		final List<String> seen = new ArrayList<>();
+		final JournalProcessedPosition end = drain(retrieveJournal, new JournalProcessedPosition(), seen);
+		assertEquals(10, end.getOffset());
+		assertTrue(end.processed());
+
+		// sequence numbers reset
+		journal.attach("RCV2", 1);
+		journal.append(3);
+		final JournalProcessedPosition requested = new JournalProcessedPosition(end);
+		retrieveJournal.retrieveJournal(end);
+
+		assertEquals(requested, end);
+		assertTrue(retrieveJournal.nextEntry());
+		assertEquals("RCV2:1", retrieveJournal.getEntryHeader().getReceiver().trim() + ":"
+				+ retrieveJournal.getEntryHeader().getSequenceNumber());
+	}
+
+	@Test
+	void prefetchedBlocksAreUsedAcrossReceivers() throws Exception {
+		journal.attach("RCV1", 1);
+		journal.append(10);
+		journal.attach("RCV2", 11);
+		journal.append(15);
+		// sequence numbers reset
+		journal.attach("RCV3", 1);
+		journal.append(7);
+
+		final AtomicInteger calls = new AtomicInteger();
+		final JournalEntriesSource counting = (range, bufferSize) -> {
+			calls.incrementAndGet();
+			return journal.retrieve(range, bufferSize);
+		};
+		final RetrieveConfig config = new RetrieveConfigBuilder().withAs400(() -> null).withJournalInfo(journalInfo)
+				.withJournalBufferSize(SyntheticJournal.FIRST_ENTRY + 4 * journal.entryLength())
+				.withPrefetchBlocks(2).build();
+		final RetrieveJournal retrieveJournal = new RetrieveJournal(config, journal.journalInfoRetrieval(), counting);
+		final List<String> seen = new ArrayList<>();
+		int blocks = 0;
+		JournalProcessedPosition position = new JournalProcessedPosition();
+		for (; blocks < 100; blocks++) {
+			retrieveJournal.retrieveJournal(position);
+			if (retrieveJournal.getFirstHeader().status() == OffsetStatus.NOT_CALLED) {
+				break;
+			}
+			while (retrieveJournal.nextEntry()) {
+				final EntryHeader header = retrieveJournal.getEntryHeader();
+				seen.add(header.getReceiver().trim() + ":" + header.getSequenceNumber());
+			}
+			position = retrieveJournal.getPosition();
+		}
+		retrieveJournal.close();
+
+		assertEquals(32, seen.size());
+		assertEquals("RCV3:7", seen.get(31));
+		// no block was fetched twice
+		assertEquals(blocks, calls.get());
+	}
+
+	@Test
+	void serverFilteredEntriesStillAdvancePosition() throws Exception {
+		journal.attach("RCV1", 1);
+		// PT is every fourth sequence number
+		journal.append(10);
+		final Set<JournalEntryType> types = EnumSet.of(JournalEntryType.ADD_ROW2, JournalEntryType.START_COMMIT);
+		journal.filterEntryTypes(types);
+
+		final RetrieveConfig config = new RetrieveConfigBuilder().withAs400(() -> null).withJournalInfo(journalInfo)
+				.withEntryTypeFilter(types).withPrefetchBlocks(0).build();
+		assertArrayEquals(new JournalCode[] { JournalCode.R, JournalCode.C }, config.filterCodes());
+		assertArrayEquals(new RetrievalCriteria.JournalEntryType[] { RetrievalCriteria.JournalEntryType.PT,
+				RetrievalCriteria.JournalEntryType.SC }, config.filterEntryTypes());
+
+		final RetrieveJournal retrieveJournal = new RetrieveJournal(config, journal.journalInfoRetrieval(), journal);
+		final List<String> seen = new ArrayList<>();
+		JournalProcessedPosition position = drain(retrieveJournal, new JournalProcessedPosition(), seen);
+		assertEquals(List.of("RCV1:4", "RCV1:8"), seen);
+		assertEquals(10, position.getOffset());
+
+		// nothing matches, the call fails with CPF7062 but the position still moves
+		journal.append(1);
+		retrieveJournal.retrieveJournal(position);
+		assertEquals(OffsetStatus.NO_DATA, retrieveJournal.getFirstHeader().status());
+		assertFalse(retrieveJournal.nextEntry());
+		position = retrieveJournal.getPosition();
+		assertEquals(11, position.getOffset());
+		assertTrue(position.processed());
+
+		journal.append(1);
+		seen.clear();
+		position = drain(retrieveJournal, position, seen);
+		assertEquals(List.of("RCV1:12"), seen);
+		assertEquals(12, position.getOffset());
+	}
+
+	private static JournalProcessedPosition drain(RetrieveJournal retrieveJournal, JournalProcessedPosition start,
+			List<String> seen) throws Exception {
+		JournalProcessedPosition position = start;
+		for (int block = 0; block < 100; block++) {
+			retrieveJournal.retrieveJournal(position);
+			if (retrieveJournal.getFirstHeader().status() == OffsetStatus.NOT_CALLED) {
+				break;
+			}
+			while (retrieveJournal.nextEntry()) {
+				final EntryHeader header = retrieveJournal.getEntryHeader();
+				seen.add(header.getReceiver().trim() + ":" + header.getSequenceNumber());
+			}
+			position = retrieveJournal.getPosition();
+		}
+		return position;
+	}
+
+	@Test
+	void oversizedEntryHasNoOffset() throws Exception {
+		journal.attach("RCV1", 1);
+		journal.append(2);
+
+		final Optional<byte[]> data = journal.retrieve(new PositionRange(true, new JournalProcessedPosition(), null),
+				SyntheticJournal.FIRST_ENTRY + 10);
+		assertTrue(data.isPresent());
+		assertEquals(0, JournalInfoRetrieval.decodeInt(data.get(), 4));
+	}
+}
@@ -0,0 +1,115 @@
+package com.fnz.db2.journal.retrieve.synthetic;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fnz.db2.journal.data.types.AS400Char;
+import com.fnz.db2.journal.data.types.AS400Packed;
+import com.fnz.db2.journal.data.types.AS400VarChar;
+import com.fnz.db2.journal.data.types.AS400Zoned;
+import com.fnz.db2.journal.retrieve.SchemaCacheIF.Structure;
+import com.fnz.db2.journal.retrieve.SchemaCacheIF.TableInfo;
+import com.ibm.as400.access.AS400Bin4;
+import com.ibm.as400.access.AS400Bin8;
+import com.ibm.as400.access.AS400DataType;
+import com.ibm.as400.access.AS400Structure;
+import com.ibm.as400.access.AS400Text;
+
+/**
+ * a journalled table whose columns cycle through the common types, every
+ * fourth column is flagged null in the entries
+ */
+public class SyntheticTable {
+	private final String library;
+	private final String file;
+	private final AS400DataType[] types;
+	private final List<Structure> structure = new ArrayList<>();
+	private final byte[] row;
+	private final byte[] nullIndicators;
+
+	public SyntheticTable(String library, String file, int columns) {
+		this.library = library;
+		this.file = file;
+		types = new AS400DataType[columns];
+		final ByteBuffer bb = ByteBuffer.allocate(columns * 64);
+		for (int i = 0; i < columns; i++) {
+			final String name = "COL" + i;
+			switch (i % 6) {
+			case 0 -> {
+				types[i] = new AS400Packed(15, 2);
+				bb.put(types[i].toBytes(new BigDecimal("1234567.89").add(BigDecimal.valueOf(i))));
+				structure.add(new Structure(name, "DECIMAL", 3, 15, 2, true, i + 1, false));
+			}
+			case 1 -> {
+				types[i] = new AS400Char(20, 37);
+				bb.put(types[i].toBytes("CHARACTER " + i));
+				structure.add(new Structure(name, "CHAR", 1, 20, 0, true, i + 1, false));
+			}
+			case 2 -> {
+				types[i] = new AS400VarChar(50, 1, 37);
+				final String value = "variable length text " + i;
+				bb.putShort((short) value.length());
+				bb.put(new AS400Text(50, 37).toBytes(value));
+				structure.add(new Structure(name, "VARCHAR", 12, 50, 0, true, i + 1, false));
+			}
+			case 3 -> {
+				types[i] = new AS400Bin4();
+				bb.put(types[i].toBytes(Integer.valueOf(i * 1000)));
+				structure.add(new Structure(name, "INTEGER", 4, 4, 0, true, i + 1, false));
+			}
+			case 4 -> {
+				types[i] = new AS400Bin8();
+				bb.put(types[i].toBytes(Long.valueOf(i * 1000000L)));
+				structure.add(new Structure(name, "BIGINT", -5, 8, 0, true, i + 1, false));
+			}
+			default -> {
+				types[i] = new AS400Zoned(9, 0);
+				bb.put(types[i].toBytes(new BigDecimal(i)));
+				structure.add(new Structure(name, "NUMERIC", 2, 9, 0, true, i + 1, false));
+			}
+			}
+		}
+		row = new byte[bb.position()];
+		bb.get(0, row);
+
+		// 4 byte count then one indicator per column
+		nullIndicators = new byte[4 + columns];
+		ByteBuffer.wrap(nullIndicators).putInt(columns);
+		for (int i = 0; i < columns; i++) {
+			nullIndicators[4 + i] = (byte) ((i % 4 == 3) ? 0xF1 : 0xF0);
+		}
+	}
+
+	public String library() {
+		return library;
+	}
+
+	public String file() {
+		return file;
+	}
+
+	public int columns() {
+		return types.length;
+	}
+
+	public AS400Structure structure() {
+		return new AS400Structure(types);
+	}
+
+	public TableInfo tableInfo() {
+		return new TableInfo(structure, List.of("COL0"), structure());
+	}
+
+	/**
+	 * @return the row image, the same for every entry
+	 */
+	public byte[] row() {
+		return row;
+	}
+
+	public byte[] nullIndicators() {
+		return nullIndicators;
+	}
+}